@@ -0,0 +1,129 @@
+package benchmarks;
+
+import model.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Database on the embedded backend seeded with a fixed, repeatable data set
+ * for the DAO benchmarks. Benchmarks select it with -Dcinema.db.* arguments in
+ * their @Fork, kept in memory so disk speed does not blur the numbers, and
+ * the real DAO code runs unchanged.
+ */
+final class BenchmarkDatabase {
+
+    static final int ROWS = 26;
+    static final int COLS = 40;
+    static final int PAIRS_PER_SHOW = ROWS * COLS / 2; // Every seeded booking takes two adjacent seats
+
+    private static final int BATCH_SIZE = 5_000;
+
+    /** IDs of the seeded shows: full shows first, then empty ones reserved for write benchmarks. */
+    static final class Seed {
+        final int fullShows;
+        final int firstEmptyShowId;
+        final int emptyShows;
+
+        Seed(int fullShows, int firstEmptyShowId, int emptyShows) {
+            this.fullShows = fullShows;
+            this.firstEmptyShowId = firstEmptyShowId;
+            this.emptyShows = emptyShows;
+        }
+    }
+
+    private BenchmarkDatabase() {}
+
+    /**
+     * Creates the schema and inserts {@code bookings} two-seat bookings packed
+     * into as few shows as possible, followed by {@code emptyShows} shows
+     * without bookings. IDs start at 1 in a fresh in-memory database.
+     */
+    static Seed seed(int bookings, int emptyShows) throws SQLException {
+        DatabaseConnection.initialize();
+        int fullShows = (bookings + PAIRS_PER_SHOW - 1) / PAIRS_PER_SHOW;
+        long base = Timestamp.valueOf("2024-01-01 10:00:00").getTime();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO Movies (title, genre, duration, poster_path) VALUES (?, ?, ?, ?)")) {
+                for (int m = 1; m <= 20; m++) {
+                    stmt.setString(1, "Movie " + m);
+                    stmt.setString(2, "Drama");
+                    stmt.setInt(3, 120);
+                    stmt.setString(4, "images/dune.jpg");
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO Shows (movie_id, screen_id, show_time, price) VALUES (?, ?, ?, ?)")) {
+                for (int s = 0; s < fullShows + emptyShows; s++) {
+                    stmt.setInt(1, s % 20 + 1);
+                    stmt.setInt(2, s % 12 + 1);
+                    stmt.setTimestamp(3, new Timestamp(base + s * 3L * 3600_000));
+                    stmt.setDouble(4, 250.0);
+                    stmt.addBatch();
+                    if ((s + 1) % BATCH_SIZE == 0) stmt.executeBatch();
+                }
+                stmt.executeBatch();
+            }
+            conn.commit();
+
+            try (PreparedStatement header = conn.prepareStatement(
+                     "INSERT INTO Bookings (show_id, customer_name, customer_phone, selected_seats, total_amount, booking_time) VALUES (?, ?, ?, ?, ?, ?)");
+                 PreparedStatement seats = conn.prepareStatement(
+                     "INSERT INTO BookingSeats (booking_id, show_id, seat_code) VALUES (?, ?, ?)")) {
+                for (int b = 0; b < bookings; b++) {
+                    int showId = b / PAIRS_PER_SHOW + 1;
+                    int pair = b % PAIRS_PER_SHOW;
+                    String first = seatName(pair * 2);
+                    String second = seatName(pair * 2 + 1);
+
+                    header.setInt(1, showId);
+                    header.setString(2, "Customer " + b);
+                    header.setString(3, String.format("9%09d", b));
+                    header.setString(4, first + "," + second);
+                    header.setDouble(5, 500.0);
+                    header.setTimestamp(6, new Timestamp(base + b * 30_000L));
+                    header.addBatch();
+
+                    for (String seat : new String[]{first, second}) {
+                        seats.setInt(1, b + 1); // Booking IDs are assigned in insert order
+                        seats.setInt(2, showId);
+                        seats.setString(3, seat);
+                        seats.addBatch();
+                    }
+
+                    if ((b + 1) % BATCH_SIZE == 0) {
+                        header.executeBatch();
+                        seats.executeBatch();
+                        conn.commit();
+                    }
+                }
+                header.executeBatch();
+                seats.executeBatch();
+                conn.commit();
+            }
+        }
+        return new Seed(fullShows, fullShows + 1, emptyShows);
+    }
+
+    /** Removes every booking on the empty shows so write benchmarks can start over. */
+    static void clearEmptyShows(Seed seed) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM Bookings WHERE show_id >= ?")) {
+            stmt.setInt(1, seed.firstEmptyShowId);
+            stmt.executeUpdate();
+        }
+    }
+
+    static String seatName(int index) {
+        return "" + (char) ('A' + index / COLS) + (index % COLS + 1);
+    }
+}
@@ -0,0 +1,102 @@
+package benchmarks;
+
+import model.Booking;
+import model.BookingDAO;
+import model.BookingDAOImpl;
+import model.BookingQuery;
+import model.Page;
+import model.SeatConflictException;
+import model.SeatInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DAO round-trips against the embedded database with 10k and 1M seeded
+ * bookings. Seeding 1M bookings takes a while and needs a few GB of heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+    "-Xmx4g",
+    "-Dcinema.db.backend=embedded",
+    "-Dcinema.db.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1"
+})
+public class BookingDaoBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int bookings;
+
+    private BookingDAO bookingDAO;
+    private BenchmarkDatabase.Seed seed;
+    private int hotShowId;
+    private int nextWrite;
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        seed = BenchmarkDatabase.seed(bookings, 200);
+        bookingDAO = new BookingDAOImpl();
+        hotShowId = seed.fullShows / 2 + 1;
+    }
+
+    @Setup(Level.Iteration)
+    public void resetWrites() throws SQLException {
+        BenchmarkDatabase.clearEmptyShows(seed);
+        for (int i = 0; i < seed.emptyShows; i++) {
+            SeatInventory.getInstance().evict(seed.firstEmptyShowId + i);
+        }
+        nextWrite = 0;
+    }
+
+    /** First look at a show: the inventory is empty, so BookingSeats is queried. */
+    @Benchmark
+    public Set<String> bookedSeatsColdLoad() throws SQLException {
+        SeatInventory.getInstance().evict(hotShowId);
+        return bookingDAO.getBookedSeats(hotShowId);
+    }
+
+    /** Every later look at the same show is served from memory. */
+    @Benchmark
+    public Set<String> bookedSeatsWarm() throws SQLException {
+        return bookingDAO.getBookedSeats(hotShowId);
+    }
+
+    @Benchmark
+    public Page<Booking> bookingsFirstPage() throws SQLException {
+        return bookingDAO.getBookingsPage(new BookingQuery(), null, 100);
+    }
+
+    @Benchmark
+    public Page<Booking> bookingsFilteredByPhone() throws SQLException {
+        return bookingDAO.getBookingsPage(new BookingQuery().customerPhone("900000"), null, 100);
+    }
+
+    @Benchmark
+    public boolean createBooking() throws SQLException {
+        int slot = nextWrite++ % (seed.emptyShows * BenchmarkDatabase.PAIRS_PER_SHOW);
+        int showId = seed.firstEmptyShowId + slot / BenchmarkDatabase.PAIRS_PER_SHOW;
+        int pair = slot % BenchmarkDatabase.PAIRS_PER_SHOW;
+        String seats = BenchmarkDatabase.seatName(pair * 2) + "," + BenchmarkDatabase.seatName(pair * 2 + 1);
+        try {
+            return bookingDAO.createBooking(new Booking(showId, "Bench", "5550100", seats, 500.0));
+        } catch (SeatConflictException e) {
+            return false; // Wrapped around within one iteration
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package benchmarks;
+
+import model.Booking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import view.ColumnarTableModel;
+
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filling the admin bookings table and reading one screenful of cells, with
+ * the old DefaultTableModel rows (formatted up front) next to the columnar
+ * model that formats only the cells being read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BookingTableBenchmark {
+
+    private static final String[] COLUMNS = {"Booking ID", "Customer Name", "Phone", "Movie", "Showtime", "Seats", "Total", "Booked At"};
+    private static final int VISIBLE_ROWS = 30;
+
+    @Param({"100", "10000"})
+    public int rows;
+
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] titles = {"Dune", "Oppenheimer", "Barbie", "Inception", "Interstellar"};
+        bookings = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Timestamp showTime = new Timestamp(1_700_000_000_000L + random.nextInt(1000) * 3_600_000L);
+            bookings.add(new Booking(i + 1, random.nextInt(200), "Customer " + random.nextInt(rows),
+                    "98" + (10_000_000 + random.nextInt(90_000_000)), "A" + (1 + random.nextInt(10)),
+                    250.0 * (1 + random.nextInt(4)), showTime, titles[random.nextInt(titles.length)], showTime));
+        }
+    }
+
+    @Benchmark
+    public Object defaultTableModel() {
+        DefaultTableModel model = new DefaultTableModel(COLUMNS, 0);
+        for (Booking booking : bookings) {
+            model.addRow(new Object[]{
+                booking.getBookingId(),
+                booking.getCustomerName(),
+                booking.getCustomerPhone(),
+                booking.getMovieTitle(),
+                new SimpleDateFormat("yyyy-MM-dd hh:mm a").format(booking.getShowTime()),
+                booking.getSelectedSeats(),
+                String.format("%.2f", booking.getTotalAmount()),
+                new SimpleDateFormat("yyyy-MM-dd hh:mm a").format(booking.getBookingTime())
+            });
+        }
+        return readScreenful(model);
+    }
+
+    @Benchmark
+    public Object columnarTableModel() {
+        ColumnarTableModel<Booking> model = new ColumnarTableModel<Booking>()
+                .intColumn("Booking ID", Booking::getBookingId)
+                .textColumn("Customer Name", Booking::getCustomerName)
+                .textColumn("Phone", Booking::getCustomerPhone)
+                .textColumn("Movie", Booking::getMovieTitle)
+                .timeColumn("Showtime", Booking::getShowTime)
+                .textColumn("Seats", Booking::getSelectedSeats)
+                .moneyColumn("Total", Booking::getTotalAmount)
+                .timeColumn("Booked At", Booking::getBookingTime)
+                .hiddenIntColumn("Show ID", Booking::getShowId);
+        model.addRows(bookings);
+        return readScreenful(model);
+    }
+
+    private static Object readScreenful(TableModel model) {
+        Object last = null;
+        for (int row = 0; row < Math.min(VISIBLE_ROWS, model.getRowCount()); row++) {
+            for (int col = 0; col < model.getColumnCount(); col++) {
+                last = model.getValueAt(row, col);
+            }
+        }
+        return last;
+    }
+}
@@ -0,0 +1,137 @@
+package benchmarks;
+
+import model.Booking;
+import model.BookingDAO;
+import model.BookingDAOImpl;
+import model.SeatConflictException;
+import model.SeatInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Many kiosks booking the same show while others keep reading its seat map.
+ * Each JMH thread group is one "premiere rush": writers and readers share
+ * a show and JMH reports their throughput separately.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+    "-Dcinema.db.backend=embedded",
+    "-Dcinema.db.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1"
+})
+public class ConcurrentBookingBenchmark {
+
+    private static final AtomicInteger NEXT_SHOW = new AtomicInteger(1_000_000);
+
+    /** One in-memory show per thread group. */
+    @State(Scope.Group)
+    public static class InventoryShow {
+        @Param({"60", "480", "1000"})
+        public int seats;
+
+        final int showId = NEXT_SHOW.incrementAndGet();
+        final SeatInventory.Loader loader = id -> Collections.emptyList();
+        List<String> seatNames;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            seatNames = SeatMaps.allSeats(seats);
+            SeatInventory.getInstance().evict(showId);
+        }
+    }
+
+    /** Reserve two adjacent seats and release them again, so the show never fills up. */
+    @Benchmark
+    @Group("inventory")
+    @GroupThreads(3)
+    public boolean inventoryReserve(InventoryShow show) throws SQLException {
+        int i = ThreadLocalRandom.current().nextInt(show.seatNames.size() - 1);
+        List<String> pair = Arrays.asList(show.seatNames.get(i), show.seatNames.get(i + 1));
+        SeatInventory inventory = SeatInventory.getInstance();
+        boolean reserved = inventory.reserve(show.showId, pair, show.loader).isEmpty();
+        if (reserved) {
+            inventory.release(show.showId, pair);
+        }
+        return reserved;
+    }
+
+    @Benchmark
+    @Group("inventory")
+    @GroupThreads(1)
+    public Set<String> inventoryReadSeatMap(InventoryShow show) throws SQLException {
+        return SeatInventory.getInstance().getBookedSeats(show.showId, show.loader);
+    }
+
+    /** A seeded embedded database shared by all DAO groups. */
+    @State(Scope.Benchmark)
+    public static class Database {
+        BookingDAO bookingDAO;
+        BenchmarkDatabase.Seed seed;
+        final AtomicInteger nextWrite = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void seed() throws SQLException {
+            seed = BenchmarkDatabase.seed(10_000, 500);
+            bookingDAO = new BookingDAOImpl();
+        }
+
+        @Setup(Level.Iteration)
+        public void resetWrites() throws SQLException {
+            BenchmarkDatabase.clearEmptyShows(seed);
+            for (int i = 0; i < seed.emptyShows; i++) {
+                SeatInventory.getInstance().evict(seed.firstEmptyShowId + i);
+            }
+            nextWrite.set(0);
+        }
+    }
+
+    /**
+     * Books the next free pair; writers race on the same shows in order, so
+     * this measures the full createBooking path including the transaction.
+     */
+    @Benchmark
+    @Group("dao")
+    @GroupThreads(3)
+    public boolean daoCreateBooking(Database db) throws SQLException {
+        int slot = db.nextWrite.getAndIncrement() % (db.seed.emptyShows * BenchmarkDatabase.PAIRS_PER_SHOW);
+        int showId = db.seed.firstEmptyShowId + slot / BenchmarkDatabase.PAIRS_PER_SHOW;
+        int pair = slot % BenchmarkDatabase.PAIRS_PER_SHOW;
+        String seats = BenchmarkDatabase.seatName(pair * 2) + "," + BenchmarkDatabase.seatName(pair * 2 + 1);
+        try {
+            return db.bookingDAO.createBooking(new Booking(showId, "Bench", "5550100", seats, 500.0));
+        } catch (SeatConflictException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("dao")
+    @GroupThreads(1)
+    public Set<String> daoReadSeatMap(Database db) throws SQLException {
+        int slot = Math.max(0, db.nextWrite.get() - 1) % (db.seed.emptyShows * BenchmarkDatabase.PAIRS_PER_SHOW);
+        return db.bookingDAO.getBookedSeats(db.seed.firstEmptyShowId + slot / BenchmarkDatabase.PAIRS_PER_SHOW);
+    }
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import model.Booking;
+import model.Show;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row date formatting in the admin tables and the showtime dropdown.
+ * Booking.getFormattedShowTime and Show.toString are measured as they are,
+ * next to a shared DateTimeFormatter as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateFormatBenchmark {
+
+    private static final DateTimeFormatter SHARED_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm a").withZone(ZoneId.systemDefault());
+
+    private Booking booking;
+    private Show show;
+    private Timestamp time;
+
+    @Setup
+    public void setUp() {
+        time = Timestamp.valueOf("2024-05-17 19:30:00");
+        booking = new Booking(1, 1, "Customer", "5550100", "A1, A2", 500.0, time, "Dune", time);
+        show = new Show(1, 1, 1, time, 250.0);
+    }
+
+    @Benchmark
+    public String bookingFormattedShowTime() {
+        return booking.getFormattedShowTime();
+    }
+
+    @Benchmark
+    public String showToString() {
+        return show.toString();
+    }
+
+    @Benchmark
+    public String sharedDateTimeFormatter() {
+        return SHARED_FORMATTER.format(time.toInstant());
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.JToggleButton;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The scan MainController.updateLiveTotal runs over every seat button on
+ * each click, for the seat-map sizes we want to support.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class LiveTotalBenchmark {
+
+    @Param({"60", "480", "1000"})
+    public int seats;
+
+    private Map<String, JToggleButton> seatButtons;
+    private double price = 250.0;
+
+    @Setup
+    public void setUp() {
+        seatButtons = new HashMap<>();
+        Random random = new Random(42);
+        for (String name : SeatMaps.allSeats(seats)) {
+            JToggleButton button = new JToggleButton(name);
+            button.setEnabled(random.nextInt(4) != 0); // ~25% booked
+            button.setSelected(button.isEnabled() && random.nextInt(20) == 0);
+            seatButtons.put(name, button);
+        }
+    }
+
+    @Benchmark
+    public double scanSeatButtons() {
+        int selectedSeatCount = 0;
+        for (JToggleButton button : seatButtons.values()) {
+            if (button.isEnabled() && button.isSelected()) {
+                selectedSeatCount++;
+            }
+        }
+        return selectedSeatCount * price;
+    }
+}
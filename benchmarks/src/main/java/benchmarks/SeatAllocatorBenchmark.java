@@ -0,0 +1,82 @@
+package benchmarks;
+
+import model.SeatAllocation;
+import model.SeatAllocator;
+import model.SeatLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Best-available allocation for a party on a show that is filling up, with
+ * several kiosks asking at once. The seat maps get two aisles, so blocks
+ * cannot run across them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class SeatAllocatorBenchmark {
+
+    @Param({"60", "480", "1000"})
+    public int seats;
+
+    /** Share of seats already booked. */
+    @Param({"50", "90"})
+    public int fullPercent;
+
+    @Param({"2", "6"})
+    public int partySize;
+
+    private SeatLayout layout;
+    private Set<String> booked;
+
+    @Setup
+    public void setUp() {
+        int[] shape = SeatMaps.shape(seats);
+        int third = shape[1] / 3;
+        StringBuilder text = new StringBuilder();
+        for (int r = 0; r < shape[0]; r++) {
+            for (int c = 0; c < shape[1]; c++) {
+                if (c == third || c == shape[1] - third) {
+                    text.append('.');
+                }
+                text.append('#');
+            }
+            text.append('\n');
+        }
+        layout = SeatLayout.parse(1, "Benchmark", text.toString());
+
+        booked = new HashSet<>();
+        Random random = new Random(42);
+        List<String> all = SeatMaps.allSeats(seats);
+        for (String seat : all) {
+            if (random.nextInt(100) < fullPercent) {
+                booked.add(seat);
+            }
+        }
+    }
+
+    @Benchmark
+    public SeatAllocation bestAvailable() {
+        return SeatAllocator.allocate(layout, booked, partySize, true);
+    }
+}
@@ -0,0 +1,47 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seat-map shapes shared by the benchmarks. Seat names follow MainView:
+ * row letter plus 1-based column, e.g. "C7".
+ */
+final class SeatMaps {
+
+    private SeatMaps() {}
+
+    /** Rows and columns for a total seat count: 60 = today's 6x10 screen, 480 = IMAX, 1000 = large hall. */
+    static int[] shape(int seats) {
+        switch (seats) {
+            case 60: return new int[]{6, 10};
+            case 480: return new int[]{16, 30};
+            case 1000: return new int[]{25, 40};
+            default: throw new IllegalArgumentException("Unsupported seat map size: " + seats);
+        }
+    }
+
+    static List<String> allSeats(int seats) {
+        int[] shape = shape(seats);
+        List<String> names = new ArrayList<>(seats);
+        for (int r = 0; r < shape[0]; r++) {
+            for (int c = 1; c <= shape[1]; c++) {
+                names.add("" + (char) ('A' + r) + c);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Comma-separated seat lists of pairwise bookings covering every other
+     * pair of seats, i.e. a half-full show, as stored in Bookings.selected_seats.
+     */
+    static List<String> halfFullBookings(int seats) {
+        List<String> names = allSeats(seats);
+        List<String> bookings = new ArrayList<>();
+        for (int i = 0; i + 1 < names.size(); i += 4) {
+            bookings.add(names.get(i) + ", " + names.get(i + 1));
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import model.SeatInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booked-seat lookup for one show: the original split/trim of every
+ * Bookings.selected_seats string against the SeatInventory bitmap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatParsingBenchmark {
+
+    private static final int SHOW_ID = 1;
+
+    @Param({"60", "480", "1000"})
+    public int seats;
+
+    private List<String> selectedSeatsColumn;
+    private List<String> allSeats;
+    private SeatInventory inventory;
+    private SeatInventory.Loader loader;
+
+    @Setup
+    public void setUp() throws SQLException {
+        selectedSeatsColumn = SeatMaps.halfFullBookings(seats);
+        allSeats = SeatMaps.allSeats(seats);
+        inventory = SeatInventory.getInstance();
+        inventory.evict(SHOW_ID);
+        loader = showId -> SeatInventory.parseSeats(String.join(",", selectedSeatsColumn));
+        inventory.getBookedSeats(SHOW_ID, loader); // Load once, like the first request for a show
+    }
+
+    /** The loop BookingDAOImpl.getBookedSeats ran over the result set before the inventory existed. */
+    @Benchmark
+    public Set<String> legacyCsvSplitTrim() {
+        Set<String> bookedSeats = new HashSet<>();
+        for (String row : selectedSeatsColumn) {
+            String[] parts = row.split(",");
+            for (String seat : parts) {
+                bookedSeats.add(seat.trim());
+            }
+        }
+        return bookedSeats;
+    }
+
+    @Benchmark
+    public Set<String> inventoryBookedSeats() throws SQLException {
+        return inventory.getBookedSeats(SHOW_ID, loader);
+    }
+
+    /** What a seat map actually needs: one booked/free answer per seat button. */
+    @Benchmark
+    public void inventoryIsBookedPerSeat(Blackhole bh) throws SQLException {
+        for (String seat : allSeats) {
+            bh.consume(inventory.isBooked(SHOW_ID, seat, loader));
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package loadtest;
+
+import model.Booking;
+import model.BookingDAO;
+import model.DAOFactory;
+import model.DatabaseConnection;
+import model.LatencyHistogram;
+import model.Movie;
+import model.MovieDAO;
+import model.SeatConflictException;
+import model.SeatInventory;
+import model.Show;
+import model.ShowDAO;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rehearses a blockbuster opening: seeds fresh shows through ShowDAO, then
+ * lets a crowd of clients hit BookingDAO.createBooking at the same moment.
+ * Each client reads the seat map, picks a center-biased block of 1-8 seats
+ * and tries to book it, so conflicts come from genuine races on a stale map.
+ *
+ * Every client draws from its own Random seeded from --seed, so the same
+ * arguments produce the same stream of choices on every run; only the
+ * interleaving between clients varies.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar loadtest.FlashSale \
+ *      --clients=200 --attempts=5000 --shows=1 --rows=12 --cols=20 --seed=42
+ * </pre>
+ *
+ * The database comes from the usual -Dcinema.db.* properties (local MySQL by
+ * default; -Dcinema.db.backend=embedded gives the baseline to compare a
+ * server against). Seeded data is deleted afterwards unless --keep is given.
+ */
+public class FlashSale {
+
+    private static final double TICKET_PRICE = 250.0;
+
+    private final int clients;
+    private final int attempts;
+    private final int shows;
+    private final int rows;
+    private final int cols;
+    private final long seed;
+    private final boolean keep;
+
+    private final MovieDAO movieDAO = DAOFactory.getMovieDAO();
+    private final ShowDAO showDAO = DAOFactory.getShowDAO();
+    private final BookingDAO bookingDAO = DAOFactory.getBookingDAO();
+
+    private final LatencyHistogram bookLatency = new LatencyHistogram();
+    private final LatencyHistogram mapLatency = new LatencyHistogram();
+    private final AtomicLong booked = new AtomicLong();
+    private final AtomicLong seatsSold = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong soldOut = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    FlashSale(Map<String, String> args) {
+        this.clients = intArg(args, "clients", 200);
+        this.attempts = intArg(args, "attempts", 5000);
+        this.shows = intArg(args, "shows", 1);
+        this.rows = intArg(args, "rows", 12);
+        this.cols = intArg(args, "cols", 20);
+        this.seed = Long.parseLong(args.getOrDefault("seed", "42"));
+        this.keep = args.containsKey("keep");
+        if (rows > SeatInventory.MAX_ROWS || cols > SeatInventory.MAX_COLS) {
+            throw new IllegalArgumentException("Hall is limited to " + SeatInventory.MAX_ROWS + " rows and "
+                    + SeatInventory.MAX_COLS + " columns");
+        }
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Map<String, String> args = new HashMap<>();
+        for (String arg : argv) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            args.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "" : arg.substring(eq + 1));
+        }
+        try {
+            new FlashSale(args).run();
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+    }
+
+    void run() throws Exception {
+        System.out.printf("Flash sale: %d clients, %d attempts, %d show(s) of %dx%d seats, seed %d%n",
+                clients, attempts, shows, rows, cols, seed);
+
+        int movieId = seedMovie();
+        List<Integer> showIds = seedShows(movieId);
+        try {
+            long elapsedNanos = runCrowd(showIds);
+            int doubleBooked = countDoubleBookedSeats(showIds);
+            report(elapsedNanos, doubleBooked);
+        } finally {
+            if (!keep) {
+                movieDAO.deleteMovie(movieId); // Cascades to the shows and their bookings
+            }
+        }
+    }
+
+    // --- SEEDING (through the DAOs, like the admin dashboard) ---
+
+    private int seedMovie() throws SQLException {
+        String title = "Flash Sale " + System.currentTimeMillis();
+        movieDAO.addMovie(new Movie(title, "Load test", 120, null));
+        for (Movie movie : movieDAO.getAllMovies()) {
+            if (movie.getTitle().equals(title)) {
+                return movie.getMovieId();
+            }
+        }
+        throw new SQLException("Seeded movie not found: " + title);
+    }
+
+    private List<Integer> seedShows(int movieId) throws SQLException {
+        long start = System.currentTimeMillis() + 24 * 3600_000L;
+        for (int i = 0; i < shows; i++) {
+            showDAO.addShow(new Show(movieId, i + 1, new Timestamp(start + i * 3 * 3600_000L), TICKET_PRICE));
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (Show show : showDAO.getShowsByMovieId(movieId)) {
+            ids.add(show.getShowId());
+        }
+        return ids;
+    }
+
+    // --- LOAD ---
+
+    private long runCrowd(List<Integer> showIds) throws InterruptedException {
+        SeatChooser chooser = new SeatChooser(rows, cols);
+        CountDownLatch ready = new CountDownLatch(clients);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(clients);
+
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            // Spread the attempts as evenly as possible; the first clients take the remainder
+            int share = attempts / clients + (client < attempts % clients ? 1 : 0);
+            Thread thread = new Thread(() -> {
+                Random random = new Random(seed * 1_000_003L + client);
+                ready.countDown();
+                try {
+                    go.await();
+                    for (int i = 0; i < share; i++) {
+                        attempt(random, chooser, showIds.get(random.nextInt(showIds.size())), client);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "flash-sale-client-" + client);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown(); // Doors open
+        done.await();
+        return System.nanoTime() - start;
+    }
+
+    private void attempt(Random random, SeatChooser chooser, int showId, int client) {
+        int size = chooser.groupSize(random);
+        try {
+            long mapStart = System.nanoTime();
+            Set<String> taken = bookingDAO.getBookedSeats(showId);
+            mapLatency.record(System.nanoTime() - mapStart);
+
+            List<String> seats = chooser.choose(random, taken, size);
+            if (seats.isEmpty()) {
+                soldOut.incrementAndGet();
+                return;
+            }
+
+            Booking booking = new Booking(showId, "Client " + client, "9000000000",
+                    String.join(",", seats), seats.size() * TICKET_PRICE);
+            long start = System.nanoTime();
+            try {
+                bookingDAO.createBooking(booking);
+                booked.incrementAndGet();
+                seatsSold.addAndGet(seats.size());
+            } finally {
+                bookLatency.record(System.nanoTime() - start);
+            }
+        } catch (SeatConflictException e) {
+            conflicts.incrementAndGet();
+        } catch (SQLException e) {
+            if (errors.incrementAndGet() <= 5) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // --- VERIFICATION ---
+
+    /**
+     * Counts seats that appear in more than one booking of the seeded shows,
+     * reading the bookings' own seat lists rather than BookingSeats, so the
+     * check does not rely on the constraint it is meant to verify.
+     */
+    private int countDoubleBookedSeats(List<Integer> showIds) throws SQLException {
+        int doubleBooked = 0;
+        String sql = "SELECT selected_seats FROM Bookings WHERE show_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int showId : showIds) {
+                Set<String> seen = new HashSet<>();
+                stmt.setInt(1, showId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        for (String seat : SeatInventory.parseSeats(rs.getString("selected_seats"))) {
+                            if (!seen.add(seat)) {
+                                doubleBooked++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return doubleBooked;
+    }
+
+    // --- REPORT ---
+
+    private void report(long elapsedNanos, int doubleBooked) {
+        double seconds = elapsedNanos / 1e9;
+        long tried = booked.get() + conflicts.get() + errors.get();
+        LatencyHistogram.Snapshot book = bookLatency.snapshot();
+        LatencyHistogram.Snapshot map = mapLatency.snapshot();
+        long capacity = (long) shows * rows * cols;
+
+        System.out.printf("Elapsed:          %.2f s%n", seconds);
+        System.out.printf("Bookings:         %d (%.1f/s), %d of %d seats sold%n",
+                booked.get(), booked.get() / seconds, seatsSold.get(), capacity);
+        System.out.printf("Booking attempts: %d (%.1f/s), %d sold-out before trying%n",
+                tried, tried / seconds, soldOut.get());
+        System.out.printf("Conflicts:        %d (%.1f%% of attempts)%n",
+                conflicts.get(), tried == 0 ? 0.0 : 100.0 * conflicts.get() / tried);
+        System.out.printf("Errors:           %d%n", errors.get());
+        System.out.printf("Double-booked:    %d seats%n", doubleBooked);
+        System.out.printf("createBooking:    p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms%n",
+                ms(book.getPercentileNanos(50)), ms(book.getPercentileNanos(95)),
+                ms(book.getPercentileNanos(99)), ms(book.getMaxNanos()));
+        System.out.printf("getBookedSeats:   p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms%n",
+                ms(map.getPercentileNanos(50)), ms(map.getPercentileNanos(95)),
+                ms(map.getPercentileNanos(99)), ms(map.getMaxNanos()));
+
+        // One machine-readable line, so runs can be compared with grep/diff
+        System.out.printf("RESULT seed=%d clients=%d attempts=%d shows=%d seats=%d bookings=%d bookingsPerSec=%.1f"
+                        + " conflictRate=%.4f errors=%d doubleBooked=%d p50Ms=%.3f p95Ms=%.3f p99Ms=%.3f maxMs=%.3f%n",
+                seed, clients, attempts, shows, capacity, booked.get(), booked.get() / seconds,
+                tried == 0 ? 0.0 : (double) conflicts.get() / tried, errors.get(), doubleBooked,
+                ms(book.getPercentileNanos(50)), ms(book.getPercentileNanos(95)),
+                ms(book.getPercentileNanos(99)), ms(book.getMaxNanos()));
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static int intArg(Map<String, String> args, String name, int defaultValue) {
+        String value = args.get(name);
+        int parsed = value == null ? defaultValue : Integer.parseInt(value);
+        if (parsed <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be positive");
+        }
+        return parsed;
+    }
+}
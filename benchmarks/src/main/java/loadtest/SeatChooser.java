@@ -0,0 +1,81 @@
+package loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Picks seats the way a flash-sale crowd does: most parties are couples or
+ * families, everyone wants to sit together, and preferences cluster around
+ * the middle of the hall, a little towards the back.
+ */
+final class SeatChooser {
+
+    // Share of parties with 1..8 people
+    private static final double[] GROUP_WEIGHTS = {0.10, 0.34, 0.12, 0.20, 0.09, 0.07, 0.04, 0.04};
+
+    private final int rows;
+    private final int cols;
+
+    SeatChooser(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    int groupSize(Random random) {
+        double pick = random.nextDouble();
+        for (int i = 0; i < GROUP_WEIGHTS.length; i++) {
+            pick -= GROUP_WEIGHTS[i];
+            if (pick < 0) return i + 1;
+        }
+        return GROUP_WEIGHTS.length;
+    }
+
+    /**
+     * Chooses {@code size} adjacent free seats closest to a randomly drawn
+     * preferred spot. Returns an empty list if no row has a large enough gap.
+     */
+    List<String> choose(Random random, Set<String> booked, int size) {
+        double preferredRow = clamp(rows * 0.6 + random.nextGaussian() * rows / 5.0, 0, rows - 1);
+        double preferredCol = clamp((cols - 1) / 2.0 + random.nextGaussian() * cols / 6.0, 0, cols - 1);
+
+        int bestRow = -1;
+        int bestStart = -1;
+        double bestScore = Double.MAX_VALUE;
+        for (int r = 0; r < rows; r++) {
+            int run = 0; // Free seats ending at column c
+            for (int c = 0; c < cols; c++) {
+                run = booked.contains(seatName(r, c)) ? 0 : run + 1;
+                if (run >= size) {
+                    int start = c - size + 1;
+                    double center = start + (size - 1) / 2.0;
+                    // A row away counts double: people would rather shift sideways
+                    double score = 2 * Math.abs(r - preferredRow) + Math.abs(center - preferredCol);
+                    if (score < bestScore) {
+                        bestScore = score;
+                        bestRow = r;
+                        bestStart = start;
+                    }
+                }
+            }
+        }
+        if (bestRow < 0) {
+            return Collections.emptyList();
+        }
+        List<String> seats = new ArrayList<>(size);
+        for (int c = bestStart; c < bestStart + size; c++) {
+            seats.add(seatName(bestRow, c));
+        }
+        return seats;
+    }
+
+    static String seatName(int row, int col) {
+        return (char) ('A' + row) + Integer.toString(col + 1);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -1,23 +1,47 @@
 package controller;
 
 import view.AdminDashboardView;
+import view.ColumnarTableModel;
+import view.ScheduleShowsDialog;
+import model.DAOFactory;
 import model.Movie;
 import model.MovieDAO;
-import model.MovieDAOImpl;
 import model.Show;
 import model.ShowDAO;
-import model.ShowDAOImpl;
 import model.Booking;
 import model.BookingDAO;
-import model.BookingDAOImpl;
+import model.BookingQuery;
+import model.CacheStats;
+import model.ChangeEvent;
+import model.DaoMetrics;
+import model.DatabaseConnection;
+import model.MethodStats;
+import model.PoolStats;
+import model.ReportQuery;
+import model.ReportRow;
+import model.ShowQuery;
+import model.ShowSchedule;
+import service.BookingService;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
-import java.sql.SQLException;
+import java.awt.Cursor;
+import java.awt.Toolkit;
+import java.awt.datatransfer.StringSelection;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.time.LocalDate;
 import java.time.LocalDateTime; 
+import java.time.LocalTime;
+import java.util.ArrayList;
 import java.time.format.DateTimeFormatter; 
 import java.time.format.DateTimeParseException; 
 
@@ -27,20 +51,38 @@ public class AdminController {
     private MovieDAO movieDAO;
     private ShowDAO showDAO;
     private BookingDAO bookingDAO;
+    private BookingService service;
+
+    // Each table keeps only its newest load; a refresh cancels the one still running
+    private final LatestRequest moviesRequest = new LatestRequest();
+    private final LatestRequest dropdownRequest = new LatestRequest();
+    private final LatestRequest reportRequest = new LatestRequest();
+    private TablePager<Show> showsPager;
+    private TablePager<Booking> bookingsPager;
+
+    private static final int METRICS_REFRESH_MS = 1000;
+    private final DaoMetrics metrics = DaoMetrics.getInstance();
+    private Timer metricsTimer;
+    private ChangeSubscriber changes;
+    private int newBookings = 0; // Made since the bookings table was last loaded
 
     // DateTimeFormatter for parsing and displaying timestamps in a specific format
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-    private static final SimpleDateFormat DISPLAY_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd hh:mm a");
 
     public AdminController(AdminDashboardView view) {
         this.view = view;
 
         try {
-            this.movieDAO = new MovieDAOImpl();
-            this.showDAO = new ShowDAOImpl();
-            this.bookingDAO = new BookingDAOImpl();
+            // Shared instances; movies and shows are served from the catalog cache
+            this.movieDAO = DAOFactory.getMovieDAO();
+            this.showDAO = DAOFactory.getShowDAO();
+            this.bookingDAO = DAOFactory.getBookingDAO();
+            this.service = new BookingService(movieDAO, showDAO, bookingDAO);
+            createPagers();
 
             addListeners(); // All listeners added here
+            startMetricsRefresh();
+            subscribeToChanges();
 
             // Initial data loads
             loadMoviesIntoTable();
@@ -71,6 +113,7 @@ public class AdminController {
         // --- Show Tab Listeners ---
         view.getAddShowButton().addActionListener(e -> onAddShow());
         view.getDeleteShowButton().addActionListener(e -> onDeleteShow());
+        view.getScheduleShowsButton().addActionListener(e -> onScheduleShows());
         view.getShowTable().getSelectionModel().addListSelectionListener(e -> {
              if (!e.getValueIsAdjusting()) {
                  boolean rowSelected = view.getShowTable().getSelectedRow() != -1;
@@ -78,14 +121,268 @@ public class AdminController {
              }
         });
 
+        view.getShowFilterButton().addActionListener(e -> loadShowsIntoTable());
+
         // --- Booking Tab Listeners ---
         view.getDeleteBookingButton().addActionListener(e -> onDeleteBooking());
+        view.getBookingFilterButton().addActionListener(e -> loadBookingsIntoTable());
         view.getBookingTable().getSelectionModel().addListSelectionListener(e -> {
              if (!e.getValueIsAdjusting()) {
                  boolean rowSelected = view.getBookingTable().getSelectedRow() != -1;
                  view.getDeleteBookingButton().setEnabled(rowSelected);
              }
         });
+
+        // --- Reports Tab Listeners ---
+        view.getRunReportButton().addActionListener(e -> loadReport());
+        view.getRebuildRollupsButton().addActionListener(e -> onRebuildRollups());
+        view.getTabbedPane().addChangeListener(e -> {
+            if (view.getReportsPanel().isShowing()) {
+                loadReport(); // Rollups are cheap to read, so the tab is fresh whenever it is opened
+            }
+        });
+    }
+
+    // --- LIVE UPDATES ---
+
+    /** Follows changes made here, in the customer window or by other kiosks; stops when the window closes. */
+    private void subscribeToChanges() {
+        changes = ChangeSubscriber.subscribe(this::onChanges);
+        view.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                changes.cancel();
+            }
+        });
+    }
+
+    /**
+     * Applies a batch of changes. Deleted shows and bookings are removed from
+     * the tables in place; new shows need their place in the sorted, filtered
+     * list, so they trigger one reload per batch. New bookings are only
+     * counted, so a customer booking does not yank the admin's scroll position.
+     */
+    private void onChanges(List<ChangeEvent> batch) {
+        boolean moviesChanged = false;
+        boolean reloadShows = false;
+        boolean reloadBookings = false;
+        ColumnarTableModel<Show> shows = view.getShowTableModel();
+        ColumnarTableModel<Booking> bookings = view.getBookingTableModel();
+
+        for (ChangeEvent change : batch) {
+            if (change.getKind() == ChangeEvent.Kind.RESET) {
+                moviesChanged = reloadShows = reloadBookings = true;
+                continue;
+            }
+            switch (change.getEntity()) {
+                case MOVIE:
+                    moviesChanged = true;
+                    if (change.getKind() == ChangeEvent.Kind.DELETED) {
+                        shows.removeRowsWhere(AdminDashboardView.SHOW_MOVIE_ID_COLUMN, change.getId());
+                        reloadBookings = true; // Bookings do not carry their movie ID
+                    } else if (change.getKind() == ChangeEvent.Kind.UPDATED) {
+                        reloadShows = reloadBookings = true; // The title may have changed
+                    }
+                    break;
+                case SHOW:
+                    if (change.getKind() == ChangeEvent.Kind.DELETED) {
+                        removeRow(shows, change.getId());
+                        bookings.removeRowsWhere(AdminDashboardView.BOOKING_SHOW_ID_COLUMN, change.getId());
+                    } else {
+                        reloadShows = true;
+                    }
+                    break;
+                case BOOKING:
+                    if (change.getKind() == ChangeEvent.Kind.DELETED) {
+                        removeRow(bookings, change.getId());
+                    } else if (change.getKind() == ChangeEvent.Kind.CREATED) {
+                        newBookings++;
+                    }
+                    break;
+            }
+        }
+
+        if (moviesChanged) {
+            loadMoviesIntoTable();
+            loadMoviesIntoDropdown();
+        }
+        if (reloadShows) {
+            loadShowsIntoTable();
+        }
+        if (reloadBookings) {
+            loadBookingsIntoTable();
+        } else {
+            showNewBookingsCount();
+        }
+    }
+
+    private static void removeRow(ColumnarTableModel<?> model, int id) {
+        int row = model.indexOf(0, id);
+        if (row >= 0) {
+            model.removeRow(row);
+        }
+    }
+
+    private void showNewBookingsCount() {
+        view.getNewBookingsLabel().setText(newBookings == 0 ? ""
+                : newBookings + (newBookings == 1 ? " new booking" : " new bookings") + ", press Apply to show");
+    }
+
+    // --- METRICS ---
+
+    /** Refreshes the Metrics tab once a second while it is visible; stops when the window closes. */
+    private void startMetricsRefresh() {
+        view.getResetMetricsButton().addActionListener(e -> {
+            metrics.reset();
+            refreshMetrics();
+        });
+        view.getCopyMetricsButton().addActionListener(e -> onCopyMetrics());
+        view.getExportMetricsButton().addActionListener(e -> onExportMetrics());
+        view.getTabbedPane().addChangeListener(e -> {
+            if (view.getMetricsPanel().isShowing()) {
+                refreshMetrics();
+            }
+        });
+
+        metricsTimer = new Timer(METRICS_REFRESH_MS, e -> {
+            if (view.getMetricsPanel().isShowing()) {
+                refreshMetrics();
+            }
+        });
+        metricsTimer.start();
+        view.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                metricsTimer.stop();
+            }
+        });
+    }
+
+    // Snapshots are in-memory counters, cheap enough to take on the EDT
+    private void refreshMetrics() {
+        DefaultTableModel model = view.getMetricsTableModel();
+        List<MethodStats> stats = metrics.snapshot();
+        if (model.getRowCount() != stats.size()) {
+            model.setRowCount(stats.size());
+        }
+        for (int row = 0; row < stats.size(); row++) {
+            MethodStats s = stats.get(row);
+            Object[] values = {
+                s.getName(),
+                s.getCalls(),
+                s.getErrors(),
+                String.format("%.2f", s.getMeanMillis()),
+                String.format("%.2f", s.getP50Millis()),
+                String.format("%.2f", s.getP95Millis()),
+                String.format("%.2f", s.getP99Millis()),
+                String.format("%.2f", s.getMaxMillis())
+            };
+            for (int col = 0; col < values.length; col++) {
+                if (!values[col].equals(model.getValueAt(row, col))) {
+                    model.setValueAt(values[col], row, col); // Only changed cells repaint, selection is kept
+                }
+            }
+        }
+
+        PoolStats pool = DatabaseConnection.getPoolStats();
+        view.getPoolStatsLabel().setText(pool != null ? "Pool: " + pool : "Pool: not started");
+        StringBuilder caches = new StringBuilder("Caches:");
+        for (CacheStats cache : DAOFactory.getCacheStats()) {
+            caches.append("  ").append(String.format("%s %.1f%% hits (%d/%d)", cache.getName(),
+                    cache.getHitRatio() * 100, cache.getHits() + cache.getCollapsedLoads(),
+                    cache.getHits() + cache.getCollapsedLoads() + cache.getMisses()));
+        }
+        view.getCacheStatsLabel().setText(caches.toString());
+    }
+
+    private void onCopyMetrics() {
+        Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(metrics.toText()), null);
+        showMessage("Metrics copied to the clipboard.");
+    }
+
+    private void onExportMetrics() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("dao-metrics-" + System.currentTimeMillis() + ".json"));
+        if (chooser.showSaveDialog(view) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+        try {
+            Files.write(file.toPath(), metrics.toJson().getBytes(StandardCharsets.UTF_8));
+            showMessage("Metrics written to " + file.getAbsolutePath());
+        } catch (IOException e) {
+            e.printStackTrace();
+            showError("Could not write metrics: " + e.getMessage());
+        }
+    }
+
+    // --- REPORTS ---
+
+    private void loadReport() {
+        ReportQuery query;
+        try {
+            query = new ReportQuery()
+                .period((ReportQuery.Period) view.getReportPeriodDropdown().getSelectedItem())
+                .groupBy((ReportQuery.GroupBy) view.getReportGroupByDropdown().getSelectedItem())
+                .from(parseReportDate(view.getReportFromField(), 0))
+                .to(parseReportDate(view.getReportToField(), 1));
+        } catch (DateTimeParseException ex) {
+            showError("Invalid report date. Use YYYY-MM-DD (e.g., 2023-10-27)");
+            return;
+        }
+        ColumnarTableModel<ReportRow> model = view.getReportTableModel();
+        model.clear();
+        view.setLoading(view.getReportTable(), true);
+        long started = System.nanoTime();
+
+        reportRequest.run(service.getReport(query), rows -> {
+            view.setLoading(view.getReportTable(), false);
+            model.addRows(rows);
+            showReportTotals(rows, (System.nanoTime() - started) / 1_000_000);
+        }, e -> {
+            view.setLoading(view.getReportTable(), false);
+            e.printStackTrace();
+            showError("Error loading report: " + e.getMessage());
+        });
+    }
+
+    /** Optional YYYY-MM-DD field as a show day, plus {@code plusDays} so a "to" date includes that day. */
+    private LocalDate parseReportDate(JTextField field, int plusDays) throws DateTimeParseException {
+        String text = field.getText().trim();
+        return text.isEmpty() ? null : LocalDate.parse(text).plusDays(plusDays);
+    }
+
+    private void showReportTotals(List<ReportRow> rows, long millis) {
+        int shows = 0, capacity = 0, sold = 0, bookings = 0;
+        double revenue = 0;
+        for (ReportRow row : rows) {
+            shows += row.getShows();
+            capacity += row.getCapacity();
+            sold += row.getSeatsSold();
+            revenue += row.getRevenue();
+            bookings += row.getBookings();
+        }
+        view.getReportTotalsLabel().setText(String.format(
+                "Total: %d shows, %d of %d seats sold (%.1f%%), %d bookings, revenue %.2f  (%d ms)",
+                shows, sold, capacity, capacity == 0 ? 0 : 100.0 * sold / capacity, bookings, revenue, millis));
+    }
+
+    private void onRebuildRollups() {
+        int choice = JOptionPane.showConfirmDialog(
+            view,
+            "Recompute the report rollups from every show and booking?\n"
+                + "Only needed after a bulk import or changes made outside the application.\n"
+                + "Best run while the kiosks are quiet.",
+            "Rebuild Rollups",
+            JOptionPane.YES_NO_OPTION,
+            JOptionPane.WARNING_MESSAGE
+        );
+        if (choice == JOptionPane.YES_OPTION) {
+            runMutation(service.rebuildRollups(), shows -> {
+                showMessage("Rollups rebuilt from " + shows + " shows.");
+                loadReport();
+            }, ex -> showError("Could not rebuild rollups: " + ex.getMessage()));
+        }
     }
 
     // --- MOVIE MANAGEMENT ---
@@ -93,9 +390,10 @@ public class AdminController {
     private void loadMoviesIntoTable() {
         DefaultTableModel model = view.getMovieTableModel();
         model.setRowCount(0); // Clear existing data
+        view.setLoading(view.getMovieTable(), true);
 
-        try {
-            List<Movie> movies = movieDAO.getAllMovies();
+        moviesRequest.run(service.getAllMovies(), movies -> {
+            view.setLoading(view.getMovieTable(), false);
             for (Movie movie : movies) {
                 model.addRow(new Object[]{
                     movie.getMovieId(),
@@ -105,10 +403,11 @@ public class AdminController {
                     movie.getPosterPath()
                 });
             }
-        } catch (SQLException e) {
+        }, e -> {
+            view.setLoading(view.getMovieTable(), false);
             e.printStackTrace();
             showError("Error loading movies: " + e.getMessage());
-        }
+        });
     }
 
     // Helper method to get Movie data from the form fields
@@ -176,23 +475,18 @@ public class AdminController {
             Movie movie = getMovieFromForm(); // Use helper to get movie data
             // ID will be -1 here as we expect a new movie
 
-            boolean success = movieDAO.addMovie(movie);
-
-            if (success) {
-                showMessage("Movie added successfully!");
-                loadMoviesIntoTable();
-                loadMoviesIntoDropdown(); // Refresh dropdown for new show creation
-                onClearForm();
-            } else {
-                showError("Failed to add movie.");
-            }
+            runMutation(service.addMovie(movie), success -> {
+                if (success) {
+                    showMessage("Movie added successfully!"); // The tables follow through onChanges
+                    onClearForm();
+                } else {
+                    showError("Failed to add movie.");
+                }
+            }, ex -> showError("Database error: " + ex.getMessage()));
         } catch (NumberFormatException ex) {
             showError("Duration must be a valid number (e.g., 120).");
         } catch (IllegalArgumentException ex) {
             showError(ex.getMessage()); // Catches empty title/genre/duration
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            showError("Database error: " + ex.getMessage());
         }
     }
 
@@ -206,23 +500,18 @@ public class AdminController {
                 return;
             }
 
-            boolean success = movieDAO.updateMovie(movie);
-
-            if (success) {
-                showMessage("Movie updated successfully!");
-                loadMoviesIntoTable();
-                loadMoviesIntoDropdown(); // Refresh dropdown in case movie title changed
-                onClearForm();
-            } else {
-                showError("Failed to update movie.");
-            }
+            runMutation(service.updateMovie(movie), success -> {
+                if (success) {
+                    showMessage("Movie updated successfully!");
+                    onClearForm();
+                } else {
+                    showError("Failed to update movie.");
+                }
+            }, ex -> showError("Database error: " + ex.getMessage()));
         } catch (NumberFormatException ex) {
             showError("ID and Duration must be valid numbers.");
         } catch (IllegalArgumentException ex) {
             showError(ex.getMessage());
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            showError("Database error: " + ex.getMessage());
         }
     }
 
@@ -239,64 +528,93 @@ public class AdminController {
             );
 
             if (choice == JOptionPane.YES_OPTION) {
-                boolean success = movieDAO.deleteMovie(id);
-                if (success) {
-                    showMessage("Movie deleted successfully!");
-                    loadMoviesIntoTable();
-                    loadMoviesIntoDropdown();
-                    loadShowsIntoTable(); // Shows related to this movie are also deleted
-                    loadBookingsIntoTable(); // Bookings related to this movie are also deleted
-                    onClearForm();
-                } else {
-                    showError("Failed to delete movie.");
-                }
+                runMutation(service.deleteMovie(id), success -> {
+                    if (success) {
+                        showMessage("Movie deleted successfully!");
+                        onClearForm();
+                    } else {
+                        showError("Failed to delete movie.");
+                    }
+                }, ex -> {
+                    if (String.valueOf(ex.getMessage()).contains("foreign key constraint fails")) {
+                        showError("Cannot delete movie. It is currently referenced by existing shows or bookings (though cascade delete should handle shows and bookings, if configured correctly in DB).");
+                    } else {
+                        showError("Database error: " + ex.getMessage());
+                    }
+                });
             }
         } catch (NumberFormatException ex) {
             showError("No movie selected or invalid ID.");
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            if (ex.getMessage().contains("foreign key constraint fails")) {
-                showError("Cannot delete movie. It is currently referenced by existing shows or bookings (though cascade delete should handle shows and bookings, if configured correctly in DB).");
-            } else {
-                showError("Database error: " + ex.getMessage());
-            }
         }
     }
 
     // --- SHOW MANAGEMENT ---
 
     private void loadMoviesIntoDropdown() {
-        try {
-            view.getMovieDropdown().removeAllItems();
-            List<Movie> movies = movieDAO.getAllMovies();
-            for (Movie movie : movies) {
-                view.getMovieDropdown().addItem(movie);
-            }
-        } catch (SQLException e) {
+        dropdownRequest.run(service.getAllMovies(), movies -> {
+            // Any movie change refills these, so an admin halfway through the Add Show form keeps their movie
+            fillDropdown(view.getMovieDropdown(), null, movies);
+            fillDropdown(view.getShowFilterMovieDropdown(), new Movie(0, "All Movies", null, 0, null), movies);
+            fillDropdown(view.getBookingFilterMovieDropdown(), new Movie(0, "All Movies", null, 0, null), movies);
+        }, e -> {
             e.printStackTrace();
             showError("Error loading movies into dropdown.");
+        });
+    }
+
+    /**
+     * Refills a movie dropdown, keeping the current choice if that movie still exists.
+     * Filter dropdowns pass a placeholder movie with ID 0 as the first entry, which means "no filter".
+     */
+    private void fillDropdown(JComboBox<Movie> dropdown, Movie placeholder, List<Movie> movies) {
+        Movie current = (Movie) dropdown.getSelectedItem();
+        dropdown.removeAllItems();
+        if (placeholder != null) {
+            dropdown.addItem(placeholder);
+        }
+        for (Movie movie : movies) {
+            dropdown.addItem(movie);
+            if (current != null && current.getMovieId() == movie.getMovieId()) {
+                dropdown.setSelectedItem(movie);
+            }
         }
     }
 
-    private void loadShowsIntoTable() {
-        DefaultTableModel model = view.getShowTableModel();
-        model.setRowCount(0);
+    private void createPagers() {
+        showsPager = new TablePager<>(view.getShowTableModel(), view.getShowScrollPane(),
+            loading -> view.setLoading(view.getShowTable(), loading),
+            e -> {
+                e.printStackTrace();
+                showError("Error loading shows: " + e.getMessage());
+            });
+
+        bookingsPager = new TablePager<>(view.getBookingTableModel(), view.getBookingScrollPane(),
+            loading -> view.setLoading(view.getBookingTable(), loading),
+            e -> {
+                e.printStackTrace();
+                showError("Error loading bookings: " + e.getMessage());
+            });
+    }
 
+    /**
+     * Reloads the shows table from its first page using the current filter bar.
+     * Further pages are fetched as the user scrolls.
+     */
+    private void loadShowsIntoTable() {
+        ShowQuery query;
         try {
-            List<Show> shows = showDAO.getAllShows();
-            for (Show show : shows) {
-                model.addRow(new Object[]{
-                    show.getShowId(),
-                    show.getMovieTitle(), // Assumes Show object has this field from a JOIN
-                    show.getScreenId(),
-                    DISPLAY_DATE_FORMAT.format(show.getShowTime()), // Formatted for display
-                    String.format("%.2f", show.getPrice())
-                });
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Error loading shows: " + e.getMessage());
+            Movie movie = (Movie) view.getShowFilterMovieDropdown().getSelectedItem();
+            query = new ShowQuery()
+                .movieId(movie != null ? movie.getMovieId() : 0)
+                .showFrom(parseFilterDate(view.getShowFilterFromField(), 0))
+                .showTo(parseFilterDate(view.getShowFilterToField(), 1))
+                .sortBy((ShowQuery.SortColumn) view.getShowSortDropdown().getSelectedItem(),
+                        view.getShowSortDescendingBox().isSelected());
+        } catch (DateTimeParseException ex) {
+            showError("Invalid date filter. Use YYYY-MM-DD (e.g., 2023-10-27)");
+            return;
         }
+        showsPager.reload((after, limit) -> service.getShowsPage(query, after, limit));
     }
 
     // Helper method to get Show data from the form fields
@@ -322,7 +640,15 @@ public class AdminController {
         LocalDateTime localDateTime = LocalDateTime.parse(timeString, DATETIME_FORMATTER); // Throws DateTimeParseException
         Timestamp showTime = Timestamp.valueOf(localDateTime);
 
-        return new Show(movieId, screenId, showTime, price);
+        Show show = new Show(movieId, screenId, showTime, price);
+        show.setCategoryPrices(optionalPrice(view.getPremiumPriceField()), optionalPrice(view.getReclinerPriceField()));
+        return show;
+    }
+
+    /** A category price field; empty means the standard price, stored as 0. */
+    private static double optionalPrice(JTextField field) throws NumberFormatException {
+        String text = field.getText().trim();
+        return text.isEmpty() ? 0 : Double.parseDouble(text);
     }
 
 
@@ -330,29 +656,101 @@ public class AdminController {
         try {
             Show show = getShowDetailsFromForm(); // Use helper to get show data
 
-            boolean success = showDAO.addShow(show);
-
-            if (success) {
-                showMessage("Show added successfully!");
-                loadShowsIntoTable();
-                loadBookingsIntoTable(); // A new show might create possibilities for bookings
-                // Clear form fields after successful add
-                view.getScreenField().setText("");
-                view.getShowTimeField().setText("");
-                view.getPriceField().setText("");
-            } else {
-                showError("Failed to add show.");
-            }
+            runMutation(service.addShow(show), success -> {
+                if (success) {
+                    showMessage("Show added successfully!");
+                    // Clear form fields after successful add
+                    view.getScreenField().setText("");
+                    view.getShowTimeField().setText("");
+                    view.getPriceField().setText("");
+                    view.getPremiumPriceField().setText("");
+                    view.getReclinerPriceField().setText("");
+                } else {
+                    showError("Failed to add show.");
+                }
+            }, ex -> showError("Database error: " + ex.getMessage()));
         } catch (NumberFormatException ex) {
-            showError("Screen and Price must be valid numbers.");
+            showError("Screen and prices must be valid numbers.");
+        } catch (DateTimeParseException ex) {
+             showError("Invalid Showtime format. Use YYYY-MM-DD HH:MM (e.g., 2023-10-27 14:30)");
         } catch (IllegalArgumentException ex) {
             showError(ex.getMessage()); // Catches empty fields or no movie selected
+        }
+    }
+
+    /** Expands a whole schedule into shows, inserts them in one transaction and refreshes the table once. */
+    private void onScheduleShows() {
+        ScheduleShowsDialog dialog = new ScheduleShowsDialog(view, view.getMovieDropdown().getModel());
+        if (!dialog.showDialog()) {
+            return;
+        }
+
+        ShowSchedule schedule;
+        try {
+            Movie movie = (Movie) dialog.getMovieDropdown().getSelectedItem();
+            if (movie == null) {
+                throw new IllegalArgumentException("Please select a movie.");
+            }
+            schedule = new ShowSchedule(
+                    movie.getMovieId(),
+                    parseScreens(dialog.getScreensField().getText()),
+                    LocalDate.parse(dialog.getFirstDayField().getText().trim()),
+                    LocalDate.parse(dialog.getLastDayField().getText().trim()),
+                    parseStartTimes(dialog.getStartTimesField().getText()),
+                    Double.parseDouble(dialog.getPriceField().getText().trim()),
+                    optionalPrice(dialog.getPremiumPriceField()),
+                    optionalPrice(dialog.getReclinerPriceField()));
+        } catch (NumberFormatException ex) {
+            showError("Screens and prices must be valid numbers.");
+            return;
         } catch (DateTimeParseException ex) {
-             showError("Invalid Showtime format. Use YYYY-MM-DD HH:MM (e.g., 2023-10-27 14:30)");
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            showError("Database error: " + ex.getMessage());
+            showError("Invalid date or time. Use YYYY-MM-DD for days and HH:MM for start times.");
+            return;
+        } catch (IllegalArgumentException ex) {
+            showError(ex.getMessage());
+            return;
+        }
+
+        int choice = JOptionPane.showConfirmDialog(view,
+                "This will add " + schedule.size() + " shows. Continue?",
+                "Confirm Schedule", JOptionPane.YES_NO_OPTION);
+        if (choice != JOptionPane.YES_OPTION) {
+            return;
         }
+
+        runMutation(service.scheduleShows(schedule), ids -> {
+            showMessage(ids.size() + " shows scheduled successfully!");
+        }, ex -> showError("Database error: " + ex.getMessage() + "\nNo shows were added."));
+    }
+
+    /** Parses "1-12", "1,3,5" or a mix such as "1-4, 7". */
+    private static List<Integer> parseScreens(String text) {
+        List<Integer> screens = new ArrayList<>();
+        for (String part : text.split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) continue;
+            int dash = part.indexOf('-');
+            if (dash < 0) {
+                screens.add(Integer.parseInt(part));
+            } else {
+                int from = Integer.parseInt(part.substring(0, dash).trim());
+                int to = Integer.parseInt(part.substring(dash + 1).trim());
+                for (int screen = from; screen <= to; screen++) {
+                    screens.add(screen);
+                }
+            }
+        }
+        return screens;
+    }
+
+    private static List<LocalTime> parseStartTimes(String text) {
+        List<LocalTime> times = new ArrayList<>();
+        for (String part : text.split(",")) {
+            if (!part.trim().isEmpty()) {
+                times.add(LocalTime.parse(part.trim()));
+            }
+        }
+        return times;
     }
 
     private void onDeleteShow() {
@@ -362,7 +760,7 @@ public class AdminController {
             return;
         }
 
-        int showId = (int) view.getShowTableModel().getValueAt(selectedRow, 0);
+        int showId = view.getShowTableModel().getInt(selectedRow, 0);
 
         int choice = JOptionPane.showConfirmDialog(
             view,
@@ -373,51 +771,59 @@ public class AdminController {
         );
 
         if (choice == JOptionPane.YES_OPTION) {
-            try {
-                boolean success = showDAO.deleteShow(showId);
+            runMutation(service.deleteShow(showId), success -> {
                 if (success) {
                     showMessage("Show deleted successfully!");
-                    loadShowsIntoTable();
-                    loadBookingsIntoTable(); // Bookings for this show might be deleted
                     view.getDeleteShowButton().setEnabled(false);
                 } else {
                     showError("Failed to delete show.");
                 }
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                if (ex.getMessage().contains("foreign key constraint fails")) {
+            }, ex -> {
+                if (String.valueOf(ex.getMessage()).contains("foreign key constraint fails")) {
                     showError("Cannot delete show. It has associated bookings.\nDelete associated bookings first (if cascade delete is not set).");
                 } else {
                     showError("Database error: " + ex.getMessage());
                 }
-            }
+            });
         }
     }
 
     // --- BOOKING MANAGEMENT ---
 
+    /**
+     * Reloads the bookings table from its first page using the current filter bar.
+     * Further pages are fetched as the user scrolls.
+     */
     private void loadBookingsIntoTable() {
-        DefaultTableModel model = view.getBookingTableModel();
-        model.setRowCount(0);
-
+        BookingQuery query;
         try {
-            List<Booking> bookings = bookingDAO.getAllBookingsDetailed();
-            for (Booking booking : bookings) {
-                model.addRow(new Object[]{
-                    booking.getBookingId(),
-                    booking.getCustomerName(),
-                    booking.getCustomerPhone(),
-                    booking.getMovieTitle(), // Assumes Booking object has this from a JOIN
-                    booking.getFormattedShowTime(), // Assumes Booking object handles formatting
-                    booking.getSelectedSeats(),
-                    String.format("%.2f", booking.getTotalAmount()),
-                    booking.getFormattedBookingTime() // Assumes Booking object handles formatting
-                });
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Error loading bookings: " + e.getMessage());
+            Movie movie = (Movie) view.getBookingFilterMovieDropdown().getSelectedItem();
+            query = new BookingQuery()
+                .movieId(movie != null ? movie.getMovieId() : 0)
+                .bookedFrom(parseFilterDate(view.getBookingFilterFromField(), 0))
+                .bookedTo(parseFilterDate(view.getBookingFilterToField(), 1))
+                .customerPhone(view.getBookingFilterPhoneField().getText().trim())
+                .sortBy((BookingQuery.SortColumn) view.getBookingSortDropdown().getSelectedItem(),
+                        view.getBookingSortDescendingBox().isSelected());
+        } catch (DateTimeParseException ex) {
+            showError("Invalid date filter. Use YYYY-MM-DD (e.g., 2023-10-27)");
+            return;
+        }
+        newBookings = 0;
+        showNewBookingsCount();
+        bookingsPager.reload((after, limit) -> service.getBookingsPage(query, after, limit));
+    }
+
+    /**
+     * Parses an optional YYYY-MM-DD filter field. Returns the start of that day
+     * plus {@code plusDays}, so a "to" date can include the whole day.
+     */
+    private Timestamp parseFilterDate(JTextField field, int plusDays) throws DateTimeParseException {
+        String text = field.getText().trim();
+        if (text.isEmpty()) {
+            return null;
         }
+        return Timestamp.valueOf(LocalDate.parse(text).plusDays(plusDays).atStartOfDay());
     }
 
     private void onDeleteBooking() {
@@ -427,7 +833,7 @@ public class AdminController {
             return;
         }
 
-        int bookingId = (int) view.getBookingTableModel().getValueAt(selectedRow, 0);
+        int bookingId = view.getBookingTableModel().getInt(selectedRow, 0);
 
         int choice = JOptionPane.showConfirmDialog(
             view,
@@ -438,22 +844,35 @@ public class AdminController {
         );
 
         if (choice == JOptionPane.YES_OPTION) {
-            try {
-                boolean success = bookingDAO.deleteBooking(bookingId);
+            runMutation(service.deleteBooking(bookingId), success -> {
                 if (success) {
                     showMessage("Booking deleted successfully!");
-                    loadBookingsIntoTable(); // Refresh table
                     view.getDeleteBookingButton().setEnabled(false);
                 } else {
                     showError("Failed to delete booking.");
                 }
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                showError("Database error: " + ex.getMessage());
-            }
+            }, ex -> showError("Database error: " + ex.getMessage()));
         }
     }
 
+    /**
+     * Runs an add/update/delete in the background and reports back on the EDT.
+     * Mutations are never cancelled, so each gets its own request tracker.
+     */
+    private <T> void runMutation(CompletableFuture<T> future,
+                                 Consumer<T> onDone,
+                                 Consumer<Throwable> onError) {
+        view.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new LatestRequest().run(future, success -> {
+            view.setCursor(Cursor.getDefaultCursor());
+            onDone.accept(success);
+        }, ex -> {
+            view.setCursor(Cursor.getDefaultCursor());
+            ex.printStackTrace();
+            onError.accept(ex);
+        });
+    }
+
     private void showMessage(String message) {
         JOptionPane.showMessageDialog(view, message, "Success", JOptionPane.INFORMATION_MESSAGE);
     }
@@ -0,0 +1,69 @@
+package controller;
+
+import model.ChangeBus;
+import model.ChangeEvent;
+
+import javax.swing.SwingUtilities;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * Hands change batches from the {@link ChangeBus} to a window on the EDT.
+ * The next batch is only requested once the EDT has applied the current one,
+ * so changes arriving in the meantime are coalesced by the bus rather than
+ * queued up behind a busy UI.
+ */
+class ChangeSubscriber implements Flow.Subscriber<List<ChangeEvent>> {
+
+    private final Consumer<List<ChangeEvent>> onChanges;
+    private volatile Flow.Subscription subscription;
+
+    private ChangeSubscriber(Consumer<List<ChangeEvent>> onChanges) {
+        this.onChanges = onChanges;
+    }
+
+    /** Subscribes {@code onChanges}, which is always called on the EDT. */
+    static ChangeSubscriber subscribe(Consumer<List<ChangeEvent>> onChanges) {
+        ChangeSubscriber subscriber = new ChangeSubscriber(onChanges);
+        ChangeBus.getInstance().subscribe(subscriber);
+        return subscriber;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ChangeEvent> batch) {
+        SwingUtilities.invokeLater(() -> {
+            try {
+                onChanges.accept(batch);
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // A bad update must not stop later ones
+            } finally {
+                subscription.request(1);
+            }
+        });
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        throwable.printStackTrace();
+    }
+
+    @Override
+    public void onComplete() {
+        // The bus lives as long as the application
+    }
+
+    /** Stops delivery, e.g. when the window closes. */
+    void cancel() {
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+}
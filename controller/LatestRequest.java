@@ -0,0 +1,56 @@
+package controller;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the newest background request of one kind (e.g. "shows for the
+ * selected movie"). Starting a new request cancels the previous one, and a
+ * result that arrives after it has been superseded is dropped, so a slow
+ * response can never overwrite a newer one. Callbacks always run on the
+ * Swing event dispatch thread; this class must only be used from it.
+ */
+class LatestRequest {
+
+    private CompletableFuture<?> current;
+
+    <T> void run(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        cancel();
+        current = future;
+        future.whenCompleteAsync((result, error) -> {
+            if (future != current) {
+                return; // Superseded or cancelled
+            }
+            current = null;
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                Throwable cause = unwrap(error);
+                if (!(cause instanceof CancellationException)) {
+                    onError.accept(cause);
+                }
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
+    boolean isRunning() {
+        return current != null;
+    }
+
+    void cancel() {
+        if (current != null) {
+            current.cancel(false);
+            current = null;
+        }
+    }
+
+    static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
@@ -2,25 +2,36 @@ package controller;
 
 import view.MainView;
 import view.AdminDashboardView;
+import view.PosterThumbnails;
+import view.SeatMapCanvas;
+import view.SeatMapCanvas.SeatState;
+import model.ChangeEvent;
+import model.DAOFactory;
 import model.Movie;
 import model.MovieDAO;
-import model.MovieDAOImpl;
 import model.Show;
 import model.ShowDAO;
-import model.ShowDAOImpl;
 import model.Booking;
 import model.BookingDAO;
-import model.BookingDAOImpl;
+import model.SeatAllocation;
+import model.SeatConflictException;
+import model.SeatLayout;
+import model.SeatLayouts;
+import model.SeatMapDelta;
+import model.SeatSelection;
+import service.BookingService;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public class MainController {
 
@@ -28,36 +39,89 @@ public class MainController {
     private MovieDAO movieDAO;
     private ShowDAO showDAO;
     private BookingDAO bookingDAO;
+    private BookingService service;
+
+    // One in-flight request per kind; a newer request cancels the older one
+    private final LatestRequest moviesRequest = new LatestRequest();
+    private final LatestRequest showsRequest = new LatestRequest();
+    private final LatestRequest seatsRequest = new LatestRequest();
+    private final LatestRequest bookingRequest = new LatestRequest();
+    private final LatestRequest bestSeatsRequest = new LatestRequest();
+    private final LatestRequest catalogUpdateRequest = new LatestRequest();
+    private final LatestRequest heldSeatsRequest = new LatestRequest();
+    private final LatestRequest seatChangesRequest = new LatestRequest();
+
+    // Bookings and holds made by other processes never reach the change bus, so an open seat map polls for them
+    private static final int SEAT_POLL_MS = 1000;
+    private final Timer seatPollTimer = new Timer(SEAT_POLL_MS, e -> pollSeatChanges());
+    private long seatVersion = -1; // Seat-map version on screen; -1 until the first poll
 
     private JPanel selectedMoviePanel = null;
     private Movie selectedMovie = null;
     private Show selectedShow = null;
+    private boolean moviesShown = false;
 
+    // Seats toggled on this kiosk are held under this id until booked, released or expired
+    private final String holderId = UUID.randomUUID().toString();
+    // Hold calls and bookings of this kiosk run one after another, in the order they were made
+    private CompletableFuture<Void> holdQueue = CompletableFuture.completedFuture(null);
+
+    /**
+     * Shows the window's initial state only; the database may still be
+     * connecting. Startup calls {@link #connect} once the DAOs are ready and
+     * {@link #showCatalog} with the movies, or {@link #startupFailed}.
+     */
     public MainController(MainView view) {
         this.view = view;
         setupInitialUIState(); // Set up default UI state immediately
+        view.getAdminButton().setEnabled(false);
+        addPlaceholderToShowtimes("Connecting...");
+        showGridMessage("Connecting to the database...");
+    }
 
-        try {
-            this.movieDAO = new MovieDAOImpl();
-            this.showDAO = new ShowDAOImpl();
-            this.bookingDAO = new BookingDAOImpl();
+    /** Wires the window to the (already created) shared DAOs. Call on the EDT. */
+    public void connect() {
+        // Shared instances; movies and shows are served from the catalog cache
+        this.movieDAO = DAOFactory.getMovieDAO();
+        this.showDAO = DAOFactory.getShowDAO();
+        this.bookingDAO = DAOFactory.getBookingDAO();
+        this.service = new BookingService(movieDAO, showDAO, bookingDAO);
 
-            loadMoviesFromDatabase(); // Load movies only if DB connection is successful
+        addListeners();
+        view.getAdminButton().setEnabled(true);
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            showError("Could not connect to database. Please ensure XAMPP is running and the database is accessible.\n\nError: " + e.getMessage(), "Fatal Database Error");
-            addPlaceholderToShowtimes("Database Error"); // Display error in dropdown
-            view.getShowTimesComboBox().setEnabled(false); // Disable showtime dropdown on DB error
-            return; // Stop further initialization if DB connection fails
+        // No movie is selected yet
+        view.getShowTimesComboBox().removeAllItems();
+        addPlaceholderToShowtimes("Select movie first...");
+        view.getShowTimesComboBox().setEnabled(false);
+        if (!moviesShown) {
+            showGridMessage("Loading movies...");
         }
+    }
 
-        addListeners();
+    /**
+     * Shows the movies startup fetched while the window was being wired up,
+     * unless a live update has already put a newer list on screen.
+     */
+    public void showCatalog(List<Movie> movies) {
+        if (!moviesShown && !moviesRequest.isRunning()) {
+            showMovies(movies);
+        }
+    }
 
-        // After successful DB connection, if no movies are loaded, or no movie is initially selected
-        if (view.getShowTimesComboBox().getItemCount() == 0) {
-            addPlaceholderToShowtimes("Select movie first...");
-            view.getShowTimesComboBox().setEnabled(false);
+    /** Reports a startup stage that failed; the window stays open but unusable. */
+    public void startupFailed(Throwable error) {
+        error = LatestRequest.unwrap(error);
+        error.printStackTrace();
+        if (service == null) {
+            showError("Could not connect to database. Please ensure XAMPP is running and the database is accessible.\n\nError: " + error.getMessage(), "Fatal Database Error");
+            view.getShowTimesComboBox().removeAllItems();
+            addPlaceholderToShowtimes("Database Error"); // Display error in dropdown
+            view.getShowTimesComboBox().setEnabled(false); // Disable showtime dropdown on DB error
+            showGridMessage("Database unavailable.");
+        } else if (!moviesShown) {
+            showError("Could not load movies from the database.\n\nError: " + error.getMessage(), "Fatal Database Error");
+            showGridMessage("");
         }
     }
 
@@ -82,11 +146,22 @@ public class MainController {
         view.getCustomerPhoneField().setText("");
     }
 
-    private void loadMoviesFromDatabase() throws SQLException {
+    private void showGridMessage(String message) {
         JPanel movieGrid = view.getMovieGridPanel();
         movieGrid.removeAll();
+        if (!message.isEmpty()) {
+            JLabel label = new JLabel(message, SwingConstants.CENTER);
+            label.setFont(new Font("Arial", Font.ITALIC, 16));
+            movieGrid.add(label);
+        }
+        movieGrid.revalidate();
+        movieGrid.repaint();
+    }
 
-        List<Movie> movies = movieDAO.getAllMovies();
+    private void showMovies(List<Movie> movies) {
+        moviesShown = true;
+        JPanel movieGrid = view.getMovieGridPanel();
+        movieGrid.removeAll();
 
         if (movies.isEmpty()) {
             JLabel noMoviesLabel = new JLabel("No movies available.", SwingConstants.CENTER);
@@ -95,6 +170,11 @@ public class MainController {
         } else {
             for (Movie movie : movies) {
                 JPanel moviePanel = createMoviePanel(movie.getTitle(), movie.getPosterPath());
+                if (selectedMovie != null && selectedMovie.getMovieId() == movie.getMovieId()) {
+                    moviePanel.setBorder(BorderFactory.createLineBorder(Color.BLUE, 3)); // Still selected after a refresh
+                    selectedMoviePanel = moviePanel;
+                    selectedMovie = movie;
+                }
 
                 moviePanel.addMouseListener(new MouseAdapter() {
                     @Override
@@ -114,23 +194,14 @@ public class MainController {
         panel.setBorder(BorderFactory.createEtchedBorder());
         panel.setCursor(new Cursor(Cursor.HAND_CURSOR));
 
-        ImageIcon icon = null;
-        try {
-            icon = new ImageIcon(imagePath);
-            if (icon.getIconWidth() == -1) {
-                throw new Exception("Image not found: " + imagePath);
-            }
-        } catch (Exception e) {
-            System.err.println("Warning: Could not load image " + imagePath + ". Using default.");
-            icon = new ImageIcon("images/default.jpg"); // Ensure you have default.jpg
-            if (icon.getIconWidth() == -1) {
-                System.err.println("Warning: Default image images/default.jpg not found!");
-            }
+        // Poster arrives asynchronously; show the placeholder until it is decoded
+        PosterThumbnails thumbnails = PosterThumbnails.getInstance();
+        ImageIcon cached = thumbnails.getCached(imagePath);
+        JLabel posterLabel = new JLabel(cached != null ? cached : thumbnails.getPlaceholder());
+        if (cached == null) {
+            thumbnails.load(imagePath).thenAcceptAsync(posterLabel::setIcon, SwingUtilities::invokeLater);
         }
 
-        Image img = icon.getImage().getScaledInstance(150, 220, Image.SCALE_SMOOTH);
-        JLabel posterLabel = new JLabel(new ImageIcon(img));
-
         JLabel titleLabel = new JLabel(title, SwingConstants.CENTER);
         titleLabel.setFont(new Font("Arial", Font.BOLD, 14));
 
@@ -143,10 +214,339 @@ public class MainController {
         view.getAdminButton().addActionListener(e -> openAdminDashboard());
         view.getShowTimesComboBox().addActionListener(e -> onShowTimeSelected());
         view.getBookButton().addActionListener(e -> onBookNow());
+        view.getBestSeatsButton().addActionListener(e -> onBestSeats());
+
+        view.getSeatMap().addSeatListener(this::onSeatToggled);
+
+        DAOFactory.getSeatHolds().addExpiryListener((showId, seats) ->
+                SwingUtilities.invokeLater(() -> onHoldsExpired(showId, seats)));
+
+        // Lives as long as the application, like this window
+        ChangeSubscriber.subscribe(this::onChanges);
+    }
+
+    // --- LIVE UPDATES ---
+
+    /**
+     * Applies changes made elsewhere (the admin dashboard, other kiosks in
+     * this process) to what the customer is looking at, without resetting
+     * their movie, show or seat selection unless it was deleted.
+     */
+    private void onChanges(List<ChangeEvent> changes) {
+        boolean moviesChanged = false;
+        boolean showsAdded = false;
+        for (ChangeEvent change : changes) {
+            if (change.getKind() == ChangeEvent.Kind.RESET) {
+                moviesChanged = true;
+                showsAdded = true;
+                if (selectedShow != null) {
+                    reloadSeatsIfStillSelected(selectedShow.getShowId());
+                }
+                continue;
+            }
+            switch (change.getEntity()) {
+                case MOVIE:
+                    moviesChanged = true;
+                    if (change.getKind() == ChangeEvent.Kind.DELETED && selectedMovie != null
+                            && selectedMovie.getMovieId() == change.getId()) {
+                        onSelectedMovieDeleted();
+                    }
+                    break;
+                case SHOW:
+                    if (change.getKind() == ChangeEvent.Kind.DELETED) {
+                        removeShowtime(change.getId());
+                    } else if (selectedMovie != null && selectedMovie.getMovieId() == change.getParentId()) {
+                        showsAdded = true;
+                    }
+                    break;
+                case BOOKING:
+                    if (selectedShow != null && selectedShow.getShowId() == change.getParentId()) {
+                        applyBookingChange(change);
+                    }
+                    break;
+            }
+        }
+        if (moviesChanged) {
+            moviesRequest.run(service.getAllMovies(), this::showMovies, Throwable::printStackTrace);
+        }
+        if (showsAdded && selectedMovie != null) {
+            addNewShowtimes(selectedMovie.getMovieId());
+        }
+    }
+
+    /** Marks seats of a booking made elsewhere as taken, or frees those of a cancelled one. */
+    private void applyBookingChange(ChangeEvent change) {
+        boolean booked = change.getKind() != ChangeEvent.Kind.DELETED;
+        SeatMapCanvas seatMap = view.getSeatMap();
+        for (String seatName : change.getSeats()) {
+            setBooked(seatMap, seatName, booked);
+        }
+        updateLiveTotal();
+    }
+
+    private static void setBooked(SeatMapCanvas seatMap, String seatName, boolean booked) {
+        if (booked) {
+            seatMap.setState(seatName, SeatState.BOOKED);
+        } else if (seatMap.getState(seatName) == SeatState.BOOKED) {
+            seatMap.setState(seatName, SeatState.AVAILABLE);
+        }
+    }
+
+    /**
+     * Asks for the seats booked and freed since the version on screen, which
+     * also catches bookings made by other processes, then refreshes the
+     * seats other kiosks hold. Skipped while the previous poll is running.
+     */
+    private void pollSeatChanges() {
+        if (selectedShow == null || seatChangesRequest.isRunning()) {
+            return;
+        }
+        int showId = selectedShow.getShowId();
+        seatChangesRequest.run(service.getSeatChanges(showId, seatVersion), delta -> {
+            SeatMapCanvas seatMap = view.getSeatMap();
+            if (selectedShow == null || selectedShow.getShowId() != showId || !seatMap.isEnabled()) {
+                return;
+            }
+            applySeatChanges(seatMap, delta);
+            seatVersion = delta.getVersion();
+            refreshHeldSeats(showId);
+        }, Throwable::printStackTrace);
+    }
+
+    private void applySeatChanges(SeatMapCanvas seatMap, SeatMapDelta delta) {
+        if (!delta.isModified()) {
+            return;
+        }
+        if (delta.isSnapshot()) {
+            SeatLayout layout = seatMap.getSeatLayout();
+            for (int seat = 0; layout != null && seat < layout.getSeatCount(); seat++) {
+                String seatName = layout.codeOf(seat);
+                setBooked(seatMap, seatName, delta.getBooked().contains(seatName));
+            }
+        } else {
+            for (String seatName : delta.getBooked()) {
+                setBooked(seatMap, seatName, true);
+            }
+            for (String seatName : delta.getFreed()) {
+                setBooked(seatMap, seatName, false);
+            }
+        }
+        updateLiveTotal();
+    }
+
+    private void onSelectedMovieDeleted() {
+        seatsRequest.cancel();
+        showsRequest.cancel();
+        releaseHolds();
+        selectedMovie = null;
+        selectedMoviePanel = null;
+        selectedShow = null;
+        view.getShowTimesComboBox().removeAllItems();
+        addPlaceholderToShowtimes("Select movie first...");
+        view.getShowTimesComboBox().setEnabled(false);
+        enableAllSeats(false);
+    }
+
+    /** Drops a deleted show from the dropdown; if it was the one selected, the seat map is cleared. */
+    private void removeShowtime(int showId) {
+        JComboBox<Show> comboBox = view.getShowTimesComboBox();
+        for (int i = 0; i < comboBox.getItemCount(); i++) {
+            if (comboBox.getItemAt(i).getShowId() != showId) {
+                continue;
+            }
+            boolean wasSelected = selectedShow != null && selectedShow.getShowId() == showId;
+            if (wasSelected) {
+                comboBox.setSelectedIndex(0); // The placeholder, so the next show is not picked for the customer
+            }
+            comboBox.removeItemAt(i);
+            if (wasSelected) {
+                showError("The selected show has just been cancelled. Please choose another showtime.", "Show Cancelled");
+            }
+            return;
+        }
+    }
+
+    /** Inserts shows that are not in the dropdown yet, in showtime order, keeping the current selection. */
+    private void addNewShowtimes(int movieId) {
+        catalogUpdateRequest.run(service.getShowsByMovieId(movieId), shows -> {
+            if (selectedMovie == null || selectedMovie.getMovieId() != movieId || showsRequest.isRunning()) {
+                return; // Another movie was picked, or a full load is already on its way
+            }
+            JComboBox<Show> comboBox = view.getShowTimesComboBox();
+            Set<Integer> listed = new HashSet<>();
+            for (int i = 0; i < comboBox.getItemCount(); i++) {
+                listed.add(comboBox.getItemAt(i).getShowId());
+            }
+            if (listed.size() == 1 && listed.contains(0)) {
+                loadRealShowtimesForMovie(movieId); // Only the "No shows available" placeholder
+                return;
+            }
+            for (Show show : shows) {
+                if (listed.contains(show.getShowId())) {
+                    continue;
+                }
+                int index = 1; // After the placeholder
+                while (index < comboBox.getItemCount()
+                        && !comboBox.getItemAt(index).getShowTime().after(show.getShowTime())) {
+                    index++;
+                }
+                comboBox.insertItemAt(show, index);
+            }
+        }, Throwable::printStackTrace);
+    }
+
+    /** Holds the seat while the customer fills in their details, or releases it again. */
+    private void onSeatToggled(String seatName, boolean selected) {
+        if (selectedShow == null) {
+            return;
+        }
+        int showId = selectedShow.getShowId();
+        if (!selected) {
+            queueHoldCall(() -> service.releaseSeat(showId, seatName, holderId))
+                    .exceptionally(e -> { e.printStackTrace(); return null; }); // The hold expires anyway
+        } else {
+            // Shown as selected straight away, and taken back if another kiosk holds the seat
+            new LatestRequest().run(queueHoldCall(() -> service.holdSeat(showId, seatName, holderId)), held -> {
+                if (!held && selectedShow != null && selectedShow.getShowId() == showId
+                        && view.getSeatMap().getState(seatName) == SeatState.SELECTED) {
+                    view.getSeatMap().setState(seatName, SeatState.HELD);
+                    updateLiveTotal();
+                    showError("Seat " + seatName + " is being held by another customer.", "Seat Unavailable");
+                }
+            }, Throwable::printStackTrace);
+        }
+        updateLiveTotal();
+    }
+
+    /**
+     * Queues a hold call (or a booking) behind the ones before it. The service
+     * runs calls on several threads, so without this a release could overtake
+     * the hold it was meant to undo. The returned future can be cancelled
+     * without breaking the queue.
+     */
+    private <T> CompletableFuture<T> queueHoldCall(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        holdQueue = holdQueue.thenCompose(ignored -> {
+            CompletableFuture<T> future = call.get();
+            future.whenComplete((value, error) -> {
+                if (error == null) result.complete(value); else result.completeExceptionally(error);
+            });
+            return future.handle((value, error) -> null);
+        });
+        return result;
+    }
+
+    /**
+     * Replaces the customer's picks with the best seats for their party and
+     * holds them, as if each had been clicked.
+     */
+    private void onBestSeats() {
+        if (selectedShow == null || !view.getSeatMap().isEnabled()) {
+            showError("Please select a movie and showtime first.");
+            return;
+        }
+        int showId = selectedShow.getShowId();
+        int partySize = (Integer) view.getPartySizeSpinner().getValue();
+
+        bestSeatsRequest.run(service.findBestSeats(selectedShow, partySize, holderId), allocation -> {
+            SeatMapCanvas seatMap = view.getSeatMap();
+            if (selectedShow == null || selectedShow.getShowId() != showId || !seatMap.isEnabled()) {
+                return; // The customer moved on, or the seat map is reloading
+            }
+            if (allocation.isEmpty()) {
+                showError("There are fewer than " + partySize + " free seats left for this show.", "Not Enough Seats");
+                return;
+            }
+            for (String seatName : new ArrayList<>(seatMap.getSelection().getSeats())) {
+                seatMap.setState(seatName, SeatState.AVAILABLE);
+            }
+            for (String seatName : allocation.getSeats()) {
+                seatMap.setState(seatName, SeatState.SELECTED);
+            }
+            updateLiveTotal();
+            holdBestSeats(showId, partySize, allocation);
+        }, e -> {
+            e.printStackTrace();
+            showError("Error finding seats: " + e.getMessage());
+        });
+    }
+
+    /** Swaps this kiosk's holds for the allocated seats; seats another kiosk got first turn orange. */
+    private void holdBestSeats(int showId, int partySize, SeatAllocation allocation) {
+        bestSeatsRequest.run(queueHoldCall(() -> service.holdSeats(showId, allocation.getSeats(), holderId)), lost -> {
+            if (selectedShow == null || selectedShow.getShowId() != showId) {
+                return;
+            }
+            for (String seatName : lost) {
+                if (view.getSeatMap().getState(seatName) == SeatState.SELECTED) {
+                    view.getSeatMap().setState(seatName, SeatState.HELD);
+                }
+            }
+            updateLiveTotal();
+
+            if (!lost.isEmpty()) {
+                showError("Seats " + String.join(", ", lost) + " were just taken by another customer.\n"
+                        + "Press Best Available again for other seats.", "Seats Taken");
+            } else if (!allocation.isContiguous()) {
+                showMessage("There are no " + partySize + " seats together left, so your party is split:\n"
+                        + describeBlocks(allocation));
+            }
+        }, e -> {
+            e.printStackTrace();
+            showError("Error holding seats: " + e.getMessage());
+        });
+    }
 
-        for (JToggleButton seatButton : view.getSeatButtons().values()) {
-            seatButton.addActionListener(e -> updateLiveTotal());
+    private static String describeBlocks(SeatAllocation allocation) {
+        StringBuilder text = new StringBuilder();
+        for (List<String> block : allocation.getBlocks()) {
+            if (text.length() > 0) text.append('\n');
+            text.append(String.join(", ", block));
         }
+        return text.toString();
+    }
+
+    /** Frees seats on screen whose holds by other kiosks have run out. */
+    private void onHoldsExpired(int showId, List<String> seats) {
+        if (selectedShow == null || selectedShow.getShowId() != showId) {
+            return;
+        }
+        for (String seatName : seats) {
+            if (view.getSeatMap().getState(seatName) == SeatState.HELD) {
+                view.getSeatMap().setState(seatName, SeatState.AVAILABLE);
+            }
+        }
+    }
+
+    private void releaseHolds() {
+        if (selectedShow != null) {
+            releaseHolds(selectedShow.getShowId());
+        }
+    }
+
+    private void releaseHolds(int showId) {
+        queueHoldCall(() -> service.releaseAllSeats(showId, holderId))
+                .exceptionally(e -> { e.printStackTrace(); return null; }); // The holds expire anyway
+    }
+
+    /** Marks the seats other kiosks hold in orange, and frees those whose holds are gone. */
+    private void refreshHeldSeats(int showId) {
+        heldSeatsRequest.run(service.getSeatsHeldByOthers(showId, holderId), held -> {
+            SeatMapCanvas seatMap = view.getSeatMap();
+            if (selectedShow == null || selectedShow.getShowId() != showId || !seatMap.isEnabled()) {
+                return;
+            }
+            SeatLayout layout = seatMap.getSeatLayout();
+            for (int seat = 0; layout != null && seat < layout.getSeatCount(); seat++) {
+                String seatName = layout.codeOf(seat);
+                SeatState state = seatMap.getState(seatName);
+                if (state == SeatState.AVAILABLE && held.contains(seatName)) {
+                    seatMap.setState(seatName, SeatState.HELD);
+                } else if (state == SeatState.HELD && !held.contains(seatName)) {
+                    seatMap.setState(seatName, SeatState.AVAILABLE);
+                }
+            }
+        }, Throwable::printStackTrace);
     }
 
     private void onMovieSelected(JPanel selectedPanel, Movie movie) {
@@ -162,13 +562,17 @@ public class MainController {
     }
 
     private void loadRealShowtimesForMovie(int movieId) {
+        seatsRequest.cancel(); // Seats of the previous movie's show are no longer wanted
+        releaseHolds();
         view.getShowTimesComboBox().removeAllItems();
         enableAllSeats(false); // Reset seats
         selectedShow = null;
 
-        try {
-            List<Show> shows = showDAO.getShowsByMovieId(movieId);
+        addPlaceholderToShowtimes("Loading shows...");
+        view.getShowTimesComboBox().setEnabled(false);
 
+        showsRequest.run(service.getShowsByMovieId(movieId), shows -> {
+            view.getShowTimesComboBox().removeAllItems();
             if (shows.isEmpty()) {
                 addPlaceholderToShowtimes("No shows available");
                 view.getShowTimesComboBox().setEnabled(false);
@@ -179,12 +583,13 @@ public class MainController {
                 }
                 view.getShowTimesComboBox().setEnabled(true);
             }
-        } catch (SQLException e) {
+        }, e -> {
             e.printStackTrace();
             showError("Error loading shows: " + e.getMessage());
+            view.getShowTimesComboBox().removeAllItems();
             addPlaceholderToShowtimes("Error loading shows");
             view.getShowTimesComboBox().setEnabled(false);
-        }
+        });
     }
 
     /**
@@ -207,52 +612,77 @@ public class MainController {
 
     private void onShowTimeSelected() {
         Object selectedItem = view.getShowTimesComboBox().getSelectedItem();
+        releaseHolds(); // Whatever was held on the previous show is no longer wanted
 
         // Check if a valid show (not a placeholder) is selected
         if (selectedItem != null && (selectedItem instanceof Show) && ((Show)selectedItem).getShowId() != 0) {
             selectedShow = (Show) selectedItem;
-            loadBookedSeats(selectedShow.getShowId()); // Load seats for this valid show
+            loadBookedSeats(selectedShow); // Load seats for this valid show
         } else {
             // Placeholder or no valid show selected
             selectedShow = null;
+            seatsRequest.cancel();
             enableAllSeats(false); // Disable all seats
         }
     }
 
-    private void loadBookedSeats(int showId) {
-        try {
+    private void loadBookedSeats(Show show) {
+        int showId = show.getShowId();
+        SeatLayout layout = SeatLayouts.getInstance().getIfLoaded(show.getScreenId());
+        if (layout == null) {
+            // First show on this screen: fetch its layout, then come back for the seats
+            enableAllSeats(false);
+            seatsRequest.run(service.getSeatLayout(show.getScreenId()), loaded -> {
+                if (selectedShow != null && selectedShow.getShowId() == showId) {
+                    loadBookedSeats(show);
+                }
+            }, e -> {
+                e.printStackTrace();
+                showError("Error loading the seat layout from database: " + e.getMessage());
+                enableAllSeats(false);
+            });
+            return;
+        }
+        // The layout is shared by every show on the screen, so this is just a swap
+        view.getSeatMap().setSelection(new SeatSelection(layout, show));
+        enableAllSeats(false); // Seats stay disabled while the seat map is loading
+        releaseHolds(showId); // The selection is reset, so are this kiosk's holds
+
+        // Served from SeatMapLog after a primary-key version check; the seats are only read when the show moved on
+        seatsRequest.run(service.getBookedSeats(showId), bookedSeats -> {
+            if (selectedShow == null || selectedShow.getShowId() != showId) {
+                return; // The customer moved on to another show
+            }
             enableAllSeats(true); // First, enable all seats and reset their state to available
 
-            Set<String> bookedSeats = bookingDAO.getBookedSeats(showId);
-
+            SeatMapCanvas seatMap = view.getSeatMap();
             for (String seatName : bookedSeats) {
-                if (view.getSeatButtons().containsKey(seatName)) {
-                    JToggleButton seatButton = view.getSeatButtons().get(seatName);
-                    seatButton.setEnabled(false); // Disable booked seats
-                    seatButton.setBackground(Color.RED); // Mark as red
-                    seatButton.setSelected(false); // Ensure they are not selected
-                }
+                seatMap.setState(seatName, SeatState.BOOKED); // Seats the layout lacks are ignored
             }
             updateLiveTotal(); // Recalculate total after loading booked seats
-        } catch (SQLException e) {
+            refreshHeldSeats(showId);
+        }, e -> {
             e.printStackTrace();
             showError("Error loading booked seats from database: " + e.getMessage());
             enableAllSeats(false); // Disable all seats on error
-        }
+        });
     }
 
     /**
-     * Enables or disables all seat buttons and resets their visual state.
+     * Enables or disables the seat map and makes every seat available again.
      * This method is designed to prepare the seat panel. loadBookedSeats
      * will then mark specific seats as booked.
      *
      * @param enabled true to enable seats, false to disable.
      */
     private void enableAllSeats(boolean enabled) {
-        for (JToggleButton seatButton : view.getSeatButtons().values()) {
-            seatButton.setEnabled(enabled);
-            seatButton.setSelected(false); // Deselect any selected seat
-            seatButton.setBackground(enabled ? Color.LIGHT_GRAY : null); // Reset to default color
+        view.getSeatMap().reset(enabled);
+        if (enabled) {
+            seatVersion = -1; // The first poll brings a snapshot
+            seatPollTimer.restart();
+        } else {
+            seatPollTimer.stop();
+            seatChangesRequest.cancel();
         }
         updateLiveTotal(); // Update total after changing seat states
     }
@@ -264,17 +694,13 @@ public class MainController {
             return;
         }
 
-        int selectedSeatCount = 0;
-        for (JToggleButton button : view.getSeatButtons().values()) {
-            // Only count seats that are enabled (i.e., not booked) and selected
-            if (button.isEnabled() && button.isSelected()) {
-                selectedSeatCount++;
-            }
-        }
+        // Kept up to date by the selection as seats are picked, whatever their category
+        SeatSelection selection = view.getSeatMap().getSelection();
+        int selectedSeatCount = selection == null ? 0 : selection.getCount();
+        double totalPrice = selection == null ? 0 : selection.getTotal();
 
-        double totalPrice = selectedSeatCount * selectedShow.getPrice();
         view.getTotalAmountLabel().setText(String.format("Total: Rs. %.2f", totalPrice));
-        view.getBookButton().setEnabled(selectedSeatCount > 0 && selectedShow != null);
+        view.getBookButton().setEnabled(selectedSeatCount > 0 && selectedShow != null && !bookingRequest.isRunning());
     }
 
     private void onBookNow() {
@@ -298,40 +724,55 @@ public class MainController {
         }
         // --- END VALIDATION ---
 
-        List<String> selectedSeatNames = new ArrayList<>();
-        for (Map.Entry<String, JToggleButton> entry : view.getSeatButtons().entrySet()) {
-            if (entry.getValue().isSelected() && entry.getValue().isEnabled()) { // Ensure only available selected seats are counted
-                selectedSeatNames.add(entry.getKey());
-            }
-        }
-
-        if (selectedSeatNames.isEmpty()) {
+        SeatSelection selection = view.getSeatMap().getSelection();
+        if (selection == null || selection.getShow().getShowId() != selectedShow.getShowId() || selection.getCount() == 0) {
             showError("Please select at least one seat.");
             return;
         }
 
-        String seats = String.join(",", selectedSeatNames);
-        double totalAmount = selectedSeatNames.size() * selectedShow.getPrice();
+        String seats = String.join(",", selection.getSeats());
+        double totalAmount = selection.getTotal();
 
         Booking booking = new Booking(selectedShow.getShowId(), name, phone, seats, totalAmount);
+        booking.setHolderId(holderId); // Converts this kiosk's holds into the booking
+        int showId = selectedShow.getShowId();
 
-        try {
-            boolean success = bookingDAO.createBooking(booking);
+        // Loading state until the booking is confirmed
+        view.getBookButton().setEnabled(false);
+        view.getBookButton().setText("Booking...");
+
+        // Behind this kiosk's pending hold calls, so the booking finds its seats held
+        bookingRequest.run(queueHoldCall(() -> service.createBooking(booking)), success -> {
+            view.getBookButton().setText("Book Selected Seats");
             if (success) {
                 showMessage("Booking Successful!\nSeats: " + seats + "\nTotal: Rs. " + String.format("%.2f", totalAmount));
 
                 // Reset UI after successful booking
-                loadBookedSeats(selectedShow.getShowId()); // Reload seats to mark new bookings
                 view.getCustomerNameField().setText("");
                 view.getCustomerPhoneField().setText("");
-                updateLiveTotal(); // Update total to 0
             } else {
                 showError("Booking failed. One or more selected seats might have just been taken.", "Booking Failed");
-                loadBookedSeats(selectedShow.getShowId()); // Reload seats to show updated status
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Database Error during booking: " + e.getMessage(), "Database Error");
+            reloadSeatsIfStillSelected(showId); // Reload seats to show updated status
+        }, e -> {
+            view.getBookButton().setText("Book Selected Seats");
+            if (e instanceof SeatConflictException) {
+                showError("Sorry, these seats were just taken by someone else: "
+                        + String.join(", ", ((SeatConflictException) e).getConflictingSeats())
+                        + "\nPlease choose different seats.", "Seats Taken");
+            } else {
+                e.printStackTrace();
+                showError("Database Error during booking: " + e.getMessage(), "Database Error");
+            }
+            reloadSeatsIfStillSelected(showId);
+        });
+    }
+
+    private void reloadSeatsIfStillSelected(int showId) {
+        if (selectedShow != null && selectedShow.getShowId() == showId) {
+            loadBookedSeats(selectedShow);
+        } else {
+            updateLiveTotal();
         }
     }
 
@@ -0,0 +1,107 @@
+package controller;
+
+import model.Page;
+import model.PageCursor;
+import view.ColumnarTableModel;
+
+import javax.swing.JScrollBar;
+import javax.swing.JTable;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
+import java.awt.Component;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Fills a table one page at a time. The first page is fetched on
+ * {@link #reload}, and the next one whenever the user scrolls near the
+ * bottom, so opening a tab costs one small query no matter how many rows
+ * the underlying table has. Must only be used from the EDT.
+ */
+class TablePager<T> {
+
+    /** Fetches one page after the given cursor (null for the first page). */
+    interface PageSource<T> {
+        CompletableFuture<Page<T>> fetch(PageCursor after, int limit);
+    }
+
+    static final int PAGE_SIZE = 100;
+    private static final int PREFETCH_ROWS = 20; // Start fetching this many rows before the end
+
+    private final ColumnarTableModel<T> model;
+    private final JScrollPane scrollPane;
+    private final Consumer<Boolean> onLoading;
+    private final Consumer<Throwable> onError;
+    private final LatestRequest request = new LatestRequest();
+
+    private PageSource<T> source;
+    private PageCursor nextCursor;
+    private boolean hasMore;
+
+    TablePager(ColumnarTableModel<T> model, JScrollPane scrollPane,
+               Consumer<Boolean> onLoading, Consumer<Throwable> onError) {
+        this.model = model;
+        this.scrollPane = scrollPane;
+        this.onLoading = onLoading;
+        this.onError = onError;
+
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            if (!e.getValueIsAdjusting() && isNearBottom()) {
+                loadMore();
+            }
+        });
+    }
+
+    /** Clears the table and starts again from the first page of the given source. */
+    void reload(PageSource<T> newSource) {
+        source = newSource;
+        nextCursor = null;
+        hasMore = true;
+        model.clear();
+        fetch();
+    }
+
+    /** Re-runs the current source from the first page, e.g. after a row was deleted. */
+    void reload() {
+        if (source != null) {
+            reload(source);
+        }
+    }
+
+    void loadMore() {
+        if (source != null && hasMore && !request.isRunning()) {
+            fetch();
+        }
+    }
+
+    private void fetch() {
+        boolean firstPage = nextCursor == null; // Only the first page blocks the table
+        if (firstPage) onLoading.accept(true);
+        request.run(source.fetch(nextCursor, PAGE_SIZE), page -> {
+            if (firstPage) onLoading.accept(false);
+            model.addRows(page.getItems()); // One insert event per page
+            nextCursor = page.getNextCursor();
+            hasMore = page.hasMore();
+            // If the page did not fill the viewport there is nothing to scroll, so keep going
+            SwingUtilities.invokeLater(() -> {
+                if (isNearBottom()) {
+                    loadMore();
+                }
+            });
+        }, e -> {
+            if (firstPage) onLoading.accept(false);
+            hasMore = false;
+            onError.accept(e);
+        });
+    }
+
+    private boolean isNearBottom() {
+        if (!scrollPane.isShowing()) {
+            return false; // Hidden tabs load their first page only
+        }
+        JScrollBar bar = scrollPane.getVerticalScrollBar();
+        Component view = scrollPane.getViewport().getView();
+        int rowHeight = view instanceof JTable ? ((JTable) view).getRowHeight() : 16;
+        return bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - PREFETCH_ROWS * rowHeight;
+    }
+}
@@ -0,0 +1,248 @@
+package importer;
+
+import model.SeatInventory;
+import model.SqlDialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Columns: show_id, or movie_title (or movie_id) + screen_id + show_time to
+ * find the show; customer_name, customer_phone, seats (or selected_seats),
+ * total_amount and an optional booking_time.
+ *
+ * Each chunk inserts the booking headers as one batch, then their
+ * BookingSeats rows with an insert that skips taken seats. A booking with a seat that was
+ * already taken (by an existing booking or earlier in the file) is deleted
+ * again and reported as rejected, so the first booking of a seat wins.
+ * Every show the chunk booked into gets its seat-map version bumped last,
+ * in show order, so polling kiosks pick up the imported seats.
+ */
+class BookingRowWriter extends RowWriter {
+
+    private static final Pattern PHONE = Pattern.compile("\\d+");
+
+    private final Map<String, Integer> movieIds;
+    private final Set<Integer> knownMovieIds;
+    private final Map<String, Integer> showIds = new HashMap<>();
+    private final Set<Integer> knownShowIds = new HashSet<>();
+    private final Connection conn;
+    private final PreparedStatement insertBooking;
+    private final PreparedStatement insertSeat;
+    private final PreparedStatement deleteBooking;
+    private final PreparedStatement bumpSeatVersion;
+    private final Timestamp importTime = new Timestamp(System.currentTimeMillis());
+    private final List<Pending> pending = new ArrayList<>();
+
+    /** A queued booking, kept until its generated ID and seat results are known. */
+    private static final class Pending {
+        final long recordNumber;
+        final int showId;
+        final List<String> seats;
+        int bookingId;
+
+        Pending(long recordNumber, int showId, List<String> seats) {
+            this.recordNumber = recordNumber;
+            this.showId = showId;
+            this.seats = seats;
+        }
+    }
+
+    BookingRowWriter(Connection conn) throws SQLException {
+        this.conn = conn;
+        movieIds = ShowRowWriter.loadMovieIds(conn);
+        knownMovieIds = new HashSet<>(movieIds.values());
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT show_id, movie_id, screen_id, show_time FROM Shows")) {
+            while (rs.next()) {
+                int showId = rs.getInt("show_id");
+                knownShowIds.add(showId);
+                showIds.put(showKey(rs.getInt("movie_id"), rs.getInt("screen_id"), rs.getTimestamp("show_time")), showId);
+            }
+        }
+        insertBooking = conn.prepareStatement("INSERT INTO Bookings (show_id, customer_name, customer_phone, selected_seats, total_amount, booking_time) VALUES (?, ?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS);
+        SqlDialect dialect = SqlDialect.of(conn);
+        insertSeat = conn.prepareStatement(dialect.insertIgnore("BookingSeats",
+                Arrays.asList("show_id", "seat_code"), Arrays.asList("booking_id", "show_id", "seat_code")));
+        deleteBooking = conn.prepareStatement("DELETE FROM Bookings WHERE booking_id = ?");
+        bumpSeatVersion = conn.prepareStatement(dialect.incrementCounter("SeatMapVersions", "show_id", "seat_version"));
+    }
+
+    private static String showKey(int movieId, int screenId, Timestamp showTime) {
+        return movieId + "/" + screenId + "/" + showTime.getTime();
+    }
+
+    @Override
+    void add(Map<String, String> record, long recordNumber) throws SQLException {
+        int showId = resolveShow(record);
+        String name = required(record, "customer_name", 100);
+        String phone = required(record, "customer_phone", 50);
+        if (!PHONE.matcher(phone).matches()) {
+            throw new MalformedRecordException("customer_phone must be digits only: " + phone);
+        }
+        List<String> seats = seats(record);
+        String selectedSeats = String.join(",", seats);
+        if (selectedSeats.length() > 255) {
+            throw new MalformedRecordException("Too many seats for one booking");
+        }
+        double totalAmount = amount(record, "total_amount");
+        String bookingTime = optional(record, "booking_time", 30);
+
+        insertBooking.setInt(1, showId);
+        insertBooking.setString(2, name);
+        insertBooking.setString(3, phone);
+        insertBooking.setString(4, selectedSeats);
+        insertBooking.setDouble(5, totalAmount);
+        insertBooking.setTimestamp(6, bookingTime != null ? timestamp("booking_time", bookingTime) : importTime);
+        insertBooking.addBatch();
+        pending.add(new Pending(recordNumber, showId, seats));
+    }
+
+    private int resolveShow(Map<String, String> record) {
+        if (optional(record, "show_id", 11) != null) {
+            int showId = positiveInt(record, "show_id");
+            if (!knownShowIds.contains(showId)) {
+                throw new MalformedRecordException("No show with ID " + showId);
+            }
+            return showId;
+        }
+        int movieId = ShowRowWriter.resolveMovie(record, movieIds, knownMovieIds);
+        int screenId = positiveInt(record, "screen_id");
+        Timestamp showTime = timestamp("show_time", required(record, "show_time", 30));
+        Integer showId = showIds.get(showKey(movieId, screenId, showTime));
+        if (showId == null) {
+            throw new MalformedRecordException("No show of that movie on screen " + screenId + " at " + showTime);
+        }
+        return showId;
+    }
+
+    private static List<String> seats(Map<String, String> record) {
+        String text = record.get("seats") != null ? record.get("seats") : record.get("selected_seats");
+        Set<String> seats = new LinkedHashSet<>();
+        for (String seat : SeatInventory.parseSeats(text)) {
+            String code = seat.toUpperCase();
+            if (!SeatInventory.isValidSeat(code)) {
+                throw new MalformedRecordException("Not a seat: " + seat);
+            }
+            if (!seats.add(code)) {
+                throw new MalformedRecordException("Seat " + code + " is listed twice");
+            }
+        }
+        if (seats.isEmpty()) {
+            throw new MalformedRecordException("Missing seats");
+        }
+        return new ArrayList<>(seats);
+    }
+
+    @Override
+    int flush(List<String> rejects) throws SQLException {
+        if (pending.isEmpty()) return 0;
+
+        insertBooking.executeBatch();
+        int index = 0;
+        try (ResultSet keys = insertBooking.getGeneratedKeys()) {
+            while (keys.next() && index < pending.size()) {
+                pending.get(index++).bookingId = keys.getInt(1);
+            }
+        }
+        if (index != pending.size()) {
+            throw new SQLException("Expected " + pending.size() + " generated booking IDs but got " + index);
+        }
+
+        for (Pending booking : pending) {
+            for (String seat : booking.seats) {
+                insertSeat.setInt(1, booking.bookingId);
+                insertSeat.setInt(2, booking.showId);
+                insertSeat.setString(3, seat);
+                insertSeat.addBatch();
+            }
+        }
+        int[] counts = insertSeat.executeBatch();
+        Map<Integer, Integer> stored = hasUnknownCounts(counts) ? storedSeatCounts() : null;
+
+        // An ignored row (count 0) means the seat was already taken
+        int written = 0;
+        int row = 0;
+        for (Pending booking : pending) {
+            boolean conflict = false;
+            for (int i = 0; i < booking.seats.size(); i++, row++) {
+                if (counts[row] == 0) conflict = true;
+            }
+            if (stored != null) {
+                conflict = stored.getOrDefault(booking.bookingId, 0) < booking.seats.size();
+            }
+            if (conflict) {
+                deleteBooking.setInt(1, booking.bookingId);
+                deleteBooking.addBatch();
+                rejects.add(RejectLog.format(booking.recordNumber, "Seat(s) already booked for show " + booking.showId));
+            } else {
+                written++;
+            }
+        }
+        if (written < pending.size()) {
+            deleteBooking.executeBatch(); // Cascades to the seats these bookings did get
+        }
+
+        // Last and in a fixed order, like BookingDAOImpl, so these locks are held only until the commit
+        Set<Integer> shows = new TreeSet<>();
+        for (Pending booking : pending) {
+            shows.add(booking.showId);
+        }
+        for (int showId : shows) {
+            bumpSeatVersion.setInt(1, showId);
+            bumpSeatVersion.addBatch();
+        }
+        bumpSeatVersion.executeBatch();
+        pending.clear();
+        return written;
+    }
+
+    private static boolean hasUnknownCounts(int[] counts) {
+        for (int count : counts) {
+            if (count < 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Seats actually stored per pending booking. Only needed when the driver
+     * reports SUCCESS_NO_INFO, as MySQL does with rewriteBatchedStatements.
+     */
+    private Map<Integer, Integer> storedSeatCounts() throws SQLException {
+        Map<Integer, Integer> stored = new HashMap<>();
+        String sql = "SELECT booking_id, COUNT(*) FROM BookingSeats WHERE booking_id BETWEEN ? AND ? GROUP BY booking_id";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, pending.get(0).bookingId);
+            stmt.setInt(2, pending.get(pending.size() - 1).bookingId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    stored.put(rs.getInt(1), rs.getInt(2));
+                }
+            }
+        }
+        return stored;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        insertBooking.close();
+        insertSeat.close();
+        deleteBooking.close();
+        bumpSeatVersion.close();
+    }
+}
@@ -0,0 +1,188 @@
+package importer;
+
+import model.DatabaseConnection;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams movies, shows or historical bookings from a CSV or JSONL file into
+ * the database. Records are read one at a time and written in batches of
+ * {@code chunkSize}; each chunk is committed together with a checkpoint row
+ * in ImportCheckpoints, so an import that dies part-way picks up after the
+ * last committed chunk when it is run again with the same file.
+ *
+ * Bad records are skipped and listed in {@code <input>.rejects}. The
+ * importer talks to the database directly, so a running app only sees the
+ * new rows once its caches expire or it is restarted.
+ */
+public class BulkImporter {
+
+    public enum Kind { MOVIES, SHOWS, BOOKINGS }
+
+    public static final int DEFAULT_CHUNK_SIZE = 5000;
+    private static final long PROGRESS_INTERVAL_NANOS = 2_000_000_000L;
+
+    private final int chunkSize;
+    private final boolean restart;
+    private final PrintStream progress;
+
+    /**
+     * @param restart ignore any checkpoint and import the whole file again
+     * @param progress where to print progress lines, or null for none
+     */
+    public BulkImporter(int chunkSize, boolean restart, PrintStream progress) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+        this.restart = restart;
+        this.progress = progress;
+    }
+
+    public ImportResult importFile(Kind kind, Path file) throws IOException, SQLException {
+        String source = sourceName(kind, file);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            long[] checkpoint = restart ? new long[3] : loadCheckpoint(conn, source);
+            try (RowWriter writer = newWriter(kind, conn);
+                 RecordReader reader = RecordReader.open(file);
+                 RejectLog rejects = new RejectLog(file, checkpoint[0] > 0)) {
+                return run(conn, source, writer, reader, rejects, checkpoint);
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private ImportResult run(Connection conn, String source, RowWriter writer, RecordReader reader,
+                             RejectLog rejects, long[] checkpoint) throws IOException, SQLException {
+        long start = System.nanoTime();
+        long resumedFrom = checkpoint[0];
+        long records = resumedFrom;
+        long imported = checkpoint[1];
+        long rejected = checkpoint[2];
+        if (resumedFrom > 0) {
+            print("%s: resuming after record %,d", source, resumedFrom);
+            reader.skip(resumedFrom);
+        }
+
+        List<String> chunkRejects = new ArrayList<>();
+        int inChunk = 0;
+        long lastProgress = start;
+        while (true) {
+            Map<String, String> record;
+            try {
+                record = reader.next();
+                if (record == null) break;
+                writer.add(record, reader.getRecordNumber());
+            } catch (MalformedRecordException e) {
+                chunkRejects.add(RejectLog.format(reader.getRecordNumber(), e.getMessage()));
+            }
+            records++;
+
+            if (++inChunk == chunkSize) {
+                imported += commitChunk(conn, source, writer, rejects, chunkRejects, records, imported, rejected);
+                rejected += chunkRejects.size();
+                chunkRejects.clear();
+                inChunk = 0;
+
+                long now = System.nanoTime();
+                if (now - lastProgress >= PROGRESS_INTERVAL_NANOS) {
+                    print("%s: %,d records, %,d imported, %,d rejected (%,.0f records/s)", source, records,
+                            imported, rejected, (records - resumedFrom) / ((now - start) / 1e9));
+                    lastProgress = now;
+                }
+            }
+        }
+        // Always commit the final chunk, even if empty, so the checkpoint marks the file as done
+        imported += commitChunk(conn, source, writer, rejects, chunkRejects, records, imported, rejected);
+        rejected += chunkRejects.size();
+
+        ImportResult result = new ImportResult(source, records, imported, rejected, resumedFrom, System.nanoTime() - start);
+        print("%s", result);
+        if (rejected > 0) {
+            print("Rejected records are listed in %s", rejects.getPath());
+        }
+        return result;
+    }
+
+    /**
+     * Writes the queued rows and the new checkpoint in one transaction and
+     * returns how many rows were imported. Rejects are logged once it commits.
+     */
+    private int commitChunk(Connection conn, String source, RowWriter writer, RejectLog rejects,
+                            List<String> chunkRejects, long records, long imported, long rejected)
+            throws IOException, SQLException {
+        int written = writer.flush(chunkRejects);
+        saveCheckpoint(conn, source, records, imported + written, rejected + chunkRejects.size());
+        conn.commit();
+        rejects.write(chunkRejects);
+        return written;
+    }
+
+    private static RowWriter newWriter(Kind kind, Connection conn) throws SQLException {
+        switch (kind) {
+            case MOVIES: return new MovieRowWriter(conn);
+            case SHOWS: return new ShowRowWriter(conn);
+            default: return new BookingRowWriter(conn);
+        }
+    }
+
+    /** Checkpoints are keyed by kind and file; long paths keep their tail. */
+    private static String sourceName(Kind kind, Path file) {
+        String name = kind.name().toLowerCase() + ":" + file.toAbsolutePath().normalize();
+        return name.length() <= 255 ? name : name.substring(name.length() - 255);
+    }
+
+    private void print(String format, Object... args) {
+        if (progress != null) {
+            progress.println(String.format(format, args));
+        }
+    }
+
+    // --- CHECKPOINTS ---
+
+    /** Returns {records done, rows imported, rows rejected}, all zero for a new source. */
+    private static long[] loadCheckpoint(Connection conn, String source) throws SQLException {
+        String sql = "SELECT records_done, rows_imported, rows_rejected FROM ImportCheckpoints WHERE source = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, source);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new long[] { rs.getLong(1), rs.getLong(2), rs.getLong(3) };
+                }
+            }
+        }
+        return new long[3];
+    }
+
+    private static void saveCheckpoint(Connection conn, String source, long records, long imported, long rejected)
+            throws SQLException {
+        String update = "UPDATE ImportCheckpoints SET records_done = ?, rows_imported = ?, rows_rejected = ?, updated_at = CURRENT_TIMESTAMP WHERE source = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(update)) {
+            stmt.setLong(1, records);
+            stmt.setLong(2, imported);
+            stmt.setLong(3, rejected);
+            stmt.setString(4, source);
+            if (stmt.executeUpdate() > 0) return;
+        }
+        String insert = "INSERT INTO ImportCheckpoints (records_done, rows_imported, rows_rejected, source) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(insert)) {
+            stmt.setLong(1, records);
+            stmt.setLong(2, imported);
+            stmt.setLong(3, rejected);
+            stmt.setString(4, source);
+            stmt.executeUpdate();
+        }
+    }
+}
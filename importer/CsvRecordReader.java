@@ -0,0 +1,103 @@
+package importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV with a header row. Fields may be quoted with double quotes, in which
+ * case they can contain commas, doubled quotes and line breaks.
+ */
+class CsvRecordReader implements RecordReader {
+
+    private final BufferedReader in;
+    private final String[] header;
+    private final StringBuilder field = new StringBuilder();
+    private long recordNumber = 0;
+
+    CsvRecordReader(Path file) throws IOException {
+        this.in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        List<String> names = readRow();
+        if (names == null) {
+            throw new IOException("Empty CSV file: " + file);
+        }
+        header = new String[names.size()];
+        for (int i = 0; i < header.length; i++) {
+            String name = names.get(i).trim().toLowerCase();
+            header[i] = i == 0 && name.indexOf('\uFEFF') == 0 ? name.substring(1) : name; // Drop a byte order mark
+        }
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        List<String> values;
+        do {
+            values = readRow();
+            if (values == null) return null;
+        } while (values.size() == 1 && values.get(0).isEmpty()); // Blank line
+
+        recordNumber++;
+        Map<String, String> record = new HashMap<>(header.length * 2);
+        for (int i = 0; i < header.length && i < values.size(); i++) {
+            record.put(header[i], values.get(i));
+        }
+        return record;
+    }
+
+    /** Reads one logical row, following quoted fields across line breaks. */
+    private List<String> readRow() throws IOException {
+        int ch = in.read();
+        if (ch == -1) return null;
+
+        List<String> values = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (ch == -1) {
+                    throw new IOException("Unterminated quoted field in record " + (recordNumber + 1));
+                }
+                if (ch == '"') {
+                    in.mark(1);
+                    int nextCh = in.read();
+                    if (nextCh == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        in.reset();
+                    }
+                } else {
+                    field.append((char) ch);
+                }
+            } else if (ch == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (ch == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n' || ch == -1) {
+                break;
+            } else if (ch != '\r') {
+                field.append((char) ch);
+            }
+            ch = in.read();
+        }
+        values.add(field.toString());
+        return values;
+    }
+
+    @Override
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,42 @@
+package importer;
+
+/** Totals for one import file, including records done by earlier runs that were resumed. */
+public class ImportResult {
+
+    private final String source;
+    private final long recordsRead;
+    private final long rowsImported;
+    private final long rowsRejected;
+    private final long resumedFrom;
+    private final long elapsedNanos;
+
+    ImportResult(String source, long recordsRead, long rowsImported, long rowsRejected,
+                 long resumedFrom, long elapsedNanos) {
+        this.source = source;
+        this.recordsRead = recordsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.resumedFrom = resumedFrom;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getSource() { return source; }
+    public long getRecordsRead() { return recordsRead; }
+    public long getRowsImported() { return rowsImported; }
+    public long getRowsRejected() { return rowsRejected; }
+    /** Records skipped at start-up because a previous run had already committed them. */
+    public long getResumedFrom() { return resumedFrom; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    /** Records processed by this run per second. */
+    public double getRecordsPerSecond() {
+        double seconds = elapsedNanos / 1e9;
+        return seconds > 0 ? (recordsRead - resumedFrom) / seconds : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %,d records (%,d resumed), %,d imported, %,d rejected in %.1f s (%,.0f records/s)",
+                source, recordsRead, resumedFrom, rowsImported, rowsRejected, elapsedNanos / 1e9, getRecordsPerSecond());
+    }
+}
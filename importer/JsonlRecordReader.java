@@ -0,0 +1,92 @@
+package importer;
+
+import server.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One JSON object per line. Numbers are turned back into their plain text
+ * form and arrays (e.g. "seats": ["A1", "A2"]) into comma-separated text, so
+ * both formats reach the importer as the same string records.
+ */
+class JsonlRecordReader implements RecordReader {
+
+    private final BufferedReader in;
+    private long recordNumber = 0;
+
+    JsonlRecordReader(Path file) throws IOException {
+        this.in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        String line;
+        do {
+            line = in.readLine();
+            if (line == null) return null;
+        } while (line.trim().isEmpty());
+
+        recordNumber++;
+        Object parsed;
+        try {
+            parsed = Json.parse(line);
+        } catch (IllegalArgumentException e) {
+            throw new MalformedRecordException("Invalid JSON: " + e.getMessage());
+        }
+        if (!(parsed instanceof Map)) {
+            throw new MalformedRecordException("Expected a JSON object");
+        }
+        Map<String, String> record = new HashMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) parsed).entrySet()) {
+            record.put(entry.getKey().toString().toLowerCase(), toText(entry.getValue()));
+        }
+        return record;
+    }
+
+    /** Skips lines without parsing them; blank lines count as they do in {@link #next}. */
+    @Override
+    public void skip(long records) throws IOException {
+        long target = recordNumber + records;
+        String line;
+        while (recordNumber < target && (line = in.readLine()) != null) {
+            if (!line.trim().isEmpty()) {
+                recordNumber++;
+            }
+        }
+    }
+
+    private static String toText(Object value) {
+        if (value == null) return null;
+        if (value instanceof Double) {
+            double number = (Double) value;
+            return number == Math.rint(number) && Math.abs(number) < 1e15
+                    ? Long.toString((long) number) : Double.toString(number);
+        }
+        if (value instanceof List) {
+            StringBuilder out = new StringBuilder();
+            for (Object item : (List<?>) value) {
+                if (out.length() > 0) out.append(',');
+                out.append(toText(item));
+            }
+            return out.toString();
+        }
+        return value.toString();
+    }
+
+    @Override
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
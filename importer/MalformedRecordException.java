@@ -0,0 +1,12 @@
+package importer;
+
+/**
+ * A record that cannot be read or does not pass validation. The importer
+ * writes it to the rejects file and carries on with the next record.
+ */
+class MalformedRecordException extends RuntimeException {
+
+    MalformedRecordException(String message) {
+        super(message);
+    }
+}
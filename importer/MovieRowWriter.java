@@ -0,0 +1,67 @@
+package importer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** Columns: title, genre, duration (minutes), poster_path. Titles must be unique. */
+class MovieRowWriter extends RowWriter {
+
+    private final Set<String> titles = new HashSet<>();
+    private final PreparedStatement insert;
+    private int pending = 0;
+
+    MovieRowWriter(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT title FROM Movies")) {
+            while (rs.next()) {
+                titles.add(titleKey(rs.getString(1)));
+            }
+        }
+        insert = conn.prepareStatement("INSERT INTO Movies (title, genre, duration, poster_path) VALUES (?, ?, ?, ?)");
+    }
+
+    @Override
+    void add(Map<String, String> record, long recordNumber) throws SQLException {
+        String title = required(record, "title", 100);
+        String genre = optional(record, "genre", 50);
+        Integer duration = record.get("duration") == null || record.get("duration").trim().isEmpty()
+                ? null : positiveInt(record, "duration");
+        String posterPath = optional(record, "poster_path", 255);
+        if (!titles.add(titleKey(title))) {
+            throw new MalformedRecordException("A movie called \"" + title + "\" already exists");
+        }
+
+        insert.setString(1, title);
+        insert.setString(2, genre);
+        if (duration != null) {
+            insert.setInt(3, duration);
+        } else {
+            insert.setNull(3, Types.INTEGER);
+        }
+        insert.setString(4, posterPath);
+        insert.addBatch();
+        pending++;
+    }
+
+    @Override
+    int flush(List<String> rejects) throws SQLException {
+        if (pending == 0) return 0;
+        insert.executeBatch();
+        int written = pending;
+        pending = 0;
+        return written;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        insert.close();
+    }
+}
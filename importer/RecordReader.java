@@ -0,0 +1,37 @@
+package importer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Streams records from an import file one at a time, so memory use does not
+ * depend on the file size. Field names are lower-case.
+ */
+interface RecordReader extends AutoCloseable {
+
+    /** Returns the next record, or null at the end of the input. */
+    Map<String, String> next() throws IOException;
+
+    /** Skips records without interpreting them; used when resuming from a checkpoint. */
+    default void skip(long records) throws IOException {
+        for (long i = 0; i < records && next() != null; i++) {
+            // Discard
+        }
+    }
+
+    /** 1-based number of the record last returned, for error messages. */
+    long getRecordNumber();
+
+    @Override
+    void close() throws IOException;
+
+    /** Picks the reader from the file extension: .jsonl / .ndjson, otherwise CSV. */
+    static RecordReader open(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return new JsonlRecordReader(file);
+        }
+        return new CsvRecordReader(file);
+    }
+}
@@ -0,0 +1,48 @@
+package importer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Rejected records go to {@code <input>.rejects}, one line each with the
+ * record number and the reason. Lines are written after their chunk commits,
+ * so a resumed import does not repeat them.
+ */
+class RejectLog implements AutoCloseable {
+
+    private final Path path;
+    private final BufferedWriter out;
+
+    RejectLog(Path input, boolean append) throws IOException {
+        this.path = input.resolveSibling(input.getFileName() + ".rejects");
+        this.out = append
+                ? Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                : Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+    }
+
+    static String format(long recordNumber, String reason) {
+        return "record " + recordNumber + ": " + reason;
+    }
+
+    void write(List<String> lines) throws IOException {
+        for (String line : lines) {
+            out.write(line);
+            out.newLine();
+        }
+        out.flush();
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,87 @@
+package importer;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validates records of one kind and writes them in batches. {@link #add}
+ * only queues a row; {@link #flush} sends the queued rows inside the
+ * caller's transaction, which also holds the checkpoint update.
+ */
+abstract class RowWriter implements AutoCloseable {
+
+    /** Validates a record and queues it, or throws MalformedRecordException. */
+    abstract void add(Map<String, String> record, long recordNumber) throws SQLException;
+
+    /**
+     * Writes the queued rows and returns how many were imported. Rows the
+     * database turns down without failing the chunk are described in
+     * {@code rejects} instead.
+     */
+    abstract int flush(List<String> rejects) throws SQLException;
+
+    @Override
+    public abstract void close() throws SQLException;
+
+    // --- FIELD HELPERS ---
+
+    static String required(Map<String, String> record, String field, int maxLength) {
+        String value = optional(record, field, maxLength);
+        if (value == null) {
+            throw new MalformedRecordException("Missing " + field);
+        }
+        return value;
+    }
+
+    static String optional(Map<String, String> record, String field, int maxLength) {
+        String value = record.get(field);
+        if (value == null || value.trim().isEmpty()) return null;
+        value = value.trim();
+        if (value.length() > maxLength) {
+            throw new MalformedRecordException(field + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    static int positiveInt(Map<String, String> record, String field) {
+        String value = required(record, field, 11);
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) return parsed;
+        } catch (NumberFormatException e) {
+            // Fall through
+        }
+        throw new MalformedRecordException(field + " must be a positive whole number: " + value);
+    }
+
+    static double amount(Map<String, String> record, String field) {
+        String value = required(record, field, 20);
+        try {
+            double parsed = Double.parseDouble(value);
+            if (parsed >= 0 && !Double.isInfinite(parsed)) return parsed;
+        } catch (NumberFormatException e) {
+            // Fall through
+        }
+        throw new MalformedRecordException(field + " must be a non-negative number: " + value);
+    }
+
+    /** Accepts "YYYY-MM-DD HH:MM[:SS[.fff]]", with a space or a 'T' in the middle. */
+    static Timestamp timestamp(String field, String value) {
+        String text = value.trim().replace('T', ' ');
+        if (text.length() == 16) {
+            text += ":00";
+        }
+        try {
+            return Timestamp.valueOf(text);
+        } catch (IllegalArgumentException e) {
+            throw new MalformedRecordException(field + " is not a date and time (YYYY-MM-DD HH:MM): " + value);
+        }
+    }
+
+    /** Lookup key for titles: trimmed and case-insensitive. */
+    static String titleKey(String title) {
+        return title.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,106 @@
+package importer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Columns: movie_title (or movie_id), screen_id, show_time, price and the
+ * optional premium_price and recliner_price. Titles are resolved against an
+ * in-memory map of the Movies table, loaded once.
+ */
+class ShowRowWriter extends RowWriter {
+
+    static final int AMBIGUOUS = -1;
+
+    private final Map<String, Integer> movieIds;
+    private final Set<Integer> knownMovieIds;
+    private final PreparedStatement insert;
+    private int pending = 0;
+
+    ShowRowWriter(Connection conn) throws SQLException {
+        movieIds = loadMovieIds(conn);
+        knownMovieIds = new HashSet<>(movieIds.values());
+        insert = conn.prepareStatement("INSERT INTO Shows (movie_id, screen_id, show_time, price, premium_price, recliner_price) "
+                + "VALUES (?, ?, ?, ?, ?, ?)");
+    }
+
+    /** Title key to movie ID; titles shared by several movies map to {@link #AMBIGUOUS}. */
+    static Map<String, Integer> loadMovieIds(Connection conn) throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT movie_id, title FROM Movies")) {
+            while (rs.next()) {
+                ids.merge(titleKey(rs.getString("title")), rs.getInt("movie_id"), (a, b) -> AMBIGUOUS);
+            }
+        }
+        return ids;
+    }
+
+    /** Finds the movie from movie_id or movie_title, or throws MalformedRecordException. */
+    static int resolveMovie(Map<String, String> record, Map<String, Integer> movieIds, Set<Integer> knownMovieIds) {
+        if (optional(record, "movie_id", 11) != null) {
+            int movieId = positiveInt(record, "movie_id");
+            if (!knownMovieIds.contains(movieId)) {
+                throw new MalformedRecordException("No movie with ID " + movieId);
+            }
+            return movieId;
+        }
+        String title = required(record, "movie_title", 100);
+        Integer movieId = movieIds.get(titleKey(title));
+        if (movieId == null) {
+            throw new MalformedRecordException("No movie called \"" + title + "\"");
+        }
+        if (movieId == AMBIGUOUS) {
+            throw new MalformedRecordException("Several movies are called \"" + title + "\"; use movie_id");
+        }
+        return movieId;
+    }
+
+    @Override
+    void add(Map<String, String> record, long recordNumber) throws SQLException {
+        int movieId = resolveMovie(record, movieIds, knownMovieIds);
+        int screenId = positiveInt(record, "screen_id");
+        Timestamp showTime = timestamp("show_time", required(record, "show_time", 30));
+        double price = amount(record, "price");
+        Double premiumPrice = optionalAmount(record, "premium_price");
+        Double reclinerPrice = optionalAmount(record, "recliner_price");
+
+        insert.setInt(1, movieId);
+        insert.setInt(2, screenId);
+        insert.setTimestamp(3, showTime);
+        insert.setDouble(4, price);
+        insert.setObject(5, premiumPrice, Types.DOUBLE);
+        insert.setObject(6, reclinerPrice, Types.DOUBLE);
+        insert.addBatch();
+        pending++;
+    }
+
+    /** An amount column that may be left out or empty, as null. */
+    private static Double optionalAmount(Map<String, String> record, String field) {
+        return optional(record, field, 20) == null ? null : amount(record, field);
+    }
+
+    @Override
+    int flush(List<String> rejects) throws SQLException {
+        if (pending == 0) return 0;
+        insert.executeBatch();
+        int written = pending;
+        pending = 0;
+        return written;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        insert.close();
+    }
+}
@@ -0,0 +1,282 @@
+package main;
+
+import model.Booking;
+import model.BookingDAO;
+import model.BookingQuery;
+import model.DAOFactory;
+import model.DatabaseConnection;
+import model.Movie;
+import model.MovieDAO;
+import model.Page;
+import model.PageCursor;
+import model.SeatCategory;
+import model.SeatConflictException;
+import model.SeatMapDelta;
+import model.Show;
+import model.ShowDAO;
+import model.ShowQuery;
+import model.ShowSchedule;
+import model.StorageBackend;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Runs the behaviour the windows and the HTTP API rely on from MovieDAO,
+ * ShowDAO and BookingDAO against the configured backend and store, so every
+ * one can be checked with the same calls:
+ *
+ * <pre>
+ * java -cp ... main.ContractCheckApp                                  # MySQL
+ * java -Dcinema.db.backend=embedded -cp ... main.ContractCheckApp     # embedded H2
+ * java -Dcinema.store=journal -cp ... main.ContractCheckApp           # journal store
+ * </pre>
+ *
+ * The checks work on a movie of their own, with a random title, and delete
+ * it at the end; other data is left alone. Exits with status 1 if any check
+ * fails.
+ */
+public class ContractCheckApp {
+
+    private interface Check {
+        void run() throws Exception;
+    }
+
+    private static final Timestamp FIRST_SHOW = Timestamp.valueOf("2031-03-01 18:00:00");
+
+    private final MovieDAO movies = DAOFactory.getMovieDAO();
+    private final ShowDAO shows = DAOFactory.getShowDAO();
+    private final BookingDAO bookings = DAOFactory.getBookingDAO();
+    private final String title = "Contract check " + UUID.randomUUID().toString().substring(0, 8);
+    private final String phone = "555" + (System.nanoTime() % 1_000_000_000L);
+
+    private int movieId;
+    private int showId;
+
+    public static void main(String[] args) throws Exception {
+        long start = System.nanoTime();
+        DatabaseConnection.initialize();
+        System.out.printf("Backend %s (%s dialect), connected and migrated in %d ms%n",
+                StorageBackend.configured().name().toLowerCase(), DatabaseConnection.getDialect(),
+                (System.nanoTime() - start) / 1_000_000);
+
+        int failures;
+        try {
+            failures = new ContractCheckApp().runAll();
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private int runAll() {
+        Map<String, Check> checks = new LinkedHashMap<>();
+        checks.put("movie is added and listed", this::addMovie);
+        checks.put("movie update is visible", this::updateMovie);
+        checks.put("show is added and listed by movie", this::addShow);
+        checks.put("schedule inserts every show in order", this::scheduleShows);
+        checks.put("show pages cover each show once", this::pageShows);
+        checks.put("deleted show is gone", this::deleteShow);
+        checks.put("booking takes its seats", this::createBooking);
+        checks.put("taken seat is a conflict", this::conflictingBooking);
+        checks.put("seat map versions and deltas", this::seatChanges);
+        checks.put("bookings filter by movie and phone", this::pageBookings);
+        checks.put("cancelled booking frees its seats", this::deleteBooking);
+        checks.put("deleting a movie removes its shows", this::deleteMovie);
+
+        int failures = 0;
+        for (Map.Entry<String, Check> check : checks.entrySet()) {
+            long start = System.nanoTime();
+            String outcome;
+            try {
+                check.getValue().run();
+                outcome = "PASS";
+            } catch (Exception | AssertionError e) {
+                outcome = "FAIL " + e;
+                failures++;
+            }
+            System.out.printf("  %-40s %6.1f ms  %s%n", check.getKey(), (System.nanoTime() - start) / 1e6, outcome);
+        }
+        if (movieId > 0) {
+            try {
+                movies.deleteMovie(movieId); // In case a check failed before deleteMovie ran
+            } catch (Exception ignored) {
+            }
+        }
+        System.out.println(failures == 0 ? "All " + checks.size() + " checks passed."
+                : failures + " of " + checks.size() + " checks failed.");
+        return failures;
+    }
+
+    // --- MOVIES ---
+
+    private void addMovie() throws Exception {
+        expect(movies.addMovie(new Movie(title, "Drama", 121, "images/dune.jpg")), "addMovie returned false");
+        Movie movie = findMovie();
+        expect(movie != null, "new movie not in getAllMovies");
+        expect(movie.getMovieId() > 0 && movie.getDuration() == 121, "unexpected movie " + movie);
+        movieId = movie.getMovieId();
+    }
+
+    private void updateMovie() throws Exception {
+        expect(movies.updateMovie(new Movie(movieId, title, "Thriller", 95, "images/dune.jpg")), "updateMovie returned false");
+        Movie movie = findMovie();
+        expect(movie != null && movie.getGenre().equals("Thriller") && movie.getDuration() == 95, "update not visible: " + movie);
+    }
+
+    private Movie findMovie() throws Exception {
+        for (Movie movie : movies.getAllMovies()) {
+            if (movie.getTitle().equals(title)) {
+                return movie;
+            }
+        }
+        return null;
+    }
+
+    // --- SHOWS ---
+
+    private void addShow() throws Exception {
+        Show added = new Show(movieId, 3, FIRST_SHOW, 180.0);
+        added.setCategoryPrices(0, 400.0);
+        expect(shows.addShow(added), "addShow returned false");
+        List<Show> list = shows.getShowsByMovieId(movieId);
+        expect(list.size() == 1, "expected 1 show, got " + list.size());
+        Show show = list.get(0);
+        expect(show.getScreenId() == 3 && show.getShowTime().equals(FIRST_SHOW) && show.getPrice() == 180.0, "unexpected show " + show);
+        expect(show.getPrice(SeatCategory.PREMIUM) == 180.0 && show.getPrice(SeatCategory.RECLINER) == 400.0,
+                "category prices were not kept: " + show.getPrice(SeatCategory.PREMIUM) + ", " + show.getPrice(SeatCategory.RECLINER));
+        showId = show.getShowId();
+    }
+
+    private void scheduleShows() throws Exception {
+        ShowSchedule schedule = new ShowSchedule(movieId, Arrays.asList(1, 2), LocalDate.of(2031, 3, 2), LocalDate.of(2031, 3, 3),
+                Arrays.asList(LocalTime.of(21, 0), LocalTime.of(14, 0)), 150.0);
+        List<Integer> ids = shows.scheduleShows(schedule);
+        expect(ids.size() == schedule.size(), "expected " + schedule.size() + " IDs, got " + ids.size());
+
+        Map<Integer, Show> stored = new LinkedHashMap<>();
+        for (Show show : shows.getShowsByMovieId(movieId)) {
+            stored.put(show.getShowId(), show);
+        }
+        List<Show> expanded = schedule.expand();
+        for (int i = 0; i < ids.size(); i++) {
+            Show show = stored.get(ids.get(i));
+            expect(show != null && show.getShowTime().equals(expanded.get(i).getShowTime())
+                    && show.getScreenId() == expanded.get(i).getScreenId(), "ID " + ids.get(i) + " does not match " + expanded.get(i));
+        }
+        Timestamp previous = null;
+        for (Show show : stored.values()) {
+            expect(previous == null || !show.getShowTime().before(previous), "getShowsByMovieId is not in show-time order");
+            previous = show.getShowTime();
+        }
+    }
+
+    private void pageShows() throws Exception {
+        ShowQuery query = new ShowQuery().movieId(movieId).sortBy(ShowQuery.SortColumn.PRICE, true);
+        Set<Integer> seen = new HashSet<>();
+        PageCursor cursor = null;
+        int pages = 0;
+        do {
+            Page<Show> page = shows.getShowsPage(query, cursor, 2);
+            for (Show show : page.getItems()) {
+                expect(show.getMovieId() == movieId, "page contains another movie's show " + show);
+                expect(seen.add(show.getShowId()), "show " + show.getShowId() + " on two pages");
+            }
+            cursor = page.getNextCursor();
+            expect(++pages <= 10, "paging does not end");
+        } while (cursor != null);
+        expect(seen.size() == shows.getShowsByMovieId(movieId).size(), "pages returned " + seen.size() + " shows");
+    }
+
+    private void deleteShow() throws Exception {
+        int last = shows.getShowsByMovieId(movieId).stream().mapToInt(Show::getShowId).max().getAsInt();
+        expect(shows.deleteShow(last), "deleteShow returned false");
+        expect(!shows.deleteShow(last), "second deleteShow returned true");
+        expect(shows.getShowsByMovieId(movieId).stream().noneMatch(s -> s.getShowId() == last), "deleted show still listed");
+    }
+
+    // --- BOOKINGS ---
+
+    private void createBooking() throws Exception {
+        expect(bookings.createBooking(new Booking(showId, "Contract Check", phone, "A1,A2", 360.0)), "createBooking returned false");
+        expect(bookings.getBookedSeats(showId).equals(new HashSet<>(Arrays.asList("A1", "A2"))),
+                "booked seats are " + bookings.getBookedSeats(showId));
+    }
+
+    private void conflictingBooking() throws Exception {
+        try {
+            bookings.createBooking(new Booking(showId, "Contract Check", phone, "A2,A3", 360.0));
+            throw new AssertionError("booking a taken seat succeeded");
+        } catch (SeatConflictException e) {
+            expect(e.getConflictingSeats().equals(Arrays.asList("A2")), "conflicting seats " + e.getConflictingSeats());
+        }
+        expect(bookings.getBookedSeats(showId).size() == 2, "failed booking left seats behind");
+    }
+
+    private void seatChanges() throws Exception {
+        long before = bookings.getSeatChanges(showId, -1).getVersion();
+        expect(before >= 1, "version " + before + " after a booking");
+        expect(!bookings.getSeatChanges(showId, before).isModified(), "current version reported as modified");
+
+        expect(bookings.createBooking(new Booking(showId, "Contract Check", phone, "B5", 180.0)), "createBooking returned false");
+        SeatMapDelta delta = bookings.getSeatChanges(showId, before);
+        expect(delta.getVersion() == before + 1, "version " + delta.getVersion() + ", expected " + (before + 1));
+        expect(!delta.isSnapshot() && delta.getBooked().equals(new HashSet<>(Arrays.asList("B5"))) && delta.getFreed().isEmpty(),
+                "unexpected delta " + delta);
+    }
+
+    private void pageBookings() throws Exception {
+        List<Booking> found = bookingsOfMovie();
+        expect(found.size() == 2, "expected 2 bookings of the movie, got " + found.size());
+        Page<Booking> byPhone = bookings.getBookingsPage(new BookingQuery().customerPhone(phone.substring(0, 6)), null, 100);
+        expect(byPhone.getItems().stream().anyMatch(b -> b.getShowId() == showId), "phone prefix search missed the booking");
+    }
+
+    private void deleteBooking() throws Exception {
+        long before = bookings.getSeatChanges(showId, -1).getVersion();
+        Booking booking = bookingsOfMovie().stream().filter(b -> b.getSelectedSeats().equals("B5")).findFirst()
+                .orElseThrow(() -> new AssertionError("B5 booking not found"));
+        expect(bookings.deleteBooking(booking.getBookingId()), "deleteBooking returned false");
+        expect(!bookings.deleteBooking(booking.getBookingId()), "second deleteBooking returned true");
+        expect(!bookings.getBookedSeats(showId).contains("B5"), "B5 still booked");
+
+        SeatMapDelta delta = bookings.getSeatChanges(showId, before);
+        expect(delta.getVersion() == before + 1 && delta.getFreed().equals(new HashSet<>(Arrays.asList("B5"))),
+                "unexpected delta " + delta);
+        expect(bookings.createBooking(new Booking(showId, "Contract Check", phone, "B5", 180.0)), "freed seat cannot be booked again");
+    }
+
+    private List<Booking> bookingsOfMovie() throws Exception {
+        List<Booking> all = new ArrayList<>();
+        PageCursor cursor = null;
+        do {
+            Page<Booking> page = bookings.getBookingsPage(new BookingQuery().movieId(movieId), cursor, 50);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return all;
+    }
+
+    private void deleteMovie() throws Exception {
+        expect(movies.deleteMovie(movieId), "deleteMovie returned false");
+        expect(findMovie() == null, "deleted movie still listed");
+        expect(shows.getShowsByMovieId(movieId).isEmpty(), "shows of the deleted movie still listed");
+        expect(bookings.getBookedSeats(showId).isEmpty(), "seats of the deleted movie's show still booked");
+        movieId = 0;
+    }
+
+    private static void expect(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
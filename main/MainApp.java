@@ -1,30 +1,73 @@
 package main;
 
 import controller.MainController;
+import model.DAOFactory;
+import model.DatabaseConnection;
+import model.Movie;
 import model.MovieDAO;
-import model.MovieDAOImpl;
 import view.MainView;
+import view.PosterThumbnails;
 import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Starts the kiosk window. The frame is shown straight away and filled in
+ * as the startup stages finish: the JDBC driver, connection and schema
+ * check run one after another in the background, next to building the
+ * window and loading the image codecs; the movie list is fetched before the
+ * window is wired to the DAOs, and posters are decoded while the grid is
+ * being built. A per-stage timing report is printed once all are done.
+ */
 public class MainApp {
 
     public static void main(String[] args) {
-        
-        SwingUtilities.invokeLater(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    MainView view = new MainView();
-                    new MainController(view);
-                    view.setVisible(true);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    JOptionPane.showMessageDialog(null, 
-                        "Could not start application.\nError: " + e.getMessage(), 
-                        "Fatal Error", 
-                        JOptionPane.ERROR_MESSAGE);
-                }
+        StartupSequence startup = new StartupSequence();
+
+        // Database first: it is the longest chain, and starting the EDT below takes a while itself
+        CompletableFuture<Void> driver = startup.inBackground("JDBC driver", DatabaseConnection::loadDriver);
+        CompletableFuture<Void> connection = startup.inBackground("connection", DatabaseConnection::connect, driver);
+        CompletableFuture<Void> schema = startup.inBackground("schema check", DatabaseConnection::migrate, connection);
+        CompletableFuture<Void> codecs = startup.inBackground("image codecs", () -> PosterThumbnails.getInstance().warmUp());
+        CompletableFuture<MainView> window = startup.onEdt("window", () -> {
+            MainView view = new MainView();
+            view.setVisible(true);
+            return view;
+        });
+        CompletableFuture<MainController> controller = startup.onEdt("controller", () -> new MainController(window.join()), window);
+
+        // The movie DAO is all the catalog needs; the others (a journal replay, say) open alongside
+        CompletableFuture<MovieDAO> movieDao = startup.inBackground("movie DAO", DAOFactory::getMovieDAO, schema);
+        CompletableFuture<Void> otherDaos = startup.inBackground("show and booking DAOs", () -> {
+            DAOFactory.getShowDAO();
+            DAOFactory.getBookingDAO();
+        }, schema);
+        CompletableFuture<List<Movie>> catalog = startup.inBackground("catalog", () -> movieDao.join().getAllMovies(), movieDao);
+        startup.inBackground("posters", () -> {
+            PosterThumbnails thumbnails = PosterThumbnails.getInstance();
+            CompletableFuture<?>[] posters = catalog.join().stream()
+                    .map(movie -> thumbnails.load(movie.getPosterPath()))
+                    .toArray(CompletableFuture<?>[]::new);
+            CompletableFuture.allOf(posters).join();
+        }, catalog, codecs);
+
+        CompletableFuture<Void> wired = startup.onEdt("wire window", () -> controller.join().connect(), controller, movieDao, otherDaos);
+        CompletableFuture<Void> grid = startup.onEdt("movie grid", () -> controller.join().showCatalog(catalog.join()), wired, catalog);
+
+        grid.whenComplete((ignored, error) -> {
+            if (error != null) {
+                SwingUtilities.invokeLater(() -> {
+                    if (controller.isCompletedExceptionally()) {
+                        JOptionPane.showMessageDialog(null,
+                            "Could not start application.\nError: " + error.getMessage(),
+                            "Fatal Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    } else {
+                        controller.join().startupFailed(error);
+                    }
+                });
             }
         });
+        startup.finish();
     }
 }
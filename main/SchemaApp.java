@@ -0,0 +1,98 @@
+package main;
+
+import model.DatabaseConnection;
+import model.SchemaMigrator;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Applies pending schema migrations (as every start does), prints the
+ * migration history, and runs EXPLAIN on the access paths the indexes exist
+ * for, reporting whether each one uses its index, another index, or scans
+ * the whole table.
+ *
+ * <pre>
+ * java -cp ... main.SchemaApp [--no-explain]
+ * </pre>
+ *
+ * Plans depend on table statistics, so check them against a database of
+ * realistic size: on a nearly empty table a full scan is the right plan.
+ */
+public class SchemaApp {
+
+    /** {description, query, index it should use} */
+    private static final String[][] PLAN_CHECKS = {
+        { "Shows of a movie", "SELECT * FROM Shows WHERE movie_id = 1 ORDER BY show_time ASC", "idx_shows_movie_time" },
+        { "Shows by time", "SELECT * FROM Shows ORDER BY show_time ASC, show_id ASC LIMIT 101", "idx_shows_time" },
+        { "Bookings of a show", "SELECT * FROM Bookings WHERE show_id = 1 ORDER BY booking_time", "idx_bookings_show_time" },
+        { "Newest bookings", "SELECT * FROM Bookings ORDER BY booking_time DESC, booking_id DESC LIMIT 101", "idx_bookings_time" },
+        { "Phone search", "SELECT * FROM Bookings WHERE customer_phone LIKE '98%'", "idx_bookings_phone" },
+        { "Daily movie report", "SELECT * FROM MovieDailyRollups WHERE show_date >= DATE '2024-01-01' AND show_date < DATE '2024-02-01'", "primary" },
+    };
+
+    public static void main(String[] args) throws Exception {
+        boolean explain = true;
+        for (String arg : args) {
+            if (arg.equals("--no-explain")) {
+                explain = false;
+            } else {
+                System.err.println("Usage: SchemaApp [--no-explain]");
+                System.exit(2);
+            }
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            System.out.println("Schema history (latest V" + SchemaMigrator.latestVersion() + "):");
+            for (SchemaMigrator.Entry entry : SchemaMigrator.status(conn)) {
+                System.out.println("  " + entry);
+            }
+            if (explain) {
+                System.out.println();
+                System.out.println("Query plans:");
+                int scans = 0;
+                for (String[] check : PLAN_CHECKS) {
+                    String plan = explain(conn, check[1]);
+                    String lower = plan.toLowerCase();
+                    String verdict;
+                    if (lower.contains(check[2].toLowerCase())) {
+                        verdict = "uses " + check[2];
+                    } else if (lower.contains("tablescan") || lower.contains("type=all ")) {
+                        verdict = "FULL SCAN, expected " + check[2];
+                        scans++;
+                    } else {
+                        verdict = "uses another index, expected " + check[2];
+                    }
+                    System.out.printf("  %-20s %s%n      %s%n", check[0], verdict, plan);
+                }
+                if (scans > 0) {
+                    System.out.println(scans + " access path" + (scans == 1 ? " scans" : "s scan") + " the whole table.");
+                }
+            }
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+    }
+
+    /** The EXPLAIN output flattened to one line, as "column=value" pairs per row on MySQL or the plan text on H2. */
+    private static String explain(Connection conn, String query) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("EXPLAIN " + query)) {
+            ResultSetMetaData meta = rs.getMetaData();
+            while (rs.next()) {
+                if (plan.length() > 0) plan.append(" | ");
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    String value = rs.getString(i);
+                    if (value == null) continue;
+                    if (meta.getColumnCount() > 1) plan.append(meta.getColumnLabel(i)).append('=');
+                    plan.append(value.replaceAll("\\s+", " ").trim()).append(' ');
+                }
+            }
+        }
+        return plan.toString().trim();
+    }
+}
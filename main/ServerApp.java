@@ -0,0 +1,34 @@
+package main;
+
+import model.DAOFactory;
+import model.DatabaseConnection;
+import server.BookingHttpServer;
+
+/**
+ * Starts the booking HTTP API without any Swing UI.
+ *
+ * Configured with system properties:
+ * cinema.http.port (default 8080), cinema.http.maxConcurrent (default 2000)
+ * and cinema.http.accessLog (default true), plus the cinema.db.* properties
+ * read by DatabaseConnection.
+ */
+public class ServerApp {
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.getInteger("cinema.http.port", 8080);
+        int maxConcurrent = Integer.getInteger("cinema.http.maxConcurrent", 2000);
+        boolean accessLog = Boolean.parseBoolean(System.getProperty("cinema.http.accessLog", "true"));
+
+        BookingHttpServer server = new BookingHttpServer(port, maxConcurrent, accessLog,
+                DAOFactory.getMovieDAO(), DAOFactory.getShowDAO(), DAOFactory.getBookingDAO());
+        server.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            DatabaseConnection.shutdown();
+        }, "server-shutdown"));
+
+        System.out.println("Booking API listening on http://localhost:" + server.getPort() + "/api/movies"
+                + " (max " + maxConcurrent + " concurrent requests)");
+    }
+}
@@ -0,0 +1,131 @@
+package main;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the stages of application startup as soon as the stages they depend
+ * on have finished, in the background or on the Swing event dispatch thread,
+ * and prints how long each one took. A stage whose dependency failed is
+ * skipped; its future fails with the same error.
+ */
+final class StartupSequence {
+
+    /** A stage producing a value for the stages after it. */
+    interface Step<T> {
+        T run() throws Exception;
+    }
+
+    /** A stage producing nothing. */
+    interface Action {
+        void run() throws Exception;
+    }
+
+    private static final int WORKER_THREADS = 4;
+
+    private static final class Stage {
+        final String name;
+        volatile String thread;
+        volatile long start; // Nanos since the sequence began, 0 until the stage runs
+        volatile long end;
+        volatile Throwable error;
+
+        Stage(String name) {
+            this.name = name;
+        }
+    }
+
+    private final long began = System.nanoTime();
+    private final List<Stage> stages = new ArrayList<>();
+    private final List<CompletableFuture<?>> futures = new ArrayList<>();
+    private final ExecutorService workers;
+
+    StartupSequence() {
+        AtomicInteger count = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(WORKER_THREADS, r -> {
+            Thread t = new Thread(r, "startup-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    <T> CompletableFuture<T> inBackground(String name, Step<T> step, CompletableFuture<?>... after) {
+        return add(name, step, workers, after);
+    }
+
+    CompletableFuture<Void> inBackground(String name, Action action, CompletableFuture<?>... after) {
+        return add(name, asStep(action), workers, after);
+    }
+
+    <T> CompletableFuture<T> onEdt(String name, Step<T> step, CompletableFuture<?>... after) {
+        return add(name, step, SwingUtilities::invokeLater, after);
+    }
+
+    CompletableFuture<Void> onEdt(String name, Action action, CompletableFuture<?>... after) {
+        return add(name, asStep(action), SwingUtilities::invokeLater, after);
+    }
+
+    private static Step<Void> asStep(Action action) {
+        return () -> {
+            action.run();
+            return null;
+        };
+    }
+
+    private synchronized <T> CompletableFuture<T> add(String name, Step<T> step, Executor executor, CompletableFuture<?>[] after) {
+        Stage stage = new Stage(name);
+        CompletableFuture<T> future = CompletableFuture.allOf(after).thenApplyAsync(ignored -> {
+            stage.thread = Thread.currentThread().getName();
+            stage.start = System.nanoTime() - began;
+            try {
+                return step.run();
+            } catch (Exception e) {
+                stage.error = e;
+                throw new CompletionException(e);
+            } finally {
+                stage.end = System.nanoTime() - began;
+            }
+        }, executor);
+        stages.add(stage);
+        futures.add(future);
+        return future;
+    }
+
+    /**
+     * Prints the timing report once every stage added so far has finished,
+     * failed or been skipped, and stops the worker threads.
+     */
+    synchronized void finish() {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+            workers.shutdown();
+            System.out.print(report());
+        });
+    }
+
+    private synchronized String report() {
+        List<Stage> sorted = new ArrayList<>(stages);
+        sorted.sort(Comparator.comparingLong((Stage stage) -> stage.start == 0 ? Long.MAX_VALUE : stage.start));
+        long total = 0;
+        StringBuilder lines = new StringBuilder();
+        for (Stage stage : sorted) {
+            if (stage.start == 0 && stage.end == 0) {
+                lines.append(String.format("  %-22s skipped%n", stage.name));
+                continue;
+            }
+            total = Math.max(total, stage.end);
+            lines.append(String.format("  %-22s %6d ms  +%6d ms  %-18s%s%n", stage.name, stage.start / 1_000_000,
+                    (stage.end - stage.start) / 1_000_000, stage.thread,
+                    stage.error != null ? "FAILED " + stage.error : ""));
+        }
+        return String.format("Startup: %d stages in %d ms (stage, started at, took, thread)%n", sorted.size(), total / 1_000_000)
+                + lines;
+    }
+}
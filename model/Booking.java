@@ -1,9 +1,11 @@
 package model;
 
 import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
 
 public class Booking {
+    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm a"); // Immutable, so shared
+
     private int bookingId; // Added ID
     private int showId;
     private String customerName;
@@ -15,6 +17,8 @@ public class Booking {
     private String movieTitle;
     private Timestamp showTime;
 
+    private String holderId; // Kiosk session whose seat holds this booking converts, if any
+
     public Booking(int showId, String customerName, String customerPhone, String selectedSeats, double totalAmount) {
         this.showId = showId;
         this.customerName = customerName;
@@ -37,6 +41,7 @@ public class Booking {
 
 
     public int getBookingId() { return bookingId; }
+    public void setBookingId(int bookingId) { this.bookingId = bookingId; } // Set by createBooking
     public int getShowId() { return showId; }
     public String getCustomerName() { return customerName; }
     public String getCustomerPhone() { return customerPhone; }
@@ -45,13 +50,15 @@ public class Booking {
     public Timestamp getBookingTime() { return bookingTime; }
     public String getMovieTitle() { return movieTitle; }
     public Timestamp getShowTime() { return showTime; }
+    public String getHolderId() { return holderId; }
+    public void setHolderId(String holderId) { this.holderId = holderId; }
 
     public String getFormattedShowTime() {
         if (showTime == null) return "N/A";
-        return new SimpleDateFormat("yyyy-MM-dd hh:mm a").format(showTime);
+        return DISPLAY_FORMAT.format(showTime.toLocalDateTime());
     }
      public String getFormattedBookingTime() {
         if (bookingTime == null) return "N/A";
-        return new SimpleDateFormat("yyyy-MM-dd hh:mm a").format(bookingTime);
+        return DISPLAY_FORMAT.format(bookingTime.toLocalDateTime());
     }
 }
@@ -5,8 +5,24 @@ import java.util.List; // Added
 import java.util.Set;
 
 public interface BookingDAO {
+    /** Inserts the booking and sets its generated ID on it. */
     boolean createBooking(Booking booking) throws SQLException;
     Set<String> getBookedSeats(int showId) throws SQLException;
     List<Booking> getAllBookingsDetailed() throws SQLException; // Added
     boolean deleteBooking(int bookingId) throws SQLException; // Added
+
+    /**
+     * Returns up to {@code limit} bookings matching the query, starting after
+     * {@code after} (null for the first page). Filtering and sorting run in SQL.
+     */
+    Page<Booking> getBookingsPage(BookingQuery query, PageCursor after, int limit) throws SQLException;
+
+    /**
+     * Compares {@code sinceVersion} with the show's seat-map version, which
+     * every booking or cancellation of the show increments. Returns "not
+     * modified" if they match, otherwise the seats booked and freed since
+     * then, or a full snapshot if the caller is too far behind (or passed a
+     * negative version).
+     */
+    SeatMapDelta getSeatChanges(int showId, long sinceVersion) throws SQLException;
 }
\ No newline at end of file
@@ -4,52 +4,289 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
 import java.util.ArrayList; // Added
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List; // Added
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class BookingDAOImpl implements BookingDAO {
 
-    private Connection conn;
+    // Bookings of one show in this process take turns to bump its seat-map version and commit
+    private static final ReentrantLock[] VERSION_LOCKS = new ReentrantLock[64];
+    static {
+        for (int i = 0; i < VERSION_LOCKS.length; i++) {
+            VERSION_LOCKS[i] = new ReentrantLock();
+        }
+    }
+
+    private final SeatInventory inventory = SeatInventory.getInstance();
+    private final SeatMapLog seatMaps = SeatMapLog.getInstance();
 
     public BookingDAOImpl() {
         try {
-            this.conn = DatabaseConnection.getConnection();
+            DatabaseConnection.initialize(); // Connections are borrowed per operation from the pool
         } catch (SQLException e) {
             e.printStackTrace();
             throw new RuntimeException("Failed to connect to database in DAO", e);
         }
     }
 
+    /**
+     * Writes the booking header and one BookingSeats row per seat in a single
+     * transaction. The unique (show_id, seat_code) key makes the database the
+     * final judge when two kiosks race for a seat. Holds placed by the
+     * booking's holder are converted into the booking; seats held by anyone
+     * else count as taken. The show's seat-map version and the reporting
+     * {@link Rollups} are updated in the same transaction.
+     *
+     * @throws SeatConflictException if any of the seats is already booked or held.
+     */
     @Override
     public boolean createBooking(Booking booking) throws SQLException {
+        int showId = booking.getShowId();
+        List<String> seats = new ArrayList<>(new LinkedHashSet<>(SeatInventory.parseSeats(booking.getSelectedSeats())));
+
+        // Claim the seats in memory first so a clash seen by this process is rejected before any write
+        List<String> taken = inventory.reserve(showId, seats, this::loadBookedSeats);
+        if (!taken.isEmpty()) {
+            // The bitmap never hears of cancellations made by other processes, so the database has the last word
+            List<String> booked;
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                booked = findBookedSeats(conn, showId, taken);
+            }
+            if (!booked.isEmpty()) {
+                throw new SeatConflictException(showId, booked);
+            }
+            inventory.evict(showId);
+            taken = inventory.reserve(showId, seats, this::loadBookedSeats);
+            if (!taken.isEmpty()) {
+                throw new SeatConflictException(showId, taken);
+            }
+        }
+
+        boolean inserted = false;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Holds are shared with other processes through the table, so they are checked in the transaction
+                List<String> held = SqlSeatHolds.heldByOthers(conn, showId, seats, booking.getHolderId(), System.currentTimeMillis());
+                if (!held.isEmpty()) {
+                    throw new SeatConflictException(showId, held);
+                }
+                Rollups.lockShow(conn, showId);
+                int bookingId = insertBookingHeader(conn, booking);
+                booking.setBookingId(bookingId);
+                insertBookingSeats(conn, bookingId, showId, seats);
+                Rollups.bookingAdded(conn, showId, seats.size(), booking.getTotalAmount());
+                if (booking.getHolderId() != null) {
+                    SqlSeatHolds.releaseBooked(conn, showId, seats, booking.getHolderId());
+                }
+                commitWithNewVersion(conn, showId, seats, true);
+                inserted = true;
+                ChangeBus.getInstance().publish(ChangeEvent.booking(ChangeEvent.Kind.CREATED, bookingId, showId, seats));
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                if (isConstraintViolation(e)) {
+                    List<String> lost = findBookedSeats(conn, showId, seats);
+                    if (!lost.isEmpty()) {
+                        // Another process booked them, so this process's bitmap is stale
+                        inventory.evict(showId);
+                        throw new SeatConflictException(showId, lost);
+                    }
+                }
+                throw e;
+            }
+        } finally {
+            if (!inserted) {
+                inventory.release(showId, seats);
+            }
+        }
+    }
+
+    /**
+     * Bumps the show's seat-map version as the last statement of the
+     * transaction, commits, and records the change in {@link SeatMapLog}.
+     *
+     * The version row's lock orders concurrent bookings of a show, so
+     * versions follow commit order, and it is held for the commit only. It
+     * lives in its own table so it never meets the locks the inserts' foreign
+     * key checks take on Shows. Within this process a striped per-show lock
+     * makes bookings queue here rather than on the database row, and keeps
+     * the log's changes in version order.
+     */
+    private void commitWithNewVersion(Connection conn, int showId, List<String> seats, boolean booked) throws SQLException {
+        ReentrantLock lock = VERSION_LOCKS[Math.floorMod(showId, VERSION_LOCKS.length)];
+        lock.lock();
+        try {
+            int updated;
+            try (PreparedStatement stmt = conn.prepareStatement("UPDATE SeatMapVersions SET seat_version = seat_version + 1 WHERE show_id = ?")) {
+                stmt.setInt(1, showId);
+                updated = stmt.executeUpdate();
+            }
+            if (updated == 0) {
+                // First change to this show; another process may be creating the row too
+                String upsert = DatabaseConnection.getDialect().incrementCounter("SeatMapVersions", "show_id", "seat_version");
+                try (PreparedStatement stmt = conn.prepareStatement(upsert)) {
+                    stmt.setInt(1, showId);
+                    stmt.executeUpdate();
+                }
+            }
+            long version;
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT seat_version FROM SeatMapVersions WHERE show_id = ?")) {
+                stmt.setInt(1, showId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    version = rs.getLong(1);
+                }
+            }
+            conn.commit();
+            seatMaps.record(showId, version, seats, booked);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int insertBookingHeader(Connection conn, Booking booking) throws SQLException {
         String sql = "INSERT INTO Bookings (show_id, customer_name, customer_phone, selected_seats, total_amount) VALUES (?, ?, ?, ?, ?)";
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setInt(1, booking.getShowId());
             stmt.setString(2, booking.getCustomerName());
             stmt.setString(3, booking.getCustomerPhone());
             stmt.setString(4, booking.getSelectedSeats());
             stmt.setDouble(5, booking.getTotalAmount());
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected == 1;
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("Booking insert returned no generated key.");
+                }
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    private void insertBookingSeats(Connection conn, int bookingId, int showId, List<String> seats) throws SQLException {
+        String sql = "INSERT INTO BookingSeats (booking_id, show_id, seat_code) VALUES (?, ?, ?)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (String seat : seats) {
+                stmt.setInt(1, bookingId);
+                stmt.setInt(2, showId);
+                stmt.setString(3, seat);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /** Returns which of the given seats are already present in BookingSeats. */
+    private List<String> findBookedSeats(Connection conn, int showId, List<String> seats) throws SQLException {
+        List<String> booked = new ArrayList<>();
+        if (seats.isEmpty()) return booked;
+
+        StringBuilder sql = new StringBuilder("SELECT seat_code FROM BookingSeats WHERE show_id = ? AND seat_code IN (");
+        for (int i = 0; i < seats.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            stmt.setInt(1, showId);
+            for (int i = 0; i < seats.size(); i++) {
+                stmt.setString(i + 2, seats.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    booked.add(rs.getString("seat_code"));
+                }
+            }
+        }
+        return booked;
+    }
+
+    private static boolean isConstraintViolation(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLIntegrityConstraintViolationException) return true;
+            if (t instanceof SQLException) {
+                String state = ((SQLException) t).getSQLState();
+                if (state != null && state.startsWith("23")) return true;
+            }
         }
+        SQLException next = e.getNextException();
+        return next != null && next != e && isConstraintViolation(next);
     }
 
+    /**
+     * The committed seats, from {@link SeatMapLog} behind the same
+     * primary-key version check as {@link #getSeatChanges}, so a booking
+     * cancelled by another process is seen at once. The seats themselves are
+     * only read from BookingSeats when the show has moved on.
+     */
     @Override
     public Set<String> getBookedSeats(int showId) throws SQLException {
+        return seatMaps.since(showId, -1, this::loadSeatMap, this::loadSeatVersion).getBooked();
+    }
+
+    /**
+     * Answered from {@link SeatMapLog}. Each poll reads the show's stored
+     * version by primary key; the seats are only read again when another
+     * process has moved it past the version in memory.
+     */
+    @Override
+    public SeatMapDelta getSeatChanges(int showId, long sinceVersion) throws SQLException {
+        return seatMaps.since(showId, sinceVersion, this::loadSeatMap, this::loadSeatVersion);
+    }
+
+    private long loadSeatVersion(int showId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT seat_version FROM SeatMapVersions WHERE show_id = ?")) {
+            stmt.setInt(1, showId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    /** The show's version and committed seats, read in one statement so they agree. */
+    private SeatMapDelta loadSeatMap(int showId) throws SQLException {
+        String sql = "SELECT COALESCE(v.seat_version, 0) AS seat_version, bs.seat_code FROM Shows s " +
+                     "LEFT JOIN SeatMapVersions v ON v.show_id = s.show_id " +
+                     "LEFT JOIN BookingSeats bs ON bs.show_id = s.show_id " +
+                     "WHERE s.show_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, showId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                long version = rs.getLong("seat_version");
+                Set<String> booked = new HashSet<>();
+                do {
+                    String seat = rs.getString("seat_code");
+                    if (seat != null) booked.add(seat);
+                } while (rs.next());
+                return SeatMapDelta.snapshot(version, booked);
+            }
+        }
+    }
+
+    private Set<String> loadBookedSeats(int showId) throws SQLException {
         Set<String> bookedSeats = new HashSet<>();
-        String sql = "SELECT selected_seats FROM Bookings WHERE show_id = ?";
+        String sql = "SELECT seat_code FROM BookingSeats WHERE show_id = ?";
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, showId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    String[] seats = rs.getString("selected_seats").split(",");
-                    for (String seat : seats) {
-                        bookedSeats.add(seat.trim());
-                    }
+                    bookedSeats.add(rs.getString("seat_code"));
                 }
             }
         }
@@ -65,34 +302,141 @@ public class BookingDAOImpl implements BookingDAO {
                      "JOIN Movies m ON s.movie_id = m.movie_id " +
                      "ORDER BY b.booking_time DESC";
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                Booking booking = new Booking(
-                    rs.getInt("booking_id"),
-                    rs.getInt("show_id"),
-                    rs.getString("customer_name"),
-                    rs.getString("customer_phone"),
-                    rs.getString("selected_seats"),
-                    rs.getDouble("total_amount"),
-                    rs.getTimestamp("booking_time"),
-                    rs.getString("title"), // Joined movie title
-                    rs.getTimestamp("show_time") // Joined show time
-                );
+                Booking booking = extractDetailedBooking(rs);
                 bookings.add(booking);
             }
         }
         return bookings;
     }
 
+    @Override
+    public Page<Booking> getBookingsPage(BookingQuery query, PageCursor after, int limit) throws SQLException {
+        String sortColumn = query.getSortColumn().getSql();
+        String direction = query.isDescending() ? "DESC" : "ASC";
+        String seek = query.isDescending() ? "<" : ">";
+        List<Object> params = new ArrayList<>();
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT b.*, m.title, s.show_time, " + sortColumn + " AS sort_key " +
+                "FROM Bookings b " +
+                "JOIN Shows s ON b.show_id = s.show_id " +
+                "JOIN Movies m ON s.movie_id = m.movie_id " +
+                "WHERE 1 = 1");
+        if (query.getMovieId() > 0) {
+            sql.append(" AND s.movie_id = ?");
+            params.add(query.getMovieId());
+        }
+        if (query.getBookedFrom() != null) {
+            sql.append(" AND b.booking_time >= ?");
+            params.add(query.getBookedFrom());
+        }
+        if (query.getBookedTo() != null) {
+            sql.append(" AND b.booking_time < ?");
+            params.add(query.getBookedTo());
+        }
+        if (query.getCustomerPhone() != null && !query.getCustomerPhone().isEmpty()) {
+            sql.append(" AND b.customer_phone LIKE ? ESCAPE '!'");
+            params.add(escapeLike(query.getCustomerPhone()) + "%");
+        }
+        if (after != null) {
+            // Seek past the last row of the previous page; booking_id breaks ties in the sort column
+            sql.append(" AND (").append(sortColumn).append(' ').append(seek).append(" ? OR (")
+               .append(sortColumn).append(" = ? AND b.booking_id ").append(seek).append(" ?))");
+            params.add(after.getSortValue());
+            params.add(after.getSortValue());
+            params.add(after.getId());
+        }
+        sql.append(" ORDER BY ").append(sortColumn).append(' ').append(direction)
+           .append(", b.booking_id ").append(direction)
+           .append(" LIMIT ?");
+        params.add(limit + 1); // One extra row tells us whether another page exists
+
+        List<Booking> bookings = new ArrayList<>();
+        PageCursor next = null;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                Object lastSortValue = null;
+                while (rs.next()) {
+                    if (bookings.size() == limit) {
+                        Booking last = bookings.get(bookings.size() - 1);
+                        next = new PageCursor(lastSortValue, last.getBookingId());
+                        break;
+                    }
+                    bookings.add(extractDetailedBooking(rs));
+                    lastSortValue = rs.getObject("sort_key");
+                }
+            }
+        }
+        return new Page<>(bookings, next);
+    }
+
+    private Booking extractDetailedBooking(ResultSet rs) throws SQLException {
+        return new Booking(
+            rs.getInt("booking_id"),
+            rs.getInt("show_id"),
+            rs.getString("customer_name"),
+            rs.getString("customer_phone"),
+            rs.getString("selected_seats"),
+            rs.getDouble("total_amount"),
+            rs.getTimestamp("booking_time"),
+            rs.getString("title"), // Joined movie title
+            rs.getTimestamp("show_time") // Joined show time
+        );
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
     @Override
     public boolean deleteBooking(int bookingId) throws SQLException {
-        String sql = "DELETE FROM Bookings WHERE booking_id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, bookingId);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected == 1;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            // Look up the seats first so they can be freed in the inventory afterwards
+            int showId = 0;
+            String selectedSeats = null;
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT show_id, selected_seats FROM Bookings WHERE booking_id = ?")) {
+                stmt.setInt(1, bookingId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        showId = rs.getInt("show_id");
+                        selectedSeats = rs.getString("selected_seats");
+                    }
+                }
+            }
+            if (selectedSeats == null) {
+                return false;
+            }
+
+            conn.setAutoCommit(false);
+            try {
+                Rollups.bookingRemoved(conn, bookingId);
+                int rowsAffected;
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM Bookings WHERE booking_id = ?")) {
+                    stmt.setInt(1, bookingId);
+                    rowsAffected = stmt.executeUpdate();
+                }
+                if (rowsAffected != 1) {
+                    conn.rollback(); // Deleted by someone else meanwhile
+                    return false;
+                }
+                List<String> seats = SeatInventory.parseSeats(selectedSeats);
+                commitWithNewVersion(conn, showId, seats, false);
+                inventory.release(showId, seats);
+                ChangeBus.getInstance().publish(ChangeEvent.booking(ChangeEvent.Kind.DELETED, bookingId, showId, seats));
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package model;
+
+import java.sql.Timestamp;
+
+/**
+ * Filter and sort options for {@link BookingDAO#getBookingsPage}. Unset
+ * filters (0 / null / empty) match everything.
+ */
+public class BookingQuery {
+
+    public enum SortColumn {
+        BOOKING_TIME("b.booking_time"),
+        SHOW_TIME("s.show_time"),
+        TOTAL_AMOUNT("b.total_amount");
+
+        private final String sql;
+
+        SortColumn(String sql) { this.sql = sql; }
+
+        public String getSql() { return sql; }
+    }
+
+    private int movieId;
+    private Timestamp bookedFrom; // inclusive
+    private Timestamp bookedTo;   // exclusive
+    private String customerPhone; // prefix match
+    private SortColumn sortColumn = SortColumn.BOOKING_TIME;
+    private boolean descending = true;
+
+    public BookingQuery movieId(int movieId) { this.movieId = movieId; return this; }
+    public BookingQuery bookedFrom(Timestamp bookedFrom) { this.bookedFrom = bookedFrom; return this; }
+    public BookingQuery bookedTo(Timestamp bookedTo) { this.bookedTo = bookedTo; return this; }
+    public BookingQuery customerPhone(String customerPhone) { this.customerPhone = customerPhone; return this; }
+    public BookingQuery sortBy(SortColumn sortColumn, boolean descending) {
+        this.sortColumn = sortColumn;
+        this.descending = descending;
+        return this;
+    }
+
+    public int getMovieId() { return movieId; }
+    public Timestamp getBookedFrom() { return bookedFrom; }
+    public Timestamp getBookedTo() { return bookedTo; }
+    public String getCustomerPhone() { return customerPhone; }
+    public SortColumn getSortColumn() { return sortColumn; }
+    public boolean isDescending() { return descending; }
+}
@@ -0,0 +1,42 @@
+package model;
+
+/**
+ * Point-in-time counters of a {@link LoadingCache}.
+ */
+public class CacheStats {
+
+    private final String name;
+    private final long hits;
+    private final long misses;
+    private final long collapsedLoads;
+    private final long invalidations;
+    private final int size;
+
+    public CacheStats(String name, long hits, long misses, long collapsedLoads, long invalidations, int size) {
+        this.name = name;
+        this.hits = hits;
+        this.misses = misses;
+        this.collapsedLoads = collapsedLoads;
+        this.invalidations = invalidations;
+        this.size = size;
+    }
+
+    public String getName() { return name; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    /** Requests that arrived while the same key was already loading and waited for that load. */
+    public long getCollapsedLoads() { return collapsedLoads; }
+    public long getInvalidations() { return invalidations; }
+    public int getSize() { return size; }
+
+    public double getHitRatio() {
+        long total = hits + misses + collapsedLoads;
+        return total == 0 ? 0.0 : (double) (hits + collapsedLoads) / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: hits=%d misses=%d collapsed=%d invalidations=%d size=%d hitRatio=%.1f%%",
+                name, hits, misses, collapsedLoads, invalidations, size, getHitRatio() * 100);
+    }
+}
@@ -0,0 +1,67 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link MovieDAO} decorator that caches the movie list. Every write
+ * invalidates it. Updating or deleting a movie also runs {@code onShowsStale},
+ * because cached shows carry the movie title and a delete cascades to them.
+ */
+public class CachingMovieDAO implements MovieDAO {
+
+    private static final String ALL = "all";
+
+    private final MovieDAO delegate;
+    private final LoadingCache<String, List<Movie>> cache;
+    private final Runnable onShowsStale;
+
+    public CachingMovieDAO(MovieDAO delegate, long ttlMillis, Runnable onShowsStale) {
+        this.delegate = delegate;
+        this.cache = new LoadingCache<>("movies", ttlMillis);
+        this.onShowsStale = onShowsStale;
+    }
+
+    @Override
+    public List<Movie> getAllMovies() throws SQLException {
+        return cache.get(ALL, () -> Collections.unmodifiableList(delegate.getAllMovies()));
+    }
+
+    @Override
+    public boolean addMovie(Movie movie) throws SQLException {
+        try {
+            return delegate.addMovie(movie);
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    @Override
+    public boolean updateMovie(Movie movie) throws SQLException {
+        try {
+            return delegate.updateMovie(movie);
+        } finally {
+            cache.invalidateAll();
+            onShowsStale.run();
+        }
+    }
+
+    @Override
+    public boolean deleteMovie(int movieId) throws SQLException {
+        try {
+            return delegate.deleteMovie(movieId);
+        } finally {
+            cache.invalidateAll();
+            onShowsStale.run();
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+}
@@ -0,0 +1,82 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link ShowDAO} decorator that caches the full show list and the show list
+ * of each movie. Adding a show only drops that movie's list; deleting one
+ * drops everything, because the show ID alone does not say which movie it
+ * belonged to. Paged admin queries always go to the database.
+ */
+public class CachingShowDAO implements ShowDAO {
+
+    private static final int ALL_SHOWS = -1;
+
+    private final ShowDAO delegate;
+    private final LoadingCache<Integer, List<Show>> cache;
+
+    public CachingShowDAO(ShowDAO delegate, long ttlMillis) {
+        this.delegate = delegate;
+        this.cache = new LoadingCache<>("shows", ttlMillis);
+    }
+
+    @Override
+    public List<Show> getAllShows() throws SQLException {
+        return cache.get(ALL_SHOWS, () -> Collections.unmodifiableList(delegate.getAllShows()));
+    }
+
+    @Override
+    public List<Show> getShowsByMovieId(int movieId) throws SQLException {
+        return cache.get(movieId, () -> Collections.unmodifiableList(delegate.getShowsByMovieId(movieId)));
+    }
+
+    /** Not cached: a primary-key read is cheap, and a deleted show must not linger. */
+    @Override
+    public Show getShow(int showId) throws SQLException {
+        return delegate.getShow(showId);
+    }
+
+    @Override
+    public Page<Show> getShowsPage(ShowQuery query, PageCursor after, int limit) throws SQLException {
+        return delegate.getShowsPage(query, after, limit);
+    }
+
+    @Override
+    public boolean addShow(Show show) throws SQLException {
+        try {
+            return delegate.addShow(show);
+        } finally {
+            cache.invalidate(show.getMovieId());
+            cache.invalidate(ALL_SHOWS);
+        }
+    }
+
+    @Override
+    public List<Integer> scheduleShows(ShowSchedule schedule) throws SQLException {
+        try {
+            return delegate.scheduleShows(schedule);
+        } finally {
+            cache.invalidate(schedule.getMovieId());
+            cache.invalidate(ALL_SHOWS);
+        }
+    }
+
+    @Override
+    public boolean deleteShow(int showId) throws SQLException {
+        try {
+            return delegate.deleteShow(showId);
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+}
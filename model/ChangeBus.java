@@ -0,0 +1,165 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * In-process publisher of {@link ChangeEvent}s. The DAOs publish after each
+ * committed change; windows subscribe and patch what they show instead of
+ * reloading it.
+ *
+ * Subscribers receive batches. Each subscription keeps the events it has not
+ * been sent yet in a small map keyed by row, so while a subscriber has no
+ * outstanding demand (it is still busy with the previous batch) repeated
+ * changes to the same row collapse into one and a created-then-deleted row
+ * disappears altogether. If more than {@link #MAX_PENDING} rows pile up, the
+ * backlog is dropped in favour of a single {@link ChangeEvent#reset()}, so a
+ * stalled subscriber costs bounded memory and never slows down publishers.
+ */
+public class ChangeBus implements Flow.Publisher<List<ChangeEvent>> {
+
+    static final int MAX_PENDING = 1024;
+
+    private static final ChangeBus INSTANCE = new ChangeBus();
+
+    private final List<BusSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final List<Consumer<ChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService delivery = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "change-bus");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    ChangeBus() {}
+
+    public static ChangeBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs {@code listener} on the publishing thread for every event, before
+     * any subscriber is told. Meant for cache invalidation, so a subscriber
+     * that reloads in response never reads a stale cache; must be quick.
+     */
+    public void addListener(Consumer<ChangeEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /** Queues the event for every subscriber; never blocks. */
+    public void publish(ChangeEvent event) {
+        for (Consumer<ChangeEvent> listener : listeners) {
+            listener.accept(event);
+        }
+        for (BusSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    public void publishAll(List<ChangeEvent> events) {
+        for (ChangeEvent event : events) {
+            publish(event);
+        }
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<ChangeEvent>> subscriber) {
+        BusSubscription subscription = new BusSubscription(subscriber);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private final class BusSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super List<ChangeEvent>> subscriber;
+
+        // Guarded by this
+        private final Map<String, ChangeEvent> pending = new LinkedHashMap<>();
+        private boolean overflowed = false;
+        private long demand = 0;
+        private boolean scheduled = false;
+        private boolean cancelled = false;
+
+        BusSubscription(Flow.Subscriber<? super List<ChangeEvent>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        synchronized void offer(ChangeEvent event) {
+            if (cancelled || overflowed) {
+                return; // A reset is already on its way, which covers this change too
+            }
+            String key = event.key();
+            ChangeEvent earlier = pending.remove(key);
+            ChangeEvent merged = earlier == null ? event : earlier.then(event);
+            if (merged != null) {
+                pending.put(key, merged); // Re-inserted, so batches keep the order of the latest changes
+            }
+            if (pending.size() > MAX_PENDING) {
+                pending.clear();
+                overflowed = true;
+            }
+            scheduleIfReady();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Requested " + n + " batches; must be positive"));
+                return;
+            }
+            synchronized (this) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n; // Saturate, as Flow requires
+                scheduleIfReady();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                pending.clear();
+            }
+            subscriptions.remove(this);
+        }
+
+        private void scheduleIfReady() {
+            if (!scheduled && !cancelled && demand > 0 && (overflowed || !pending.isEmpty())) {
+                scheduled = true;
+                delivery.execute(this::deliver);
+            }
+        }
+
+        private void deliver() {
+            List<ChangeEvent> batch;
+            synchronized (this) {
+                scheduled = false;
+                if (cancelled) return;
+                batch = overflowed ? Collections.singletonList(ChangeEvent.reset()) : new ArrayList<>(pending.values());
+                pending.clear();
+                overflowed = false;
+                demand--;
+            }
+            try {
+                subscriber.onNext(batch);
+            } catch (RuntimeException e) {
+                cancel();
+                subscriber.onError(e);
+                return;
+            }
+            synchronized (this) {
+                scheduleIfReady();
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A committed change to a movie, show or booking, published on the
+ * {@link ChangeBus} by the DAOs. {@code parentId} is the movie of a show or
+ * the show of a booking (0 if unknown); booking events also carry the seats.
+ *
+ * A {@link Kind#RESET} event has no entity: the subscriber fell too far
+ * behind to be told what changed and should reload everything it shows.
+ */
+public final class ChangeEvent {
+
+    public enum Entity { MOVIE, SHOW, BOOKING }
+
+    public enum Kind { CREATED, UPDATED, DELETED, RESET }
+
+    private static final ChangeEvent RESET = new ChangeEvent(null, Kind.RESET, 0, 0, Collections.emptyList());
+
+    private final Entity entity;
+    private final Kind kind;
+    private final int id;
+    private final int parentId;
+    private final List<String> seats;
+
+    private ChangeEvent(Entity entity, Kind kind, int id, int parentId, List<String> seats) {
+        this.entity = entity;
+        this.kind = kind;
+        this.id = id;
+        this.parentId = parentId;
+        this.seats = seats;
+    }
+
+    public static ChangeEvent movie(Kind kind, int movieId) {
+        return new ChangeEvent(Entity.MOVIE, kind, movieId, 0, Collections.emptyList());
+    }
+
+    public static ChangeEvent show(Kind kind, int showId, int movieId) {
+        return new ChangeEvent(Entity.SHOW, kind, showId, movieId, Collections.emptyList());
+    }
+
+    public static ChangeEvent booking(Kind kind, int bookingId, int showId, List<String> seats) {
+        return new ChangeEvent(Entity.BOOKING, kind, bookingId, showId, Collections.unmodifiableList(seats));
+    }
+
+    public static ChangeEvent reset() {
+        return RESET;
+    }
+
+    public Entity getEntity() { return entity; }
+    public Kind getKind() { return kind; }
+    public int getId() { return id; }
+    public int getParentId() { return parentId; }
+    public List<String> getSeats() { return seats; }
+
+    /** Events about the same row share a key, so later ones can replace earlier ones. */
+    String key() {
+        return entity + "#" + id;
+    }
+
+    /**
+     * Folds a later event about the same row into this one, or returns null
+     * when the two cancel out (created, then deleted before anyone saw it).
+     */
+    ChangeEvent then(ChangeEvent later) {
+        if (kind == Kind.CREATED) {
+            if (later.kind == Kind.DELETED) return null;
+            return new ChangeEvent(entity, Kind.CREATED, id, later.parentId, later.seats);
+        }
+        return later;
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.RESET ? "RESET" : entity + " " + kind + " " + id;
+    }
+}
@@ -0,0 +1,406 @@
+package model;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A small bounded JDBC connection pool.
+ *
+ * Callers borrow a connection with {@link #borrow()} and give it back by
+ * closing it, so the usual try-with-resources blocks in the DAOs work
+ * unchanged. Idle connections are validated before they are handed out and
+ * closed by a background sweep once they have been idle for too long. Every
+ * physical connection keeps its own prepared-statement cache.
+ */
+public class ConnectionPool {
+
+    /** Supplies new physical connections. */
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private static final long VALIDATE_AFTER_IDLE_MS = 1_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final int minIdle;
+    private final long borrowTimeoutMs;
+    private final long idleTimeoutMs;
+    private final int statementCacheSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final ArrayDeque<Entry> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+
+    // Guarded by lock
+    private int total = 0;
+    private int waiters = 0;
+    private long borrowCount = 0;
+    private long timeoutCount = 0;
+    private long totalWaitNanos = 0;
+    private long maxWaitNanos = 0;
+    private boolean closed = false;
+
+    public ConnectionPool(String url, String user, String password, int maxSize, int minIdle,
+                          long borrowTimeoutMs, long idleTimeoutMs, int statementCacheSize) {
+        this(() -> DriverManager.getConnection(url, user, password),
+             maxSize, minIdle, borrowTimeoutMs, idleTimeoutMs, statementCacheSize);
+    }
+
+    public ConnectionPool(ConnectionFactory factory, int maxSize, int minIdle,
+                          long borrowTimeoutMs, long idleTimeoutMs, int statementCacheSize) {
+        if (maxSize < 1 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: max=" + maxSize + ", minIdle=" + minIdle);
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.minIdle = minIdle;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.statementCacheSize = statementCacheSize;
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long sweep = Math.max(1_000, idleTimeoutMs / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, sweep, sweep, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the borrow timeout when the pool is
+     * exhausted. Closing the returned connection hands it back to the pool.
+     */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMs);
+
+        while (true) {
+            Entry entry = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed.");
+                    }
+                    entry = idle.pollFirst();
+                    if (entry != null) break;
+                    if (total < maxSize) {
+                        total++; // Reserve the slot, the connection is opened outside the lock
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeoutCount++;
+                        throw new SQLException("Timed out after " + borrowTimeoutMs + " ms waiting for a database connection ("
+                                + total + " in use).");
+                    }
+                    waiters++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection.", e);
+                    } finally {
+                        waiters--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    entry = new Entry(factory.create());
+                } catch (SQLException | RuntimeException e) {
+                    discardSlot();
+                    throw e;
+                }
+            } else if (!isUsable(entry)) {
+                destroy(entry);
+                continue; // Try the next idle connection or open a new one
+            }
+
+            recordWait(System.nanoTime() - start);
+            return entry.handle();
+        }
+    }
+
+    private boolean isUsable(Entry entry) {
+        if (System.currentTimeMillis() - entry.lastReturned < VALIDATE_AFTER_IDLE_MS) {
+            return true;
+        }
+        try {
+            return entry.raw.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void recordWait(long waitedNanos) {
+        lock.lock();
+        try {
+            borrowCount++;
+            totalWaitNanos += waitedNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitedNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Entry entry) {
+        boolean healthy;
+        try {
+            if (!entry.raw.getAutoCommit()) {
+                entry.raw.rollback(); // Never hand out a connection with an open transaction
+                entry.raw.setAutoCommit(true);
+            }
+            healthy = !entry.raw.isClosed();
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        if (!healthy) {
+            destroy(entry);
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                total--;
+            } else {
+                entry.lastReturned = System.currentTimeMillis();
+                idle.addFirst(entry); // LIFO keeps the hot connections hot and lets the rest age out
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        entry.closeQuietly();
+    }
+
+    private void destroy(Entry entry) {
+        entry.closeQuietly();
+        discardSlot();
+    }
+
+    private void discardSlot() {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Closes connections that have been idle longer than the idle timeout, keeping minIdle around. */
+    void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        ArrayDeque<Entry> expired = new ArrayDeque<>();
+
+        lock.lock();
+        try {
+            Iterator<Entry> it = idle.descendingIterator(); // Oldest first
+            while (it.hasNext() && idle.size() > minIdle) {
+                Entry entry = it.next();
+                if (entry.lastReturned < cutoff) {
+                    it.remove();
+                    total--;
+                    expired.add(entry);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Entry entry : expired) {
+            entry.closeQuietly();
+        }
+    }
+
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            return new PoolStats(total - idle.size(), idle.size(), waiters, maxSize,
+                    borrowCount, timeoutCount, totalWaitNanos, maxWaitNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        evictor.shutdownNow();
+        ArrayDeque<Entry> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            total -= idle.size();
+            toClose = new ArrayDeque<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Entry entry : toClose) {
+            entry.closeQuietly();
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** One physical connection plus its statement cache. */
+    private final class Entry {
+        final Connection raw;
+        final Map<String, PreparedStatement> statements;
+        long lastReturned = System.currentTimeMillis();
+
+        Entry(Connection raw) {
+            this.raw = raw;
+            this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() > statementCacheSize) {
+                        closeQuietly(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        /** A fresh borrower-facing proxy; closing it returns this entry to the pool. */
+        Connection handle() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new HandleInvocationHandler(this));
+        }
+
+        /**
+         * Returns a cached statement for the given SQL, or prepares and caches one.
+         * Only the plain and generated-keys variants of prepareStatement are cached.
+         */
+        PreparedStatement prepare(String sql, Integer autoGeneratedKeys) throws SQLException {
+            String key = autoGeneratedKeys == null ? sql : autoGeneratedKeys + "|" + sql;
+            PreparedStatement stmt = statements.get(key);
+            if (stmt == null || stmt.isClosed()) {
+                stmt = autoGeneratedKeys == null
+                        ? raw.prepareStatement(sql)
+                        : raw.prepareStatement(sql, autoGeneratedKeys);
+                if (statementCacheSize > 0) {
+                    statements.put(key, stmt);
+                } else {
+                    return stmt;
+                }
+            }
+            return cachedStatement(stmt);
+        }
+
+        private PreparedStatement cachedStatement(PreparedStatement stmt) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                            stmt.clearParameters(); // Keep the statement for the next borrower
+                            stmt.clearBatch();
+                            return null;
+                        }
+                        return invoke(stmt, method, args);
+                    });
+        }
+
+        void closeQuietly() {
+            for (PreparedStatement stmt : statements.values()) {
+                closeQuietly(stmt);
+            }
+            statements.clear();
+            try {
+                raw.close();
+            } catch (SQLException ignored) {
+                // Nothing useful to do with a failing close
+            }
+        }
+
+        private void closeQuietly(PreparedStatement stmt) {
+            try {
+                stmt.close();
+            } catch (SQLException ignored) {
+                // Nothing useful to do with a failing close
+            }
+        }
+    }
+
+    private final class HandleInvocationHandler implements InvocationHandler {
+        private final Entry entry;
+        private boolean released = false;
+
+        HandleInvocationHandler(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || entry.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.raw + "]";
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            if ("prepareStatement".equals(name) && args != null) {
+                if (args.length == 1) {
+                    return entry.prepare((String) args[0], null);
+                }
+                if (args.length == 2 && method.getParameterTypes()[1] == int.class) {
+                    return entry.prepare((String) args[0], (Integer) args[1]);
+                }
+            }
+            return ConnectionPool.invoke(entry.raw, method, args);
+        }
+    }
+}
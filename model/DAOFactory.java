@@ -0,0 +1,121 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands out the DAOs shared by every window. Movies and shows are wrapped in
+ * read-through caches, so the customer screen and the admin dashboard share
+ * one catalog cache and an admin change is visible to both. Every DAO is
+ * also metered, measuring the latency callers actually see.
+ *
+ * With -Dcinema.store=journal, shows and bookings come from the in-memory
+ * {@link JournalStore} instead of SQL; its show reads need no cache.
+ *
+ * The catalog caches are also dropped on every movie or show change published
+ * on the {@link ChangeBus}, before windows are told about it, so a window
+ * reloading in response reads fresh data.
+ */
+public class DAOFactory {
+
+    private static final long CATALOG_TTL_MS = 5 * 60_000;
+
+    // One lock per DAO, so a slow first open of one (journal replay) does not hold up the others
+    private static final Object SHOW_LOCK = new Object();
+    private static final Object MOVIE_LOCK = new Object();
+    private static final Object BOOKING_LOCK = new Object();
+    private static final Object REPORT_LOCK = new Object();
+    private static final Object HOLD_LOCK = new Object();
+
+    private static volatile CachingShowDAO cachingShowDAO;
+    private static volatile CachingMovieDAO cachingMovieDAO;
+    private static ShowDAO showDAO;
+    private static MovieDAO movieDAO;
+    private static BookingDAO bookingDAO;
+    private static ReportDAO reportDAO;
+    private static SeatHolds seatHolds;
+
+    private DAOFactory() {}
+
+    public static ShowDAO getShowDAO() {
+        synchronized (SHOW_LOCK) {
+            if (showDAO == null && useJournal()) {
+                showDAO = new MeteredShowDAO(new JournalShowDAO(), DaoMetrics.getInstance());
+            } else if (showDAO == null) {
+                CachingShowDAO shows = new CachingShowDAO(new ShowDAOImpl(), CATALOG_TTL_MS);
+                ChangeBus.getInstance().addListener(event -> {
+                    if (event.getEntity() != ChangeEvent.Entity.BOOKING) shows.invalidateAll();
+                });
+                cachingShowDAO = shows;
+                showDAO = new MeteredShowDAO(shows, DaoMetrics.getInstance());
+            }
+            return showDAO;
+        }
+    }
+
+    public static MovieDAO getMovieDAO() {
+        synchronized (MOVIE_LOCK) {
+            if (movieDAO == null) {
+                CachingMovieDAO movies = new CachingMovieDAO(new MovieDAOImpl(), CATALOG_TTL_MS, DAOFactory::invalidateShows);
+                ChangeBus.getInstance().addListener(event -> {
+                    if (event.getEntity() == ChangeEvent.Entity.MOVIE || event.getKind() == ChangeEvent.Kind.RESET) movies.invalidateAll();
+                });
+                cachingMovieDAO = movies;
+                movieDAO = new MeteredMovieDAO(movies, DaoMetrics.getInstance());
+            }
+            return movieDAO;
+        }
+    }
+
+    public static BookingDAO getBookingDAO() {
+        synchronized (BOOKING_LOCK) {
+            if (bookingDAO == null) {
+                BookingDAO dao = useJournal() ? new JournalBookingDAO() : new BookingDAOImpl();
+                bookingDAO = new MeteredBookingDAO(dao, DaoMetrics.getInstance());
+            }
+            return bookingDAO;
+        }
+    }
+
+    /** Holds in memory for the journal store, whose single process sees them all; otherwise in SQL. */
+    public static SeatHolds getSeatHolds() {
+        synchronized (HOLD_LOCK) {
+            if (seatHolds == null) {
+                seatHolds = useJournal() ? SeatHoldManager.getInstance() : new SqlSeatHolds(SeatHoldManager.DEFAULT_TTL_MS);
+            }
+            return seatHolds;
+        }
+    }
+
+    /** Reports always read the SQL rollups; in journal mode the replicator keeps them current. */
+    public static ReportDAO getReportDAO() {
+        synchronized (REPORT_LOCK) {
+            if (reportDAO == null) {
+                reportDAO = new ReportDAOImpl();
+            }
+            return reportDAO;
+        }
+    }
+
+    /** Movie changes make cached shows stale (their titles, or a cascade); nothing to do before shows are cached. */
+    private static void invalidateShows() {
+        CachingShowDAO shows = cachingShowDAO;
+        if (shows != null) shows.invalidateAll();
+    }
+
+    /** True if -Dcinema.store selects the journal store rather than SQL (the default). */
+    private static boolean useJournal() {
+        String store = System.getProperty("cinema.store", "sql").trim();
+        if (store.equalsIgnoreCase("journal")) return true;
+        if (store.equalsIgnoreCase("sql")) return false;
+        throw new IllegalArgumentException("Unknown cinema.store '" + store + "', expected sql or journal");
+    }
+
+    /** Stats of the catalog caches created so far. */
+    public static List<CacheStats> getCacheStats() {
+        List<CacheStats> stats = new ArrayList<>();
+        if (cachingMovieDAO != null) stats.add(cachingMovieDAO.getCacheStats());
+        if (cachingShowDAO != null) stats.add(cachingShowDAO.getCacheStats());
+        return stats;
+    }
+}
@@ -0,0 +1,86 @@
+package model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registry of per-method DAO metrics, filled by the Metered*DAO decorators.
+ * Decorators look their {@link MethodMetrics} up once at construction, so
+ * the hot path never touches this map.
+ */
+public class DaoMetrics {
+
+    private static final DaoMetrics INSTANCE = new DaoMetrics();
+
+    private final Map<String, MethodMetrics> methods = new ConcurrentSkipListMap<>(); // Sorted for stable output
+    private volatile long since = System.currentTimeMillis();
+
+    private DaoMetrics() {}
+
+    public static DaoMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /** Returns the metrics for a method such as "BookingDAO.createBooking", creating them on first use. */
+    public MethodMetrics method(String name) {
+        return methods.computeIfAbsent(name, MethodMetrics::new);
+    }
+
+    public List<MethodStats> snapshot() {
+        List<MethodStats> stats = new ArrayList<>(methods.size());
+        for (MethodMetrics m : methods.values()) {
+            stats.add(m.snapshot());
+        }
+        return stats;
+    }
+
+    /** Zeroes every counter. Recordings that race with the reset may land on either side of it. */
+    public void reset() {
+        for (MethodMetrics m : methods.values()) {
+            m.reset();
+        }
+        since = System.currentTimeMillis();
+    }
+
+    /** Start of the current measuring window (startup or last reset), in epoch millis. */
+    public long getSince() {
+        return since;
+    }
+
+    /** One line per method, for logs and the clipboard. */
+    public String toText() {
+        StringBuilder out = new StringBuilder();
+        out.append("DAO metrics since ").append(Instant.ofEpochMilli(since)).append('\n');
+        for (MethodStats s : snapshot()) {
+            out.append(s).append('\n');
+        }
+        return out.toString();
+    }
+
+    /** The same data as JSON, with latencies in nanoseconds, for offline analysis. */
+    public String toJson() {
+        StringBuilder out = new StringBuilder();
+        out.append("{\"since\":\"").append(Instant.ofEpochMilli(since))
+           .append("\",\"capturedAt\":\"").append(Instant.now())
+           .append("\",\"methods\":[");
+        List<MethodStats> stats = snapshot();
+        for (int i = 0; i < stats.size(); i++) {
+            MethodStats s = stats.get(i);
+            if (i > 0) out.append(',');
+            out.append("\n  {\"name\":\"").append(s.getName())
+               .append("\",\"calls\":").append(s.getCalls())
+               .append(",\"errors\":").append(s.getErrors())
+               .append(",\"meanNanos\":").append(s.getMeanNanos())
+               .append(",\"p50Nanos\":").append(s.getP50Nanos())
+               .append(",\"p95Nanos\":").append(s.getP95Nanos())
+               .append(",\"p99Nanos\":").append(s.getP99Nanos())
+               .append(",\"maxNanos\":").append(s.getMaxNanos())
+               .append('}');
+        }
+        out.append("\n]}\n");
+        return out.toString();
+    }
+}
@@ -1,44 +1,120 @@
 package model;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 public class DatabaseConnection {
 
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/cinema_db";
-    private static final String USER = "user";
-    private static final String PASS = "password";
-    private static final String JDBC_DRIVER = "com.mysql.cj.jdbc.Driver";
+    // Pool settings
+    private static final int POOL_MAX_SIZE = 10;
+    private static final int POOL_MIN_IDLE = 2;
+    private static final long BORROW_TIMEOUT_MS = 5_000;
+    private static final long IDLE_TIMEOUT_MS = 5 * 60_000;
+    private static final int STATEMENT_CACHE_SIZE = 32;
 
-    private static Connection connection = null;
+    private static StorageBackend backend = null;
+    private static ConnectionPool pool = null;
+    private static SqlDialect dialect = null;
+    private static boolean migrated = false;
+    // Set once the schema is migrated, so borrowing does not take the class lock
+    private static volatile ConnectionPool readyPool = null;
 
     private DatabaseConnection() {}
 
-    public static Connection getConnection() throws SQLException {
+    /**
+     * Creates the pool for the configured {@link StorageBackend} on first use,
+     * brings the schema up to date with {@link SchemaMigrator} and checks that
+     * a connection can be opened. DAOs call this from their constructors so a
+     * missing database is reported straight away.
+     *
+     * The three steps can also be run one at a time with {@link #loadDriver},
+     * {@link #connect} and {@link #migrate}, as the desktop startup does to
+     * time them; each runs the steps before it if needed.
+     */
+    public static synchronized void initialize() throws SQLException {
+        migrate();
+    }
+
+    /** Resolves the configured backend and loads its JDBC driver class. */
+    public static synchronized void loadDriver() throws SQLException {
+        if (backend != null) {
+            return;
+        }
+        StorageBackend configured;
+        try {
+            configured = StorageBackend.configured();
+        } catch (IllegalArgumentException e) {
+            throw new SQLException(e.getMessage(), e);
+        }
         try {
-            if (connection == null || connection.isClosed()) {
-                Class.forName(JDBC_DRIVER);
-                connection = DriverManager.getConnection(DB_URL, USER, PASS);
-                createInitialTables(connection);
-            }
+            Class.forName(configured.getDriver());
         } catch (ClassNotFoundException e) {
             throw new SQLException("JDBC Driver missing.", e);
         }
-        return connection;
+        backend = configured;
     }
 
-    private static void createInitialTables(Connection conn) {
-        try (Statement stmt = conn.createStatement()) {
-
-            stmt.execute("CREATE TABLE IF NOT EXISTS Users (user_id INT AUTO_INCREMENT PRIMARY KEY, username VARCHAR(50) NOT NULL UNIQUE, password VARCHAR(100) NOT NULL, is_admin BOOLEAN DEFAULT FALSE)");
-            stmt.execute("CREATE TABLE IF NOT EXISTS Movies (movie_id INT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(100) NOT NULL, genre VARCHAR(50), duration INT, poster_path VARCHAR(255))");
-            stmt.execute("CREATE TABLE IF NOT EXISTS Shows (show_id INT AUTO_INCREMENT PRIMARY KEY, movie_id INT NOT NULL, screen_id INT NOT NULL, show_time TIMESTAMP NOT NULL, price DOUBLE NOT NULL, FOREIGN KEY (movie_id) REFERENCES Movies(movie_id) ON DELETE CASCADE)");
-            stmt.execute("CREATE TABLE IF NOT EXISTS Bookings (booking_id INT AUTO_INCREMENT PRIMARY KEY, show_id INT NOT NULL, customer_name VARCHAR(100), customer_phone VARCHAR(50), selected_seats VARCHAR(255) NOT NULL, total_amount DOUBLE NOT NULL, booking_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP, FOREIGN KEY (show_id) REFERENCES Shows(show_id) ON DELETE CASCADE)");
+    /** Creates the pool and opens its first connection, which also tells the dialect. */
+    public static synchronized void connect() throws SQLException {
+        if (pool != null) {
+            return;
+        }
+        loadDriver();
+        ConnectionPool newPool = new ConnectionPool(backend.getUrl(), backend.getUser(), backend.getPassword(),
+                POOL_MAX_SIZE, POOL_MIN_IDLE, BORROW_TIMEOUT_MS, IDLE_TIMEOUT_MS, STATEMENT_CACHE_SIZE);
+        try (Connection conn = newPool.borrow()) {
+            dialect = SqlDialect.of(conn);
         } catch (SQLException e) {
-            System.err.println("Error creating initial tables.");
-            e.printStackTrace();
+            newPool.close();
+            throw e;
+        }
+        pool = newPool;
+    }
+
+    /** Applies pending schema migrations, once per pool. */
+    public static synchronized void migrate() throws SQLException {
+        if (migrated) {
+            return;
+        }
+        connect();
+        try (Connection conn = pool.borrow()) {
+            SchemaMigrator.migrate(conn);
+        }
+        migrated = true;
+        readyPool = pool;
+    }
+
+    /** The SQL dialect of the connected database, for the few statements that differ. */
+    public static SqlDialect getDialect() throws SQLException {
+        if (readyPool == null) {
+            initialize();
+        }
+        return dialect; // Written before readyPool, so visible once readyPool is
+    }
+
+    /**
+     * Borrows a connection from the pool. Callers must close it (normally with
+     * try-with-resources) to hand it back.
+     */
+    public static Connection getConnection() throws SQLException {
+        ConnectionPool ready = readyPool;
+        if (ready == null) {
+            initialize();
+            ready = readyPool;
+        }
+        return ready.borrow();
+    }
+
+    public static synchronized PoolStats getPoolStats() {
+        return pool != null ? pool.getStats() : null;
+    }
+
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            readyPool = null;
+            pool.close();
+            pool = null;
+            migrated = false;
         }
     }
 }
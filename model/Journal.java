@@ -0,0 +1,345 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of binary records in memory-mapped segment files.
+ *
+ * Every record is an int length, an int CRC32 and the record bytes. Records
+ * are addressed by their offset in the log: segment files are named after the
+ * offset they start at and are all the same size, so a record never spans
+ * two segments and the zeroed tail of a segment marks the end of its data.
+ * On open, a record torn by a crash (bad length or CRC) is cut off the last
+ * segment.
+ *
+ * A record written to the mapping survives a crash of this process, because
+ * the pages belong to the operating system. Surviving a crash of the machine
+ * takes a force to disk, which {@link Sync} decides when to do.
+ */
+final class Journal implements Closeable {
+
+    /** When appended records are forced to disk. */
+    enum Sync {
+        /** By a background thread every flush interval; appends never wait. */
+        ASYNC,
+        /** By a background thread as soon as someone waits; everyone waiting then shares one force. */
+        GROUP,
+        /** By the append itself, one record at a time. */
+        ALWAYS
+    }
+
+    /** Receives records read back from the log. {@code record} holds exactly the record's bytes. */
+    interface Reader {
+        void record(long offset, ByteBuffer record) throws Exception;
+    }
+
+    private static final int HEADER = 8;
+    private static final String SUFFIX = ".journal";
+
+    private static final class Segment {
+        final long base;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+
+        Segment(long base, FileChannel channel, MappedByteBuffer buffer) {
+            this.base = base;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    private final Path dir;
+    private final int segmentSize;
+    private final Sync sync;
+    private final long flushIntervalMs;
+    private final CRC32 crc = new CRC32();
+    private final Object flushLock = new Object();
+    private final Thread flusher;
+
+    // Guarded by this
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment current;
+    private int position; // Write position within the current segment
+
+    private volatile long endOffset;     // Offset just past the last appended record
+    private volatile long durableOffset; // Everything before this has been forced to disk
+    private volatile boolean closed = false;
+    private int waiting = 0; // Guarded by flushLock
+
+    Journal(Path dir, int segmentSize, Sync sync, long flushIntervalMs) throws IOException {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.sync = sync;
+        this.flushIntervalMs = flushIntervalMs;
+        Files.createDirectories(dir);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long base = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                segments.put(base, map(base));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, map(0));
+        }
+        current = segments.lastEntry().getValue();
+        position = recover(current);
+        endOffset = current.base + position;
+        durableOffset = endOffset;
+
+        flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    long getEndOffset() { return endOffset; }
+    long getDurableOffset() { return durableOffset; }
+    Sync getSync() { return sync; }
+
+    /** Offset of the oldest record still on disk. */
+    synchronized long getStartOffset() {
+        return segments.firstKey();
+    }
+
+    /**
+     * Appends bytes {@code [0, length)} of {@code record} and returns the
+     * offset just past it. With {@link Sync#ALWAYS} the record is on disk
+     * when this returns; otherwise pass the offset to {@link #awaitDurable}.
+     */
+    synchronized long append(byte[] record, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Journal is closed");
+        }
+        int size = HEADER + length;
+        if (size > segmentSize) {
+            throw new IOException("Record of " + length + " bytes does not fit in a journal segment");
+        }
+        if (position + size > segmentSize) {
+            roll();
+        }
+        crc.reset();
+        crc.update(record, 0, length);
+        MappedByteBuffer buffer = current.buffer;
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.put(position + HEADER, record, 0, length);
+        buffer.putInt(position, length); // Last, so a reader never sees a length before its bytes
+        int start = position;
+        position += size;
+        endOffset = current.base + position;
+
+        if (sync == Sync.ALWAYS) {
+            buffer.force(start, size);
+            durableOffset = endOffset;
+        }
+        return endOffset;
+    }
+
+    /** Waits until everything before {@code offset} is on disk, if the sync mode promises that. */
+    void awaitDurable(long offset) throws IOException {
+        if (sync != Sync.GROUP || durableOffset >= offset) {
+            return;
+        }
+        synchronized (flushLock) {
+            waiting++;
+            flushLock.notifyAll();
+            try {
+                while (durableOffset < offset) {
+                    if (closed) {
+                        throw new IOException("Journal closed before the record was forced to disk");
+                    }
+                    flushLock.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the journal", e);
+            } finally {
+                waiting--;
+            }
+        }
+    }
+
+    /**
+     * Reads the records in {@code [from, to)}, at most {@code maxRecords} of
+     * them, and returns the offset to continue from. {@code from} must be a
+     * record boundary, such as a value returned by an earlier call.
+     */
+    long read(long from, long to, int maxRecords, Reader reader) throws Exception {
+        long offset = from;
+        int count = 0;
+        Segment segment = null;
+        while (offset < to && count < maxRecords) {
+            if (segment == null || offset >= segment.base + segmentSize) {
+                synchronized (this) {
+                    Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+                    if (entry == null) {
+                        throw new IOException("Journal offset " + offset + " was already deleted");
+                    }
+                    segment = entry.getValue();
+                }
+            }
+            int pos = (int) (offset - segment.base);
+            int length = pos + HEADER <= segmentSize ? segment.buffer.getInt(pos) : 0;
+            if (length <= 0) {
+                offset = segment.base + segmentSize; // Rest of the segment is unused
+                continue;
+            }
+            ByteBuffer record = segment.buffer.duplicate();
+            record.position(pos + HEADER).limit(pos + HEADER + length);
+            reader.record(offset, record.slice());
+            offset += HEADER + length;
+            count++;
+        }
+        return offset;
+    }
+
+    /** Deletes the segments that end at or before {@code offset}, except the one being written. */
+    synchronized void deleteBefore(long offset) throws IOException {
+        while (segments.size() > 1) {
+            Segment oldest = segments.firstEntry().getValue();
+            if (oldest == current || oldest.base + segmentSize > offset) {
+                break;
+            }
+            segments.pollFirstEntry();
+            oldest.channel.close();
+            Files.deleteIfExists(segmentPath(oldest.base));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            current.buffer.force();
+            durableOffset = endOffset;
+            for (Segment segment : segments.values()) {
+                segment.channel.close();
+            }
+        }
+        synchronized (flushLock) {
+            flushLock.notifyAll();
+        }
+        flusher.interrupt();
+    }
+
+    // --- SEGMENTS ---
+
+    private Path segmentPath(long base) {
+        return dir.resolve(String.format("%020d%s", base, SUFFIX));
+    }
+
+    private Segment map(long base) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(base),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(base, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+    }
+
+    /** The old segment is forced before the new one takes records, so only the last segment can be torn. */
+    private void roll() throws IOException {
+        current.buffer.force();
+        long base = current.base + segmentSize;
+        current = map(base);
+        segments.put(base, current);
+        position = 0;
+    }
+
+    /** Returns the end of the valid records, zeroing a torn record after them. */
+    private int recover(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        CRC32 check = new CRC32();
+        int pos = 0;
+        while (pos + HEADER <= segmentSize) {
+            int length = buffer.getInt(pos);
+            if (length == 0) {
+                return pos;
+            }
+            boolean valid = length > 0 && length <= segmentSize - pos - HEADER;
+            if (valid) {
+                ByteBuffer record = buffer.duplicate();
+                record.position(pos + HEADER).limit(pos + HEADER + length);
+                check.reset();
+                check.update(record);
+                valid = (int) check.getValue() == buffer.getInt(pos + 4);
+            }
+            if (!valid) {
+                int end = length > 0 ? (int) Math.min(segmentSize, (long) pos + HEADER + length) : pos + HEADER;
+                for (int i = pos; i < end; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                buffer.force();
+                System.err.println("Journal: cut off a torn record at offset " + (segment.base + pos));
+                return pos;
+            }
+            pos += HEADER + length;
+        }
+        return pos;
+    }
+
+    // --- FLUSHING ---
+
+    private void flushLoop() {
+        while (!closed) {
+            try {
+                synchronized (flushLock) {
+                    if (sync == Sync.GROUP) {
+                        while (!closed && (waiting == 0 || durableOffset >= endOffset)) {
+                            flushLock.wait(flushIntervalMs);
+                            if (durableOffset < endOffset && waiting == 0) {
+                                break; // Nobody waiting, but keep the disk no further behind than in ASYNC
+                            }
+                        }
+                    } else {
+                        flushLock.wait(flushIntervalMs);
+                    }
+                }
+                force();
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                if (!closed) {
+                    System.err.println("Journal: force failed: " + e);
+                }
+            }
+        }
+    }
+
+    /** Forces everything appended so far and wakes the appends waiting for it. */
+    private void force() throws IOException {
+        long target;
+        Segment segment;
+        int from;
+        int to;
+        synchronized (this) {
+            if (closed || durableOffset >= endOffset) {
+                return;
+            }
+            target = endOffset;
+            segment = current;
+            long start = Math.max(durableOffset, segment.base);
+            from = (int) (start - segment.base);
+            to = position;
+        }
+        // Older segments were forced when they were rolled; appends may continue meanwhile
+        segment.buffer.force(from, to - from);
+        synchronized (flushLock) {
+            if (target > durableOffset) {
+                durableOffset = target;
+            }
+            flushLock.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * BookingDAO over the in-memory {@link JournalStore} (-Dcinema.store=journal).
+ * A booking is checked and applied in memory and appended to the journal, so
+ * it costs no SQL round-trip; the seat map and its versions come from the
+ * store as well. Listings join movie titles from SQL and leave out bookings
+ * whose show or movie is gone, like the SQL joins do.
+ */
+public class JournalBookingDAO implements BookingDAO {
+
+    private final JournalStore store;
+    private final SeatHoldManager holds = SeatHoldManager.getInstance();
+    private final SeatMapLog seatMaps = SeatMapLog.getInstance();
+
+    public JournalBookingDAO() {
+        try {
+            DatabaseConnection.initialize(); // Movies stay in SQL
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Failed to connect to database in DAO", e);
+        }
+        store = JournalStore.getInstance();
+    }
+
+    /**
+     * Seats held by anyone but the booking's holder count as taken, as in
+     * {@link BookingDAOImpl#createBooking}.
+     *
+     * @throws SeatConflictException if any of the seats is already booked or held.
+     */
+    @Override
+    public boolean createBooking(Booking booking) throws SQLException {
+        int showId = booking.getShowId();
+        List<String> seats = JournalStore.seatsOf(booking);
+
+        List<String> held = holds.heldByOthers(showId, seats, booking.getHolderId());
+        if (!held.isEmpty()) {
+            throw new SeatConflictException(showId, held);
+        }
+        Booking stored = store.createBooking(booking, seats);
+        booking.setBookingId(stored.getBookingId());
+        if (booking.getHolderId() != null) {
+            holds.releaseBooked(showId, seats, booking.getHolderId());
+        }
+        ChangeBus.getInstance().publish(ChangeEvent.booking(ChangeEvent.Kind.CREATED, stored.getBookingId(), showId, seats));
+        return true;
+    }
+
+    @Override
+    public Set<String> getBookedSeats(int showId) throws SQLException {
+        return store.getBookedSeats(showId);
+    }
+
+    @Override
+    public SeatMapDelta getSeatChanges(int showId, long sinceVersion) throws SQLException {
+        return seatMaps.since(showId, sinceVersion, store::loadSeatMap);
+    }
+
+    @Override
+    public List<Booking> getAllBookingsDetailed() throws SQLException {
+        List<Booking> bookings = detailed(store.movieTitles(), 0);
+        bookings.sort(Comparator.comparing(Booking::getBookingTime).reversed());
+        return bookings;
+    }
+
+    @Override
+    public Page<Booking> getBookingsPage(BookingQuery query, PageCursor after, int limit) throws SQLException {
+        String phone = query.getCustomerPhone();
+        List<Booking> matches = new ArrayList<>();
+        for (Booking booking : detailed(store.movieTitles(), query.getMovieId())) {
+            if ((query.getBookedFrom() != null && booking.getBookingTime().before(query.getBookedFrom()))
+                    || (query.getBookedTo() != null && !booking.getBookingTime().before(query.getBookedTo()))
+                    || (phone != null && !phone.isEmpty()
+                        && (booking.getCustomerPhone() == null || !booking.getCustomerPhone().startsWith(phone)))) {
+                continue;
+            }
+            // Seek past the last row of the previous page; booking_id breaks ties in the sort column
+            if (after != null && JournalShowDAO.compare(sortKey(booking, query), booking.getBookingId(), after, query.isDescending()) <= 0) {
+                continue;
+            }
+            matches.add(booking);
+        }
+        Comparator<Booking> bySortKey = (a, b) -> JournalShowDAO.compareKeys(sortKey(a, query), sortKey(b, query));
+        Comparator<Booking> order = bySortKey.thenComparingInt(Booking::getBookingId);
+        matches.sort(query.isDescending() ? order.reversed() : order);
+
+        List<Booking> bookings = new ArrayList<>(matches.subList(0, Math.min(limit, matches.size())));
+        PageCursor next = null;
+        if (matches.size() > limit) {
+            Booking last = bookings.get(bookings.size() - 1);
+            next = new PageCursor(sortKey(last, query), last.getBookingId());
+        }
+        return new Page<>(bookings, next);
+    }
+
+    @Override
+    public boolean deleteBooking(int bookingId) throws SQLException {
+        Booking removed = store.deleteBooking(bookingId);
+        if (removed == null) {
+            return false;
+        }
+        ChangeBus.getInstance().publish(ChangeEvent.booking(ChangeEvent.Kind.DELETED, bookingId, removed.getShowId(),
+                JournalStore.seatsOf(removed)));
+        return true;
+    }
+
+    /** Bookings with their movie title and show time, optionally of one movie only. */
+    private List<Booking> detailed(Map<Integer, String> titles, int movieId) {
+        List<Booking> bookings = new ArrayList<>();
+        for (Booking booking : store.getBookings()) {
+            Show show = store.getShow(booking.getShowId());
+            if (show == null || (movieId > 0 && show.getMovieId() != movieId)) {
+                continue;
+            }
+            String title = titles.get(show.getMovieId());
+            if (title != null) {
+                bookings.add(new Booking(booking.getBookingId(), booking.getShowId(), booking.getCustomerName(),
+                        booking.getCustomerPhone(), booking.getSelectedSeats(), booking.getTotalAmount(),
+                        booking.getBookingTime(), title, show.getShowTime()));
+            }
+        }
+        return bookings;
+    }
+
+    private static Comparable<?> sortKey(Booking booking, BookingQuery query) {
+        switch (query.getSortColumn()) {
+            case SHOW_TIME:
+                return booking.getShowTime();
+            case TOTAL_AMOUNT:
+                return booking.getTotalAmount();
+            default:
+                return booking.getBookingTime();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The binary records of the booking journal: a type byte, then fixed-size
+ * numbers and length-prefixed UTF-8 strings. Records carry the IDs the store
+ * assigned, so replaying them rebuilds exactly the same state.
+ */
+final class JournalRecord {
+
+    static final byte SHOWS_ADDED = 1; // Before category prices; still read from older journals
+    static final byte SHOW_DELETED = 2;
+    static final byte BOOKING_CREATED = 3;
+    static final byte BOOKING_DELETED = 4;
+    static final byte SHOWS_ADDED_PRICED = 5;
+
+    /** Receives decoded records, for replay into memory or into the SQL database. */
+    interface Visitor {
+        void showsAdded(List<Show> shows) throws SQLException;
+        void showDeleted(int showId) throws SQLException;
+        void bookingCreated(Booking booking) throws SQLException;
+        void bookingDeleted(int bookingId, int showId) throws SQLException;
+    }
+
+    private JournalRecord() {}
+
+    /** Bytes needed for a record of {@code count} shows. */
+    static int showsAddedSize(int count) {
+        return 5 + count * 44;
+    }
+
+    /** All the shows in one record, so a schedule is added entirely or not at all. */
+    static void showsAdded(ByteBuffer out, List<Show> shows) {
+        out.clear();
+        out.put(SHOWS_ADDED_PRICED).putInt(shows.size());
+        for (Show show : shows) {
+            out.putInt(show.getShowId())
+               .putInt(show.getMovieId())
+               .putInt(show.getScreenId())
+               .putLong(show.getShowTime().getTime())
+               .putDouble(show.getPrice())
+               .putDouble(show.getCategoryPrice(SeatCategory.PREMIUM))
+               .putDouble(show.getCategoryPrice(SeatCategory.RECLINER));
+        }
+    }
+
+    static void showDeleted(ByteBuffer out, int showId) {
+        out.clear();
+        out.put(SHOW_DELETED).putInt(showId);
+    }
+
+    /** Upper bound of the bytes needed for the booking's record. */
+    static int bookingCreatedSize(Booking booking) {
+        return 25 + stringSize(booking.getCustomerName()) + stringSize(booking.getCustomerPhone())
+                + stringSize(booking.getSelectedSeats());
+    }
+
+    static void bookingCreated(ByteBuffer out, Booking booking) {
+        out.clear();
+        out.put(BOOKING_CREATED)
+           .putInt(booking.getBookingId())
+           .putInt(booking.getShowId())
+           .putLong(booking.getBookingTime().getTime())
+           .putDouble(booking.getTotalAmount());
+        putString(out, booking.getCustomerName());
+        putString(out, booking.getCustomerPhone());
+        putString(out, booking.getSelectedSeats());
+    }
+
+    static void bookingDeleted(ByteBuffer out, int bookingId, int showId) {
+        out.clear();
+        out.put(BOOKING_DELETED).putInt(bookingId).putInt(showId);
+    }
+
+    static void decode(ByteBuffer in, Visitor visitor) throws SQLException {
+        byte type = in.get();
+        switch (type) {
+            case SHOWS_ADDED:
+            case SHOWS_ADDED_PRICED: {
+                int count = in.getInt();
+                List<Show> shows = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    int showId = in.getInt();
+                    int movieId = in.getInt();
+                    int screenId = in.getInt();
+                    Timestamp showTime = new Timestamp(in.getLong());
+                    Show show = new Show(showId, movieId, screenId, showTime, in.getDouble());
+                    if (type == SHOWS_ADDED_PRICED) {
+                        show.setCategoryPrices(in.getDouble(), in.getDouble());
+                    }
+                    shows.add(show);
+                }
+                visitor.showsAdded(shows);
+                break;
+            }
+            case SHOW_DELETED:
+                visitor.showDeleted(in.getInt());
+                break;
+            case BOOKING_CREATED: {
+                int bookingId = in.getInt();
+                int showId = in.getInt();
+                Timestamp bookingTime = new Timestamp(in.getLong());
+                double totalAmount = in.getDouble();
+                String name = getString(in);
+                String phone = getString(in);
+                String seats = getString(in);
+                visitor.bookingCreated(new Booking(bookingId, showId, name, phone, seats, totalAmount, bookingTime, null, null));
+                break;
+            }
+            case BOOKING_DELETED: {
+                int bookingId = in.getInt();
+                visitor.bookingDeleted(bookingId, in.getInt());
+                break;
+            }
+            default:
+                throw new SQLException("Unknown journal record type " + type);
+        }
+    }
+
+    private static int stringSize(String value) {
+        return 2 + (value == null ? 0 : value.length() * 3);
+    }
+
+    /** A null string is written as length -1. */
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
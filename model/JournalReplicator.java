@@ -0,0 +1,279 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tails the booking journal into the SQL tables (Shows, Bookings,
+ * BookingSeats, SeatMapVersions and the {@link Rollups}), so reports and ad-hoc queries see the
+ * journal store's data with a short delay. Only records already forced to
+ * disk are copied, so SQL never holds a booking that a machine crash could
+ * take back out of the journal.
+ *
+ * Records are applied in transactions of up to {@link #BATCH} records
+ * together with the journal offset reached (in JournalReplication), so each
+ * record is applied exactly once even across restarts. A record SQL rejects
+ * with a constraint violation (typically a show whose movie was deleted
+ * meanwhile) is skipped and reported; if the database is unreachable,
+ * replication retries with a growing pause and catches up afterwards.
+ */
+final class JournalReplicator implements Runnable {
+
+    private static final int BATCH = 1_000;
+    private static final long POLL_MS = 20;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final Journal journal;
+    private final String journalId;
+    private volatile long appliedOffset;
+    private volatile boolean stopped = false;
+    private final Object wakeUp = new Object();
+    private Thread thread;
+
+    JournalReplicator(Journal journal, String journalId) {
+        this.journal = journal;
+        this.journalId = journalId;
+    }
+
+    /** Reads where replication stopped last time and starts the replication thread. */
+    void start() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT applied_offset FROM JournalReplication WHERE journal_id = ?")) {
+            stmt.setString(1, journalId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                appliedOffset = rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+        if (appliedOffset < journal.getStartOffset()) {
+            System.err.println("Journal: records before offset " + journal.getStartOffset() + " were deleted before they reached SQL;"
+                    + " replicating from there");
+            appliedOffset = journal.getStartOffset();
+        }
+        thread = new Thread(this, "journal-replicator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    long getAppliedOffset() { return appliedOffset; }
+
+    /** Lets a batch in progress commit (not interrupting it mid-JDBC call), then stops. */
+    void stop() {
+        stopped = true;
+        synchronized (wakeUp) {
+            wakeUp.notifyAll();
+        }
+        if (thread != null) {
+            try {
+                thread.join(2_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        long backoff = 0;
+        while (!stopped) {
+            try {
+                if (!replicateBatch()) {
+                    pause(POLL_MS);
+                }
+                backoff = 0;
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                if (stopped) {
+                    return;
+                }
+                backoff = Math.min(MAX_BACKOFF_MS, Math.max(1_000, backoff * 2));
+                System.err.println("Journal: replication to SQL failed (retrying in " + backoff / 1000 + " s): " + e);
+                try {
+                    pause(backoff);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void pause(long millis) throws InterruptedException {
+        synchronized (wakeUp) {
+            if (!stopped) {
+                wakeUp.wait(millis);
+            }
+        }
+    }
+
+    /** Applies the next batch of durable records; returns false if there was nothing to do. */
+    private boolean replicateBatch() throws Exception {
+        long to = journal.getDurableOffset();
+        if (appliedOffset >= to) {
+            return false;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (SqlWriter writer = new SqlWriter(conn)) {
+                long next = journal.read(appliedOffset, to, BATCH, (offset, record) -> JournalRecord.decode(record, writer));
+                saveOffset(conn, next);
+                conn.commit();
+                appliedOffset = next;
+                writer.reportSkipped();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        return true;
+    }
+
+    private void saveOffset(Connection conn, long offset) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE JournalReplication SET applied_offset = ?, updated_at = CURRENT_TIMESTAMP WHERE journal_id = ?")) {
+            stmt.setLong(1, offset);
+            stmt.setString(2, journalId);
+            if (stmt.executeUpdate() == 1) {
+                return;
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO JournalReplication (journal_id, applied_offset) VALUES (?, ?)")) {
+            stmt.setString(1, journalId);
+            stmt.setLong(2, offset);
+            stmt.executeUpdate();
+        }
+    }
+
+    /** Turns records into the statements the SQL DAOs would have run, preparing each statement once per batch. */
+    private static final class SqlWriter implements JournalRecord.Visitor, AutoCloseable {
+        private final Connection conn;
+        private final SqlDialect dialect;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+        private int skipped = 0;
+        private String firstSkipped;
+
+        SqlWriter(Connection conn) throws SQLException {
+            this.conn = conn;
+            this.dialect = SqlDialect.of(conn);
+        }
+
+        private PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement stmt = statements.get(sql);
+            if (stmt == null) {
+                stmt = conn.prepareStatement(sql);
+                statements.put(sql, stmt);
+            }
+            return stmt;
+        }
+
+        @Override
+        public void showsAdded(List<Show> shows) throws SQLException {
+            PreparedStatement stmt = prepare("INSERT INTO Shows (show_id, movie_id, screen_id, show_time, price, premium_price, recliner_price) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)");
+            List<Show> inserted = new ArrayList<>(shows.size());
+            List<Integer> ids = new ArrayList<>(shows.size());
+            for (Show show : shows) {
+                stmt.setInt(1, show.getShowId());
+                stmt.setInt(2, show.getMovieId());
+                stmt.setInt(3, show.getScreenId());
+                stmt.setTimestamp(4, show.getShowTime());
+                stmt.setDouble(5, show.getPrice());
+                ShowDAOImpl.setCategoryPrice(stmt, 6, show.getCategoryPrice(SeatCategory.PREMIUM));
+                ShowDAOImpl.setCategoryPrice(stmt, 7, show.getCategoryPrice(SeatCategory.RECLINER));
+                try {
+                    stmt.executeUpdate();
+                    inserted.add(show);
+                    ids.add(show.getShowId());
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    skipped("show " + show.getShowId(), e);
+                }
+            }
+            Rollups.showsAdded(conn, inserted, ids);
+        }
+
+        @Override
+        public void showDeleted(int showId) throws SQLException {
+            Rollups.showRemoved(conn, showId);
+            PreparedStatement stmt = prepare("DELETE FROM Shows WHERE show_id = ?");
+            stmt.setInt(1, showId);
+            stmt.executeUpdate();
+        }
+
+        @Override
+        public void bookingCreated(Booking booking) throws SQLException {
+            Rollups.lockShow(conn, booking.getShowId());
+            PreparedStatement stmt = prepare("INSERT INTO Bookings (booking_id, show_id, customer_name, customer_phone, "
+                    + "selected_seats, total_amount, booking_time) VALUES (?, ?, ?, ?, ?, ?, ?)");
+            stmt.setInt(1, booking.getBookingId());
+            stmt.setInt(2, booking.getShowId());
+            stmt.setString(3, booking.getCustomerName());
+            stmt.setString(4, booking.getCustomerPhone());
+            stmt.setString(5, booking.getSelectedSeats());
+            stmt.setDouble(6, booking.getTotalAmount());
+            stmt.setTimestamp(7, booking.getBookingTime());
+            try {
+                stmt.executeUpdate();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                skipped("booking " + booking.getBookingId(), e);
+                return;
+            }
+            PreparedStatement seats = prepare("INSERT INTO BookingSeats (booking_id, show_id, seat_code) VALUES (?, ?, ?)");
+            List<String> seatCodes = JournalStore.seatsOf(booking);
+            for (String seat : seatCodes) {
+                seats.setInt(1, booking.getBookingId());
+                seats.setInt(2, booking.getShowId());
+                seats.setString(3, seat);
+                seats.addBatch();
+            }
+            seats.executeBatch();
+            Rollups.bookingAdded(conn, booking.getShowId(), seatCodes.size(), booking.getTotalAmount());
+            bumpVersion(booking.getShowId());
+        }
+
+        @Override
+        public void bookingDeleted(int bookingId, int showId) throws SQLException {
+            Rollups.bookingRemoved(conn, bookingId);
+            PreparedStatement stmt = prepare("DELETE FROM Bookings WHERE booking_id = ?");
+            stmt.setInt(1, bookingId);
+            if (stmt.executeUpdate() > 0) {
+                bumpVersion(showId);
+            }
+        }
+
+        private void bumpVersion(int showId) throws SQLException {
+            PreparedStatement stmt = prepare(dialect.incrementCounter("SeatMapVersions", "show_id", "seat_version"));
+            stmt.setInt(1, showId);
+            try {
+                stmt.executeUpdate();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                skipped("seat-map version of show " + showId, e);
+            }
+        }
+
+        private void skipped(String what, SQLException e) {
+            if (skipped++ == 0) {
+                firstSkipped = what + ": " + e.getMessage().split("\n")[0];
+            }
+        }
+
+        /** One line per batch, as a deleted movie can leave thousands of records with nowhere to go. */
+        void reportSkipped() {
+            if (skipped > 0) {
+                System.err.println("Journal: replication skipped " + skipped + " record(s) SQL rejected, first " + firstSkipped);
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (PreparedStatement stmt : statements.values()) {
+                stmt.close();
+            }
+        }
+    }
+}
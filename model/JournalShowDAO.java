@@ -0,0 +1,154 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ShowDAO over the in-memory {@link JournalStore} (-Dcinema.store=journal).
+ * Queries filter and sort in memory; movie titles come from SQL, and shows
+ * of a movie that no longer exists are left out, like the SQL join does.
+ */
+public class JournalShowDAO implements ShowDAO {
+
+    private final JournalStore store;
+
+    public JournalShowDAO() {
+        try {
+            DatabaseConnection.initialize(); // Movies stay in SQL
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Failed to connect to database in DAO", e);
+        }
+        store = JournalStore.getInstance();
+    }
+
+    @Override
+    public boolean addShow(Show show) throws SQLException {
+        int id = store.addShows(List.of(show)).get(0);
+        ChangeBus.getInstance().publish(ChangeEvent.show(ChangeEvent.Kind.CREATED, id, show.getMovieId()));
+        return true;
+    }
+
+    /** All shows go into one journal record, so the schedule is added entirely or not at all. */
+    @Override
+    public List<Integer> scheduleShows(ShowSchedule schedule) throws SQLException {
+        List<Integer> ids = store.addShows(schedule.expand());
+        List<ChangeEvent> events = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            events.add(ChangeEvent.show(ChangeEvent.Kind.CREATED, id, schedule.getMovieId()));
+        }
+        ChangeBus.getInstance().publishAll(events);
+        return ids;
+    }
+
+    @Override
+    public List<Show> getAllShows() throws SQLException {
+        Map<Integer, String> titles = store.movieTitles();
+        List<Show> shows = new ArrayList<>();
+        for (Show show : store.getShows()) {
+            String title = titles.get(show.getMovieId());
+            if (title != null) {
+                shows.add(copy(show, title));
+            }
+        }
+        shows.sort(Comparator.comparing(Show::getShowTime).thenComparingInt(Show::getShowId));
+        return shows;
+    }
+
+    @Override
+    public List<Show> getShowsByMovieId(int movieId) throws SQLException {
+        List<Show> shows = new ArrayList<>();
+        for (Show show : store.getShows()) {
+            if (show.getMovieId() == movieId) {
+                shows.add(copy(show, null));
+            }
+        }
+        shows.sort(Comparator.comparing(Show::getShowTime).thenComparingInt(Show::getShowId));
+        return shows;
+    }
+
+    @Override
+    public Show getShow(int showId) throws SQLException {
+        Show show = store.getShow(showId);
+        return show != null ? copy(show, null) : null;
+    }
+
+    @Override
+    public Page<Show> getShowsPage(ShowQuery query, PageCursor after, int limit) throws SQLException {
+        Map<Integer, String> titles = store.movieTitles();
+        List<Show> matches = new ArrayList<>();
+        for (Show show : store.getShows()) {
+            if (!titles.containsKey(show.getMovieId())
+                    || (query.getMovieId() > 0 && show.getMovieId() != query.getMovieId())
+                    || (query.getShowFrom() != null && show.getShowTime().before(query.getShowFrom()))
+                    || (query.getShowTo() != null && !show.getShowTime().before(query.getShowTo()))) {
+                continue;
+            }
+            // Seek past the last row of the previous page; show_id breaks ties in the sort column
+            if (after != null && compare(sortKey(show, query), show.getShowId(), after, query.isDescending()) <= 0) {
+                continue;
+            }
+            matches.add(show);
+        }
+        Comparator<Show> bySortKey = (a, b) -> compareKeys(sortKey(a, query), sortKey(b, query));
+        Comparator<Show> order = bySortKey.thenComparingInt(Show::getShowId);
+        matches.sort(query.isDescending() ? order.reversed() : order);
+
+        List<Show> shows = new ArrayList<>();
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            shows.add(copy(matches.get(i), titles.get(matches.get(i).getMovieId())));
+        }
+        PageCursor next = null;
+        if (matches.size() > limit) {
+            Show last = shows.get(shows.size() - 1);
+            next = new PageCursor(sortKey(last, query), last.getShowId());
+        }
+        return new Page<>(shows, next);
+    }
+
+    @Override
+    public boolean deleteShow(int showId) throws SQLException {
+        if (!store.deleteShow(showId)) {
+            return false;
+        }
+        ChangeBus.getInstance().publish(ChangeEvent.show(ChangeEvent.Kind.DELETED, showId, 0));
+        return true;
+    }
+
+    private static Comparable<?> sortKey(Show show, ShowQuery query) {
+        switch (query.getSortColumn()) {
+            case PRICE:
+                return show.getPrice();
+            case SCREEN:
+                return show.getScreenId();
+            default:
+                return show.getShowTime();
+        }
+    }
+
+    /** Where (key, id) lies relative to the cursor in page order: positive if after it. */
+    static int compare(Comparable<?> key, int id, PageCursor cursor, boolean descending) {
+        int c = compareKeys(key, cursor.getSortValue());
+        if (c == 0) {
+            c = Integer.compare(id, cursor.getId());
+        }
+        return descending ? -c : c;
+    }
+
+    /** Sort keys of one column are all Timestamps, Doubles or Integers. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compareKeys(Comparable<?> key, Object other) {
+        return ((Comparable) key).compareTo(other);
+    }
+
+    /** The store's shows are shared, so callers get their own copy to set a title on. */
+    private static Show copy(Show show, String title) {
+        Show copy = new Show(show.getShowId(), show.getMovieId(), show.getScreenId(), show.getShowTime(), show.getPrice());
+        copy.setCategoryPrices(show.getCategoryPrice(SeatCategory.PREMIUM), show.getCategoryPrice(SeatCategory.RECLINER));
+        copy.setMovieTitle(title);
+        return copy;
+    }
+}
@@ -0,0 +1,727 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Shows and bookings kept entirely in memory, for -Dcinema.store=journal.
+ * Every change is appended to a {@link Journal} before it is applied, so
+ * booking a seat costs a map lookup and a write to a memory-mapped file
+ * instead of SQL round-trips. Movies and users stay in the SQL database.
+ *
+ * On start the newest snapshot is loaded and the journal after it replayed.
+ * A snapshot is written in the background every
+ * -Dcinema.journal.snapshotRecords records (default 1,000,000), which keeps
+ * replay to a few seconds. The first start in an empty directory loads the
+ * existing shows and bookings from SQL, so switching to the journal keeps
+ * the data.
+ *
+ * Other settings:
+ * <ul>
+ *   <li>-Dcinema.journal.dir: where the journal lives (default data/journal)</li>
+ *   <li>-Dcinema.journal.sync: async, group (default) or always; see {@link Journal.Sync}</li>
+ *   <li>-Dcinema.journal.flushMs: background force interval (default 50)</li>
+ *   <li>-Dcinema.journal.segmentMb: size of each journal file (default 64)</li>
+ *   <li>-Dcinema.journal.replicate: copy the journal into the SQL tables
+ *       for reporting (default true); see {@link JournalReplicator}</li>
+ * </ul>
+ */
+public final class JournalStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x43534e50; // "CSNP"
+    private static final int SNAPSHOT_FORMAT = 2; // 2 added category prices to shows
+    private static final int SNAPSHOTS_KEPT = 2;
+    private static final int REPLAY_BATCH = 10_000;
+
+    private static JournalStore instance;
+
+    /** A show and who holds which of its seats. */
+    private static final class ShowState {
+        final Show show;
+        final Map<String, Integer> seats = new HashMap<>(); // Seat -> booking ID
+        final Set<Integer> bookingIds = new HashSet<>();
+        long version;
+
+        ShowState(Show show) {
+            this.show = show;
+        }
+    }
+
+    private final Path dir;
+    private final Journal journal;
+    private final String journalId;
+    private final long snapshotRecords;
+    private final SeatMapLog seatMaps = SeatMapLog.getInstance();
+    private final ExecutorService snapshotter;
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    private JournalReplicator replicator;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock
+    private final Map<Integer, ShowState> shows = new HashMap<>();
+    private final Map<Integer, Booking> bookings = new HashMap<>();
+    private int nextShowId = 1;
+    private int nextBookingId = 1;
+    private long recordsSinceSnapshot = 0;
+    private ByteBuffer scratch = ByteBuffer.allocate(4096); // Only used under the write lock
+
+    private final JournalRecord.Visitor replay = new JournalRecord.Visitor() {
+        @Override public void showsAdded(List<Show> added) { applyShowsAdded(added); }
+        @Override public void showDeleted(int showId) { applyShowDeleted(showId); }
+        @Override public void bookingCreated(Booking booking) { applyBookingCreated(booking); }
+        @Override public void bookingDeleted(int bookingId, int showId) { applyBookingDeleted(bookingId); }
+    };
+
+    private JournalStore(Path dir, Journal.Sync sync, long flushMs, int segmentSize, long snapshotRecords) throws IOException, SQLException {
+        this.dir = dir;
+        this.snapshotRecords = snapshotRecords;
+        long start = System.nanoTime();
+
+        Files.createDirectories(dir);
+        Path idFile = dir.resolve("journal.id");
+        boolean fresh = !Files.exists(idFile);
+        journal = new Journal(dir, segmentSize, sync, flushMs);
+        if (fresh) {
+            // Bootstrap from SQL; journal.id is written last, so an interrupted bootstrap starts over
+            bootstrapFromDatabase();
+            writeSnapshot();
+            Files.write(idFile, UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        }
+        journalId = new String(Files.readAllBytes(idFile), StandardCharsets.UTF_8).trim();
+
+        long snapshotOffset = fresh ? journal.getEndOffset() : loadSnapshot();
+        int[] replayed = {0};
+        try {
+            long offset = snapshotOffset;
+            long end = journal.getEndOffset();
+            while (offset < end) {
+                offset = journal.read(offset, end, REPLAY_BATCH, (at, record) -> {
+                    JournalRecord.decode(record, replay);
+                    replayed[0]++;
+                });
+            }
+        } catch (SQLException | IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Journal replay failed", e);
+        }
+        recordsSinceSnapshot = replayed[0];
+        System.out.printf("Journal: %d shows and %d bookings ready in %d ms (%d records replayed, sync %s)%n",
+                shows.size(), bookings.size(), (System.nanoTime() - start) / 1_000_000, replayed[0],
+                sync.name().toLowerCase());
+
+        snapshotter = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "journal-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        ChangeBus.getInstance().addListener(event -> {
+            if (event.getEntity() == ChangeEvent.Entity.MOVIE && event.getKind() == ChangeEvent.Kind.DELETED) {
+                deleteShowsOfMovie(event.getId());
+            }
+        });
+    }
+
+    /** Opens the store configured by the -Dcinema.journal.* properties on first use. */
+    public static synchronized JournalStore getInstance() {
+        if (instance == null) {
+            Path dir = Paths.get(System.getProperty("cinema.journal.dir", "data/journal")).toAbsolutePath();
+            String syncName = System.getProperty("cinema.journal.sync", "group");
+            Journal.Sync sync;
+            try {
+                sync = Journal.Sync.valueOf(syncName.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unknown cinema.journal.sync '" + syncName + "', expected async, group or always", e);
+            }
+            long flushMs = Long.getLong("cinema.journal.flushMs", 50);
+            int segmentSize = Integer.getInteger("cinema.journal.segmentMb", 64) << 20;
+            long snapshotRecords = Long.getLong("cinema.journal.snapshotRecords", 1_000_000);
+            try {
+                JournalStore store = new JournalStore(dir, sync, flushMs, segmentSize, snapshotRecords);
+                if (Boolean.parseBoolean(System.getProperty("cinema.journal.replicate", "true"))) {
+                    store.replicator = new JournalReplicator(store.journal, store.journalId);
+                    store.replicator.start();
+                }
+                Runtime.getRuntime().addShutdownHook(new Thread(store::close, "journal-shutdown"));
+                instance = store;
+            } catch (IOException | SQLException e) {
+                throw new RuntimeException("Failed to open the booking journal in " + dir, e);
+            }
+        }
+        return instance;
+    }
+
+    /** Stops replication and forces the journal to disk. Called on JVM exit. */
+    public void close() {
+        if (replicator != null) {
+            replicator.stop();
+        }
+        lock.writeLock().lock();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Journal: close failed: " + e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Journal offsets: appended, forced to disk and copied to SQL (-1 without replication). */
+    public String getStatus() {
+        return String.format("journal end %d, durable %d, replicated %d",
+                journal.getEndOffset(), journal.getDurableOffset(), replicator != null ? replicator.getAppliedOffset() : -1);
+    }
+
+    // --- CHANGES ---
+
+    /** Adds the shows with new IDs, all in one journal record, and returns the IDs in order. */
+    List<Integer> addShows(List<Show> newShows) throws SQLException {
+        Set<Integer> movieIds = movieTitles().keySet();
+        for (Show show : newShows) {
+            if (!movieIds.contains(show.getMovieId())) {
+                throw new SQLIntegrityConstraintViolationException("Movie " + show.getMovieId() + " does not exist", "23000");
+            }
+        }
+        List<Show> stored = new ArrayList<>(newShows.size());
+        List<Integer> ids = new ArrayList<>(newShows.size());
+        long end;
+        lock.writeLock().lock();
+        try {
+            int id = nextShowId;
+            for (Show show : newShows) {
+                Show copy = new Show(id, show.getMovieId(), show.getScreenId(), show.getShowTime(), show.getPrice());
+                copy.setCategoryPrices(show.getCategoryPrice(SeatCategory.PREMIUM), show.getCategoryPrice(SeatCategory.RECLINER));
+                stored.add(copy);
+                ids.add(id++);
+            }
+            JournalRecord.showsAdded(scratch(JournalRecord.showsAddedSize(stored.size())), stored);
+            end = append();
+            applyShowsAdded(stored);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(end);
+        return ids;
+    }
+
+    /** Deletes the show with its bookings; false if there is no such show. */
+    boolean deleteShow(int showId) throws SQLException {
+        long end;
+        lock.writeLock().lock();
+        try {
+            if (!shows.containsKey(showId)) {
+                return false;
+            }
+            JournalRecord.showDeleted(scratch(5), showId);
+            end = append();
+            applyShowDeleted(showId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        seatMaps.evict(showId);
+        awaitDurable(end);
+        return true;
+    }
+
+    /** The cascade SQL does for Shows; runs when a movie is deleted. */
+    private void deleteShowsOfMovie(int movieId) {
+        List<Integer> doomed = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (ShowState state : shows.values()) {
+                if (state.show.getMovieId() == movieId) {
+                    doomed.add(state.show.getShowId());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (int showId : doomed) {
+            try {
+                deleteShow(showId);
+            } catch (SQLException e) {
+                System.err.println("Journal: could not delete show " + showId + " of deleted movie " + movieId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Books the seats and returns the booking with its new ID and time.
+     *
+     * @throws SeatConflictException if any of the seats is already booked.
+     */
+    Booking createBooking(Booking booking, List<String> seats) throws SQLException {
+        checkLength("customer_name", booking.getCustomerName(), 100);
+        checkLength("customer_phone", booking.getCustomerPhone(), 50);
+        checkLength("selected_seats", booking.getSelectedSeats(), 255);
+        if (booking.getSelectedSeats() == null) {
+            throw new SQLIntegrityConstraintViolationException("selected_seats cannot be null", "23000");
+        }
+        int showId = booking.getShowId();
+        Booking stored;
+        long end;
+        lock.writeLock().lock();
+        try {
+            ShowState state = shows.get(showId);
+            if (state == null) {
+                throw new SQLIntegrityConstraintViolationException("Show " + showId + " does not exist", "23000");
+            }
+            List<String> taken = new ArrayList<>();
+            for (String seat : seats) {
+                if (state.seats.containsKey(seat)) {
+                    taken.add(seat);
+                }
+            }
+            if (!taken.isEmpty()) {
+                throw new SeatConflictException(showId, taken);
+            }
+            stored = new Booking(nextBookingId, showId, booking.getCustomerName(), booking.getCustomerPhone(),
+                    booking.getSelectedSeats(), booking.getTotalAmount(), new Timestamp(System.currentTimeMillis()), null, null);
+            JournalRecord.bookingCreated(scratch(JournalRecord.bookingCreatedSize(stored)), stored);
+            end = append();
+            applyBookingCreated(stored);
+            seatMaps.record(showId, state.version, seats, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(end);
+        return stored;
+    }
+
+    /** Deletes the booking and returns it, or null if there is no such booking. */
+    Booking deleteBooking(int bookingId) throws SQLException {
+        Booking removed;
+        long end;
+        lock.writeLock().lock();
+        try {
+            removed = bookings.get(bookingId);
+            if (removed == null) {
+                return null;
+            }
+            JournalRecord.bookingDeleted(scratch(9), bookingId, removed.getShowId());
+            end = append();
+            applyBookingDeleted(bookingId);
+            ShowState state = shows.get(removed.getShowId());
+            if (state != null) {
+                seatMaps.record(removed.getShowId(), state.version, seatsOf(removed), false);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(end);
+        return removed;
+    }
+
+    private ByteBuffer scratch(int size) {
+        if (scratch.capacity() < size) {
+            scratch = ByteBuffer.allocate(Math.max(size, scratch.capacity() * 2));
+        }
+        return scratch;
+    }
+
+    /** Appends the record in {@link #scratch}; call with the write lock held. */
+    private long append() throws SQLException {
+        try {
+            long end = journal.append(scratch.array(), scratch.position());
+            if (++recordsSinceSnapshot >= snapshotRecords && snapshotRunning.compareAndSet(false, true)) {
+                recordsSinceSnapshot = 0;
+                snapshotter.execute(this::backgroundSnapshot);
+            }
+            return end;
+        } catch (IOException e) {
+            throw new SQLException("Could not write to the booking journal: " + e.getMessage(), "58030", e);
+        }
+    }
+
+    private void awaitDurable(long end) throws SQLException {
+        try {
+            journal.awaitDurable(end);
+        } catch (IOException e) {
+            throw new SQLException("Could not force the booking journal to disk: " + e.getMessage(), "58030", e);
+        }
+    }
+
+    private static void checkLength(String column, String value, int max) throws SQLDataException {
+        if (value != null && value.length() > max) {
+            throw new SQLDataException("Value too long for " + column + " (" + value.length() + " > " + max + ")", "22001");
+        }
+    }
+
+    /** The distinct seats of a booking, as BookingSeats holds them. */
+    static List<String> seatsOf(Booking booking) {
+        return new ArrayList<>(new LinkedHashSet<>(SeatInventory.parseSeats(booking.getSelectedSeats())));
+    }
+
+    // --- APPLYING RECORDS (write lock held, or during startup) ---
+
+    private void applyShowsAdded(List<Show> added) {
+        for (Show show : added) {
+            shows.put(show.getShowId(), new ShowState(show));
+            nextShowId = Math.max(nextShowId, show.getShowId() + 1);
+        }
+    }
+
+    private void applyShowDeleted(int showId) {
+        ShowState state = shows.remove(showId);
+        if (state != null) {
+            for (int bookingId : state.bookingIds) {
+                bookings.remove(bookingId);
+            }
+        }
+    }
+
+    private void applyBookingCreated(Booking booking) {
+        nextBookingId = Math.max(nextBookingId, booking.getBookingId() + 1);
+        ShowState state = shows.get(booking.getShowId());
+        if (state == null) {
+            return; // Only in data bootstrapped from SQL, where the show may have gone meanwhile
+        }
+        for (String seat : seatsOf(booking)) {
+            state.seats.putIfAbsent(seat, booking.getBookingId());
+        }
+        state.bookingIds.add(booking.getBookingId());
+        state.version++;
+        bookings.put(booking.getBookingId(), booking);
+    }
+
+    private void applyBookingDeleted(int bookingId) {
+        Booking booking = bookings.remove(bookingId);
+        if (booking == null) {
+            return;
+        }
+        ShowState state = shows.get(booking.getShowId());
+        if (state != null) {
+            state.seats.values().removeIf(owner -> owner == bookingId);
+            state.bookingIds.remove(bookingId);
+            state.version++;
+        }
+    }
+
+    // --- READS ---
+
+    Set<String> getBookedSeats(int showId) {
+        lock.readLock().lock();
+        try {
+            ShowState state = shows.get(showId);
+            return state != null ? new HashSet<>(state.seats.keySet()) : new HashSet<>();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The show's version and booked seats, or null if there is no such show; a {@link SeatMapLog.Loader}. */
+    SeatMapDelta loadSeatMap(int showId) {
+        lock.readLock().lock();
+        try {
+            ShowState state = shows.get(showId);
+            return state != null ? SeatMapDelta.snapshot(state.version, new HashSet<>(state.seats.keySet())) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Show> getShows() {
+        lock.readLock().lock();
+        try {
+            List<Show> all = new ArrayList<>(shows.size());
+            for (ShowState state : shows.values()) {
+                all.add(state.show);
+            }
+            return all;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Show getShow(int showId) {
+        lock.readLock().lock();
+        try {
+            ShowState state = shows.get(showId);
+            return state != null ? state.show : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Every booking, in no particular order. The Booking objects are shared; do not modify them. */
+    List<Booking> getBookings() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(bookings.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Movie titles by ID, read from SQL where movies live. */
+    Map<Integer, String> movieTitles() throws SQLException {
+        Map<Integer, String> titles = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT movie_id, title FROM Movies")) {
+            while (rs.next()) {
+                titles.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        return titles;
+    }
+
+    // --- SNAPSHOTS ---
+
+    private void bootstrapFromDatabase() throws SQLException {
+        Map<Integer, Long> versions = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT show_id, movie_id, screen_id, show_time, price, premium_price, recliner_price FROM Shows")) {
+                List<Show> loaded = new ArrayList<>();
+                while (rs.next()) {
+                    Show show = new Show(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getTimestamp(4), rs.getDouble(5));
+                    show.setCategoryPrices(rs.getDouble(6), rs.getDouble(7));
+                    loaded.add(show);
+                }
+                applyShowsAdded(loaded);
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT booking_id, show_id, customer_name, customer_phone, selected_seats, "
+                    + "total_amount, booking_time FROM Bookings ORDER BY booking_id")) {
+                while (rs.next()) {
+                    applyBookingCreated(new Booking(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4),
+                            rs.getString(5), rs.getDouble(6), rs.getTimestamp(7), null, null));
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT show_id, seat_version FROM SeatMapVersions")) {
+                while (rs.next()) {
+                    versions.put(rs.getInt(1), rs.getLong(2));
+                }
+            }
+        }
+        // Seat-map versions carry on from SQL instead of restarting from the booking count
+        for (ShowState state : shows.values()) {
+            state.version = versions.getOrDefault(state.show.getShowId(), 0L);
+        }
+        System.out.println("Journal: loaded " + shows.size() + " shows and " + bookings.size() + " bookings from the database");
+    }
+
+    private void backgroundSnapshot() {
+        try {
+            writeSnapshot();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Journal: snapshot failed: " + e);
+        } finally {
+            snapshotRunning.set(false);
+        }
+    }
+
+    /**
+     * Writes the state as of the current journal end. The read lock is only
+     * held while the (immutable) shows and bookings are collected; the file
+     * is written afterwards while bookings carry on.
+     */
+    private void writeSnapshot() throws IOException {
+        long start = System.nanoTime();
+        long offset;
+        int nextShow;
+        int nextBooking;
+        List<Show> showList = new ArrayList<>();
+        long[] versions;
+        List<Booking> bookingList;
+        lock.readLock().lock();
+        try {
+            offset = journal.getEndOffset();
+            nextShow = nextShowId;
+            nextBooking = nextBookingId;
+            versions = new long[shows.size()];
+            int i = 0;
+            for (ShowState state : shows.values()) {
+                showList.add(state.show);
+                versions[i++] = state.version;
+            }
+            bookingList = new ArrayList<>(bookings.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Path target = dir.resolve(String.format("snapshot-%020d.bin", offset));
+        Path temp = dir.resolve(target.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc), 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_FORMAT);
+            out.writeLong(offset);
+            out.writeInt(nextShow);
+            out.writeInt(nextBooking);
+            out.writeInt(showList.size());
+            for (int i = 0; i < showList.size(); i++) {
+                Show show = showList.get(i);
+                out.writeInt(show.getShowId());
+                out.writeInt(show.getMovieId());
+                out.writeInt(show.getScreenId());
+                out.writeLong(show.getShowTime().getTime());
+                out.writeDouble(show.getPrice());
+                out.writeDouble(show.getCategoryPrice(SeatCategory.PREMIUM));
+                out.writeDouble(show.getCategoryPrice(SeatCategory.RECLINER));
+                out.writeLong(versions[i]);
+            }
+            out.writeInt(bookingList.size());
+            for (Booking booking : bookingList) {
+                out.writeInt(booking.getBookingId());
+                out.writeInt(booking.getShowId());
+                out.writeLong(booking.getBookingTime().getTime());
+                out.writeDouble(booking.getTotalAmount());
+                writeString(out, booking.getCustomerName());
+                writeString(out, booking.getCustomerPhone());
+                writeString(out, booking.getSelectedSeats());
+            }
+            out.flush();
+            long checksum = crc.getValue();
+            out.writeLong(checksum);
+            out.flush();
+            file.getChannel().force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        // Keep the last few snapshots, and the journal from the oldest of them (and from what SQL still lacks)
+        TreeMap<Long, Path> snapshots = listSnapshots();
+        while (snapshots.size() > SNAPSHOTS_KEPT) {
+            Files.deleteIfExists(snapshots.pollFirstEntry().getValue());
+        }
+        long keepFrom = snapshots.firstKey();
+        if (replicator != null) {
+            keepFrom = Math.min(keepFrom, replicator.getAppliedOffset());
+        }
+        journal.deleteBefore(keepFrom);
+        System.out.printf("Journal: snapshot of %d shows and %d bookings at offset %d written in %d ms%n",
+                showList.size(), bookingList.size(), offset, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Loads the newest readable snapshot and returns the journal offset it covers. */
+    private long loadSnapshot() throws IOException {
+        TreeMap<Long, Path> snapshots = listSnapshots();
+        for (Path file : snapshots.descendingMap().values()) {
+            try {
+                return readSnapshot(file);
+            } catch (IOException e) {
+                System.err.println("Journal: skipping unreadable snapshot " + file.getFileName() + ": " + e.getMessage());
+                shows.clear();
+                bookings.clear();
+                nextShowId = 1;
+                nextBookingId = 1;
+            }
+        }
+        if (journal.getStartOffset() > 0) {
+            throw new IOException("No readable snapshot in " + dir + " and the journal no longer starts at 0");
+        }
+        return 0;
+    }
+
+    private long readSnapshot(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream raw = Files.newInputStream(file)) {
+            BufferedInputStream buffered = new BufferedInputStream(raw, 1 << 16);
+            DataInputStream in = new DataInputStream(new CheckedInputStream(buffered, crc));
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("not a snapshot");
+            }
+            int format = in.readInt();
+            if (format < 1 || format > SNAPSHOT_FORMAT) {
+                throw new IOException("unknown snapshot format " + format);
+            }
+            long offset = in.readLong();
+            int nextShow = in.readInt();
+            int nextBooking = in.readInt();
+            int showCount = in.readInt();
+            List<Show> loaded = new ArrayList<>(showCount);
+            long[] versions = new long[showCount];
+            for (int i = 0; i < showCount; i++) {
+                Show show = new Show(in.readInt(), in.readInt(), in.readInt(), new Timestamp(in.readLong()), in.readDouble());
+                if (format >= 2) {
+                    show.setCategoryPrices(in.readDouble(), in.readDouble());
+                }
+                loaded.add(show);
+                versions[i] = in.readLong();
+            }
+            applyShowsAdded(loaded);
+            int bookingCount = in.readInt();
+            for (int i = 0; i < bookingCount; i++) {
+                int bookingId = in.readInt();
+                int showId = in.readInt();
+                Timestamp bookingTime = new Timestamp(in.readLong());
+                double totalAmount = in.readDouble();
+                applyBookingCreated(new Booking(bookingId, showId, readString(in), readString(in), readString(in),
+                        totalAmount, bookingTime, null, null));
+            }
+            // After the bookings, which counted themselves into the versions
+            for (int i = 0; i < showCount; i++) {
+                shows.get(loaded.get(i).getShowId()).version = versions[i];
+            }
+
+            long expected = crc.getValue();
+            if (new DataInputStream(buffered).readLong() != expected) {
+                throw new IOException("checksum mismatch");
+            }
+            nextShowId = Math.max(nextShowId, nextShow);
+            nextBookingId = Math.max(nextBookingId, nextBooking);
+            return offset;
+        } catch (EOFException e) {
+            throw new IOException("truncated", e);
+        }
+    }
+
+    private TreeMap<Long, Path> listSnapshots() throws IOException {
+        TreeMap<Long, Path> snapshots = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "snapshot-*.bin")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                snapshots.put(Long.parseLong(name.substring("snapshot-".length(), name.length() - ".bin".length())), file);
+            }
+        }
+        return snapshots;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
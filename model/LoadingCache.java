@@ -0,0 +1,122 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache with a fixed time-to-live, used by the caching DAO
+ * decorators. Concurrent misses on the same key are collapsed into a single
+ * load; the other callers wait for its result. A value that was being loaded
+ * while the cache was invalidated is handed to its waiters but not kept.
+ */
+public class LoadingCache<K, V> {
+
+    /** Loads the value for a key from the underlying DAO. */
+    public interface Loader<V> {
+        V load() throws SQLException;
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final String name;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<K, CompletableFuture<Entry<V>>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public LoadingCache(String name, long ttlMillis) {
+        this.name = name;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public V get(K key, Loader<V> loader) throws SQLException {
+        while (true) {
+            CompletableFuture<Entry<V>> existing = entries.get(key);
+
+            if (existing == null) {
+                CompletableFuture<Entry<V>> mine = new CompletableFuture<>();
+                if (entries.putIfAbsent(key, mine) != null) {
+                    continue; // Someone else started loading first
+                }
+                misses.increment();
+                return load(key, mine, loader);
+            }
+
+            if (!existing.isDone()) {
+                collapsed.increment();
+                return await(existing);
+            }
+
+            if (!existing.isCompletedExceptionally()) {
+                Entry<V> entry = existing.join();
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    hits.increment();
+                    return entry.value;
+                }
+            }
+            entries.remove(key, existing); // Expired or failed; retry as a miss
+        }
+    }
+
+    private V load(K key, CompletableFuture<Entry<V>> mine, Loader<V> loader) throws SQLException {
+        long startGeneration = generation.get();
+        try {
+            V value = loader.load();
+            mine.complete(new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+            if (generation.get() != startGeneration) {
+                entries.remove(key, mine); // Invalidated mid-load, the value may already be stale
+            }
+            return value;
+        } catch (SQLException | RuntimeException e) {
+            entries.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private V await(CompletableFuture<Entry<V>> future) throws SQLException {
+        try {
+            return future.get().value;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for " + name + " to load.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) throw (SQLException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new SQLException("Failed to load " + name + ".", cause);
+        }
+    }
+
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        invalidations.increment();
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        invalidations.increment();
+        entries.clear();
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(name, hits.sum(), misses.sum(), collapsed.sum(), invalidations.sum(), entries.size());
+    }
+}
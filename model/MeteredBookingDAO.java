@@ -0,0 +1,60 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link BookingDAO} decorator that records call counts, errors and latency
+ * of every method in {@link DaoMetrics}. A seat conflict counts as an error.
+ */
+public class MeteredBookingDAO implements BookingDAO {
+
+    private final BookingDAO delegate;
+    private final MethodMetrics createBooking;
+    private final MethodMetrics getBookedSeats;
+    private final MethodMetrics getAllBookingsDetailed;
+    private final MethodMetrics deleteBooking;
+    private final MethodMetrics getBookingsPage;
+    private final MethodMetrics getSeatChanges;
+
+    public MeteredBookingDAO(BookingDAO delegate, DaoMetrics metrics) {
+        this.delegate = delegate;
+        this.createBooking = metrics.method("BookingDAO.createBooking");
+        this.getBookedSeats = metrics.method("BookingDAO.getBookedSeats");
+        this.getAllBookingsDetailed = metrics.method("BookingDAO.getAllBookingsDetailed");
+        this.deleteBooking = metrics.method("BookingDAO.deleteBooking");
+        this.getBookingsPage = metrics.method("BookingDAO.getBookingsPage");
+        this.getSeatChanges = metrics.method("BookingDAO.getSeatChanges");
+    }
+
+    @Override
+    public boolean createBooking(Booking booking) throws SQLException {
+        return createBooking.time(() -> delegate.createBooking(booking));
+    }
+
+    @Override
+    public Set<String> getBookedSeats(int showId) throws SQLException {
+        return getBookedSeats.time(() -> delegate.getBookedSeats(showId));
+    }
+
+    @Override
+    public List<Booking> getAllBookingsDetailed() throws SQLException {
+        return getAllBookingsDetailed.time(delegate::getAllBookingsDetailed);
+    }
+
+    @Override
+    public boolean deleteBooking(int bookingId) throws SQLException {
+        return deleteBooking.time(() -> delegate.deleteBooking(bookingId));
+    }
+
+    @Override
+    public Page<Booking> getBookingsPage(BookingQuery query, PageCursor after, int limit) throws SQLException {
+        return getBookingsPage.time(() -> delegate.getBookingsPage(query, after, limit));
+    }
+
+    @Override
+    public SeatMapDelta getSeatChanges(int showId, long sinceVersion) throws SQLException {
+        return getSeatChanges.time(() -> delegate.getSeatChanges(showId, sinceVersion));
+    }
+}
@@ -0,0 +1,45 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * {@link MovieDAO} decorator that records call counts, errors and latency
+ * of every method in {@link DaoMetrics}.
+ */
+public class MeteredMovieDAO implements MovieDAO {
+
+    private final MovieDAO delegate;
+    private final MethodMetrics addMovie;
+    private final MethodMetrics getAllMovies;
+    private final MethodMetrics updateMovie;
+    private final MethodMetrics deleteMovie;
+
+    public MeteredMovieDAO(MovieDAO delegate, DaoMetrics metrics) {
+        this.delegate = delegate;
+        this.addMovie = metrics.method("MovieDAO.addMovie");
+        this.getAllMovies = metrics.method("MovieDAO.getAllMovies");
+        this.updateMovie = metrics.method("MovieDAO.updateMovie");
+        this.deleteMovie = metrics.method("MovieDAO.deleteMovie");
+    }
+
+    @Override
+    public boolean addMovie(Movie movie) throws SQLException {
+        return addMovie.time(() -> delegate.addMovie(movie));
+    }
+
+    @Override
+    public List<Movie> getAllMovies() throws SQLException {
+        return getAllMovies.time(delegate::getAllMovies);
+    }
+
+    @Override
+    public boolean updateMovie(Movie movie) throws SQLException {
+        return updateMovie.time(() -> delegate.updateMovie(movie));
+    }
+
+    @Override
+    public boolean deleteMovie(int movieId) throws SQLException {
+        return deleteMovie.time(() -> delegate.deleteMovie(movieId));
+    }
+}
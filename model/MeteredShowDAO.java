@@ -0,0 +1,66 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * {@link ShowDAO} decorator that records call counts, errors and latency
+ * of every method in {@link DaoMetrics}.
+ */
+public class MeteredShowDAO implements ShowDAO {
+
+    private final ShowDAO delegate;
+    private final MethodMetrics addShow;
+    private final MethodMetrics getAllShows;
+    private final MethodMetrics deleteShow;
+    private final MethodMetrics getShowsByMovieId;
+    private final MethodMetrics getShow;
+    private final MethodMetrics getShowsPage;
+    private final MethodMetrics scheduleShows;
+
+    public MeteredShowDAO(ShowDAO delegate, DaoMetrics metrics) {
+        this.delegate = delegate;
+        this.addShow = metrics.method("ShowDAO.addShow");
+        this.getAllShows = metrics.method("ShowDAO.getAllShows");
+        this.deleteShow = metrics.method("ShowDAO.deleteShow");
+        this.getShowsByMovieId = metrics.method("ShowDAO.getShowsByMovieId");
+        this.getShow = metrics.method("ShowDAO.getShow");
+        this.getShowsPage = metrics.method("ShowDAO.getShowsPage");
+        this.scheduleShows = metrics.method("ShowDAO.scheduleShows");
+    }
+
+    @Override
+    public boolean addShow(Show show) throws SQLException {
+        return addShow.time(() -> delegate.addShow(show));
+    }
+
+    @Override
+    public List<Show> getAllShows() throws SQLException {
+        return getAllShows.time(delegate::getAllShows);
+    }
+
+    @Override
+    public boolean deleteShow(int showId) throws SQLException {
+        return deleteShow.time(() -> delegate.deleteShow(showId));
+    }
+
+    @Override
+    public List<Show> getShowsByMovieId(int movieId) throws SQLException {
+        return getShowsByMovieId.time(() -> delegate.getShowsByMovieId(movieId));
+    }
+
+    @Override
+    public Show getShow(int showId) throws SQLException {
+        return getShow.time(() -> delegate.getShow(showId));
+    }
+
+    @Override
+    public List<Integer> scheduleShows(ShowSchedule schedule) throws SQLException {
+        return scheduleShows.time(() -> delegate.scheduleShows(schedule));
+    }
+
+    @Override
+    public Page<Show> getShowsPage(ShowQuery query, PageCursor after, int limit) throws SQLException {
+        return getShowsPage.time(() -> delegate.getShowsPage(query, after, limit));
+    }
+}
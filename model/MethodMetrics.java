@@ -0,0 +1,63 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, error count and latency histogram of one DAO method.
+ * Obtained from {@link DaoMetrics#method}; safe to record from any thread.
+ */
+public class MethodMetrics {
+
+    /** A timed DAO call. */
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws SQLException;
+    }
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    MethodMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Runs the call and records its latency, counting it as an error if it throws. */
+    public <T> T time(Call<T> call) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.call();
+            failed = false;
+            return result;
+        } finally {
+            record(System.nanoTime() - start, failed);
+        }
+    }
+
+    public void record(long nanos, boolean failed) {
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        latency.record(nanos);
+    }
+
+    void reset() {
+        calls.reset();
+        errors.reset();
+        latency.reset();
+    }
+
+    public MethodStats snapshot() {
+        LatencyHistogram.Snapshot s = latency.snapshot();
+        return new MethodStats(name, calls.sum(), errors.sum(), s.getMeanNanos(),
+                s.getPercentileNanos(50), s.getPercentileNanos(95), s.getPercentileNanos(99), s.getMaxNanos());
+    }
+}
@@ -0,0 +1,50 @@
+package model;
+
+/**
+ * Point-in-time counters and latency percentiles of one DAO method.
+ * Latencies are in nanoseconds; the millisecond getters are for display.
+ */
+public class MethodStats {
+
+    private final String name;
+    private final long calls;
+    private final long errors;
+    private final long meanNanos;
+    private final long p50Nanos;
+    private final long p95Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    public MethodStats(String name, long calls, long errors, long meanNanos,
+                       long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+        this.name = name;
+        this.calls = calls;
+        this.errors = errors;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p95Nanos = p95Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public String getName() { return name; }
+    public long getCalls() { return calls; }
+    public long getErrors() { return errors; }
+    public long getMeanNanos() { return meanNanos; }
+    public long getP50Nanos() { return p50Nanos; }
+    public long getP95Nanos() { return p95Nanos; }
+    public long getP99Nanos() { return p99Nanos; }
+    public long getMaxNanos() { return maxNanos; }
+
+    public double getMeanMillis() { return meanNanos / 1_000_000.0; }
+    public double getP50Millis() { return p50Nanos / 1_000_000.0; }
+    public double getP95Millis() { return p95Nanos / 1_000_000.0; }
+    public double getP99Millis() { return p99Nanos / 1_000_000.0; }
+    public double getMaxMillis() { return maxNanos / 1_000_000.0; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: calls=%d errors=%d mean=%.3fms p50=%.3fms p95=%.3fms p99=%.3fms max=%.3fms",
+                name, calls, errors, getMeanMillis(), getP50Millis(), getP95Millis(), getP99Millis(), getMaxMillis());
+    }
+}
@@ -0,0 +1,94 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One step of the schema, applied once by {@link SchemaMigrator} and then
+ * recorded in SchemaVersion with a checksum of its definition. Editing a
+ * migration that has already been applied changes the checksum and stops
+ * startup; add a new migration instead.
+ *
+ * Every step must be safe to run again (IF NOT EXISTS, or a check first),
+ * because DDL commits on its own and a step interrupted halfway is simply
+ * retried on the next start.
+ */
+final class Migration {
+
+    /** Code for steps that plain SQL cannot express, such as a data backfill. */
+    interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private final int version;
+    private final String description;
+    private final String definition; // What the checksum covers
+    private final Step step;
+
+    private Migration(int version, String description, String definition, Step step) {
+        this.version = version;
+        this.description = description;
+        this.definition = definition;
+        this.step = step;
+    }
+
+    static Migration sql(int version, String description, String... statements) {
+        List<String> sql = Arrays.asList(statements);
+        return new Migration(version, description, String.join(";\n", sql), conn -> SchemaMigrator.execute(conn, sql));
+    }
+
+    /**
+     * Adds an index unless one of that name exists, online on MySQL so
+     * bookings keep flowing while it builds.
+     */
+    static Migration index(int version, String table, String name, String... columns) {
+        String columnList = String.join(", ", columns);
+        return new Migration(version, "Index " + name + " on " + table + " (" + columnList + ")",
+                "INDEX " + name + " ON " + table + " (" + columnList + ")",
+                conn -> SchemaMigrator.createIndex(conn, table, name, columnList));
+    }
+
+    /** Adds a column unless the table has one of that name already. */
+    static Migration column(int version, String table, String column, String type) {
+        return new Migration(version, "Column " + column + " on " + table,
+                "COLUMN " + table + "." + column + " " + type,
+                conn -> SchemaMigrator.addColumn(conn, table, column, type));
+    }
+
+    /** Only the description is checksummed, so bump {@code revision} when changing what the code does. */
+    static Migration code(int version, String description, int revision, Step step) {
+        return new Migration(version, description, "CODE " + description + " r" + revision, step);
+    }
+
+    int getVersion() { return version; }
+    String getDescription() { return description; }
+
+    void apply(Connection conn) throws SQLException {
+        step.apply(conn);
+    }
+
+    /** SHA-256 of the version and definition, as hex. */
+    String checksum() {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest((version + "\n" + definition).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " " + description;
+    }
+}
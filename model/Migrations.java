@@ -0,0 +1,121 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The schema, in order. Append new migrations at the end with the next
+ * version number and never edit one that has shipped. Statements are
+ * written in MySQL's DDL; {@link SqlDialect#ddl} adapts them for H2.
+ *
+ * V1 to V5 are the tables that used to be created on every start; on an
+ * existing database they find everything in place and only get recorded.
+ */
+final class Migrations {
+
+    private static final List<Migration> ALL = Collections.unmodifiableList(Arrays.asList(
+        Migration.sql(1, "Users, movies, shows and bookings",
+            "CREATE TABLE IF NOT EXISTS Users (user_id INT AUTO_INCREMENT PRIMARY KEY, username VARCHAR(50) NOT NULL UNIQUE, password VARCHAR(100) NOT NULL, is_admin BOOLEAN DEFAULT FALSE)",
+            "CREATE TABLE IF NOT EXISTS Movies (movie_id INT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(100) NOT NULL, genre VARCHAR(50), duration INT, poster_path VARCHAR(255))",
+            "CREATE TABLE IF NOT EXISTS Shows (show_id INT AUTO_INCREMENT PRIMARY KEY, movie_id INT NOT NULL, screen_id INT NOT NULL, show_time TIMESTAMP NOT NULL, price DOUBLE NOT NULL, FOREIGN KEY (movie_id) REFERENCES Movies(movie_id) ON DELETE CASCADE)",
+            "CREATE TABLE IF NOT EXISTS Bookings (booking_id INT AUTO_INCREMENT PRIMARY KEY, show_id INT NOT NULL, customer_name VARCHAR(100), customer_phone VARCHAR(50), selected_seats VARCHAR(255) NOT NULL, total_amount DOUBLE NOT NULL, booking_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP, FOREIGN KEY (show_id) REFERENCES Shows(show_id) ON DELETE CASCADE)"),
+
+        // One row per booked seat; the primary key stops two bookings from taking the same seat
+        Migration.sql(2, "Booked seats",
+            "CREATE TABLE IF NOT EXISTS BookingSeats (booking_id INT NOT NULL, show_id INT NOT NULL, seat_code VARCHAR(8) NOT NULL, PRIMARY KEY (show_id, seat_code), INDEX idx_booking_seats_booking (booking_id), FOREIGN KEY (booking_id) REFERENCES Bookings(booking_id) ON DELETE CASCADE)"),
+        Migration.code(3, "Backfill booked seats from Bookings.selected_seats", 1, Migrations::backfillBookingSeats),
+
+        // Seat-map version per show, bumped by every booking and cancellation; a missing row means version 0
+        Migration.sql(4, "Seat-map versions",
+            "CREATE TABLE IF NOT EXISTS SeatMapVersions (show_id INT PRIMARY KEY, seat_version BIGINT NOT NULL, FOREIGN KEY (show_id) REFERENCES Shows(show_id) ON DELETE CASCADE)"),
+        Migration.sql(5, "Bulk import checkpoints",
+            "CREATE TABLE IF NOT EXISTS ImportCheckpoints (source VARCHAR(255) PRIMARY KEY, records_done BIGINT NOT NULL, rows_imported BIGINT NOT NULL, rows_rejected BIGINT NOT NULL, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)"),
+
+        // Shows of a movie in time order (the customer screen); covers SELECT * on InnoDB, where the key carries show_id
+        Migration.index(6, "Shows", "idx_shows_movie_time", "movie_id", "show_time", "screen_id", "price"),
+        // All shows in time order, seeking on (show_time, show_id) page by page (the admin dashboard)
+        Migration.index(7, "Shows", "idx_shows_time", "show_time", "show_id"),
+        // Bookings of a show in booking order; also serves the foreign key on show_id
+        Migration.index(8, "Bookings", "idx_bookings_show_time", "show_id", "booking_time"),
+        // All bookings newest first, seeking on (booking_time, booking_id) page by page; descending to match
+        // the dashboard's default order, which H2 cannot read from an ascending index
+        Migration.index(9, "Bookings", "idx_bookings_time", "booking_time DESC", "booking_id DESC"),
+        // Phone-number prefix search in the admin dashboard
+        Migration.index(10, "Bookings", "idx_bookings_phone", "customer_phone"),
+
+        // How far each booking journal has been copied into the tables above (-Dcinema.store=journal)
+        Migration.sql(11, "Journal replication offsets",
+            "CREATE TABLE IF NOT EXISTS JournalReplication (journal_id VARCHAR(64) PRIMARY KEY, applied_offset BIGINT NOT NULL, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)"),
+
+        // Seat layout per screen, in SeatLayout's format; a screen without a row gets the standard 6 x 10 hall
+        Migration.sql(12, "Screen seat layouts",
+            "CREATE TABLE IF NOT EXISTS Screens (screen_id INT PRIMARY KEY, name VARCHAR(50) NOT NULL, layout VARCHAR(4000) NOT NULL)"),
+
+        // Per-show prices of premium and recliner seats; NULL means the show's standard price. Shows of a
+        // movie are few, so idx_shows_movie_time no longer covering SELECT * costs a handful of row reads
+        Migration.column(13, "Shows", "premium_price", "DOUBLE NULL"),
+        Migration.column(14, "Shows", "recliner_price", "DOUBLE NULL"),
+
+        // Revenue and occupancy for the reports, maintained with every booking and show change (see Rollups).
+        // Daily rows are keyed by the day the shows play, date first so a report reads one range of the key
+        Migration.sql(15, "Reporting rollups",
+            "CREATE TABLE IF NOT EXISTS ShowRollups (show_id INT PRIMARY KEY, seat_capacity INT NOT NULL, seats_sold INT NOT NULL, revenue DOUBLE NOT NULL, booking_count INT NOT NULL, FOREIGN KEY (show_id) REFERENCES Shows(show_id) ON DELETE CASCADE)",
+            "CREATE TABLE IF NOT EXISTS MovieDailyRollups (show_date DATE NOT NULL, movie_id INT NOT NULL, show_count INT NOT NULL, seat_capacity INT NOT NULL, seats_sold INT NOT NULL, revenue DOUBLE NOT NULL, booking_count INT NOT NULL, PRIMARY KEY (show_date, movie_id), INDEX idx_movie_daily_movie (movie_id), FOREIGN KEY (movie_id) REFERENCES Movies(movie_id) ON DELETE CASCADE)",
+            "CREATE TABLE IF NOT EXISTS ScreenDailyRollups (show_date DATE NOT NULL, screen_id INT NOT NULL, show_count INT NOT NULL, seat_capacity INT NOT NULL, seats_sold INT NOT NULL, revenue DOUBLE NOT NULL, booking_count INT NOT NULL, PRIMARY KEY (show_date, screen_id))"),
+        Migration.code(16, "Build reporting rollups from existing bookings", 1, Rollups::rebuild),
+
+        // Seat holds shared by every kiosk and server on the database; held_until is epoch milliseconds
+        Migration.sql(17, "Seat holds",
+            "CREATE TABLE IF NOT EXISTS SeatHolds (show_id INT NOT NULL, seat_code VARCHAR(8) NOT NULL, holder_id VARCHAR(64) NOT NULL, held_until BIGINT NOT NULL, PRIMARY KEY (show_id, seat_code), INDEX idx_seat_holds_until (held_until), FOREIGN KEY (show_id) REFERENCES Shows(show_id) ON DELETE CASCADE)")
+    ));
+
+    private Migrations() {}
+
+    static List<Migration> all() {
+        return ALL;
+    }
+
+    /**
+     * Copies the seats of bookings made before BookingSeats existed out of
+     * their comma-separated selected_seats column. Only runs while the new
+     * table is still empty. Seats that were double-booked in the old schema
+     * keep their first booking.
+     */
+    private static void backfillBookingSeats(Connection conn) throws SQLException {
+        try (Statement check = conn.createStatement();
+             ResultSet rs = check.executeQuery("SELECT (SELECT COUNT(*) FROM BookingSeats), (SELECT COUNT(*) FROM Bookings)")) {
+            if (!rs.next() || rs.getLong(1) > 0 || rs.getLong(2) == 0) {
+                return;
+            }
+        }
+
+        String insert = SqlDialect.of(conn).insertIgnore("BookingSeats",
+                Arrays.asList("show_id", "seat_code"), Arrays.asList("booking_id", "show_id", "seat_code"));
+        try (Statement select = conn.createStatement();
+             ResultSet rs = select.executeQuery("SELECT booking_id, show_id, selected_seats FROM Bookings ORDER BY booking_id");
+             PreparedStatement stmt = conn.prepareStatement(insert)) {
+            int pending = 0;
+            while (rs.next()) {
+                for (String seat : SeatInventory.parseSeats(rs.getString("selected_seats"))) {
+                    stmt.setInt(1, rs.getInt("booking_id"));
+                    stmt.setInt(2, rs.getInt("show_id"));
+                    stmt.setString(3, seat);
+                    stmt.addBatch();
+                    if (++pending == 500) {
+                        stmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                stmt.executeBatch();
+            }
+        }
+    }
+}
@@ -10,11 +10,9 @@ import java.util.List;
 
 public class MovieDAOImpl implements MovieDAO {
 
-    private Connection conn;
-
     public MovieDAOImpl() {
         try {
-            this.conn = DatabaseConnection.getConnection();
+            DatabaseConnection.initialize(); // Connections are borrowed per operation from the pool
         } catch (SQLException e) {
             e.printStackTrace();
             throw new RuntimeException("Failed to connect to database in DAO", e);
@@ -25,12 +23,18 @@ public class MovieDAOImpl implements MovieDAO {
     public boolean addMovie(Movie movie) throws SQLException {
         String sql = "INSERT INTO Movies (title, genre, duration, poster_path) VALUES (?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, movie.getTitle());
             stmt.setString(2, movie.getGenre());
             stmt.setInt(3, movie.getDuration());
             stmt.setString(4, movie.getPosterPath());
             int rowsAffected = stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (rowsAffected == 1 && keys.next()) {
+                    ChangeBus.getInstance().publish(ChangeEvent.movie(ChangeEvent.Kind.CREATED, keys.getInt(1)));
+                }
+            }
             return rowsAffected == 1;
         }
     }
@@ -40,7 +44,8 @@ public class MovieDAOImpl implements MovieDAO {
         List<Movie> movies = new ArrayList<>();
         String sql = "SELECT * FROM Movies";
         
-        try (Statement stmt = conn.createStatement();
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
                 movies.add(extractMovieFromResultSet(rs));
@@ -53,13 +58,17 @@ public class MovieDAOImpl implements MovieDAO {
     public boolean updateMovie(Movie movie) throws SQLException {
         String sql = "UPDATE Movies SET title = ?, genre = ?, duration = ?, poster_path = ? WHERE movie_id = ?";
         
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, movie.getTitle());
             stmt.setString(2, movie.getGenre());
             stmt.setInt(3, movie.getDuration());
             stmt.setString(4, movie.getPosterPath());
             stmt.setInt(5, movie.getMovieId());
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected == 1) {
+                ChangeBus.getInstance().publish(ChangeEvent.movie(ChangeEvent.Kind.UPDATED, movie.getMovieId()));
+            }
             return rowsAffected == 1;
         }
     }
@@ -68,9 +77,24 @@ public class MovieDAOImpl implements MovieDAO {
     public boolean deleteMovie(int movieId) throws SQLException {
         String sql = "DELETE FROM Movies WHERE movie_id = ?";
         
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, movieId);
-            int rowsAffected = stmt.executeUpdate();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            int rowsAffected;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                Rollups.movieRemoved(conn, movieId); // Its shows leave the screens' daily rollups
+                stmt.setInt(1, movieId);
+                rowsAffected = stmt.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            SeatInventory.getInstance().clear(); // Cascaded shows and bookings are gone
+            SeatMapLog.getInstance().clear();
+            if (rowsAffected == 1) {
+                // Subscribers drop the movie's shows and bookings themselves
+                ChangeBus.getInstance().publish(ChangeEvent.movie(ChangeEvent.Kind.DELETED, movieId));
+            }
             return rowsAffected == 1;
         }
     }
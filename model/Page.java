@@ -0,0 +1,24 @@
+package model;
+
+import java.util.List;
+
+/**
+ * One page of results plus the cursor to fetch the next one.
+ */
+public class Page<T> {
+
+    private final List<T> items;
+    private final PageCursor nextCursor;
+
+    public Page(List<T> items, PageCursor nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+
+    /** Cursor for the following page, or null if this was the last page. */
+    public PageCursor getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,20 @@
+package model;
+
+/**
+ * Position after the last row of a page, used for keyset (seek) pagination.
+ * Holds the sort column value and the primary key of that row; the next page
+ * starts strictly after this pair, so fetching page N never scans pages 1..N-1.
+ */
+public class PageCursor {
+
+    private final Object sortValue;
+    private final int id;
+
+    public PageCursor(Object sortValue, int id) {
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    public Object getSortValue() { return sortValue; }
+    public int getId() { return id; }
+}
@@ -0,0 +1,48 @@
+package model;
+
+/**
+ * Point-in-time snapshot of a {@link ConnectionPool}.
+ */
+public class PoolStats {
+
+    private final int active;
+    private final int idle;
+    private final int waiters;
+    private final int maxSize;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+
+    public PoolStats(int active, int idle, int waiters, int maxSize, long borrowCount,
+                     long timeoutCount, long totalWaitNanos, long maxWaitNanos) {
+        this.active = active;
+        this.idle = idle;
+        this.waiters = waiters;
+        this.maxSize = maxSize;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    public int getActive() { return active; }
+    public int getIdle() { return idle; }
+    public int getWaiters() { return waiters; }
+    public int getMaxSize() { return maxSize; }
+    public long getBorrowCount() { return borrowCount; }
+    public long getTimeoutCount() { return timeoutCount; }
+    public long getTotalWaitNanos() { return totalWaitNanos; }
+    public long getMaxWaitNanos() { return maxWaitNanos; }
+
+    public double getAverageWaitMillis() {
+        return borrowCount == 0 ? 0.0 : totalWaitNanos / 1_000_000.0 / borrowCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("active=%d idle=%d waiters=%d max=%d borrows=%d timeouts=%d avgWait=%.3fms maxWait=%.3fms",
+                active, idle, waiters, maxSize, borrowCount, timeoutCount,
+                getAverageWaitMillis(), maxWaitNanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,14 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.List;
+
+public interface ReportDAO {
+
+    /**
+     * Revenue and occupancy per movie or screen and day or month, read from
+     * the rollup tables (see {@link Rollups}) rather than from Bookings.
+     * Rows come by period, then by revenue, highest first.
+     */
+    List<ReportRow> getReport(ReportQuery query) throws SQLException;
+}
@@ -0,0 +1,72 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReportDAOImpl implements ReportDAO {
+
+    public ReportDAOImpl() {
+        try {
+            DatabaseConnection.initialize(); // Connections are borrowed per operation from the pool
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Failed to connect to database in DAO", e);
+        }
+    }
+
+    @Override
+    public List<ReportRow> getReport(ReportQuery query) throws SQLException {
+        boolean byMovie = query.getGroupBy() == ReportQuery.GroupBy.MOVIE;
+        boolean byMonth = query.getPeriod() == ReportQuery.Period.MONTH;
+        String id = byMovie ? "r.movie_id" : "r.screen_id";
+        String name = byMovie ? "m.title" : "COALESCE(n.name, CONCAT('Screen ', r.screen_id))";
+        String period = byMonth ? "YEAR(r.show_date), MONTH(r.show_date)" : "r.show_date";
+        List<Object> params = new ArrayList<>();
+
+        // Day rows are the rollup rows themselves; months add up at most 31 of them per movie or screen
+        StringBuilder sql = new StringBuilder("SELECT ");
+        sql.append(byMonth ? "YEAR(r.show_date) AS y, MONTH(r.show_date) AS mo" : "r.show_date")
+           .append(", ").append(id).append(" AS id, ").append(name).append(" AS name, ")
+           .append("SUM(r.show_count) AS shows, SUM(r.seat_capacity) AS capacity, SUM(r.seats_sold) AS sold, ")
+           .append("SUM(r.revenue) AS revenue, SUM(r.booking_count) AS bookings ")
+           .append(byMovie
+                   ? "FROM MovieDailyRollups r JOIN Movies m ON m.movie_id = r.movie_id"
+                   : "FROM ScreenDailyRollups r LEFT JOIN Screens n ON n.screen_id = r.screen_id")
+           .append(" WHERE 1 = 1");
+        if (query.getFrom() != null) {
+            sql.append(" AND r.show_date >= ?");
+            params.add(Date.valueOf(query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            sql.append(" AND r.show_date < ?");
+            params.add(Date.valueOf(query.getTo()));
+        }
+        sql.append(" GROUP BY ").append(period).append(", ").append(id).append(", ").append(name)
+           .append(" ORDER BY ").append(period).append(", revenue DESC, id");
+
+        List<ReportRow> rows = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    LocalDate start = byMonth
+                            ? LocalDate.of(rs.getInt("y"), rs.getInt("mo"), 1)
+                            : rs.getDate("show_date").toLocalDate();
+                    rows.add(new ReportRow(query.getPeriod(), start, rs.getInt("id"), rs.getString("name"),
+                            rs.getInt("shows"), rs.getInt("capacity"), rs.getInt("sold"),
+                            rs.getDouble("revenue"), rs.getInt("bookings")));
+                }
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,30 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * What {@link ReportDAO#getReport} should add up: a range of show days, cut
+ * into days or calendar months, with one row per movie or per screen.
+ * Unset dates leave that end of the range open.
+ */
+public class ReportQuery {
+
+    public enum Period { DAY, MONTH }
+
+    public enum GroupBy { MOVIE, SCREEN }
+
+    private Period period = Period.DAY;
+    private GroupBy groupBy = GroupBy.MOVIE;
+    private LocalDate from; // inclusive
+    private LocalDate to;   // exclusive
+
+    public ReportQuery period(Period period) { this.period = period; return this; }
+    public ReportQuery groupBy(GroupBy groupBy) { this.groupBy = groupBy; return this; }
+    public ReportQuery from(LocalDate from) { this.from = from; return this; }
+    public ReportQuery to(LocalDate to) { this.to = to; return this; }
+
+    public Period getPeriod() { return period; }
+    public GroupBy getGroupBy() { return groupBy; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+}
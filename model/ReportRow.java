@@ -0,0 +1,52 @@
+package model;
+
+import java.time.LocalDate;
+
+/** One line of a revenue and occupancy report: a movie or screen over a day or month. */
+public class ReportRow {
+
+    private final ReportQuery.Period period;
+    private final LocalDate periodStart;
+    private final int id;
+    private final String name;
+    private final int shows;
+    private final int capacity;
+    private final int seatsSold;
+    private final double revenue;
+    private final int bookings;
+
+    public ReportRow(ReportQuery.Period period, LocalDate periodStart, int id, String name, int shows, int capacity,
+                     int seatsSold, double revenue, int bookings) {
+        this.period = period;
+        this.periodStart = periodStart;
+        this.id = id;
+        this.name = name;
+        this.shows = shows;
+        this.capacity = capacity;
+        this.seatsSold = seatsSold;
+        this.revenue = revenue;
+        this.bookings = bookings;
+    }
+
+    public ReportQuery.Period getPeriod() { return period; }
+    /** The day, or the first day of the month. */
+    public LocalDate getPeriodStart() { return periodStart; }
+    /** "2024-05-17" for a day, "2024-05" for a month. */
+    public String getPeriodLabel() {
+        String day = periodStart.toString();
+        return period == ReportQuery.Period.MONTH ? day.substring(0, 7) : day;
+    }
+    /** Movie or screen id. */
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public int getShows() { return shows; }
+    public int getCapacity() { return capacity; }
+    public int getSeatsSold() { return seatsSold; }
+    public double getRevenue() { return revenue; }
+    public int getBookings() { return bookings; }
+
+    /** Seats sold as a percentage of seats on offer; 0 when nothing was on offer. */
+    public double getOccupancy() {
+        return capacity == 0 ? 0 : 100.0 * seatsSold / capacity;
+    }
+}
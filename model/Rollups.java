@@ -0,0 +1,336 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+
+/**
+ * Revenue and occupancy rollups for the reports: ShowRollups per show, and
+ * MovieDailyRollups and ScreenDailyRollups per day the shows play. Each row
+ * counts shows, seats on offer, seats sold, revenue and bookings.
+ *
+ * The rollups are kept current by adding deltas with
+ * {@link SqlDialect#addToCounters}, in the same transaction as the change
+ * they count: bookings in BookingDAOImpl, shows in ShowDAOImpl and
+ * MovieDAOImpl, and both in the journal replicator. Deltas are summed per
+ * row and written with multi-row statements, a few per table per change.
+ * Reports read the rollups alone, so they cost the same however large
+ * Bookings grows.
+ * {@link #rebuild()} recomputes everything after a bulk import or any other
+ * write that went around the DAOs.
+ */
+public final class Rollups {
+
+    private static final List<String> SHOW_KEY = Arrays.asList("show_id");
+    private static final List<String> MOVIE_DAY_KEY = Arrays.asList("show_date", "movie_id");
+    private static final List<String> SCREEN_DAY_KEY = Arrays.asList("show_date", "screen_id");
+    private static final List<String> SHOW_COUNTERS = Arrays.asList("seat_capacity", "seats_sold", "revenue", "booking_count");
+    private static final List<String> DAILY_COUNTERS = Arrays.asList("show_count", "seat_capacity", "seats_sold", "revenue", "booking_count");
+    private static final int BATCH = 500;
+    // Rows are written in key order, so two writers never lock the same rows the other way round
+    private static final Comparator<List<Object>> SHOW_ORDER = Comparator.comparing((List<Object> key) -> (Integer) key.get(0));
+    private static final Comparator<List<Object>> DAY_ORDER =
+            Comparator.comparing((List<Object> key) -> (Date) key.get(0)).thenComparing(key -> (Integer) key.get(1));
+
+    /** What a change adds to one rollup row; negative to take away. */
+    private static final class Delta {
+        int shows;
+        int capacity;
+        int seats;
+        double revenue;
+        int bookings;
+
+        Delta add(int shows, int capacity, int seats, double revenue, int bookings) {
+            this.shows += shows;
+            this.capacity += capacity;
+            this.seats += seats;
+            this.revenue += revenue;
+            this.bookings += bookings;
+            return this;
+        }
+    }
+
+    private Rollups() {}
+
+    /**
+     * Deltas of one change, summed per rollup row and written by
+     * {@link #flush}: show rows first, then movie days, then screen days,
+     * each in key order, the order every writer takes its row locks in.
+     */
+    private static final class Pending {
+        private final Map<List<Object>, Delta> shows = new TreeMap<>(SHOW_ORDER);
+        private final Map<List<Object>, Delta> movieDays = new TreeMap<>(DAY_ORDER);
+        private final Map<List<Object>, Delta> screenDays = new TreeMap<>(DAY_ORDER);
+
+        private void add(int showId, int movieId, int screenId, Date day, Delta delta) {
+            shows.computeIfAbsent(Arrays.asList(showId), k -> new Delta()).add(0, delta.capacity, delta.seats, delta.revenue, delta.bookings);
+            addDays(movieId, screenId, day, delta);
+        }
+
+        private void addDays(int movieId, int screenId, Date day, Delta delta) {
+            movieDays.computeIfAbsent(Arrays.asList(day, movieId), k -> new Delta())
+                    .add(delta.shows, delta.capacity, delta.seats, delta.revenue, delta.bookings);
+            screenDays.computeIfAbsent(Arrays.asList(day, screenId), k -> new Delta())
+                    .add(delta.shows, delta.capacity, delta.seats, delta.revenue, delta.bookings);
+        }
+
+        void flush(Connection conn) throws SQLException {
+            SqlDialect dialect = SqlDialect.of(conn);
+            addAll(conn, rows -> dialect.addToCounters("ShowRollups", SHOW_KEY, SHOW_COUNTERS, rows), false, shows);
+            addAll(conn, rows -> dialect.addToCounters("MovieDailyRollups", MOVIE_DAY_KEY, DAILY_COUNTERS, rows), true, movieDays);
+            addAll(conn, rows -> dialect.addToCounters("ScreenDailyRollups", SCREEN_DAY_KEY, DAILY_COUNTERS, rows), true, screenDays);
+            // A day that lost shows may have nothing left to report
+            deleteEmpty(conn, "DELETE FROM MovieDailyRollups WHERE show_date = ? AND movie_id = ? AND show_count <= 0", movieDays);
+            deleteEmpty(conn, "DELETE FROM ScreenDailyRollups WHERE show_date = ? AND screen_id = ? AND show_count <= 0", screenDays);
+        }
+    }
+
+    /**
+     * Locks the show's rollup row; call before inserting a booking's rows.
+     * A show delete locks it before its cascade waits on those rows, so
+     * taking it later would deadlock the two.
+     */
+    static void lockShow(Connection conn, int showId) throws SQLException {
+        lockRows(conn, "SELECT show_id FROM ShowRollups WHERE show_id = ? FOR UPDATE", showId);
+    }
+
+    /** Counts a booking just inserted, after {@link #lockShow}. */
+    static void bookingAdded(Connection conn, int showId, int seats, double amount) throws SQLException {
+        Pending pending = new Pending();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT movie_id, screen_id, show_time FROM Shows WHERE show_id = ?")) {
+            stmt.setInt(1, showId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) { // Otherwise the insert would have failed its foreign key
+                    pending.add(showId, rs.getInt("movie_id"), rs.getInt("screen_id"), dayOf(rs.getTimestamp("show_time")),
+                            new Delta().add(0, 0, seats, amount, 1));
+                }
+            }
+        }
+        pending.flush(conn);
+    }
+
+    /** Takes a booking back out; call before deleting it, while its seats are still in BookingSeats. */
+    static void bookingRemoved(Connection conn, int bookingId) throws SQLException {
+        Pending pending = new Pending();
+        String sql = "SELECT b.show_id, b.total_amount, s.movie_id, s.screen_id, s.show_time, "
+                + "(SELECT COUNT(*) FROM BookingSeats bs WHERE bs.booking_id = b.booking_id) AS seats "
+                + "FROM Bookings b JOIN Shows s ON s.show_id = b.show_id WHERE b.booking_id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, bookingId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    pending.add(rs.getInt("show_id"), rs.getInt("movie_id"), rs.getInt("screen_id"),
+                            dayOf(rs.getTimestamp("show_time")),
+                            new Delta().add(0, 0, -rs.getInt("seats"), -rs.getDouble("total_amount"), -1));
+                }
+            }
+        }
+        pending.flush(conn);
+    }
+
+    /**
+     * Counts shows just inserted, with the seats their screens offer.
+     * Days are summed first, so a schedule of thousands of shows takes a
+     * few multi-row statements per table.
+     */
+    static void showsAdded(Connection conn, List<Show> shows, List<Integer> showIds) throws SQLException {
+        Pending pending = new Pending();
+        Map<Integer, Integer> capacities = new HashMap<>();
+        for (int i = 0; i < shows.size(); i++) {
+            Show show = shows.get(i);
+            Integer capacity = capacities.get(show.getScreenId());
+            if (capacity == null) {
+                capacity = SeatLayouts.getInstance().forScreen(conn, show.getScreenId()).getSeatCount();
+                capacities.put(show.getScreenId(), capacity);
+            }
+            pending.add(showIds.get(i), show.getMovieId(), show.getScreenId(), dayOf(show.getShowTime()),
+                    new Delta().add(1, capacity, 0, 0, 0));
+        }
+        pending.flush(conn);
+    }
+
+    /** Takes a show and its bookings out of the daily rollups; call before deleting it. */
+    static void showRemoved(Connection conn, int showId) throws SQLException {
+        showsRemoved(conn, "s.show_id = ?", showId);
+    }
+
+    /** Takes every show of a movie out of the daily rollups; call before deleting the movie. */
+    static void movieRemoved(Connection conn, int movieId) throws SQLException {
+        showsRemoved(conn, "s.movie_id = ?", movieId);
+    }
+
+    private static void showsRemoved(Connection conn, String where, int id) throws SQLException {
+        // The shows' rollup rows first, as bookings take them, then the days; the delete's cascade comes last
+        Pending pending = new Pending();
+        lockRows(conn, "SELECT show_id FROM ShowRollups WHERE show_id IN (SELECT s.show_id FROM Shows s WHERE " + where + ") "
+                + "ORDER BY show_id FOR UPDATE", id);
+        String sql = "SELECT s.movie_id, s.screen_id, s.show_time, r.seat_capacity, r.seats_sold, r.revenue, r.booking_count "
+                + "FROM Shows s JOIN ShowRollups r ON r.show_id = s.show_id WHERE " + where;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // The show's own row goes with it by cascade
+                    pending.addDays(rs.getInt("movie_id"), rs.getInt("screen_id"), dayOf(rs.getTimestamp("show_time")),
+                            new Delta().add(-1, -rs.getInt("seat_capacity"), -rs.getInt("seats_sold"),
+                                    -rs.getDouble("revenue"), -rs.getInt("booking_count")));
+                }
+            }
+        }
+        pending.flush(conn);
+    }
+
+    private static void lockRows(Connection conn, String sql, int id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            stmt.executeQuery().close();
+        }
+    }
+
+    /**
+     * Writes the rows in key order with statements of {@link #BATCH} rows,
+     * sent together as one JDBC batch, plus one shorter statement for the
+     * remainder.
+     */
+    private static void addAll(Connection conn, IntFunction<String> sql, boolean daily, Map<List<Object>, Delta> rows) throws SQLException {
+        List<Map.Entry<List<Object>, Delta>> entries = new ArrayList<>(rows.entrySet());
+        int fullChunks = entries.size() / BATCH;
+        int remainder = entries.size() % BATCH;
+        if (fullChunks > 0) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql.apply(BATCH))) {
+                for (int chunk = 0; chunk < fullChunks; chunk++) {
+                    bindAll(stmt, daily, entries.subList(chunk * BATCH, (chunk + 1) * BATCH));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+        if (remainder > 0) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql.apply(remainder))) {
+                bindAll(stmt, daily, entries.subList(fullChunks * BATCH, entries.size()));
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private static void deleteEmpty(Connection conn, String sql, Map<List<Object>, Delta> rows) throws SQLException {
+        List<List<Object>> lost = new ArrayList<>();
+        for (Map.Entry<List<Object>, Delta> row : rows.entrySet()) {
+            if (row.getValue().shows < 0) {
+                lost.add(row.getKey());
+            }
+        }
+        if (lost.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (List<Object> key : lost) {
+                stmt.setObject(1, key.get(0));
+                stmt.setObject(2, key.get(1));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /** Binds each row's key columns, then its counters; daily rows also count shows. */
+    private static void bindAll(PreparedStatement stmt, boolean daily, List<Map.Entry<List<Object>, Delta>> rows) throws SQLException {
+        int index = 1;
+        for (Map.Entry<List<Object>, Delta> row : rows) {
+            for (Object key : row.getKey()) {
+                stmt.setObject(index++, key);
+            }
+            Delta delta = row.getValue();
+            if (daily) {
+                stmt.setInt(index++, delta.shows);
+            }
+            stmt.setInt(index++, delta.capacity);
+            stmt.setInt(index++, delta.seats);
+            stmt.setDouble(index++, delta.revenue);
+            stmt.setInt(index++, delta.bookings);
+        }
+    }
+
+    private static Date dayOf(Timestamp showTime) {
+        return Date.valueOf(showTime.toLocalDateTime().toLocalDate());
+    }
+
+    // --- REBUILD ---
+
+    /**
+     * Recomputes every rollup from Shows, Bookings and BookingSeats in one
+     * transaction, e.g. after a bulk import. Bookings made while it runs may
+     * be missed or counted twice, so run it when the kiosks are quiet.
+     *
+     * @return the number of shows rolled up.
+     */
+    public static int rebuild() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int shows = rebuild(conn);
+                conn.commit();
+                return shows;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    static int rebuild(Connection conn) throws SQLException {
+        int shows;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM ShowRollups");
+            stmt.executeUpdate("DELETE FROM MovieDailyRollups");
+            stmt.executeUpdate("DELETE FROM ScreenDailyRollups");
+            shows = stmt.executeUpdate(
+                    "INSERT INTO ShowRollups (show_id, seat_capacity, seats_sold, revenue, booking_count) "
+                    + "SELECT s.show_id, 0, COALESCE(seats.sold, 0), COALESCE(b.revenue, 0), COALESCE(b.bookings, 0) FROM Shows s "
+                    + "LEFT JOIN (SELECT show_id, COUNT(*) AS sold FROM BookingSeats GROUP BY show_id) seats ON seats.show_id = s.show_id "
+                    + "LEFT JOIN (SELECT show_id, SUM(total_amount) AS revenue, COUNT(*) AS bookings FROM Bookings GROUP BY show_id) b "
+                    + "ON b.show_id = s.show_id");
+        }
+
+        // Seats on offer come from each screen's layout, which only Java can read
+        List<Integer> screens = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT DISTINCT screen_id FROM Shows")) {
+            while (rs.next()) {
+                screens.add(rs.getInt(1));
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE ShowRollups SET seat_capacity = ? WHERE show_id IN (SELECT show_id FROM Shows WHERE screen_id = ?)")) {
+            for (int screenId : screens) {
+                stmt.setInt(1, SeatLayouts.getInstance().forScreen(conn, screenId).getSeatCount());
+                stmt.setInt(2, screenId);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        String daily = "SELECT CAST(s.show_time AS DATE), s.%1$s, COUNT(*), SUM(r.seat_capacity), SUM(r.seats_sold), "
+                + "SUM(r.revenue), SUM(r.booking_count) FROM ShowRollups r JOIN Shows s ON s.show_id = r.show_id "
+                + "GROUP BY CAST(s.show_time AS DATE), s.%1$s";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO MovieDailyRollups (show_date, movie_id, show_count, seat_capacity, seats_sold, revenue, booking_count) "
+                    + String.format(daily, "movie_id"));
+            stmt.executeUpdate("INSERT INTO ScreenDailyRollups (show_date, screen_id, show_count, seat_capacity, seats_sold, revenue, booking_count) "
+                    + String.format(daily, "screen_id"));
+        }
+        return shows;
+    }
+}
@@ -0,0 +1,228 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings the database up to the latest {@link Migrations} version. Applied
+ * migrations are recorded in SchemaVersion with their checksum, so a start
+ * against an up-to-date database costs one small query, and a migration
+ * edited after it was applied is refused instead of silently diverging.
+ *
+ * Two processes starting at once may both try a pending migration. Steps
+ * are safe to repeat and the version row is only written once, so the
+ * loser either finds nothing left to do or, if its DDL failed, sees the
+ * migration recorded by the winner and carries on.
+ */
+public final class SchemaMigrator {
+
+    private SchemaMigrator() {}
+
+    /** One row of SchemaVersion, or a migration still to be applied. */
+    public static final class Entry {
+        private final int version;
+        private final String description;
+        private final String state;
+
+        Entry(int version, String description, String state) {
+            this.version = version;
+            this.description = description;
+            this.state = state;
+        }
+
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+        /** "applied <time>", "pending", "CHANGED" or "unknown" (newer than this build). */
+        public String getState() { return state; }
+
+        @Override
+        public String toString() {
+            return String.format("V%-3d %-55s %s", version, description, state);
+        }
+    }
+
+    public static int latestVersion() {
+        List<Migration> all = Migrations.all();
+        return all.get(all.size() - 1).getVersion();
+    }
+
+    /**
+     * Applies every pending migration in order and returns how many ran.
+     *
+     * @throws SQLException if an applied migration's checksum no longer
+     *         matches, or a migration fails.
+     */
+    public static int migrate(Connection conn) throws SQLException {
+        createVersionTable(conn);
+        Map<Integer, String> applied = loadChecksums(conn);
+        int ran = 0;
+
+        for (Migration migration : Migrations.all()) {
+            String recorded = applied.get(migration.getVersion());
+            if (recorded != null) {
+                if (!recorded.equals(migration.checksum())) {
+                    throw new SQLException("Migration " + migration + " was changed after it was applied"
+                            + " (recorded checksum " + recorded + "); add a new migration instead.");
+                }
+                continue;
+            }
+
+            long start = System.nanoTime();
+            try {
+                migration.apply(conn);
+            } catch (SQLException e) {
+                if (loadChecksums(conn).containsKey(migration.getVersion())) {
+                    continue; // Another process applied it meanwhile
+                }
+                throw new SQLException("Migration " + migration + " failed: " + e.getMessage(), e.getSQLState(), e);
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            if (record(conn, migration, millis)) {
+                ran++;
+                System.out.println("Schema: applied " + migration + " in " + millis + " ms");
+            }
+        }
+
+        for (int version : applied.keySet()) {
+            if (version > latestVersion()) {
+                System.err.println("Schema: database is at V" + version + ", newer than this build (V" + latestVersion() + ")");
+                break;
+            }
+        }
+        return ran;
+    }
+
+    /** Every known migration plus any recorded version this build does not know, in version order. */
+    public static List<Entry> status(Connection conn) throws SQLException {
+        createVersionTable(conn);
+        Map<Integer, String[]> rows = new LinkedHashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, description, checksum, applied_at FROM SchemaVersion ORDER BY version")) {
+            while (rs.next()) {
+                rows.put(rs.getInt(1), new String[] { rs.getString(2), rs.getString(3), String.valueOf(rs.getTimestamp(4)) });
+            }
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        for (Migration migration : Migrations.all()) {
+            String[] row = rows.remove(migration.getVersion());
+            String state = row == null ? "pending"
+                    : row[1].equals(migration.checksum()) ? "applied " + row[2] : "CHANGED";
+            entries.add(new Entry(migration.getVersion(), migration.getDescription(), state));
+        }
+        for (Map.Entry<Integer, String[]> extra : rows.entrySet()) {
+            entries.add(new Entry(extra.getKey(), extra.getValue()[0], "unknown"));
+        }
+        return entries;
+    }
+
+    private static void createVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS SchemaVersion (version INT PRIMARY KEY, description VARCHAR(200) NOT NULL, checksum CHAR(64) NOT NULL, applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, duration_ms BIGINT NOT NULL)");
+        }
+    }
+
+    private static Map<Integer, String> loadChecksums(Connection conn) throws SQLException {
+        Map<Integer, String> checksums = new LinkedHashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM SchemaVersion ORDER BY version")) {
+            while (rs.next()) {
+                checksums.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        return checksums;
+    }
+
+    /** Returns false if another process recorded the migration first. */
+    private static boolean record(Connection conn, Migration migration, long millis) throws SQLException {
+        String sql = "INSERT INTO SchemaVersion (version, description, checksum, duration_ms) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, migration.getVersion());
+            stmt.setString(2, migration.getDescription());
+            stmt.setString(3, migration.checksum());
+            stmt.setLong(4, millis);
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            if (loadChecksums(conn).containsKey(migration.getVersion())) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    // --- STEPS ---
+
+    /** Runs migration statements, translated for the connected database by {@link SqlDialect#ddl}. */
+    static void execute(Connection conn, List<String> statements) throws SQLException {
+        SqlDialect dialect = SqlDialect.of(conn);
+        try (Statement stmt = conn.createStatement()) {
+            for (String statement : statements) {
+                for (String sql : dialect.ddl(statement)) {
+                    stmt.execute(sql);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the index unless the table already has one of that name (for
+     * instance added by hand before migrations existed). On MySQL the index
+     * is built in place without blocking writes to the table.
+     */
+    static void createIndex(Connection conn, String table, String name, String columns) throws SQLException {
+        if (indexExists(conn, table, name)) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(SqlDialect.of(conn).createIndex(table, name, columns));
+        }
+    }
+
+    /** Adds the column unless the table already has it; both databases add a nullable column in place. */
+    static void addColumn(Connection conn, String table, String column, String type) throws SQLException {
+        if (columnExists(conn, table, column)) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type);
+        }
+    }
+
+    private static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        for (String candidate : new String[] { table, table.toUpperCase() }) {
+            try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, candidate, null)) {
+                while (rs.next()) {
+                    if (column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean indexExists(Connection conn, String table, String name) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        // Identifiers are stored as written on MySQL and upper-cased on H2
+        for (String candidate : new String[] { table, table.toUpperCase() }) {
+            try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), null, candidate, false, true)) {
+                while (rs.next()) {
+                    if (name.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
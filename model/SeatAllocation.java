@@ -0,0 +1,52 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Answer to {@link SeatAllocator#allocate}: the seats picked for a party as
+ * one or more blocks of side-by-side seats in a row. A single block means
+ * the party sits together; several mean no row had room for all of them.
+ * Empty when the show has fewer free seats than the party needs.
+ */
+public final class SeatAllocation {
+
+    private static final SeatAllocation NONE = new SeatAllocation(Collections.emptyList());
+
+    private final List<List<String>> blocks;
+    private final List<String> seats;
+
+    private SeatAllocation(List<List<String>> blocks) {
+        this.blocks = Collections.unmodifiableList(blocks);
+        List<String> all = new ArrayList<>();
+        for (List<String> block : blocks) {
+            all.addAll(block);
+        }
+        this.seats = Collections.unmodifiableList(all);
+    }
+
+    static SeatAllocation none() {
+        return NONE;
+    }
+
+    static SeatAllocation of(List<List<String>> blocks) {
+        return new SeatAllocation(blocks);
+    }
+
+    public boolean isEmpty() { return blocks.isEmpty(); }
+
+    /** True when the whole party sits in one block. */
+    public boolean isContiguous() { return blocks.size() == 1; }
+
+    /** The blocks, best first; each lists its seats from left to right. */
+    public List<List<String>> getBlocks() { return blocks; }
+
+    /** Every seat of every block. */
+    public List<String> getSeats() { return seats; }
+
+    @Override
+    public String toString() {
+        return isEmpty() ? "no seats" : blocks.toString();
+    }
+}
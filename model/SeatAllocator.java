@@ -0,0 +1,180 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Best-available seating for a party, so a group does not have to pick its
+ * seats one by one (and lose them to another kiosk half way through).
+ *
+ * Works on one free-seat bitmap per lettered row, bit (n - 1) for seat n as
+ * in {@link SeatInventory}, plus the layout's mask of which neighbouring
+ * seats sit side by side (an aisle splits a row). The starts of every block
+ * of k free seats in a row are then k - 1 shifts and ANDs, and the start
+ * nearest the centre line is found with one binary search and a leading or
+ * trailing zero count, so a 1,000-seat screen is a few hundred word
+ * operations. Nothing is shared between calls: the caller passes the seats
+ * that are taken and books the answer, which may still clash with another
+ * booking and then has to be allocated again.
+ *
+ * Blocks are scored by the distance of their centre from the sweet spot, the
+ * centre line two thirds of the way back. When no row has room for the
+ * whole party it is split into as few blocks as the free runs allow, each
+ * later block as close to the first one as possible.
+ */
+public final class SeatAllocator {
+
+    private SeatAllocator() {}
+
+    /**
+     * Picks seats for {@code partySize} people.
+     *
+     * @param taken            booked and held seat codes; codes the layout lacks are ignored.
+     * @param avoidSingleSeats prefer blocks that do not strand one free seat between
+     *                         themselves and a taken seat, an aisle or the end of the row;
+     *                         such blocks are still used when there is nothing else.
+     * @return the seats, or an empty allocation if fewer than {@code partySize} are free.
+     */
+    public static SeatAllocation allocate(SeatLayout layout, Collection<String> taken, int partySize, boolean avoidSingleSeats) {
+        if (partySize < 1) {
+            throw new IllegalArgumentException("Party size must be at least 1");
+        }
+        int rows = layout.getSeatRowCount();
+        long[] free = new long[rows];
+        for (int r = 0; r < rows; r++) {
+            free[r] = mask(layout.seatsIn(r));
+        }
+        for (String seat : taken) {
+            int row = SeatInventory.rowOf(seat);
+            int col = SeatInventory.colOf(seat);
+            if (row >= 0 && row < rows && col >= 0) {
+                free[row] &= ~(1L << col);
+            }
+        }
+        int freeCount = 0;
+        for (long seats : free) {
+            freeCount += Long.bitCount(seats);
+        }
+        if (freeCount < partySize) {
+            return SeatAllocation.none();
+        }
+
+        int targetRow = (layout.getRows() - 1) * 2 / 3;
+        int targetCentre = layout.getCols() - 1; // Grid columns doubled, so a centre between two seats stays whole
+        List<List<String>> blocks = new ArrayList<>();
+        int remaining = partySize;
+        while (remaining > 0) {
+            int size = Math.min(remaining, longestRun(layout, free));
+            long block = avoidSingleSeats ? bestBlock(layout, free, size, true, targetRow, targetCentre) : -1;
+            if (block < 0) {
+                block = bestBlock(layout, free, size, false, targetRow, targetCentre);
+            }
+            int row = (int) (block >>> 32);
+            int start = (int) block;
+            free[row] &= ~(mask(size) << start);
+
+            int first = layout.firstSeatOf(row) + start;
+            List<String> codes = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                codes.add(layout.codeOf(first + i));
+            }
+            blocks.add(codes);
+            if (blocks.size() == 1) {
+                // The rest of a split party sits as near the first block as it can
+                targetRow = layout.rowOf(first);
+                targetCentre = layout.colOf(first) + layout.colOf(first + size - 1);
+            }
+            remaining -= size;
+        }
+        return SeatAllocation.of(blocks);
+    }
+
+    /** The best block of {@code size} seats as (row << 32 | first seat bit), or -1 if there is none. */
+    private static long bestBlock(SeatLayout layout, long[] free, int size, boolean avoidSingleSeats,
+                                  int targetRow, int targetCentre) {
+        long best = -1;
+        long bestScore = Long.MAX_VALUE;
+        for (int r = 0; r < free.length; r++) {
+            int first = layout.firstSeatOf(r);
+            long dy = 2L * (layout.rowOf(first) - targetRow);
+            if (dy * dy >= bestScore) {
+                continue; // Even a block on the centre line would lose
+            }
+            long starts = starts(free[r], layout.linksOf(r), size, avoidSingleSeats);
+            if (starts == 0) {
+                continue;
+            }
+            // Blocks starting at or after the pivot are centred at or right of the target
+            int lo = 0;
+            int hi = layout.seatsIn(r);
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (2 * layout.colOf(first + mid) + size - 1 < targetCentre) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            long left = starts & mask(lo);
+            long right = starts & ~left;
+            // Only the nearest start on each side can win
+            if (left != 0) {
+                int start = 63 - Long.numberOfLeadingZeros(left);
+                long dx = 2 * layout.colOf(first + start) + size - 1 - targetCentre;
+                if (dy * dy + dx * dx < bestScore) {
+                    bestScore = dy * dy + dx * dx;
+                    best = ((long) r << 32) | start;
+                }
+            }
+            if (right != 0) {
+                int start = Long.numberOfTrailingZeros(right);
+                long dx = 2 * layout.colOf(first + start) + size - 1 - targetCentre;
+                if (dy * dy + dx * dx < bestScore) {
+                    bestScore = dy * dy + dx * dx;
+                    best = ((long) r << 32) | start;
+                }
+            }
+        }
+        return best;
+    }
+
+    /** Bit i set when seats i + 1 .. i + size of a row are free and side by side. */
+    static long starts(long free, long links, int size, boolean avoidSingleSeats) {
+        long pairs = free & links & (free >>> 1); // Bit i: seats i + 1 and i + 2 free and next to each other
+        long starts = free;
+        for (int i = 0; i < size - 1 && starts != 0; i++) {
+            starts &= pairs >>> i;
+        }
+        if (avoidSingleSeats && starts != 0) {
+            // A free neighbour on the left whose own left neighbour is not free, same on the right
+            long lonelyLeft = (pairs << 1) & ~(pairs << 2);
+            long lonelyRight = (pairs & ~(pairs >>> 1)) >>> (size - 1);
+            starts &= ~(lonelyLeft | lonelyRight);
+        }
+        return starts;
+    }
+
+    /** The length of the longest block of free seats in any row. */
+    private static int longestRun(SeatLayout layout, long[] free) {
+        int longest = 0;
+        for (int r = 0; r < free.length; r++) {
+            if (Long.bitCount(free[r]) <= longest) {
+                continue;
+            }
+            long pairs = free[r] & layout.linksOf(r) & (free[r] >>> 1);
+            long run = free[r];
+            int length = 0;
+            while (run != 0) {
+                length++;
+                run &= pairs >>> (length - 1);
+            }
+            longest = Math.max(longest, length);
+        }
+        return longest;
+    }
+
+    private static long mask(int bits) {
+        return bits >= 64 ? -1L : (1L << bits) - 1;
+    }
+}
@@ -0,0 +1,37 @@
+package model;
+
+/**
+ * Kinds of seat a screen can have, each with its own price per show (see
+ * {@link Show#getPrice(SeatCategory)}). In a {@link SeatLayout} a seat is
+ * written as its category's letter; any other seat character is standard.
+ */
+public enum SeatCategory {
+    STANDARD('S'),
+    PREMIUM('P'),
+    RECLINER('R');
+
+    private final char symbol;
+
+    SeatCategory(char symbol) {
+        this.symbol = symbol;
+    }
+
+    public char getSymbol() { return symbol; }
+
+    /** The category of a seat character in a layout. */
+    public static SeatCategory of(char symbol) {
+        switch (Character.toUpperCase(symbol)) {
+            case 'P':
+                return PREMIUM;
+            case 'R':
+                return RECLINER;
+            default:
+                return STANDARD;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name().charAt(0) + name().substring(1).toLowerCase();
+    }
+}
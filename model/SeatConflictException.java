@@ -0,0 +1,28 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown by {@link BookingDAO#createBooking(Booking)} when one or more of the
+ * requested seats were booked by someone else first. Nothing is written in
+ * that case; the caller can show {@link #getConflictingSeats()} and let the
+ * customer pick again.
+ */
+public class SeatConflictException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int showId;
+    private final List<String> conflictingSeats;
+
+    public SeatConflictException(int showId, List<String> conflictingSeats) {
+        super("Seats already booked for show " + showId + ": " + String.join(", ", conflictingSeats), "23000");
+        this.showId = showId;
+        this.conflictingSeats = Collections.unmodifiableList(conflictingSeats);
+    }
+
+    public int getShowId() { return showId; }
+    public List<String> getConflictingSeats() { return conflictingSeats; }
+}
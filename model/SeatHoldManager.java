@@ -0,0 +1,253 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seat holds kept in memory, for the journal store: only one process uses a
+ * journal, so every kiosk and API client sharing it sees these holds. A
+ * booking through {@link JournalBookingDAO} converts its holder's holds and
+ * refuses seats held by others. The SQL store uses {@link SqlSeatHolds}.
+ *
+ * Expiry runs on a hashed timer wheel: each hold is dropped into the slot of
+ * the tick it expires on, and a single background thread sweeps one slot per
+ * tick. Placing, renewing or releasing a hold is O(1), and expiring one is
+ * O(1) amortised no matter how many holds are active. Renewed or released
+ * holds are not removed from their slot; the sweep skips them when it gets
+ * there.
+ */
+public class SeatHoldManager implements SeatHolds {
+
+    public static final long DEFAULT_TTL_MS = 2 * 60_000;
+
+    private static final long TICK_MS = 100;
+    private static final int WHEEL_SLOTS = 512; // One revolution = 51.2 s
+
+    private static final SeatHoldManager INSTANCE = new SeatHoldManager(DEFAULT_TTL_MS);
+
+    private static final class Hold {
+        final int showId;
+        final int seatIndex;
+        final String holderId;
+        final long expiryTick;
+
+        Hold(int showId, int seatIndex, String holderId, long expiryTick) {
+            this.showId = showId;
+            this.seatIndex = seatIndex;
+            this.holderId = holderId;
+            this.expiryTick = expiryTick;
+        }
+
+        long key() {
+            return key(showId, seatIndex);
+        }
+
+        static long key(int showId, int seatIndex) {
+            return ((long) showId << 32) | seatIndex;
+        }
+    }
+
+    private final long ttlTicks;
+    private final ConcurrentHashMap<Long, Hold> holds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Set<Long>> holdsByShow = new ConcurrentHashMap<>();
+    private final List<ConcurrentLinkedQueue<Hold>> wheel = new ArrayList<>(WHEEL_SLOTS);
+    private final AtomicLong currentTick = new AtomicLong();
+    private final List<ExpiryListener> listeners = new CopyOnWriteArrayList<>();
+
+    SeatHoldManager(long ttlMillis) {
+        this.ttlTicks = Math.max(1, ttlMillis / TICK_MS);
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel.add(new ConcurrentLinkedQueue<>());
+        }
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "seat-hold-wheel");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::tick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public static SeatHoldManager getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void addExpiryListener(ExpiryListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeExpiryListener(ExpiryListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Places or renews a hold on a seat.
+     *
+     * @return false if the seat is held by a different holder.
+     */
+    @Override
+    public boolean hold(int showId, String seat, String holderId) {
+        int seatIndex = SeatInventory.indexOf(seat);
+        if (seatIndex < 0) {
+            return false;
+        }
+        long key = Hold.key(showId, seatIndex);
+        Hold fresh = new Hold(showId, seatIndex, holderId, currentTick.get() + ttlTicks);
+
+        Hold result = holds.compute(key, (k, existing) ->
+                existing == null || existing.holderId.equals(holderId) ? fresh : existing);
+        if (result != fresh) {
+            return false;
+        }
+        // Added under the map's lock, so unindex() cannot drop the set this key goes into
+        holdsByShow.compute(showId, (id, keys) -> {
+            Set<Long> set = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            set.add(key);
+            return set;
+        });
+        wheel.get((int) (fresh.expiryTick % WHEEL_SLOTS)).add(fresh);
+        return true;
+    }
+
+    /** Releases a hold if it belongs to the given holder. */
+    @Override
+    public void release(int showId, String seat, String holderId) {
+        int seatIndex = SeatInventory.indexOf(seat);
+        if (seatIndex >= 0) {
+            remove(Hold.key(showId, seatIndex), holderId);
+        }
+    }
+
+    /** Releases every hold of a holder on one show, e.g. when the customer switches shows. */
+    @Override
+    public void releaseAll(int showId, String holderId) {
+        Set<Long> keys = holdsByShow.get(showId);
+        if (keys == null) return;
+        for (Long key : keys) {
+            remove(key, holderId);
+        }
+    }
+
+    /** Releases the given seats after they were booked by their holder. */
+    public void releaseBooked(int showId, Collection<String> seats, String holderId) {
+        for (String seat : seats) {
+            release(showId, seat, holderId);
+        }
+    }
+
+    /**
+     * Returns the seats among {@code seats} that are held by someone other
+     * than {@code holderId} (pass null to treat every hold as foreign).
+     */
+    public List<String> heldByOthers(int showId, Collection<String> seats, String holderId) {
+        List<String> held = new ArrayList<>();
+        for (String seat : seats) {
+            int seatIndex = SeatInventory.indexOf(seat);
+            if (seatIndex < 0) continue;
+            Hold hold = holds.get(Hold.key(showId, seatIndex));
+            if (hold != null && !hold.holderId.equals(holderId) && !isExpired(hold)) {
+                held.add(seat);
+            }
+        }
+        return held;
+    }
+
+    /** All seats of a show currently held by someone other than {@code holderId}. */
+    @Override
+    public Set<String> getSeatsHeldByOthers(int showId, String holderId) {
+        Set<Long> keys = holdsByShow.get(showId);
+        if (keys == null) return Collections.emptySet();
+        Set<String> held = new HashSet<>();
+        for (Long key : keys) {
+            Hold hold = holds.get(key);
+            if (hold != null && !hold.holderId.equals(holderId) && !isExpired(hold)) {
+                held.add(SeatInventory.seatName(hold.seatIndex));
+            }
+        }
+        return held;
+    }
+
+    public int getActiveHoldCount() {
+        return holds.size();
+    }
+
+    private boolean isExpired(Hold hold) {
+        return hold.expiryTick <= currentTick.get();
+    }
+
+    private void remove(long key, String holderId) {
+        Hold removed = holds.computeIfPresent(key, (k, existing) ->
+                existing.holderId.equals(holderId) ? null : existing);
+        if (removed == null) {
+            unindex(key);
+        }
+    }
+
+    private void unindex(long key) {
+        int showId = (int) (key >>> 32);
+        holdsByShow.computeIfPresent(showId, (id, keys) -> {
+            if (!holds.containsKey(key)) {
+                keys.remove(key);
+            }
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /** Advances the wheel by one tick and expires the holds due in that slot. */
+    void tick() {
+        long tick = currentTick.incrementAndGet();
+        ConcurrentLinkedQueue<Hold> slot = wheel.get((int) (tick % WHEEL_SLOTS));
+
+        List<Hold> expired = null;
+        for (int n = slot.size(); n > 0; n--) {
+            Hold hold = slot.poll();
+            if (hold == null) break;
+            if (holds.get(hold.key()) != hold) {
+                continue; // Released or renewed since it was scheduled
+            }
+            if (hold.expiryTick > tick) {
+                slot.add(hold); // Due on a later revolution
+                continue;
+            }
+            if (holds.remove(hold.key(), hold)) {
+                unindex(hold.key());
+                if (expired == null) expired = new ArrayList<>();
+                expired.add(hold);
+            }
+        }
+
+        if (expired != null && !listeners.isEmpty()) {
+            notifyExpired(expired);
+        }
+    }
+
+    private void notifyExpired(List<Hold> expired) {
+        Map<Integer, List<String>> byShow = new HashMap<>();
+        for (Hold hold : expired) {
+            byShow.computeIfAbsent(hold.showId, id -> new ArrayList<>()).add(SeatInventory.seatName(hold.seatIndex));
+        }
+        for (Map.Entry<Integer, List<String>> entry : byShow.entrySet()) {
+            for (ExpiryListener listener : listeners) {
+                try {
+                    listener.onExpired(entry.getKey(), entry.getValue());
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Short-lived seat holds placed while a customer fills in their details.
+ *
+ * A hold reserves one seat of one show for a holder (one kiosk session or
+ * API client) until it expires, is released, or is turned into a booking.
+ * Other holders see held seats as taken, and a booking of a seat held by
+ * someone else is refused. {@link DAOFactory#getSeatHolds} picks the store:
+ * the SeatHolds table, shared by every process on the database, or memory
+ * for the journal store, which only one process uses.
+ */
+public interface SeatHolds {
+
+    /** Notified on a background thread whenever holds expire. */
+    interface ExpiryListener {
+        void onExpired(int showId, List<String> seats);
+    }
+
+    /**
+     * Places or renews a hold on a seat.
+     *
+     * @return false if the seat is held by a different holder.
+     */
+    boolean hold(int showId, String seat, String holderId) throws SQLException;
+
+    /** Releases a hold if it belongs to the given holder. */
+    void release(int showId, String seat, String holderId) throws SQLException;
+
+    /** Releases every hold of a holder on one show, e.g. when the customer switches shows. */
+    void releaseAll(int showId, String holderId) throws SQLException;
+
+    /** All seats of a show currently held by someone other than {@code holderId} (null for anyone). */
+    Set<String> getSeatsHeldByOthers(int showId, String holderId) throws SQLException;
+
+    void addExpiryListener(ExpiryListener listener);
+
+    void removeExpiryListener(ExpiryListener listener);
+}
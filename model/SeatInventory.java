@@ -0,0 +1,231 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory booked-seat bitmap for every show that has been looked at.
+ * Each show keeps one long per seat row ('A' = word 0), and bit (c - 1) of a
+ * row is set when seat "<row><c>" is booked. A show is loaded from the
+ * database once; after that reads never leave memory and reservations are
+ * applied with compare-and-set so two kiosks in this process can never
+ * claim the same seat. Cancellations made by another process never reach
+ * the bitmap, so a clash is only a hint: BookingDAOImpl checks it against
+ * BookingSeats and evicts the show when the database disagrees.
+ */
+public class SeatInventory {
+
+    public static final int MAX_ROWS = 26; // 'A' .. 'Z'
+    public static final int MAX_COLS = 64; // one long word per row
+
+    private static final SeatInventory INSTANCE = new SeatInventory();
+
+    private final ConcurrentHashMap<Integer, AtomicLongArray> shows = new ConcurrentHashMap<>();
+
+    /** Supplies the booked seats of a show the first time it is needed. */
+    public interface Loader {
+        Collection<String> load(int showId) throws SQLException;
+    }
+
+    private SeatInventory() {}
+
+    public static SeatInventory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the bitmap for a show, loading it through the loader if this is
+     * the first request for it. Concurrent first loads are harmless: only one
+     * of them is kept.
+     */
+    private AtomicLongArray rows(int showId, Loader loader) throws SQLException {
+        AtomicLongArray rows = shows.get(showId);
+        if (rows != null) {
+            return rows;
+        }
+        AtomicLongArray loaded = new AtomicLongArray(MAX_ROWS);
+        for (String seat : loader.load(showId)) {
+            int row = rowOf(seat);
+            int col = colOf(seat);
+            if (row >= 0 && col >= 0) {
+                loaded.set(row, loaded.get(row) | (1L << col));
+            }
+        }
+        AtomicLongArray existing = shows.putIfAbsent(showId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    public boolean isLoaded(int showId) {
+        return shows.containsKey(showId);
+    }
+
+    public boolean isBooked(int showId, String seat, Loader loader) throws SQLException {
+        int row = rowOf(seat);
+        int col = colOf(seat);
+        if (row < 0 || col < 0) {
+            return false;
+        }
+        return (rows(showId, loader).get(row) & (1L << col)) != 0;
+    }
+
+    public Set<String> getBookedSeats(int showId, Loader loader) throws SQLException {
+        AtomicLongArray rows = rows(showId, loader);
+        Set<String> booked = new HashSet<>();
+        for (int r = 0; r < MAX_ROWS; r++) {
+            long word = rows.get(r);
+            while (word != 0) {
+                int c = Long.numberOfTrailingZeros(word);
+                booked.add(seatName(r, c));
+                word &= word - 1;
+            }
+        }
+        return booked;
+    }
+
+    /**
+     * Atomically marks the given seats as booked. Either every seat is claimed
+     * or none is: on a clash the seats already claimed by this call are
+     * released again and the clashing seats are returned.
+     *
+     * @return the seats that were already taken, empty if the reservation succeeded.
+     */
+    public List<String> reserve(int showId, Collection<String> seats, Loader loader) throws SQLException {
+        AtomicLongArray rows = rows(showId, loader);
+        long[] masks = toMasks(seats);
+        List<String> taken = new ArrayList<>();
+
+        for (int r = 0; r < MAX_ROWS; r++) {
+            long mask = masks[r];
+            if (mask == 0) continue;
+            while (true) {
+                long current = rows.get(r);
+                long clash = current & mask;
+                if (clash != 0) {
+                    collect(r, clash, taken);
+                    break;
+                }
+                if (rows.compareAndSet(r, current, current | mask)) {
+                    break;
+                }
+            }
+            if (!taken.isEmpty()) {
+                // Undo the rows claimed so far, then report every clash in the remaining rows too
+                for (int undo = 0; undo < r; undo++) {
+                    clear(rows, undo, masks[undo]);
+                }
+                for (int rest = r + 1; rest < MAX_ROWS; rest++) {
+                    collect(rest, rows.get(rest) & masks[rest], taken);
+                }
+                return taken;
+            }
+        }
+        return taken;
+    }
+
+    /** Frees seats after a booking is deleted or its insert failed. */
+    public void release(int showId, Collection<String> seats) {
+        AtomicLongArray rows = shows.get(showId);
+        if (rows == null) {
+            return; // Not loaded yet, the next load reads the database anyway
+        }
+        long[] masks = toMasks(seats);
+        for (int r = 0; r < MAX_ROWS; r++) {
+            clear(rows, r, masks[r]);
+        }
+    }
+
+    /** Forgets a show so its next access reloads it, e.g. after the show is deleted. */
+    public void evict(int showId) {
+        shows.remove(showId);
+    }
+
+    public void clear() {
+        shows.clear();
+    }
+
+    private static void clear(AtomicLongArray rows, int r, long mask) {
+        if (mask == 0) return;
+        long current;
+        do {
+            current = rows.get(r);
+        } while (!rows.compareAndSet(r, current, current & ~mask));
+    }
+
+    private static long[] toMasks(Collection<String> seats) {
+        long[] masks = new long[MAX_ROWS];
+        for (String seat : seats) {
+            int row = rowOf(seat);
+            int col = colOf(seat);
+            if (row >= 0 && col >= 0) {
+                masks[row] |= 1L << col;
+            }
+        }
+        return masks;
+    }
+
+    private static void collect(int r, long bits, List<String> out) {
+        while (bits != 0) {
+            out.add(seatName(r, Long.numberOfTrailingZeros(bits)));
+            bits &= bits - 1;
+        }
+    }
+
+    // --- SEAT CODE ENCODING ("A1" -> row 0, col 0) ---
+
+    static int rowOf(String seat) {
+        if (seat == null || seat.length() < 2) return -1;
+        int row = Character.toUpperCase(seat.charAt(0)) - 'A';
+        return (row >= 0 && row < MAX_ROWS) ? row : -1;
+    }
+
+    static int colOf(String seat) {
+        if (seat == null || seat.length() < 2) return -1;
+        int number = 0;
+        for (int i = 1; i < seat.length(); i++) {
+            char ch = seat.charAt(i);
+            if (ch < '0' || ch > '9') return -1;
+            number = number * 10 + (ch - '0');
+            if (number > MAX_COLS) return -1;
+        }
+        return number >= 1 ? number - 1 : -1;
+    }
+
+    static String seatName(int row, int col) {
+        return (char) ('A' + row) + Integer.toString(col + 1);
+    }
+
+    /** Packs a seat code into a single index (row * MAX_COLS + col), or -1 if it is invalid. */
+    static int indexOf(String seat) {
+        int row = rowOf(seat);
+        int col = colOf(seat);
+        return (row < 0 || col < 0) ? -1 : row * MAX_COLS + col;
+    }
+
+    static String seatName(int index) {
+        return seatName(index / MAX_COLS, index % MAX_COLS);
+    }
+
+    /** True if the code names a seat this inventory can hold (row A-Z, column 1-64). */
+    public static boolean isValidSeat(String seat) {
+        return indexOf(seat) >= 0;
+    }
+
+    /** Splits the comma-separated seat list stored on a booking. */
+    public static List<String> parseSeats(String selectedSeats) {
+        List<String> seats = new ArrayList<>();
+        if (selectedSeats == null) return seats;
+        for (String seat : selectedSeats.split(",")) {
+            String trimmed = seat.trim();
+            if (!trimmed.isEmpty()) {
+                seats.add(trimmed);
+            }
+        }
+        return seats;
+    }
+}
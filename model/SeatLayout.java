@@ -0,0 +1,183 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The seats of one screen and where they sit on a grid. Layouts are
+ * immutable and shared by every show on the screen (see {@link SeatLayouts});
+ * what is booked, held or selected for a show is kept by the caller in
+ * arrays indexed by {@link #indexOf seat index}.
+ *
+ * A layout is written one line per grid row, one character per grid column:
+ * '.' or a space is a gap (an aisle), 'P' a premium seat, 'R' a recliner and
+ * anything else a standard seat. Rows with seats are lettered A, B, ... from
+ * the top and their seats numbered 1, 2, ... from the left, skipping gaps; a
+ * row without seats is a cross aisle and takes no letter. Codes stay within
+ * what {@link SeatInventory} can hold.
+ */
+public final class SeatLayout {
+
+    /** The kiosk's original hall, used for screens that have no layout of their own. */
+    static final String STANDARD = String.join("\n", Collections.nCopies(6, "##########"));
+
+    private final int screenId;
+    private final String name;
+    private final int rows;
+    private final int cols;
+    private final String[] lines;
+    private final char[] rowLabels;  // Per grid row, 0 for a cross aisle
+    private final int[] grid;        // Seat index at row * cols + col, -1 for a gap
+    private final int[] seatRow;
+    private final int[] seatCol;
+    private final String[] codes;
+    private final SeatCategory[] categories;
+    private final Map<String, Integer> indexes;
+    private final int[] rowStarts;   // Per lettered row, the index of its seat 1; one extra entry at the end
+    private final long[] rowLinks;   // Per lettered row, bit i set when seats i + 1 and i + 2 sit side by side
+
+    private SeatLayout(int screenId, String name, String[] lines) {
+        this.screenId = screenId;
+        this.name = name;
+        this.lines = lines;
+        this.rows = lines.length;
+        int width = 0;
+        for (String line : lines) {
+            width = Math.max(width, line.length());
+        }
+        this.cols = width;
+        this.rowLabels = new char[rows];
+        this.grid = new int[rows * cols];
+        Arrays.fill(grid, -1);
+
+        List<int[]> positions = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<SeatCategory> kinds = new ArrayList<>();
+        int lettered = 0;
+        for (int r = 0; r < rows; r++) {
+            int number = 0;
+            for (int c = 0; c < lines[r].length(); c++) {
+                if (isGap(lines[r].charAt(c))) continue;
+                if (number == 0) {
+                    if (lettered == SeatInventory.MAX_ROWS) {
+                        throw new IllegalArgumentException("A layout can have at most " + SeatInventory.MAX_ROWS + " rows of seats");
+                    }
+                    rowLabels[r] = (char) ('A' + lettered++);
+                }
+                if (++number > SeatInventory.MAX_COLS) {
+                    throw new IllegalArgumentException("Row " + rowLabels[r] + " has more than " + SeatInventory.MAX_COLS + " seats");
+                }
+                grid[r * cols + c] = names.size();
+                positions.add(new int[] {r, c});
+                names.add(rowLabels[r] + Integer.toString(number));
+                kinds.add(SeatCategory.of(lines[r].charAt(c)));
+            }
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("Layout of screen " + screenId + " has no seats");
+        }
+
+        this.codes = names.toArray(new String[0]);
+        this.categories = kinds.toArray(new SeatCategory[0]);
+        this.seatRow = new int[codes.length];
+        this.seatCol = new int[codes.length];
+        this.indexes = new HashMap<>(codes.length * 2);
+        for (int i = 0; i < codes.length; i++) {
+            seatRow[i] = positions.get(i)[0];
+            seatCol[i] = positions.get(i)[1];
+            indexes.put(codes[i], i);
+        }
+
+        this.rowStarts = new int[lettered + 1];
+        this.rowLinks = new long[lettered];
+        for (int i = codes.length - 1; i >= 0; i--) {
+            rowStarts[codes[i].charAt(0) - 'A'] = i;
+        }
+        rowStarts[lettered] = codes.length;
+        for (int i = 0; i + 1 < codes.length; i++) {
+            if (seatRow[i + 1] == seatRow[i] && seatCol[i + 1] == seatCol[i] + 1) {
+                int letter = codes[i].charAt(0) - 'A';
+                rowLinks[letter] |= 1L << (i - rowStarts[letter]);
+            }
+        }
+    }
+
+    /**
+     * Reads a layout as stored in Screens.layout.
+     *
+     * @throws IllegalArgumentException if it has no seats or more than SeatInventory allows.
+     */
+    public static SeatLayout parse(int screenId, String name, String layout) {
+        String[] lines = layout.replace("\r", "").split("\n");
+        // Trailing blank lines are not cross aisles
+        int count = lines.length;
+        while (count > 0 && lines[count - 1].trim().isEmpty()) {
+            count--;
+        }
+        return new SeatLayout(screenId, name, Arrays.copyOf(lines, count));
+    }
+
+    static SeatLayout standard(int screenId) {
+        return parse(screenId, "Screen " + screenId, STANDARD);
+    }
+
+    private static boolean isGap(char ch) {
+        return ch == '.' || ch == ' ';
+    }
+
+    public int getScreenId() { return screenId; }
+    public String getName() { return name; }
+
+    /** Grid size, gaps included. */
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
+    public int getSeatCount() { return codes.length; }
+
+    /** The seat at a grid position, or -1 for a gap or a position off the grid. */
+    public int seatAt(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            return -1;
+        }
+        return grid[row * cols + col];
+    }
+
+    /** The index of a seat code, or -1 if the screen has no such seat. */
+    public int indexOf(String code) {
+        Integer index = indexes.get(code);
+        return index == null ? -1 : index;
+    }
+
+    public boolean contains(String code) {
+        return indexes.containsKey(code);
+    }
+
+    public String codeOf(int seat) { return codes[seat]; }
+    public int rowOf(int seat) { return seatRow[seat]; }
+    public int colOf(int seat) { return seatCol[seat]; }
+    public SeatCategory categoryOf(int seat) { return categories[seat]; }
+
+    // Lettered rows, for SeatAllocator: row 0 is 'A' and seat "A1" is its bit 0, as in SeatInventory
+
+    int getSeatRowCount() { return rowLinks.length; }
+    int firstSeatOf(int seatRow) { return rowStarts[seatRow]; }
+    int seatsIn(int seatRow) { return rowStarts[seatRow + 1] - rowStarts[seatRow]; }
+    long linksOf(int seatRow) { return rowLinks[seatRow]; }
+
+    /** The letter of a grid row, or 0 for a cross aisle. */
+    public char rowLabel(int row) { return rowLabels[row]; }
+
+    /** The layout as written, one string per grid row. */
+    public List<String> getLines() {
+        return Collections.unmodifiableList(Arrays.asList(lines));
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + codes.length + " seats)";
+    }
+}
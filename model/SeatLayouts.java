@@ -0,0 +1,74 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Seat layouts by screen, read from the Screens table the first time a
+ * screen is asked for and then shared by all of its shows for the life of
+ * the process. A screen without a row in Screens gets the standard 6 x 10
+ * hall the kiosk always had, so existing shows keep their seats.
+ */
+public class SeatLayouts {
+
+    private static final SeatLayouts INSTANCE = new SeatLayouts();
+
+    private final ConcurrentHashMap<Integer, SeatLayout> screens = new ConcurrentHashMap<>();
+
+    private SeatLayouts() {}
+
+    public static SeatLayouts getInstance() {
+        return INSTANCE;
+    }
+
+    /** The layout of a screen; only the first call for a screen reads the database. */
+    public SeatLayout forScreen(int screenId) throws SQLException {
+        SeatLayout layout = screens.get(screenId);
+        if (layout != null) {
+            return layout;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return forScreen(conn, screenId);
+        }
+    }
+
+    /** Like {@link #forScreen(int)}, reading through a connection the caller already holds. */
+    SeatLayout forScreen(Connection conn, int screenId) throws SQLException {
+        SeatLayout layout = screens.get(screenId);
+        if (layout != null) {
+            return layout;
+        }
+        SeatLayout loaded = load(conn, screenId);
+        SeatLayout existing = screens.putIfAbsent(screenId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /** The layout of a screen if it has been loaded already, otherwise null. */
+    public SeatLayout getIfLoaded(int screenId) {
+        return screens.get(screenId);
+    }
+
+    /** Forgets every layout, so edits to Screens are picked up on next use. */
+    public void clear() {
+        screens.clear();
+    }
+
+    private static SeatLayout load(Connection conn, int screenId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT name, layout FROM Screens WHERE screen_id = ?")) {
+            stmt.setInt(1, screenId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return SeatLayout.standard(screenId);
+                }
+                try {
+                    return SeatLayout.parse(screenId, rs.getString("name"), rs.getString("layout"));
+                } catch (IllegalArgumentException e) {
+                    throw new SQLException("Invalid seat layout for screen " + screenId + ": " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package model;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Answer to {@link BookingDAO#getSeatChanges}: either "not modified", the
+ * seats booked and freed since the caller's version, or (when the caller is
+ * too far behind or has no version yet) a full snapshot of the booked seats.
+ */
+public final class SeatMapDelta {
+
+    private final long version;
+    private final boolean modified;
+    private final boolean snapshot;
+    private final Set<String> booked;
+    private final Set<String> freed;
+
+    private SeatMapDelta(long version, boolean modified, boolean snapshot, Set<String> booked, Set<String> freed) {
+        this.version = version;
+        this.modified = modified;
+        this.snapshot = snapshot;
+        this.booked = Collections.unmodifiableSet(booked);
+        this.freed = Collections.unmodifiableSet(freed);
+    }
+
+    public static SeatMapDelta notModified(long version) {
+        return new SeatMapDelta(version, false, false, Collections.emptySet(), Collections.emptySet());
+    }
+
+    /** Every booked seat; the caller replaces its map. */
+    public static SeatMapDelta snapshot(long version, Set<String> booked) {
+        return new SeatMapDelta(version, true, true, booked, Collections.emptySet());
+    }
+
+    /** Seats to mark booked and seats to mark free; the caller patches its map. */
+    public static SeatMapDelta changes(long version, Set<String> booked, Set<String> freed) {
+        return new SeatMapDelta(version, true, false, booked, freed);
+    }
+
+    /** The seat-map version the caller should send next time. */
+    public long getVersion() { return version; }
+    public boolean isModified() { return modified; }
+    public boolean isSnapshot() { return snapshot; }
+    public Set<String> getBooked() { return booked; }
+    public Set<String> getFreed() { return freed; }
+
+    @Override
+    public String toString() {
+        if (!modified) return "not modified at v" + version;
+        return (snapshot ? "snapshot" : "changes") + " at v" + version + " booked=" + booked + " freed=" + freed;
+    }
+}
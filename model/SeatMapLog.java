@@ -0,0 +1,218 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Committed seat map and recent seat changes of every show that has been
+ * polled, keyed by the show's seat-map version (SeatMapVersions). A show
+ * is loaded from the database once; after that {@link #since} answers "not
+ * modified" or a delta from memory, so kiosks can poll every second for free.
+ *
+ * Unlike {@link SeatInventory}, which also counts seats whose booking is
+ * still being written, this only holds committed bookings, so a version
+ * always names the same seat map. Changes are recorded after each commit;
+ * if two commits for a show are recorded out of order the later one waits
+ * until the gap is filled. Bookings written by another process never reach
+ * this log; a caller that shares the database passes a {@link VersionReader}
+ * so each poll compares the stored version with the one in memory and
+ * reloads the show when it is behind. Without one, a show is reloaded after
+ * {@link #MAX_GAP} changes wait on a gap.
+ */
+public class SeatMapLog {
+
+    static final int MAX_CHANGES = 256; // Per show; older callers get a snapshot instead
+    static final int MAX_GAP = 16;
+
+    private static final SeatMapLog INSTANCE = new SeatMapLog();
+
+    private final ConcurrentHashMap<Integer, ShowLog> shows = new ConcurrentHashMap<>();
+
+    /**
+     * Reads a show's committed seats and seat-map version in one query, as a
+     * snapshot, or returns null if the show does not exist.
+     */
+    public interface Loader {
+        SeatMapDelta load(int showId) throws SQLException;
+    }
+
+    /** Reads a show's seat-map version alone, e.g. by primary key; 0 if it has none. */
+    public interface VersionReader {
+        long currentVersion(int showId) throws SQLException;
+    }
+
+    private SeatMapLog() {}
+
+    public static SeatMapLog getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * What changed since {@code sinceVersion}. Pass a negative version to get
+     * a snapshot. A missing show is reported as an empty snapshot at version 0.
+     */
+    public SeatMapDelta since(int showId, long sinceVersion, Loader loader) throws SQLException {
+        return since(showId, sinceVersion, loader, null);
+    }
+
+    /**
+     * Like {@link #since(int, long, Loader)}, but first reads the show's
+     * stored version with {@code versions} so changes committed by other
+     * processes show up on the next poll.
+     */
+    public SeatMapDelta since(int showId, long sinceVersion, Loader loader, VersionReader versions)
+            throws SQLException {
+        ShowLog log = shows.computeIfAbsent(showId, id -> new ShowLog());
+        long stored = -1;
+        if (versions != null && log.loaded) {
+            stored = versions.currentVersion(showId); // Outside the lock; a local change recorded meanwhile only makes it look older
+        }
+        synchronized (log) {
+            if (log.loaded && stored > log.version) {
+                log.loaded = false; // Another process moved the show on
+            }
+            if (!log.loaded) {
+                // Loading under the lock means a change recorded meanwhile is either in the result or applied after it
+                SeatMapDelta loaded = loader.load(showId);
+                if (loaded == null) {
+                    shows.remove(showId, log);
+                    return SeatMapDelta.snapshot(0, Collections.emptySet());
+                }
+                log.reset(loaded.getVersion(), loaded.getBooked());
+            }
+            return log.since(sinceVersion);
+        }
+    }
+
+    /**
+     * Records a committed booking ({@code booked}) or cancellation that moved
+     * the show to {@code version}. Shows nobody has polled are skipped; they
+     * read the database when they are first asked for.
+     */
+    public void record(int showId, long version, Collection<String> seats, boolean booked) {
+        ShowLog log = shows.get(showId);
+        if (log == null) {
+            return;
+        }
+        synchronized (log) {
+            log.record(new Change(version, seats, booked));
+        }
+    }
+
+    /** Forgets a show so its next access reloads it, e.g. after the show is deleted. */
+    public void evict(int showId) {
+        shows.remove(showId);
+    }
+
+    public void clear() {
+        shows.clear();
+    }
+
+    private static final class Change {
+        final long version;
+        final Collection<String> seats;
+        final boolean booked;
+
+        Change(long version, Collection<String> seats, boolean booked) {
+            this.version = version;
+            this.seats = seats;
+            this.booked = booked;
+        }
+    }
+
+    /** Guarded by its own monitor. */
+    private static final class ShowLog {
+        volatile boolean loaded = false; // Read without the lock to skip the version check on first load
+        long version;
+        final long[] rows = new long[SeatInventory.MAX_ROWS]; // Same bit layout as SeatInventory
+        final ArrayDeque<Change> changes = new ArrayDeque<>(); // Contiguous versions ending at {@code version}
+        final TreeMap<Long, Change> waiting = new TreeMap<>(); // Recorded ahead of a missing version
+
+        void reset(long newVersion, Set<String> booked) {
+            loaded = true;
+            version = newVersion;
+            changes.clear();
+            waiting.clear();
+            Arrays.fill(rows, 0);
+            for (String seat : booked) {
+                apply(seat, true);
+            }
+        }
+
+        void record(Change change) {
+            if (!loaded || change.version <= version) {
+                return; // Already part of what was loaded
+            }
+            waiting.put(change.version, change);
+            Change next;
+            while ((next = waiting.remove(version + 1)) != null) {
+                for (String seat : next.seats) {
+                    apply(seat, next.booked);
+                }
+                version = next.version;
+                changes.addLast(next);
+                if (changes.size() > MAX_CHANGES) {
+                    changes.removeFirst();
+                }
+            }
+            if (waiting.size() > MAX_GAP) {
+                loaded = false; // Another process moved the show on; read it again
+            }
+        }
+
+        SeatMapDelta since(long sinceVersion) {
+            if (sinceVersion == version) {
+                return SeatMapDelta.notModified(version);
+            }
+            if (sinceVersion < version - changes.size() || sinceVersion > version) {
+                return SeatMapDelta.snapshot(version, bookedSeats());
+            }
+            // Only the last change to each seat counts
+            Map<String, Boolean> latest = new HashMap<>();
+            for (Change change : changes) {
+                if (change.version <= sinceVersion) continue;
+                for (String seat : change.seats) {
+                    latest.put(seat, change.booked);
+                }
+            }
+            Set<String> booked = new HashSet<>();
+            Set<String> freed = new HashSet<>();
+            for (Map.Entry<String, Boolean> entry : latest.entrySet()) {
+                (entry.getValue() ? booked : freed).add(entry.getKey());
+            }
+            return SeatMapDelta.changes(version, booked, freed);
+        }
+
+        private void apply(String seat, boolean booked) {
+            int row = SeatInventory.rowOf(seat);
+            int col = SeatInventory.colOf(seat);
+            if (row < 0 || col < 0) return;
+            if (booked) {
+                rows[row] |= 1L << col;
+            } else {
+                rows[row] &= ~(1L << col);
+            }
+        }
+
+        private Set<String> bookedSeats() {
+            Set<String> booked = new HashSet<>();
+            for (int r = 0; r < rows.length; r++) {
+                long word = rows[r];
+                while (word != 0) {
+                    booked.add(SeatInventory.seatName(r, Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+            return booked;
+        }
+    }
+}
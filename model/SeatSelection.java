@@ -0,0 +1,130 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The seats a customer has picked for one show, kept up to date as they
+ * are picked: one bit per seat of the screen's {@link SeatLayout} and a
+ * running count per {@link SeatCategory}. The number of seats, the total
+ * price and whether a seat is picked never look at the other seats; the
+ * seat list is rebuilt from the bits (one long per 64 seats) only when it
+ * is asked for after a change.
+ *
+ * Not thread-safe; the kiosk only uses it on the event dispatch thread.
+ */
+public final class SeatSelection {
+
+    private static final SeatCategory[] CATEGORIES = SeatCategory.values();
+
+    private final SeatLayout layout;
+    private final Show show;
+    private final long[] bits;
+    private final int[] counts = new int[CATEGORIES.length];
+    private final double[] prices = new double[CATEGORIES.length];
+    private int count = 0;
+    private List<String> seats = Collections.emptyList(); // Null after a change until asked for again
+
+    public SeatSelection(SeatLayout layout, Show show) {
+        this.layout = layout;
+        this.show = show;
+        this.bits = new long[(layout.getSeatCount() + 63) / 64];
+        for (SeatCategory category : CATEGORIES) {
+            prices[category.ordinal()] = show.getPrice(category);
+        }
+    }
+
+    public SeatLayout getLayout() { return layout; }
+    public Show getShow() { return show; }
+
+    public boolean isSelected(int seat) {
+        return (bits[seat >>> 6] & (1L << seat)) != 0;
+    }
+
+    /** Picks a seat by its index in the layout; returns false if it was picked already. */
+    public boolean select(int seat) {
+        if (isSelected(seat)) {
+            return false;
+        }
+        bits[seat >>> 6] |= 1L << seat;
+        changed(seat, 1);
+        return true;
+    }
+
+    /** Drops a seat; returns false if it was not picked. */
+    public boolean unselect(int seat) {
+        if (!isSelected(seat)) {
+            return false;
+        }
+        bits[seat >>> 6] &= ~(1L << seat);
+        changed(seat, -1);
+        return true;
+    }
+
+    /** Like {@link #select(int)}; a code the screen does not have is ignored. */
+    public boolean select(String code) {
+        int seat = layout.indexOf(code);
+        return seat >= 0 && select(seat);
+    }
+
+    public boolean unselect(String code) {
+        int seat = layout.indexOf(code);
+        return seat >= 0 && unselect(seat);
+    }
+
+    private void changed(int seat, int delta) {
+        counts[layout.categoryOf(seat).ordinal()] += delta;
+        count += delta;
+        seats = null;
+    }
+
+    public void clear() {
+        if (count == 0) {
+            return;
+        }
+        Arrays.fill(bits, 0);
+        Arrays.fill(counts, 0);
+        count = 0;
+        seats = Collections.emptyList();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getCount(SeatCategory category) {
+        return counts[category.ordinal()];
+    }
+
+    /** What one seat costs at this show. */
+    public double getPrice(int seat) {
+        return prices[layout.categoryOf(seat).ordinal()];
+    }
+
+    /** What the picked seats cost together. */
+    public double getTotal() {
+        double total = 0;
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            total += counts[i] * prices[i];
+        }
+        return total;
+    }
+
+    /** The picked seat codes in layout order (row by row, left to right). */
+    public List<String> getSeats() {
+        if (seats == null) {
+            List<String> list = new ArrayList<>(count);
+            for (int word = 0; word < bits.length; word++) {
+                long remaining = bits[word];
+                while (remaining != 0) {
+                    list.add(layout.codeOf(word * 64 + Long.numberOfTrailingZeros(remaining)));
+                    remaining &= remaining - 1;
+                }
+            }
+            seats = Collections.unmodifiableList(list);
+        }
+        return seats;
+    }
+}
@@ -1,15 +1,19 @@
 package model;
 
 import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
 
 public class Show {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("hh:mm a");
+
 
     private int showId;
     private int movieId;
     private int screenId;
     private Timestamp showTime;
     private double price;
+    private double premiumPrice;  // 0 when premium seats cost the standard price
+    private double reclinerPrice; // Likewise for recliners
     private String movieTitle;
 
     public Show(int movieId, int screenId, Timestamp showTime, double price) {
@@ -32,15 +36,43 @@ public class Show {
     public int getScreenId() { return screenId; }
     public Timestamp getShowTime() { return showTime; }
     public double getPrice() { return price; }
+
+    /** What one seat of the category costs at this show. */
+    public double getPrice(SeatCategory category) {
+        double categoryPrice = getCategoryPrice(category);
+        return categoryPrice > 0 ? categoryPrice : price;
+    }
+
+    /** The price set for the category, or 0 if it costs the standard price. */
+    public double getCategoryPrice(SeatCategory category) {
+        switch (category) {
+            case PREMIUM:
+                return premiumPrice;
+            case RECLINER:
+                return reclinerPrice;
+            default:
+                return 0;
+        }
+    }
+
     public String getMovieTitle() { return movieTitle; }
 
     public void setMovieTitle(String movieTitle) {
         this.movieTitle = movieTitle;
     }
 
+    /** Sets the premium and recliner prices; 0 leaves a category at the standard price. */
+    public void setCategoryPrices(double premiumPrice, double reclinerPrice) {
+        if (premiumPrice < 0 || reclinerPrice < 0) {
+            throw new IllegalArgumentException("Price cannot be negative.");
+        }
+        this.premiumPrice = premiumPrice;
+        this.reclinerPrice = reclinerPrice;
+    }
+
     @Override
     public String toString() {
-        String time = new SimpleDateFormat("hh:mm a").format(showTime);
+        String time = TIME_FORMAT.format(showTime.toLocalDateTime());
         return String.format("%s - Rs. %.2f", time, price);
     }
 }
\ No newline at end of file
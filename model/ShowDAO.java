@@ -8,4 +8,21 @@ public interface ShowDAO {
     List<Show> getAllShows() throws SQLException;
     boolean deleteShow(int showId) throws SQLException;
     List<Show> getShowsByMovieId(int movieId) throws SQLException;
+
+    /** The show with this ID, without its movie title, or null if there is none. */
+    Show getShow(int showId) throws SQLException;
+
+    /**
+     * Expands the schedule and inserts every show in one transaction.
+     * Either all shows are added or none are.
+     *
+     * @return the generated show IDs, in the order of {@link ShowSchedule#expand()}.
+     */
+    List<Integer> scheduleShows(ShowSchedule schedule) throws SQLException;
+
+    /**
+     * Returns up to {@code limit} shows matching the query, starting after
+     * {@code after} (null for the first page). Filtering and sorting run in SQL.
+     */
+    Page<Show> getShowsPage(ShowQuery query, PageCursor after, int limit) throws SQLException;
 }
\ No newline at end of file
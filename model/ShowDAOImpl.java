@@ -4,16 +4,19 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
 
 public class ShowDAOImpl implements ShowDAO {
 
-    private Connection conn;
+    // Rows per multi-row INSERT; 4 parameters each keeps a statement far below driver limits
+    private static final int ROWS_PER_INSERT = 500;
 
     public ShowDAOImpl() {
         try {
-            this.conn = DatabaseConnection.getConnection();
+            DatabaseConnection.initialize(); // Connections are borrowed per operation from the pool
         } catch (SQLException e) {
             e.printStackTrace();
             throw new RuntimeException("Failed to connect to database in DAO", e);
@@ -22,15 +25,120 @@ public class ShowDAOImpl implements ShowDAO {
 
     @Override
     public boolean addShow(Show show) throws SQLException {
-        String sql = "INSERT INTO Shows (movie_id, screen_id, show_time, price) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO Shows (movie_id, screen_id, show_time, price, premium_price, recliner_price) VALUES (?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, show.getMovieId());
-            stmt.setInt(2, show.getScreenId());
-            stmt.setTimestamp(3, show.getShowTime());
-            stmt.setDouble(4, show.getPrice());
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected == 1;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            int showId = 0;
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                bindShows(stmt, List.of(show), 0, 1);
+                int rowsAffected = stmt.executeUpdate();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (rowsAffected == 1 && keys.next()) {
+                        showId = keys.getInt(1);
+                    }
+                }
+                if (showId != 0) {
+                    Rollups.showsAdded(conn, List.of(show), List.of(showId));
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            if (showId != 0) {
+                ChangeBus.getInstance().publish(ChangeEvent.show(ChangeEvent.Kind.CREATED, showId, show.getMovieId()));
+            }
+            return showId != 0;
+        }
+    }
+
+    /**
+     * Inserts the expanded schedule with multi-row INSERTs of
+     * {@link #ROWS_PER_INSERT} shows, sent together as one JDBC batch, plus
+     * one shorter INSERT for the remainder. 10,000 shows take about 20
+     * statements and a single commit.
+     */
+    @Override
+    public List<Integer> scheduleShows(ShowSchedule schedule) throws SQLException {
+        List<Show> shows = schedule.expand();
+        List<Integer> ids = new ArrayList<>(shows.size());
+        int fullChunks = shows.size() / ROWS_PER_INSERT;
+        int remainder = shows.size() % ROWS_PER_INSERT;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (fullChunks > 0) {
+                    try (PreparedStatement stmt = conn.prepareStatement(multiRowInsert(ROWS_PER_INSERT), Statement.RETURN_GENERATED_KEYS)) {
+                        for (int chunk = 0; chunk < fullChunks; chunk++) {
+                            bindShows(stmt, shows, chunk * ROWS_PER_INSERT, ROWS_PER_INSERT);
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                        readKeys(stmt, ids);
+                    }
+                }
+                if (remainder > 0) {
+                    try (PreparedStatement stmt = conn.prepareStatement(multiRowInsert(remainder), Statement.RETURN_GENERATED_KEYS)) {
+                        bindShows(stmt, shows, fullChunks * ROWS_PER_INSERT, remainder);
+                        stmt.executeUpdate();
+                        readKeys(stmt, ids);
+                    }
+                }
+                if (ids.size() != shows.size()) {
+                    throw new SQLException("Expected " + shows.size() + " generated show IDs but got " + ids.size());
+                }
+                Rollups.showsAdded(conn, shows, ids);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        List<ChangeEvent> events = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            events.add(ChangeEvent.show(ChangeEvent.Kind.CREATED, id, schedule.getMovieId()));
+        }
+        ChangeBus.getInstance().publishAll(events);
+        return ids;
+    }
+
+    private static String multiRowInsert(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO Shows (movie_id, screen_id, show_time, price, premium_price, recliner_price) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?)");
+        }
+        return sql.toString();
+    }
+
+    private static void bindShows(PreparedStatement stmt, List<Show> shows, int from, int count) throws SQLException {
+        int index = 1;
+        for (int i = from; i < from + count; i++) {
+            Show show = shows.get(i);
+            stmt.setInt(index++, show.getMovieId());
+            stmt.setInt(index++, show.getScreenId());
+            stmt.setTimestamp(index++, show.getShowTime());
+            stmt.setDouble(index++, show.getPrice());
+            setCategoryPrice(stmt, index++, show.getCategoryPrice(SeatCategory.PREMIUM));
+            setCategoryPrice(stmt, index++, show.getCategoryPrice(SeatCategory.RECLINER));
+        }
+    }
+
+    /** NULL rather than 0 for a category at the standard price. */
+    static void setCategoryPrice(PreparedStatement stmt, int index, double price) throws SQLException {
+        if (price > 0) {
+            stmt.setDouble(index, price);
+        } else {
+            stmt.setNull(index, Types.DOUBLE);
+        }
+    }
+
+    private static void readKeys(PreparedStatement stmt, List<Integer> ids) throws SQLException {
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            while (keys.next()) {
+                ids.add(keys.getInt(1));
+            }
         }
     }
 
@@ -42,7 +150,8 @@ public class ShowDAOImpl implements ShowDAO {
                      "JOIN Movies m ON s.movie_id = m.movie_id " +
                      "ORDER BY s.show_time ASC";
         
-        try (PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
             while (rs.next()) {
@@ -59,7 +168,8 @@ public class ShowDAOImpl implements ShowDAO {
         List<Show> shows = new ArrayList<>();
         String sql = "SELECT * FROM Shows WHERE movie_id = ? ORDER BY show_time ASC";
         
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, movieId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -70,24 +180,113 @@ public class ShowDAOImpl implements ShowDAO {
         return shows;
     }
 
+    @Override
+    public Show getShow(int showId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT * FROM Shows WHERE show_id = ?")) {
+            stmt.setInt(1, showId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? extractShowFromResultSet(rs) : null;
+            }
+        }
+    }
+
+    @Override
+    public Page<Show> getShowsPage(ShowQuery query, PageCursor after, int limit) throws SQLException {
+        String sortColumn = query.getSortColumn().getSql();
+        String direction = query.isDescending() ? "DESC" : "ASC";
+        String seek = query.isDescending() ? "<" : ">";
+        List<Object> params = new ArrayList<>();
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT s.*, m.title, " + sortColumn + " AS sort_key " +
+                "FROM Shows s " +
+                "JOIN Movies m ON s.movie_id = m.movie_id " +
+                "WHERE 1 = 1");
+        if (query.getMovieId() > 0) {
+            sql.append(" AND s.movie_id = ?");
+            params.add(query.getMovieId());
+        }
+        if (query.getShowFrom() != null) {
+            sql.append(" AND s.show_time >= ?");
+            params.add(query.getShowFrom());
+        }
+        if (query.getShowTo() != null) {
+            sql.append(" AND s.show_time < ?");
+            params.add(query.getShowTo());
+        }
+        if (after != null) {
+            // Seek past the last row of the previous page; show_id breaks ties in the sort column
+            sql.append(" AND (").append(sortColumn).append(' ').append(seek).append(" ? OR (")
+               .append(sortColumn).append(" = ? AND s.show_id ").append(seek).append(" ?))");
+            params.add(after.getSortValue());
+            params.add(after.getSortValue());
+            params.add(after.getId());
+        }
+        sql.append(" ORDER BY ").append(sortColumn).append(' ').append(direction)
+           .append(", s.show_id ").append(direction)
+           .append(" LIMIT ?");
+        params.add(limit + 1); // One extra row tells us whether another page exists
+
+        List<Show> shows = new ArrayList<>();
+        PageCursor next = null;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                Object lastSortValue = null;
+                while (rs.next()) {
+                    if (shows.size() == limit) {
+                        Show last = shows.get(shows.size() - 1);
+                        next = new PageCursor(lastSortValue, last.getShowId());
+                        break;
+                    }
+                    Show show = extractShowFromResultSet(rs);
+                    show.setMovieTitle(rs.getString("title"));
+                    shows.add(show);
+                    lastSortValue = rs.getObject("sort_key");
+                }
+            }
+        }
+        return new Page<>(shows, next);
+    }
+
     @Override
     public boolean deleteShow(int showId) throws SQLException {
         String sql = "DELETE FROM Shows WHERE show_id = ?";
         
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, showId);
-            int rowsAffected = stmt.executeUpdate();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            int rowsAffected;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                Rollups.showRemoved(conn, showId); // Its bookings leave the daily rollups with it
+                stmt.setInt(1, showId);
+                rowsAffected = stmt.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            SeatInventory.getInstance().evict(showId); // Its bookings were cascaded away
+            SeatMapLog.getInstance().evict(showId);
+            if (rowsAffected == 1) {
+                ChangeBus.getInstance().publish(ChangeEvent.show(ChangeEvent.Kind.DELETED, showId, 0));
+            }
             return rowsAffected == 1;
         }
     }
     
     private Show extractShowFromResultSet(ResultSet rs) throws SQLException {
-        return new Show(
+        Show show = new Show(
             rs.getInt("show_id"),
             rs.getInt("movie_id"),
             rs.getInt("screen_id"),
             rs.getTimestamp("show_time"),
             rs.getDouble("price")
         );
+        show.setCategoryPrices(rs.getDouble("premium_price"), rs.getDouble("recliner_price")); // 0 for NULL
+        return show;
     }
 }
\ No newline at end of file
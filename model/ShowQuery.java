@@ -0,0 +1,43 @@
+package model;
+
+import java.sql.Timestamp;
+
+/**
+ * Filter and sort options for {@link ShowDAO#getShowsPage}. Unset filters
+ * (0 / null) match everything.
+ */
+public class ShowQuery {
+
+    public enum SortColumn {
+        SHOW_TIME("s.show_time"),
+        PRICE("s.price"),
+        SCREEN("s.screen_id");
+
+        private final String sql;
+
+        SortColumn(String sql) { this.sql = sql; }
+
+        public String getSql() { return sql; }
+    }
+
+    private int movieId;
+    private Timestamp showFrom; // inclusive
+    private Timestamp showTo;   // exclusive
+    private SortColumn sortColumn = SortColumn.SHOW_TIME;
+    private boolean descending = false;
+
+    public ShowQuery movieId(int movieId) { this.movieId = movieId; return this; }
+    public ShowQuery showFrom(Timestamp showFrom) { this.showFrom = showFrom; return this; }
+    public ShowQuery showTo(Timestamp showTo) { this.showTo = showTo; return this; }
+    public ShowQuery sortBy(SortColumn sortColumn, boolean descending) {
+        this.sortColumn = sortColumn;
+        this.descending = descending;
+        return this;
+    }
+
+    public int getMovieId() { return movieId; }
+    public Timestamp getShowFrom() { return showFrom; }
+    public Timestamp getShowTo() { return showTo; }
+    public SortColumn getSortColumn() { return sortColumn; }
+    public boolean isDescending() { return descending; }
+}
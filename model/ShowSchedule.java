@@ -0,0 +1,82 @@
+package model;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A block of shows for one movie: every listed screen, every day from
+ * {@code firstDay} to {@code lastDay} (inclusive), at each daily start time.
+ * Passed to {@link ShowDAO#scheduleShows}.
+ */
+public class ShowSchedule {
+
+    private final int movieId;
+    private final List<Integer> screens;
+    private final LocalDate firstDay;
+    private final LocalDate lastDay;
+    private final List<LocalTime> startTimes;
+    private final double price;
+    private final double premiumPrice;
+    private final double reclinerPrice;
+
+    public ShowSchedule(int movieId, List<Integer> screens, LocalDate firstDay, LocalDate lastDay,
+                        List<LocalTime> startTimes, double price) {
+        this(movieId, screens, firstDay, lastDay, startTimes, price, 0, 0);
+    }
+
+    /** With premium and recliner prices; 0 leaves a category at the standard price. */
+    public ShowSchedule(int movieId, List<Integer> screens, LocalDate firstDay, LocalDate lastDay,
+                        List<LocalTime> startTimes, double price, double premiumPrice, double reclinerPrice) {
+        if (screens.isEmpty() || startTimes.isEmpty()) {
+            throw new IllegalArgumentException("A schedule needs at least one screen and one start time.");
+        }
+        if (lastDay.isBefore(firstDay)) {
+            throw new IllegalArgumentException("The last day is before the first day.");
+        }
+        if (price < 0 || premiumPrice < 0 || reclinerPrice < 0) {
+            throw new IllegalArgumentException("Price cannot be negative.");
+        }
+        this.movieId = movieId;
+        this.screens = Collections.unmodifiableList(new ArrayList<>(screens));
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.startTimes = Collections.unmodifiableList(new ArrayList<>(startTimes));
+        this.price = price;
+        this.premiumPrice = premiumPrice;
+        this.reclinerPrice = reclinerPrice;
+    }
+
+    public int getMovieId() { return movieId; }
+    public List<Integer> getScreens() { return screens; }
+    public LocalDate getFirstDay() { return firstDay; }
+    public LocalDate getLastDay() { return lastDay; }
+    public List<LocalTime> getStartTimes() { return startTimes; }
+    public double getPrice() { return price; }
+    public double getPremiumPrice() { return premiumPrice; }
+    public double getReclinerPrice() { return reclinerPrice; }
+
+    public int size() {
+        long days = lastDay.toEpochDay() - firstDay.toEpochDay() + 1;
+        return Math.toIntExact(days * screens.size() * startTimes.size());
+    }
+
+    /** The individual shows, ordered by day, then start time, then screen. */
+    public List<Show> expand() {
+        List<Show> shows = new ArrayList<>(size());
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            for (LocalTime time : startTimes) {
+                Timestamp showTime = Timestamp.valueOf(day.atTime(time));
+                for (int screen : screens) {
+                    Show show = new Show(movieId, screen, showTime, price);
+                    show.setCategoryPrices(premiumPrice, reclinerPrice);
+                    shows.add(show);
+                }
+            }
+        }
+        return shows;
+    }
+}
@@ -0,0 +1,175 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The SQL that differs between the supported databases. Everything else the
+ * DAOs run is plain SQL both accept, and migrations are written in MySQL's
+ * DDL and translated here, so one migration (and its checksum) serves every
+ * backend.
+ */
+public enum SqlDialect {
+
+    MYSQL {
+        @Override
+        public String insertIgnore(String table, List<String> keyColumns, List<String> columns) {
+            return "INSERT IGNORE INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders(columns.size()) + ")";
+        }
+
+        @Override
+        public String incrementCounter(String table, String keyColumn, String counterColumn) {
+            return "INSERT INTO " + table + " (" + keyColumn + ", " + counterColumn + ") VALUES (?, 1) "
+                    + "ON DUPLICATE KEY UPDATE " + counterColumn + " = " + counterColumn + " + 1";
+        }
+
+        @Override
+        public String addToCounters(String table, List<String> keyColumns, List<String> counterColumns, int rows) {
+            List<String> columns = new ArrayList<>(keyColumns);
+            columns.addAll(counterColumns);
+            List<String> updates = new ArrayList<>();
+            for (String counter : counterColumns) {
+                updates.add(counter + " = " + counter + " + VALUES(" + counter + ")");
+            }
+            return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES " + rowsOf(columns.size(), rows) + " "
+                    + "ON DUPLICATE KEY UPDATE " + String.join(", ", updates);
+        }
+
+        @Override
+        public List<String> ddl(String statement) {
+            return Collections.singletonList(statement);
+        }
+
+        @Override
+        public String createIndex(String table, String name, String columns) {
+            // Built in place, so bookings keep flowing while it builds
+            return "ALTER TABLE " + table + " ADD INDEX " + name + " (" + columns + "), ALGORITHM=INPLACE, LOCK=NONE";
+        }
+    },
+
+    H2 {
+        @Override
+        public String insertIgnore(String table, List<String> keyColumns, List<String> columns) {
+            List<String> match = new ArrayList<>();
+            for (String key : keyColumns) {
+                match.add("t." + key + " = n." + key);
+            }
+            List<String> values = new ArrayList<>();
+            for (String column : columns) {
+                values.add("n." + column);
+            }
+            String columnList = String.join(", ", columns);
+            return "MERGE INTO " + table + " t USING (VALUES (" + placeholders(columns.size()) + ")) AS n (" + columnList + ") "
+                    + "ON " + String.join(" AND ", match) + " "
+                    + "WHEN NOT MATCHED THEN INSERT (" + columnList + ") VALUES (" + String.join(", ", values) + ")";
+        }
+
+        @Override
+        public String incrementCounter(String table, String keyColumn, String counterColumn) {
+            return "MERGE INTO " + table + " t USING (VALUES (?)) AS n (" + keyColumn + ") ON t." + keyColumn + " = n." + keyColumn + " "
+                    + "WHEN MATCHED THEN UPDATE SET " + counterColumn + " = t." + counterColumn + " + 1 "
+                    + "WHEN NOT MATCHED THEN INSERT (" + keyColumn + ", " + counterColumn + ") VALUES (n." + keyColumn + ", 1)";
+        }
+
+        @Override
+        public String addToCounters(String table, List<String> keyColumns, List<String> counterColumns, int rows) {
+            List<String> columns = new ArrayList<>(keyColumns);
+            columns.addAll(counterColumns);
+            List<String> match = new ArrayList<>();
+            for (String key : keyColumns) {
+                match.add("t." + key + " = n." + key);
+            }
+            List<String> updates = new ArrayList<>();
+            for (String counter : counterColumns) {
+                updates.add(counter + " = t." + counter + " + n." + counter);
+            }
+            List<String> values = new ArrayList<>();
+            for (String column : columns) {
+                values.add("n." + column);
+            }
+            String columnList = String.join(", ", columns);
+            return "MERGE INTO " + table + " t USING (VALUES " + rowsOf(columns.size(), rows) + ") AS n (" + columnList + ") "
+                    + "ON " + String.join(" AND ", match) + " "
+                    + "WHEN MATCHED THEN UPDATE SET " + String.join(", ", updates) + " "
+                    + "WHEN NOT MATCHED THEN INSERT (" + columnList + ") VALUES (" + String.join(", ", values) + ")";
+        }
+
+        /** H2 has no INDEX clause in CREATE TABLE, so those become CREATE INDEX statements after it. */
+        @Override
+        public List<String> ddl(String statement) {
+            Matcher table = CREATE_TABLE.matcher(statement);
+            if (!table.lookingAt()) {
+                return Collections.singletonList(statement);
+            }
+            List<String> indexes = new ArrayList<>();
+            Matcher index = INLINE_INDEX.matcher(statement);
+            StringBuffer create = new StringBuffer();
+            while (index.find()) {
+                indexes.add("CREATE INDEX IF NOT EXISTS " + index.group(1) + " ON " + table.group(1) + " (" + index.group(2) + ")");
+                index.appendReplacement(create, "");
+            }
+            index.appendTail(create);
+            List<String> statements = new ArrayList<>();
+            statements.add(create.toString());
+            statements.addAll(indexes);
+            return statements;
+        }
+
+        @Override
+        public String createIndex(String table, String name, String columns) {
+            return "CREATE INDEX " + name + " ON " + table + " (" + columns + ")";
+        }
+    };
+
+    private static final Pattern CREATE_TABLE = Pattern.compile("\\s*CREATE TABLE (?:IF NOT EXISTS )?(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INLINE_INDEX = Pattern.compile(",\\s*INDEX (\\w+) \\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * An insert of {@code columns} (in that order, one parameter each) that
+     * does nothing if a row with the same {@code keyColumns} exists, so its
+     * update count tells whether the row was new.
+     */
+    public abstract String insertIgnore(String table, List<String> keyColumns, List<String> columns);
+
+    /**
+     * Sets the counter of the row whose key is the single parameter to 1,
+     * or increments it if the row exists, in one statement that is safe
+     * against a concurrent insert of the same key.
+     */
+    public abstract String incrementCounter(String table, String keyColumn, String counterColumn);
+
+    /**
+     * Adds the parameters for {@code counterColumns} to the counters of the
+     * row keyed by the parameters for {@code keyColumns} (keys first), or
+     * inserts the row with those values, in one statement that is safe
+     * against a concurrent insert of the same key. Negative values subtract.
+     * The statement takes {@code rows} such rows, each with its parameters
+     * in that order, and no two may share a key.
+     */
+    public abstract String addToCounters(String table, List<String> keyColumns, List<String> counterColumns, int rows);
+
+    /** A migration statement, written for MySQL, as the statements to run on this database. */
+    public abstract List<String> ddl(String statement);
+
+    public abstract String createIndex(String table, String name, String columns);
+
+    /** The dialect of the database a connection points at. */
+    public static SqlDialect of(Connection conn) throws SQLException {
+        String product = conn.getMetaData().getDatabaseProductName();
+        return product.contains("H2") ? H2 : MYSQL;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /** {@code rows} parenthesised rows of {@code count} placeholders, for a multi-row VALUES. */
+    private static String rowsOf(int count, int rows) {
+        return String.join(", ", Collections.nCopies(rows, "(" + placeholders(count) + ")"));
+    }
+}
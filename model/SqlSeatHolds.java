@@ -0,0 +1,211 @@
+package model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seat holds in the SeatHolds table, so every kiosk and server process on
+ * the database sees them. A row holds (show_id, seat_code) for holder_id
+ * until held_until, in epoch milliseconds of the holding process's clock,
+ * so the machines should keep their clocks in sync. An expired row counts
+ * as free and is taken over by the next hold; a background sweep deletes
+ * expired rows and tells the listeners.
+ *
+ * {@link BookingDAOImpl#createBooking} checks the holds of its seats and
+ * deletes its holder's in the booking transaction, see
+ * {@link #heldByOthers(Connection, int, Collection, String, long)}.
+ */
+public class SqlSeatHolds implements SeatHolds {
+
+    private static final long SWEEP_MS = 5_000;
+
+    private final long ttlMillis;
+    private final List<ExpiryListener> listeners = new CopyOnWriteArrayList<>();
+
+    public SqlSeatHolds(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        try {
+            DatabaseConnection.initialize(); // Connections are borrowed per operation from the pool
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Failed to connect to database in DAO", e);
+        }
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "seat-hold-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_MS, SWEEP_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void addExpiryListener(ExpiryListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeExpiryListener(ExpiryListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Renews the row if the holder already has it or it has expired, and
+     * otherwise inserts it; the insert does nothing if another holder got
+     * there first.
+     */
+    @Override
+    public boolean hold(int showId, String seat, String holderId) throws SQLException {
+        if (SeatInventory.indexOf(seat) < 0) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE SeatHolds SET holder_id = ?, held_until = ? "
+                    + "WHERE show_id = ? AND seat_code = ? AND (holder_id = ? OR held_until <= ?)")) {
+                stmt.setString(1, holderId);
+                stmt.setLong(2, now + ttlMillis);
+                stmt.setInt(3, showId);
+                stmt.setString(4, seat);
+                stmt.setString(5, holderId);
+                stmt.setLong(6, now);
+                if (stmt.executeUpdate() > 0) {
+                    return true;
+                }
+            }
+            String insert = DatabaseConnection.getDialect().insertIgnore("SeatHolds",
+                    Arrays.asList("show_id", "seat_code"), Arrays.asList("show_id", "seat_code", "holder_id", "held_until"));
+            try (PreparedStatement stmt = conn.prepareStatement(insert)) {
+                stmt.setInt(1, showId);
+                stmt.setString(2, seat);
+                stmt.setString(3, holderId);
+                stmt.setLong(4, now + ttlMillis);
+                return stmt.executeUpdate() > 0;
+            }
+        }
+    }
+
+    @Override
+    public void release(int showId, String seat, String holderId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            releaseBooked(conn, showId, Collections.singletonList(seat), holderId);
+        }
+    }
+
+    @Override
+    public void releaseAll(int showId, String holderId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM SeatHolds WHERE show_id = ? AND holder_id = ?")) {
+            stmt.setInt(1, showId);
+            stmt.setString(2, holderId);
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public Set<String> getSeatsHeldByOthers(int showId, String holderId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return new HashSet<>(heldByOthers(conn, showId, null, holderId, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * The seats among {@code seats} (null for all of the show's) held by
+     * someone other than {@code holderId} at {@code now}, read on the
+     * caller's connection so a booking can check inside its transaction.
+     */
+    static List<String> heldByOthers(Connection conn, int showId, Collection<String> seats, String holderId, long now)
+            throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT seat_code FROM SeatHolds WHERE show_id = ? AND held_until > ?");
+        List<Object> params = new ArrayList<>(Arrays.asList(showId, now));
+        if (holderId != null) {
+            sql.append(" AND holder_id <> ?");
+            params.add(holderId);
+        }
+        if (seats != null) {
+            sql.append(" AND seat_code IN (").append(String.join(", ", Collections.nCopies(seats.size(), "?"))).append(')');
+            params.addAll(seats);
+        }
+        List<String> held = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    held.add(rs.getString(1));
+                }
+            }
+        }
+        return held;
+    }
+
+    /** Deletes the holder's holds on the given seats, on the caller's connection. */
+    static void releaseBooked(Connection conn, int showId, Collection<String> seats, String holderId) throws SQLException {
+        String sql = "DELETE FROM SeatHolds WHERE show_id = ? AND holder_id = ? AND seat_code IN ("
+                + String.join(", ", Collections.nCopies(seats.size(), "?")) + ")";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, showId);
+            stmt.setString(2, holderId);
+            int i = 3;
+            for (String seat : seats) {
+                stmt.setString(i++, seat);
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    /** Deletes expired holds, whichever process placed them, and reports them per show. */
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        Map<Integer, List<String>> byShow = new LinkedHashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (PreparedStatement select = conn.prepareStatement(
+                    "SELECT show_id, seat_code FROM SeatHolds WHERE held_until <= ?");
+                 PreparedStatement delete = conn.prepareStatement(
+                    "DELETE FROM SeatHolds WHERE show_id = ? AND seat_code = ? AND held_until <= ?")) {
+                select.setLong(1, now);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        int showId = rs.getInt(1);
+                        String seat = rs.getString(2);
+                        // Another sweeper, or a renewal, may get there first
+                        delete.setInt(1, showId);
+                        delete.setString(2, seat);
+                        delete.setLong(3, now);
+                        if (delete.executeUpdate() > 0) {
+                            byShow.computeIfAbsent(showId, id -> new ArrayList<>()).add(seat);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace(); // Expired rows are ignored by every read, so the next sweep can retry
+            return;
+        }
+        for (Map.Entry<Integer, List<String>> entry : byShow.entrySet()) {
+            for (ExpiryListener listener : listeners) {
+                try {
+                    listener.onExpired(entry.getKey(), entry.getValue());
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package model;
+
+import java.nio.file.Paths;
+
+/**
+ * Where the data lives, chosen with -Dcinema.db.backend:
+ *
+ * <ul>
+ *   <li>{@code mysql} (default): a MySQL server, local cinema_db unless
+ *       -Dcinema.db.url says otherwise.</li>
+ *   <li>{@code embedded}: an H2 database in a file inside this process, at
+ *       -Dcinema.db.path (default data/cinema). Nothing to install, and it
+ *       opens in milliseconds; one process can use the file at a time.</li>
+ * </ul>
+ *
+ * The explicit -Dcinema.db.url, user, password and driver properties still
+ * override the backend's defaults. The SQL dialect follows the database
+ * actually connected to, not this setting.
+ */
+public enum StorageBackend {
+
+    MYSQL("com.mysql.cj.jdbc.Driver", "user", "password") {
+        @Override
+        String defaultUrl() {
+            return "jdbc:mysql://localhost:3306/cinema_db";
+        }
+    },
+
+    EMBEDDED("org.h2.Driver", "sa", "") {
+        @Override
+        String defaultUrl() {
+            String path = Paths.get(System.getProperty("cinema.db.path", "data/cinema")).toAbsolutePath().toString();
+            return "jdbc:h2:file:" + path;
+        }
+    };
+
+    private final String driver;
+    private final String user;
+    private final String password;
+
+    StorageBackend(String driver, String user, String password) {
+        this.driver = driver;
+        this.user = user;
+        this.password = password;
+    }
+
+    abstract String defaultUrl();
+
+    String getUrl() { return System.getProperty("cinema.db.url", defaultUrl()); }
+    String getUser() { return System.getProperty("cinema.db.user", user); }
+    String getPassword() { return System.getProperty("cinema.db.password", password); }
+    String getDriver() { return System.getProperty("cinema.db.driver", driver); }
+
+    /** The backend named by -Dcinema.db.backend. */
+    public static StorageBackend configured() {
+        String name = System.getProperty("cinema.db.backend", "mysql");
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown cinema.db.backend '" + name + "', expected mysql or embedded");
+        }
+    }
+}
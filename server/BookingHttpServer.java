@@ -0,0 +1,620 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.Booking;
+import model.BookingDAO;
+import model.DaoMetrics;
+import model.Movie;
+import model.MovieDAO;
+import model.SeatCategory;
+import model.SeatConflictException;
+import model.DAOFactory;
+import model.SeatHolds;
+import model.SeatAllocation;
+import model.SeatAllocator;
+import model.SeatLayout;
+import model.SeatLayouts;
+import model.SeatSelection;
+import model.SeatMapDelta;
+import model.Show;
+import model.ShowDAO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Headless JSON API over the booking DAOs, built on the JDK's HttpServer.
+ *
+ * <pre>
+ * GET  /api/movies                   all movies
+ * GET  /api/movies/{id}/shows        shows of one movie
+ * GET  /api/shows/{id}/seats         booked and held seats of one show; ?since={version} for changes only
+ * GET  /api/shows/{id}/best-seats    the best free seats for ?partySize={n}
+ * POST /api/shows/{id}/holds         {"holderId", "seats": [..]}  hold or renew seats while the customer decides
+ * DELETE /api/shows/{id}/holds       ?holderId={id}[&seat={code}]  release the holder's holds
+ * POST /api/shows/{id}/bookings      {"customerName", "customerPhone", "seats": [..] or "partySize", "holderId"?}
+ * GET  /api/metrics                  DAO and endpoint latency, as JSON
+ * </pre>
+ *
+ * Each request runs on its own virtual thread when the runtime has them,
+ * otherwise on a bounded pool. At most {@code maxConcurrent} requests are
+ * processed at once; the rest wait briefly and then get 503, so a traffic
+ * spike queues here instead of piling onto the connection pool.
+ *
+ * Holds live in the same store as the kiosks' (see {@link SeatHolds}), so
+ * a client and a kiosk never hold the same seat. A booking with a holderId
+ * converts that holder's holds; seats held by anyone else are refused.
+ *
+ * The seat map carries an ETag built from the show's seat-map version and
+ * its holds, so a kiosk polling with If-None-Match gets an empty 304 until
+ * something changes.
+ */
+public class BookingHttpServer {
+
+    private static final int BACKLOG = 1024;
+    private static final int FALLBACK_THREADS = 200;
+    private static final long PERMIT_WAIT_MS = 1000;
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private static final Pattern MOVIE_SHOWS = Pattern.compile("/api/movies/(\\d+)/shows");
+    private static final Pattern SHOW_SEATS = Pattern.compile("/api/shows/(\\d+)/seats");
+    private static final Pattern SHOW_BOOKINGS = Pattern.compile("/api/shows/(\\d+)/bookings");
+    private static final Pattern SHOW_BEST_SEATS = Pattern.compile("/api/shows/(\\d+)/best-seats");
+    private static final Pattern SHOW_HOLDS = Pattern.compile("/api/shows/(\\d+)/holds");
+    private static final Pattern HOLDER_ID = Pattern.compile("(?:^|&)holderId=([^&]+)");
+    private static final Pattern SEAT = Pattern.compile("(?:^|&)seat=([^&]+)");
+    private static final int MAX_HOLDER_ID_LENGTH = 64; // SeatHolds.holder_id
+    private static final Pattern SINCE = Pattern.compile("(?:^|&)since=(-?\\d+)(?:&|$)");
+    private static final Pattern PARTY_SIZE = Pattern.compile("(?:^|&)partySize=(\\d+)(?:&|$)");
+    private static final int MAX_PARTY_SIZE = 20; // As on the kiosk
+    private static final int ALLOCATION_ATTEMPTS = 3;
+
+    private final MovieDAO movieDAO;
+    private final ShowDAO showDAO;
+    private final BookingDAO bookingDAO;
+    private final SeatHolds seatHolds = DAOFactory.getSeatHolds();
+    private final SeatLayouts seatLayouts = SeatLayouts.getInstance();
+    private final Semaphore permits;
+    private final RequestLog log;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /** Signals an HTTP error response from inside a handler. */
+    private static final class HttpError extends Exception {
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    public BookingHttpServer(int port, int maxConcurrent, boolean accessLog,
+                             MovieDAO movieDAO, ShowDAO showDAO, BookingDAO bookingDAO) throws IOException {
+        this.movieDAO = movieDAO;
+        this.showDAO = showDAO;
+        this.bookingDAO = bookingDAO;
+        this.permits = new Semaphore(maxConcurrent);
+        this.log = new RequestLog(accessLog);
+        this.executor = createExecutor(maxConcurrent);
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.createContext("/api/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * A virtual thread per request on JDK 21+, otherwise a fixed pool. The
+     * pool's queue is bounded; when it is full the dispatcher runs the request
+     * itself, which stops it accepting more until a worker frees up.
+     */
+    private static ExecutorService createExecutor(int maxConcurrent) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.min(maxConcurrent, FALLBACK_THREADS);
+            AtomicInteger count = new AtomicInteger();
+            return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(10_000), r -> {
+                        Thread t = new Thread(r, "http-worker-" + count.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // --- DISPATCH ---
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String route = method + " " + path;
+        int status;
+        String body;
+
+        boolean acquired = false;
+        try {
+            acquired = permits.tryAcquire(PERMIT_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!acquired) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            status = 503;
+            body = Json.error("Server busy, try again");
+        } else {
+            try {
+                Matcher m;
+                if (path.equals("/api/movies")) {
+                    route = method + " /api/movies";
+                    requireMethod(method, "GET");
+                    body = listMovies();
+                } else if ((m = MOVIE_SHOWS.matcher(path)).matches()) {
+                    route = method + " /api/movies/{id}/shows";
+                    requireMethod(method, "GET");
+                    body = listShows(parseId(m.group(1)));
+                } else if ((m = SHOW_SEATS.matcher(path)).matches()) {
+                    route = method + " /api/shows/{id}/seats";
+                    requireMethod(method, "GET");
+                    body = seatMap(parseId(m.group(1)), exchange);
+                } else if ((m = SHOW_BEST_SEATS.matcher(path)).matches()) {
+                    route = method + " /api/shows/{id}/best-seats";
+                    requireMethod(method, "GET");
+                    body = bestSeats(parseId(m.group(1)), exchange.getRequestURI().getRawQuery());
+                } else if ((m = SHOW_HOLDS.matcher(path)).matches()) {
+                    route = method + " /api/shows/{id}/holds";
+                    if (method.equals("DELETE")) {
+                        body = releaseHolds(parseId(m.group(1)), exchange.getRequestURI().getRawQuery());
+                    } else {
+                        requireMethod(method, "POST");
+                        body = hold(parseId(m.group(1)), readBody(exchange));
+                    }
+                } else if ((m = SHOW_BOOKINGS.matcher(path)).matches()) {
+                    route = method + " /api/shows/{id}/bookings";
+                    requireMethod(method, "POST");
+                    body = book(parseId(m.group(1)), readBody(exchange));
+                } else if (path.equals("/api/metrics")) {
+                    route = method + " /api/metrics";
+                    requireMethod(method, "GET");
+                    body = DaoMetrics.getInstance().toJson();
+                } else {
+                    route = "unmatched";
+                    throw new HttpError(404, "No such endpoint: " + path);
+                }
+                status = body == null ? 304 : route.endsWith("/bookings") ? 201 : 200;
+            } catch (HttpError e) {
+                status = e.status;
+                body = Json.error(e.getMessage());
+            } catch (SeatConflictException e) {
+                status = 409;
+                body = "{\"error\":\"Seats already taken\",\"seats\":" + Json.stringArray(e.getConflictingSeats()) + "}";
+            } catch (SQLException e) {
+                e.printStackTrace();
+                status = 500;
+                body = Json.error("Database error");
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                status = 500;
+                body = Json.error("Internal error");
+            } finally {
+                permits.release();
+            }
+        }
+
+        try {
+            send(exchange, status, body);
+        } finally {
+            log.record(route, method, path, status, System.nanoTime() - start);
+        }
+    }
+
+    private static void requireMethod(String actual, String expected) throws HttpError {
+        if (!actual.equals(expected)) {
+            throw new HttpError(405, "Use " + expected);
+        }
+    }
+
+    private static int parseId(String text) throws HttpError {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new HttpError(404, "No such id: " + text);
+        }
+    }
+
+    // --- ENDPOINTS ---
+
+    private String listMovies() throws SQLException {
+        StringBuilder out = new StringBuilder("[");
+        List<Movie> movies = movieDAO.getAllMovies();
+        for (int i = 0; i < movies.size(); i++) {
+            Movie movie = movies.get(i);
+            if (i > 0) out.append(',');
+            out.append("{\"movieId\":").append(movie.getMovieId())
+               .append(",\"title\":").append(Json.quote(movie.getTitle()))
+               .append(",\"genre\":").append(Json.quote(movie.getGenre()))
+               .append(",\"duration\":").append(movie.getDuration())
+               .append(",\"posterPath\":").append(Json.quote(movie.getPosterPath()))
+               .append('}');
+        }
+        return out.append(']').toString();
+    }
+
+    private String listShows(int movieId) throws SQLException {
+        StringBuilder out = new StringBuilder("[");
+        List<Show> shows = showDAO.getShowsByMovieId(movieId);
+        for (int i = 0; i < shows.size(); i++) {
+            if (i > 0) out.append(',');
+            appendShow(out, shows.get(i));
+        }
+        return out.append(']').toString();
+    }
+
+    private static void appendShow(StringBuilder out, Show show) {
+        out.append("{\"showId\":").append(show.getShowId())
+           .append(",\"movieId\":").append(show.getMovieId())
+           .append(",\"screenId\":").append(show.getScreenId())
+           .append(",\"showTime\":").append(Json.quote(show.getShowTime() != null
+                   ? show.getShowTime().toLocalDateTime().toString() : null))
+           .append(",\"price\":").append(show.getPrice())
+           .append(",\"premiumPrice\":").append(show.getPrice(SeatCategory.PREMIUM))
+           .append(",\"reclinerPrice\":").append(show.getPrice(SeatCategory.RECLINER))
+           .append('}');
+    }
+
+    /**
+     * Booked seats are served from SeatMapLog, after a primary-key read of
+     * the show's stored version; held seats come from the
+     * SeatHolds store, one primary-key range read on SQL. With
+     * {@code ?since=} only the seats booked and freed after that version are
+     * listed ("full" is false), unless the version is too old. Returns null for a 304 when the client's ETag is still current.
+     */
+    private String seatMap(int showId, HttpExchange exchange) throws SQLException, HttpError {
+        SeatLayout layout = seatLayouts.forScreen(findShow(showId).getScreenId());
+        long since = parseSince(exchange.getRequestURI().getRawQuery());
+        SeatMapDelta delta = bookingDAO.getSeatChanges(showId, since);
+        Set<String> held = new TreeSet<>(seatHolds.getSeatsHeldByOthers(showId, null));
+        String etag = "\"" + delta.getVersion() + "-" + Integer.toHexString(held.hashCode()) + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            return null;
+        }
+
+        Set<String> booked = new TreeSet<>(delta.getBooked());
+        held.removeAll(booked);
+        boolean full = delta.isSnapshot() || since < 0;
+        StringBuilder out = new StringBuilder("{\"showId\":").append(showId)
+                .append(",\"version\":").append(delta.getVersion())
+                .append(",\"rows\":").append(layout.getRows())
+                .append(",\"cols\":").append(layout.getCols());
+        if (full) {
+            // The screen's seats never change, so a polling client only gets them with the full map
+            out.append(",\"layout\":").append(Json.stringArray(layout.getLines()));
+        }
+        out.append(",\"full\":").append(full)
+                .append(",\"booked\":").append(Json.stringArray(booked));
+        if (since >= 0) {
+            out.append(",\"freed\":").append(Json.stringArray(new TreeSet<>(delta.getFreed())));
+        }
+        return out.append(",\"held\":").append(Json.stringArray(held)).append('}').toString();
+    }
+
+    /** The {@code since} query parameter, or -1 when absent, which asks for the full map. */
+    private static long parseSince(String query) throws HttpError {
+        if (query == null) return -1;
+        Matcher m = SINCE.matcher(query);
+        if (!m.find()) return -1;
+        try {
+            return Long.parseLong(m.group(1));
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "since must be a seat-map version");
+        }
+    }
+
+    private String bestSeats(int showId, String query) throws SQLException, HttpError {
+        Show show = findShow(showId);
+        Matcher m = query == null ? null : PARTY_SIZE.matcher(query);
+        if (m == null || !m.find()) {
+            throw new HttpError(400, "partySize is required");
+        }
+        int partySize;
+        try {
+            partySize = checkPartySize(Integer.parseInt(m.group(1)));
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "partySize must be between 1 and " + MAX_PARTY_SIZE);
+        }
+        SeatAllocation allocation = allocate(show, partySize, null);
+
+        SeatSelection selection = new SeatSelection(seatLayouts.forScreen(show.getScreenId()), show);
+        StringBuilder blocks = new StringBuilder("[");
+        for (List<String> block : allocation.getBlocks()) {
+            if (blocks.length() > 1) blocks.append(',');
+            blocks.append(Json.stringArray(block));
+            for (String seat : block) {
+                selection.select(seat);
+            }
+        }
+        return "{\"showId\":" + showId
+                + ",\"contiguous\":" + allocation.isContiguous()
+                + ",\"seats\":" + Json.stringArray(allocation.getSeats())
+                + ",\"blocks\":" + blocks.append(']')
+                + ",\"totalAmount\":" + selection.getTotal()
+                + "}";
+    }
+
+    private static int checkPartySize(int partySize) throws HttpError {
+        if (partySize < 1 || partySize > MAX_PARTY_SIZE) {
+            throw new HttpError(400, "partySize must be between 1 and " + MAX_PARTY_SIZE);
+        }
+        return partySize;
+    }
+
+    /** Best seats among those neither booked nor held by anyone but {@code holderId}. */
+    private SeatAllocation allocate(Show show, int partySize, String holderId) throws SQLException, HttpError {
+        Set<String> taken = new HashSet<>(bookingDAO.getBookedSeats(show.getShowId()));
+        taken.addAll(seatHolds.getSeatsHeldByOthers(show.getShowId(), holderId));
+        SeatAllocation allocation = SeatAllocator.allocate(seatLayouts.forScreen(show.getScreenId()), taken, partySize, true);
+        if (allocation.isEmpty()) {
+            throw new HttpError(409, "Fewer than " + partySize + " seats are free");
+        }
+        return allocation;
+    }
+
+    /**
+     * Holds or renews the seats for the holder. Seats held by someone else
+     * are answered with 409; the holder keeps the others.
+     */
+    private String hold(int showId, String requestBody) throws SQLException, HttpError {
+        Show show = findShow(showId);
+        Map<?, ?> request = parseObject(requestBody);
+        String holderId = checkHolderId(stringField(request, "holderId"));
+        Object seatsValue = request.get("seats");
+        if (!(seatsValue instanceof List) || ((List<?>) seatsValue).isEmpty()) {
+            throw new HttpError(400, "seats must be a non-empty array");
+        }
+        SeatLayout layout = seatLayouts.forScreen(show.getScreenId());
+        Set<String> seats = new LinkedHashSet<>();
+        for (Object seat : (List<?>) seatsValue) {
+            String code = String.valueOf(seat).trim().toUpperCase();
+            if (!layout.contains(code)) {
+                throw new HttpError(400, "Invalid seat: " + seat);
+            }
+            seats.add(code);
+        }
+
+        Set<String> booked = bookingDAO.getBookedSeats(showId);
+        List<String> held = new ArrayList<>();
+        List<String> lost = new ArrayList<>();
+        for (String seat : seats) {
+            if (!booked.contains(seat) && seatHolds.hold(showId, seat, holderId)) {
+                held.add(seat);
+            } else {
+                lost.add(seat);
+            }
+        }
+        if (!lost.isEmpty()) {
+            throw new SeatConflictException(showId, lost);
+        }
+        return "{\"showId\":" + showId
+                + ",\"holderId\":" + Json.quote(holderId)
+                + ",\"seats\":" + Json.stringArray(held)
+                + "}";
+    }
+
+    /** Releases one seat ({@code ?seat=}) or all of the holder's holds on the show. */
+    private String releaseHolds(int showId, String query) throws SQLException, HttpError {
+        findShow(showId);
+        String holderId = checkHolderId(queryParameter(query, HOLDER_ID));
+        String seat = queryParameter(query, SEAT);
+        if (seat == null) {
+            seatHolds.releaseAll(showId, holderId);
+        } else {
+            seatHolds.release(showId, seat.trim().toUpperCase(), holderId);
+        }
+        return "{\"showId\":" + showId + ",\"holderId\":" + Json.quote(holderId) + "}";
+    }
+
+    private static String checkHolderId(String holderId) throws HttpError {
+        if (holderId == null || holderId.isEmpty() || holderId.length() > MAX_HOLDER_ID_LENGTH) {
+            throw new HttpError(400, "holderId is required, at most " + MAX_HOLDER_ID_LENGTH + " characters");
+        }
+        return holderId;
+    }
+
+    /** A URL-decoded query parameter, or null when absent. */
+    private static String queryParameter(String query, Pattern parameter) throws HttpError {
+        Matcher m = query == null ? null : parameter.matcher(query);
+        if (m == null || !m.find()) {
+            return null;
+        }
+        try {
+            return URLDecoder.decode(m.group(1), StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            throw new HttpError(400, "Malformed query parameter");
+        }
+    }
+
+    private String book(int showId, String requestBody) throws SQLException, HttpError {
+        Show show = findShow(showId);
+        Map<?, ?> request = parseObject(requestBody);
+
+        // Same rules as the kiosk form in MainController
+        String name = stringField(request, "customerName");
+        String phone = stringField(request, "customerPhone");
+        if (name.isEmpty() || phone.isEmpty()) {
+            throw new HttpError(400, "customerName and customerPhone are required");
+        }
+        if (!phone.matches("\\d+")) {
+            throw new HttpError(400, "customerPhone must contain digits only");
+        }
+
+        String holderId = stringField(request, "holderId");
+        if (holderId.isEmpty()) {
+            holderId = null;
+        }
+        Object seatsValue = request.get("seats");
+        Object partySizeValue = request.get("partySize");
+        if (seatsValue == null && partySizeValue != null) {
+            return bookBestSeats(show, name, phone, partySizeValue, holderId);
+        }
+        if (!(seatsValue instanceof List) || ((List<?>) seatsValue).isEmpty()) {
+            throw new HttpError(400, "seats must be a non-empty array");
+        }
+        // Priced per seat category, like the kiosk
+        SeatSelection selection = new SeatSelection(seatLayouts.forScreen(show.getScreenId()), show);
+        Set<String> seats = new LinkedHashSet<>();
+        for (Object seat : (List<?>) seatsValue) {
+            String code = String.valueOf(seat).trim().toUpperCase();
+            if (!selection.getLayout().contains(code)) {
+                throw new HttpError(400, "Invalid seat: " + seat);
+            }
+            selection.select(code);
+            seats.add(code);
+        }
+        return createBooking(show, name, phone, seats, selection.getTotal(), holderId);
+    }
+
+    /**
+     * Books the best seats for a party. Another client can take some of them
+     * between the allocation and the insert; the seats are then allocated
+     * again, a few times, before the conflict is returned.
+     */
+    private String bookBestSeats(Show show, String name, String phone, Object partySizeValue, String holderId)
+            throws SQLException, HttpError {
+        if (!(partySizeValue instanceof Double) || (Double) partySizeValue != Math.floor((Double) partySizeValue)) {
+            throw new HttpError(400, "partySize must be a whole number");
+        }
+        int partySize = checkPartySize((int) Math.min((Double) partySizeValue, Integer.MAX_VALUE));
+        for (int attempt = 1; ; attempt++) {
+            SeatAllocation allocation = allocate(show, partySize, holderId);
+            SeatSelection selection = new SeatSelection(seatLayouts.forScreen(show.getScreenId()), show);
+            for (String seat : allocation.getSeats()) {
+                selection.select(seat);
+            }
+            try {
+                return createBooking(show, name, phone, allocation.getSeats(), selection.getTotal(), holderId);
+            } catch (SeatConflictException e) {
+                if (attempt == ALLOCATION_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private String createBooking(Show show, String name, String phone, Collection<String> seats,
+                                 double totalAmount, String holderId) throws SQLException, HttpError {
+        int showId = show.getShowId();
+        Booking booking = new Booking(showId, name, phone, String.join(",", seats), totalAmount);
+        if (holderId != null) {
+            booking.setHolderId(holderId);
+        }
+
+        if (!bookingDAO.createBooking(booking)) {
+            throw new HttpError(500, "Booking was not saved");
+        }
+        return "{\"bookingId\":" + booking.getBookingId()
+                + ",\"showId\":" + showId
+                + ",\"seats\":" + Json.stringArray(new ArrayList<>(seats))
+                + ",\"totalAmount\":" + totalAmount
+                + "}";
+    }
+
+    private Show findShow(int showId) throws SQLException, HttpError {
+        Show show = showDAO.getShow(showId);
+        if (show == null) {
+            throw new HttpError(404, "No such show: " + showId);
+        }
+        return show;
+    }
+
+    private static Map<?, ?> parseObject(String requestBody) throws HttpError {
+        try {
+            Object parsed = Json.parse(requestBody);
+            if (!(parsed instanceof Map)) throw new HttpError(400, "Expected a JSON object");
+            return (Map<?, ?>) parsed;
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, "Malformed JSON: " + e.getMessage());
+        }
+    }
+
+    private static String stringField(Map<?, ?> request, String field) throws HttpError {
+        Object value = request.get(field);
+        if (value != null && !(value instanceof String)) {
+            throw new HttpError(400, field + " must be a string");
+        }
+        return value == null ? "" : ((String) value).trim();
+    }
+
+    // --- I/O ---
+
+    private static String readBody(HttpExchange exchange) throws HttpError {
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[4096];
+            int n;
+            while ((n = in.read(chunk)) != -1) {
+                buffer.write(chunk, 0, n);
+                if (buffer.size() > MAX_BODY_BYTES) {
+                    throw new HttpError(413, "Request body too large");
+                }
+            }
+            return buffer.toString(StandardCharsets.UTF_8.name());
+        } catch (IOException e) {
+            throw new HttpError(400, "Could not read request body");
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        if (status == 304) {
+            exchange.sendResponseHeaders(304, -1); // No body, not even an empty one
+            exchange.close();
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package server;
+
+import model.DaoMetrics;
+import model.MethodMetrics;
+
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Access log for the HTTP API. Each request is timed into a per-route
+ * histogram in {@link DaoMetrics} and written as one line by a background
+ * thread, so a burst of requests never waits on stdout. If the writer falls
+ * behind, lines are dropped and counted rather than queued without bound.
+ */
+class RequestLog {
+
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    private final DaoMetrics metrics = DaoMetrics.getInstance();
+    private final ConcurrentHashMap<String, MethodMetrics> routes = new ConcurrentHashMap<>();
+    private final BlockingQueue<String> lines = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private final boolean enabled;
+
+    RequestLog(boolean enabled) {
+        this.enabled = enabled;
+        if (enabled) {
+            Thread writer = new Thread(this::drain, "http-access-log");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    /**
+     * @param route the matched route pattern (e.g. "GET /api/shows/{id}/seats"),
+     *              so the histogram is per endpoint rather than per URL.
+     */
+    void record(String route, String method, String path, int status, long nanos) {
+        routes.computeIfAbsent(route, r -> metrics.method("HTTP " + r)).record(nanos, status >= 500);
+        if (!enabled) return;
+
+        String line = Instant.now() + " " + method + " " + path + " " + status + " "
+                + String.format("%.2fms", nanos / 1_000_000.0);
+        if (!lines.offer(line)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                System.out.println(lines.take());
+                long lost = dropped.getAndSet(0);
+                if (lost > 0) {
+                    System.out.println("[access log] dropped " + lost + " lines");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package service;
+
+import model.Booking;
+import model.BookingDAO;
+import model.BookingQuery;
+import model.DAOFactory;
+import model.Movie;
+import model.MovieDAO;
+import model.Page;
+import model.PageCursor;
+import model.ReportQuery;
+import model.ReportRow;
+import model.Rollups;
+import model.SeatAllocation;
+import model.SeatAllocator;
+import model.SeatHolds;
+import model.SeatLayout;
+import model.SeatLayouts;
+import model.SeatMapDelta;
+import model.Show;
+import model.ShowDAO;
+import model.ShowQuery;
+import model.ShowSchedule;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous front for the DAOs. Every call runs on a background executor
+ * and returns a CompletableFuture, so the Swing controllers never block the
+ * event dispatch thread on a query. A future that is cancelled before its
+ * task starts skips the query entirely.
+ */
+public class BookingService {
+
+    /** A DAO call that may throw SQLException. */
+    @FunctionalInterface
+    public interface SqlCall<T> {
+        T call() throws SQLException;
+    }
+
+    // Matches the connection pool size, so a burst of requests queues here instead of in the pool
+    private static final int WORKER_THREADS = 10;
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private final MovieDAO movieDAO;
+    private final ShowDAO showDAO;
+    private final BookingDAO bookingDAO;
+
+    public BookingService(MovieDAO movieDAO, ShowDAO showDAO, BookingDAO bookingDAO) {
+        this.movieDAO = movieDAO;
+        this.showDAO = showDAO;
+        this.bookingDAO = bookingDAO;
+    }
+
+    /**
+     * Uses a virtual thread per task when the runtime provides them (JDK 21+),
+     * otherwise a fixed pool of daemon threads.
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(WORKER_THREADS, r -> {
+                Thread t = new Thread(r, "booking-service-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /** Runs any DAO call on the service executor. */
+    public <T> CompletableFuture<T> submit(SqlCall<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            if (future.isDone()) {
+                return; // Cancelled while queued
+            }
+            try {
+                future.complete(call.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    // --- MOVIES ---
+
+    public CompletableFuture<List<Movie>> getAllMovies() {
+        return submit(movieDAO::getAllMovies);
+    }
+
+    public CompletableFuture<Boolean> addMovie(Movie movie) {
+        return submit(() -> movieDAO.addMovie(movie));
+    }
+
+    public CompletableFuture<Boolean> updateMovie(Movie movie) {
+        return submit(() -> movieDAO.updateMovie(movie));
+    }
+
+    public CompletableFuture<Boolean> deleteMovie(int movieId) {
+        return submit(() -> movieDAO.deleteMovie(movieId));
+    }
+
+    // --- SHOWS ---
+
+    public CompletableFuture<List<Show>> getAllShows() {
+        return submit(showDAO::getAllShows);
+    }
+
+    public CompletableFuture<List<Show>> getShowsByMovieId(int movieId) {
+        return submit(() -> showDAO.getShowsByMovieId(movieId));
+    }
+
+    public CompletableFuture<Page<Show>> getShowsPage(ShowQuery query, PageCursor after, int limit) {
+        return submit(() -> showDAO.getShowsPage(query, after, limit));
+    }
+
+    public CompletableFuture<Boolean> addShow(Show show) {
+        return submit(() -> showDAO.addShow(show));
+    }
+
+    public CompletableFuture<List<Integer>> scheduleShows(ShowSchedule schedule) {
+        return submit(() -> showDAO.scheduleShows(schedule));
+    }
+
+    public CompletableFuture<Boolean> deleteShow(int showId) {
+        return submit(() -> showDAO.deleteShow(showId));
+    }
+
+    // --- BOOKINGS ---
+
+    public CompletableFuture<SeatLayout> getSeatLayout(int screenId) {
+        return submit(() -> SeatLayouts.getInstance().forScreen(screenId));
+    }
+
+    public CompletableFuture<Set<String>> getBookedSeats(int showId) {
+        return submit(() -> bookingDAO.getBookedSeats(showId));
+    }
+
+    /** Seats booked and freed since {@code sinceVersion}; pass -1 for a snapshot. */
+    public CompletableFuture<SeatMapDelta> getSeatChanges(int showId, long sinceVersion) {
+        return submit(() -> bookingDAO.getSeatChanges(showId, sinceVersion));
+    }
+
+    /**
+     * The best seats for a party of {@code partySize}, treating the show's
+     * booked seats and the seats other holders have on hold as taken.
+     */
+    public CompletableFuture<SeatAllocation> findBestSeats(Show show, int partySize, String holderId) {
+        return submit(() -> {
+            SeatLayout layout = SeatLayouts.getInstance().forScreen(show.getScreenId());
+            Collection<String> taken = new ArrayList<>(bookingDAO.getBookedSeats(show.getShowId()));
+            taken.addAll(DAOFactory.getSeatHolds().getSeatsHeldByOthers(show.getShowId(), holderId));
+            return SeatAllocator.allocate(layout, taken, partySize, true);
+        });
+    }
+
+    // --- SEAT HOLDS ---
+
+    /** True if the seat is now held for {@code holderId}, false if someone else holds it. */
+    public CompletableFuture<Boolean> holdSeat(int showId, String seat, String holderId) {
+        return submit(() -> DAOFactory.getSeatHolds().hold(showId, seat, holderId));
+    }
+
+    /**
+     * Replaces the holder's holds on a show with holds on {@code seats}.
+     * Returns the seats someone else holds, which the holder did not get.
+     */
+    public CompletableFuture<List<String>> holdSeats(int showId, Collection<String> seats, String holderId) {
+        return submit(() -> {
+            SeatHolds holds = DAOFactory.getSeatHolds();
+            holds.releaseAll(showId, holderId);
+            List<String> lost = new ArrayList<>();
+            for (String seat : seats) {
+                if (!holds.hold(showId, seat, holderId)) {
+                    lost.add(seat);
+                }
+            }
+            return lost;
+        });
+    }
+
+    public CompletableFuture<Void> releaseSeat(int showId, String seat, String holderId) {
+        return submit(() -> {
+            DAOFactory.getSeatHolds().release(showId, seat, holderId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> releaseAllSeats(int showId, String holderId) {
+        return submit(() -> {
+            DAOFactory.getSeatHolds().releaseAll(showId, holderId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Set<String>> getSeatsHeldByOthers(int showId, String holderId) {
+        return submit(() -> DAOFactory.getSeatHolds().getSeatsHeldByOthers(showId, holderId));
+    }
+
+    public CompletableFuture<Boolean> createBooking(Booking booking) {
+        return submit(() -> bookingDAO.createBooking(booking));
+    }
+
+    public CompletableFuture<List<Booking>> getAllBookingsDetailed() {
+        return submit(bookingDAO::getAllBookingsDetailed);
+    }
+
+    public CompletableFuture<Page<Booking>> getBookingsPage(BookingQuery query, PageCursor after, int limit) {
+        return submit(() -> bookingDAO.getBookingsPage(query, after, limit));
+    }
+
+    public CompletableFuture<Boolean> deleteBooking(int bookingId) {
+        return submit(() -> bookingDAO.deleteBooking(bookingId));
+    }
+
+    // --- REPORTS ---
+
+    public CompletableFuture<List<ReportRow>> getReport(ReportQuery query) {
+        return submit(() -> DAOFactory.getReportDAO().getReport(query));
+    }
+
+    /** Recomputes the rollups from Shows and Bookings; returns the number of shows counted. */
+    public CompletableFuture<Integer> rebuildRollups() {
+        return submit(Rollups::rebuild);
+    }
+}
@@ -3,10 +3,21 @@ package view;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import model.Booking;
+import model.BookingQuery;
 import model.Movie;
+import model.ReportQuery;
+import model.ReportRow;
+import model.SeatCategory;
+import model.Show;
+import model.ShowQuery;
 
 public class AdminDashboardView extends JFrame {
 
+    // Hidden columns of the show and booking tables, after the visible ones
+    public static final int SHOW_MOVIE_ID_COLUMN = 5;
+    public static final int BOOKING_SHOW_ID_COLUMN = 8;
+
     private JTabbedPane tabbedPane;
 
     // Movie components
@@ -26,24 +37,65 @@ public class AdminDashboardView extends JFrame {
     // Show components
     private JPanel manageShowsPanel;
     private JTable showTable;
-    private DefaultTableModel showTableModel;
+    private ColumnarTableModel<Show> showTableModel;
     private JComboBox<Movie> movieDropdown;
     private JTextField screenField;
     private JTextField showTimeField;
     private JTextField priceField;
+    private JTextField premiumPriceField;
+    private JTextField reclinerPriceField;
     private JButton addShowButton;
     private JButton deleteShowButton;
+    private JButton scheduleShowsButton;
+    private JScrollPane showScrollPane;
+    private JComboBox<Movie> showFilterMovieDropdown;
+    private JTextField showFilterFromField;
+    private JTextField showFilterToField;
+    private JComboBox<ShowQuery.SortColumn> showSortDropdown;
+    private JCheckBox showSortDescendingBox;
+    private JButton showFilterButton;
 
     // Booking components
     private JPanel viewBookingsPanel;
     private JTable bookingTable;
-    private DefaultTableModel bookingTableModel;
+    private ColumnarTableModel<Booking> bookingTableModel;
     private JButton deleteBookingButton;
+    private JScrollPane bookingScrollPane;
+    private JComboBox<Movie> bookingFilterMovieDropdown;
+    private JTextField bookingFilterFromField;
+    private JTextField bookingFilterToField;
+    private JTextField bookingFilterPhoneField;
+    private JComboBox<BookingQuery.SortColumn> bookingSortDropdown;
+    private JCheckBox bookingSortDescendingBox;
+    private JButton bookingFilterButton;
+    private JLabel newBookingsLabel;
+
+    // Metrics components
+    private JPanel metricsPanel;
+    private JTable metricsTable;
+    private DefaultTableModel metricsTableModel;
+    private JLabel poolStatsLabel;
+    private JLabel cacheStatsLabel;
+    private JButton resetMetricsButton;
+    private JButton copyMetricsButton;
+    private JButton exportMetricsButton;
+
+    // Reports components
+    private JPanel reportsPanel;
+    private JTable reportTable;
+    private ColumnarTableModel<ReportRow> reportTableModel;
+    private JComboBox<ReportQuery.Period> reportPeriodDropdown;
+    private JComboBox<ReportQuery.GroupBy> reportGroupByDropdown;
+    private JTextField reportFromField;
+    private JTextField reportToField;
+    private JButton runReportButton;
+    private JButton rebuildRollupsButton;
+    private JLabel reportTotalsLabel;
 
 
     public AdminDashboardView() {
         setTitle("Admin Dashboard");
-        setSize(800, 600);
+        setSize(1000, 650);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLocationRelativeTo(null);
 
@@ -58,6 +110,12 @@ public class AdminDashboardView extends JFrame {
         createViewBookingsTab();
         tabbedPane.addTab("View Bookings", viewBookingsPanel);
 
+        createMetricsTab();
+        tabbedPane.addTab("Metrics", metricsPanel);
+
+        createReportsTab();
+        tabbedPane.addTab("Reports", reportsPanel);
+
         add(tabbedPane, BorderLayout.CENTER);
     }
 
@@ -145,15 +203,39 @@ public class AdminDashboardView extends JFrame {
         manageShowsPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
         // --- Table ---
-        String[] showColumnNames = {"Show ID", "Movie Title", "Screen", "Showtime", "Price"};
-        showTableModel = new DefaultTableModel(showColumnNames, 0) {
-             @Override
-            public boolean isCellEditable(int row, int column) { return false; }
-        };
+        showTableModel = new ColumnarTableModel<Show>()
+                .intColumn("Show ID", Show::getShowId)
+                .textColumn("Movie Title", Show::getMovieTitle)
+                .intColumn("Screen", Show::getScreenId)
+                .timeColumn("Showtime", Show::getShowTime)
+                .moneyColumn("Price", Show::getPrice)
+                .moneyColumn("Premium", show -> show.getPrice(SeatCategory.PREMIUM))
+                .moneyColumn("Recliner", show -> show.getPrice(SeatCategory.RECLINER))
+                .hiddenIntColumn("Movie ID", Show::getMovieId);
         showTable = new JTable(showTableModel);
         showTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        JScrollPane scrollPane = new JScrollPane(showTable);
-        manageShowsPanel.add(scrollPane, BorderLayout.CENTER);
+        showScrollPane = new JScrollPane(showTable);
+        manageShowsPanel.add(showScrollPane, BorderLayout.CENTER);
+
+        // --- Filters (applied in SQL, rows are fetched page by page while scrolling) ---
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        showFilterMovieDropdown = new JComboBox<>();
+        showFilterFromField = new JTextField(8);
+        showFilterToField = new JTextField(8);
+        showSortDropdown = new JComboBox<>(ShowQuery.SortColumn.values());
+        showSortDescendingBox = new JCheckBox("Descending");
+        showFilterButton = new JButton("Apply");
+        filterPanel.add(new JLabel("Movie:"));
+        filterPanel.add(showFilterMovieDropdown);
+        filterPanel.add(new JLabel("From (YYYY-MM-DD):"));
+        filterPanel.add(showFilterFromField);
+        filterPanel.add(new JLabel("To:"));
+        filterPanel.add(showFilterToField);
+        filterPanel.add(new JLabel("Sort:"));
+        filterPanel.add(showSortDropdown);
+        filterPanel.add(showSortDescendingBox);
+        filterPanel.add(showFilterButton);
+        manageShowsPanel.add(filterPanel, BorderLayout.NORTH);
 
         // --- Form ---
         JPanel formPanel = new JPanel(new GridBagLayout());
@@ -175,16 +257,24 @@ public class AdminDashboardView extends JFrame {
         priceField = new JTextField(10);
         addFormField(formPanel, "Price:", priceField, gbc, 2, 2, 1, 0.5); // Takes other half width
 
+        // Optional; left empty, those seats cost the standard price
+        premiumPriceField = new JTextField(10);
+        addFormField(formPanel, "Premium price:", premiumPriceField, gbc, 0, 3, 1, 0.5);
+        reclinerPriceField = new JTextField(10);
+        addFormField(formPanel, "Recliner price:", reclinerPriceField, gbc, 2, 3, 1, 0.5);
+
         // --- Buttons ---
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         addShowButton = new JButton("Add Show");
         deleteShowButton = new JButton("Delete Selected Show");
         deleteShowButton.setEnabled(false);
+        scheduleShowsButton = new JButton("Schedule Many...");
         buttonPanel.add(addShowButton);
+        buttonPanel.add(scheduleShowsButton);
         buttonPanel.add(deleteShowButton);
 
         // Add button panel
-        gbc.gridx = 0; gbc.gridy = 3; // Start buttons on the next row
+        gbc.gridx = 0; gbc.gridy = 4; // Start buttons on the next row
         gbc.gridwidth = 4; // Span all columns
         gbc.fill = GridBagConstraints.HORIZONTAL;
         gbc.anchor = GridBagConstraints.CENTER;
@@ -198,15 +288,46 @@ public class AdminDashboardView extends JFrame {
         viewBookingsPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
         // --- Table ---
-        String[] bookingColumnNames = {"Booking ID", "Customer Name", "Phone", "Movie", "Showtime", "Seats", "Total", "Booked At"};
-        bookingTableModel = new DefaultTableModel(bookingColumnNames, 0) {
-             @Override
-            public boolean isCellEditable(int row, int column) { return false; }
-        };
+        bookingTableModel = new ColumnarTableModel<Booking>()
+                .intColumn("Booking ID", Booking::getBookingId)
+                .textColumn("Customer Name", Booking::getCustomerName)
+                .textColumn("Phone", Booking::getCustomerPhone)
+                .textColumn("Movie", Booking::getMovieTitle)
+                .timeColumn("Showtime", Booking::getShowTime)
+                .textColumn("Seats", Booking::getSelectedSeats)
+                .moneyColumn("Total", Booking::getTotalAmount)
+                .timeColumn("Booked At", Booking::getBookingTime)
+                .hiddenIntColumn("Show ID", Booking::getShowId);
         bookingTable = new JTable(bookingTableModel);
         bookingTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        JScrollPane scrollPane = new JScrollPane(bookingTable);
-        viewBookingsPanel.add(scrollPane, BorderLayout.CENTER);
+        bookingScrollPane = new JScrollPane(bookingTable);
+        viewBookingsPanel.add(bookingScrollPane, BorderLayout.CENTER);
+
+        // --- Filters (applied in SQL, rows are fetched page by page while scrolling) ---
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        bookingFilterMovieDropdown = new JComboBox<>();
+        bookingFilterFromField = new JTextField(8);
+        bookingFilterToField = new JTextField(8);
+        bookingFilterPhoneField = new JTextField(8);
+        bookingSortDropdown = new JComboBox<>(BookingQuery.SortColumn.values());
+        bookingSortDescendingBox = new JCheckBox("Descending", true);
+        bookingFilterButton = new JButton("Apply");
+        filterPanel.add(new JLabel("Movie:"));
+        filterPanel.add(bookingFilterMovieDropdown);
+        filterPanel.add(new JLabel("Booked from (YYYY-MM-DD):"));
+        filterPanel.add(bookingFilterFromField);
+        filterPanel.add(new JLabel("To:"));
+        filterPanel.add(bookingFilterToField);
+        filterPanel.add(new JLabel("Phone:"));
+        filterPanel.add(bookingFilterPhoneField);
+        filterPanel.add(new JLabel("Sort:"));
+        filterPanel.add(bookingSortDropdown);
+        filterPanel.add(bookingSortDescendingBox);
+        filterPanel.add(bookingFilterButton);
+        newBookingsLabel = new JLabel(); // e.g. "3 new bookings, press Apply to show them"
+        newBookingsLabel.setForeground(new Color(0, 102, 0));
+        filterPanel.add(newBookingsLabel);
+        viewBookingsPanel.add(filterPanel, BorderLayout.NORTH);
 
         // --- Button ---
         deleteBookingButton = new JButton("Delete Selected Booking");
@@ -216,6 +337,92 @@ public class AdminDashboardView extends JFrame {
         viewBookingsPanel.add(buttonPanel, BorderLayout.SOUTH);
     }
 
+    private void createMetricsTab() {
+        metricsPanel = new JPanel(new BorderLayout(10, 10));
+        metricsPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        // --- Table (one row per DAO method, refreshed while the tab is visible) ---
+        String[] metricsColumnNames = {"Method", "Calls", "Errors", "Mean (ms)", "p50 (ms)", "p95 (ms)", "p99 (ms)", "Max (ms)"};
+        metricsTableModel = new DefaultTableModel(metricsColumnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) { return false; }
+        };
+        metricsTable = new JTable(metricsTableModel);
+        metricsTable.getColumnModel().getColumn(0).setPreferredWidth(260);
+        metricsPanel.add(new JScrollPane(metricsTable), BorderLayout.CENTER);
+
+        // --- Pool and cache summary ---
+        JPanel summaryPanel = new JPanel(new GridLayout(2, 1));
+        poolStatsLabel = new JLabel(" ");
+        cacheStatsLabel = new JLabel(" ");
+        summaryPanel.add(poolStatsLabel);
+        summaryPanel.add(cacheStatsLabel);
+        metricsPanel.add(summaryPanel, BorderLayout.NORTH);
+
+        // --- Buttons ---
+        resetMetricsButton = new JButton("Reset");
+        copyMetricsButton = new JButton("Copy as Text");
+        exportMetricsButton = new JButton("Export JSON...");
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(resetMetricsButton);
+        buttonPanel.add(copyMetricsButton);
+        buttonPanel.add(exportMetricsButton);
+        metricsPanel.add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    private void createReportsTab() {
+        reportsPanel = new JPanel(new BorderLayout(10, 10));
+        reportsPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        // --- Table (read from the rollup tables, never from Bookings) ---
+        reportTableModel = new ColumnarTableModel<ReportRow>()
+                .textColumn("Period", ReportRow::getPeriodLabel)
+                .textColumn("Name", ReportRow::getName)
+                .intColumn("Shows", ReportRow::getShows)
+                .intColumn("Capacity", ReportRow::getCapacity)
+                .intColumn("Seats Sold", ReportRow::getSeatsSold)
+                .textColumn("Occupancy", row -> String.format("%.1f%%", row.getOccupancy()))
+                .moneyColumn("Revenue", ReportRow::getRevenue)
+                .intColumn("Bookings", ReportRow::getBookings);
+        reportTable = new JTable(reportTableModel);
+        reportTable.getColumnModel().getColumn(1).setPreferredWidth(220);
+        reportsPanel.add(new JScrollPane(reportTable), BorderLayout.CENTER);
+
+        // --- Options ---
+        JPanel optionsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        reportPeriodDropdown = new JComboBox<>(ReportQuery.Period.values());
+        reportGroupByDropdown = new JComboBox<>(ReportQuery.GroupBy.values());
+        reportFromField = new JTextField(8);
+        reportToField = new JTextField(8);
+        runReportButton = new JButton("Run");
+        optionsPanel.add(new JLabel("Per:"));
+        optionsPanel.add(reportPeriodDropdown);
+        optionsPanel.add(new JLabel("By:"));
+        optionsPanel.add(reportGroupByDropdown);
+        optionsPanel.add(new JLabel("Shows from (YYYY-MM-DD):"));
+        optionsPanel.add(reportFromField);
+        optionsPanel.add(new JLabel("To:"));
+        optionsPanel.add(reportToField);
+        optionsPanel.add(runReportButton);
+        reportsPanel.add(optionsPanel, BorderLayout.NORTH);
+
+        // --- Totals and rebuild ---
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        reportTotalsLabel = new JLabel(" ");
+        rebuildRollupsButton = new JButton("Rebuild Rollups...");
+        bottomPanel.add(reportTotalsLabel, BorderLayout.CENTER);
+        bottomPanel.add(rebuildRollupsButton, BorderLayout.EAST);
+        reportsPanel.add(bottomPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Greys out a table while its data is being fetched in the background.
+     */
+    public void setLoading(JTable table, boolean loading) {
+        table.setEnabled(!loading);
+        table.setCursor(loading ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
+
     // --- PUBLIC GETTERS ---
     // (Unchanged - provide access to components)
 
@@ -232,15 +439,54 @@ public class AdminDashboardView extends JFrame {
     public JButton getClearMovieFormButton() { return clearMovieFormButton; }
 
     public JTable getShowTable() { return showTable; }
-    public DefaultTableModel getShowTableModel() { return showTableModel; }
+    public ColumnarTableModel<Show> getShowTableModel() { return showTableModel; }
     public JComboBox<Movie> getMovieDropdown() { return movieDropdown; }
     public JTextField getScreenField() { return screenField; }
     public JTextField getShowTimeField() { return showTimeField; }
     public JTextField getPriceField() { return priceField; }
+    public JTextField getPremiumPriceField() { return premiumPriceField; }
+    public JTextField getReclinerPriceField() { return reclinerPriceField; }
     public JButton getAddShowButton() { return addShowButton; }
     public JButton getDeleteShowButton() { return deleteShowButton; }
+    public JButton getScheduleShowsButton() { return scheduleShowsButton; }
+    public JScrollPane getShowScrollPane() { return showScrollPane; }
+    public JComboBox<Movie> getShowFilterMovieDropdown() { return showFilterMovieDropdown; }
+    public JTextField getShowFilterFromField() { return showFilterFromField; }
+    public JTextField getShowFilterToField() { return showFilterToField; }
+    public JComboBox<ShowQuery.SortColumn> getShowSortDropdown() { return showSortDropdown; }
+    public JCheckBox getShowSortDescendingBox() { return showSortDescendingBox; }
+    public JButton getShowFilterButton() { return showFilterButton; }
 
     public JTable getBookingTable() { return bookingTable; }
-    public DefaultTableModel getBookingTableModel() { return bookingTableModel; }
-    public JButton getDeleteBookingButton() { return deleteBookingButton; }
+    public ColumnarTableModel<Booking> getBookingTableModel() { return bookingTableModel; }
+    public JButton getDeleteBookingButton() { return deleteBookingButton; }
+    public JScrollPane getBookingScrollPane() { return bookingScrollPane; }
+    public JComboBox<Movie> getBookingFilterMovieDropdown() { return bookingFilterMovieDropdown; }
+    public JTextField getBookingFilterFromField() { return bookingFilterFromField; }
+    public JTextField getBookingFilterToField() { return bookingFilterToField; }
+    public JTextField getBookingFilterPhoneField() { return bookingFilterPhoneField; }
+    public JComboBox<BookingQuery.SortColumn> getBookingSortDropdown() { return bookingSortDropdown; }
+    public JCheckBox getBookingSortDescendingBox() { return bookingSortDescendingBox; }
+    public JButton getBookingFilterButton() { return bookingFilterButton; }
+    public JLabel getNewBookingsLabel() { return newBookingsLabel; }
+
+    public JTabbedPane getTabbedPane() { return tabbedPane; }
+    public JPanel getMetricsPanel() { return metricsPanel; }
+    public DefaultTableModel getMetricsTableModel() { return metricsTableModel; }
+    public JLabel getPoolStatsLabel() { return poolStatsLabel; }
+    public JLabel getCacheStatsLabel() { return cacheStatsLabel; }
+    public JButton getResetMetricsButton() { return resetMetricsButton; }
+    public JButton getCopyMetricsButton() { return copyMetricsButton; }
+    public JButton getExportMetricsButton() { return exportMetricsButton; }
+
+    public JPanel getReportsPanel() { return reportsPanel; }
+    public JTable getReportTable() { return reportTable; }
+    public ColumnarTableModel<ReportRow> getReportTableModel() { return reportTableModel; }
+    public JComboBox<ReportQuery.Period> getReportPeriodDropdown() { return reportPeriodDropdown; }
+    public JComboBox<ReportQuery.GroupBy> getReportGroupByDropdown() { return reportGroupByDropdown; }
+    public JTextField getReportFromField() { return reportFromField; }
+    public JTextField getReportToField() { return reportToField; }
+    public JButton getRunReportButton() { return runReportButton; }
+    public JButton getRebuildRollupsButton() { return rebuildRollupsButton; }
+    public JLabel getReportTotalsLabel() { return reportTotalsLabel; }
 }
@@ -0,0 +1,337 @@
+package view;
+
+import javax.swing.table.AbstractTableModel;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Read-only table model that stores each column in its own primitive array
+ * instead of one Object[] per row: ints as int[], times as epoch millis in a
+ * long[], money as cents in a long[], and text as int codes into a per-column
+ * dictionary, so repeated titles or seat lists are kept once. Times and
+ * amounts are only turned into strings when the table asks for a visible cell.
+ *
+ * Columns are declared once, builder style. Hidden columns (declared after
+ * all visible ones) keep values the table does not show, such as the show a
+ * booking belongs to, so rows can be found and removed without a reload.
+ * Must only be used from the EDT.
+ */
+public class ColumnarTableModel<T> extends AbstractTableModel {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm a");
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int NO_TEXT = -1;
+    private static final int INITIAL_CAPACITY = 128;
+
+    private final List<Column<T>> columns = new ArrayList<>();
+    private int visibleColumns = 0;
+    private int rowCount = 0;
+    private int capacity = INITIAL_CAPACITY;
+
+    // --- COLUMN DECLARATIONS ---
+
+    public ColumnarTableModel<T> intColumn(String name, ToIntFunction<T> getter) {
+        return add(new IntColumn<>(name, true, getter));
+    }
+
+    /** An int column the table does not show; see {@link #getInt} and {@link #removeRowsWhere}. */
+    public ColumnarTableModel<T> hiddenIntColumn(String name, ToIntFunction<T> getter) {
+        return add(new IntColumn<>(name, false, getter));
+    }
+
+    public ColumnarTableModel<T> textColumn(String name, Function<T, String> getter) {
+        return add(new TextColumn<>(name, getter));
+    }
+
+    /** Shown as "yyyy-MM-dd hh:mm a", or "N/A" when the value is null. */
+    public ColumnarTableModel<T> timeColumn(String name, Function<T, ? extends Date> getter) {
+        return add(new TimeColumn<>(name, getter));
+    }
+
+    /** Stored as whole cents and shown with two decimals. */
+    public ColumnarTableModel<T> moneyColumn(String name, ToDoubleFunction<T> getter) {
+        return add(new MoneyColumn<>(name, getter));
+    }
+
+    private ColumnarTableModel<T> add(Column<T> column) {
+        if (column.visible && visibleColumns < columns.size()) {
+            throw new IllegalStateException("Visible columns must be declared before hidden ones");
+        }
+        column.allocate(capacity);
+        columns.add(column);
+        if (column.visible) visibleColumns++;
+        return this;
+    }
+
+    // --- ROWS ---
+
+    /** Appends rows and tells the table about the new range only. */
+    public void addRows(List<T> items) {
+        if (items.isEmpty()) return;
+        int first = rowCount;
+        ensureCapacity(rowCount + items.size());
+        for (T item : items) {
+            for (Column<T> column : columns) {
+                column.set(rowCount, item);
+            }
+            rowCount++;
+        }
+        fireTableRowsInserted(first, rowCount - 1);
+    }
+
+    /** Removes every row and forgets the text dictionaries. */
+    public void clear() {
+        int removed = rowCount;
+        rowCount = 0;
+        capacity = INITIAL_CAPACITY;
+        for (Column<T> column : columns) {
+            column.allocate(capacity);
+        }
+        if (removed > 0) {
+            fireTableRowsDeleted(0, removed - 1);
+        }
+    }
+
+    public void removeRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount);
+        }
+        for (Column<T> column : columns) {
+            column.move(row + 1, row, rowCount - row - 1);
+        }
+        rowCount--;
+        fireTableRowsDeleted(row, row);
+    }
+
+    /**
+     * Removes the rows whose int column holds {@code value} in a single pass
+     * and fires one delete event per run of adjacent rows. Returns how many
+     * rows were removed.
+     */
+    public int removeRowsWhere(int column, int value) {
+        int[] keys = intColumn(column).values;
+        List<int[]> runs = new ArrayList<>(); // {first, last} in the original numbering
+        int kept = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (keys[row] == value) {
+                int[] last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+                if (last != null && last[1] == row - 1) {
+                    last[1] = row;
+                } else {
+                    runs.add(new int[] { row, row });
+                }
+            } else {
+                if (kept != row) {
+                    for (Column<T> c : columns) {
+                        c.move(row, kept, 1);
+                    }
+                }
+                kept++;
+            }
+        }
+        int removed = rowCount - kept;
+        rowCount = kept;
+        // Report the runs back to front so each event's indexes are still valid
+        for (int i = runs.size() - 1; i >= 0; i--) {
+            fireTableRowsDeleted(runs.get(i)[0], runs.get(i)[1]);
+        }
+        return removed;
+    }
+
+    /** The first row whose int column holds {@code value}, or -1. */
+    public int indexOf(int column, int value) {
+        int[] keys = intColumn(column).values;
+        for (int row = 0; row < rowCount; row++) {
+            if (keys[row] == value) return row;
+        }
+        return -1;
+    }
+
+    /** Reads an int column, visible or hidden, without boxing. */
+    public int getInt(int row, int column) {
+        return intColumn(column).values[row];
+    }
+
+    private IntColumn<T> intColumn(int column) {
+        Column<T> c = columns.get(column);
+        if (!(c instanceof IntColumn)) {
+            throw new IllegalArgumentException("Column " + c.name + " is not an int column");
+        }
+        return (IntColumn<T>) c;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= capacity) return;
+        int newCapacity = Math.max(needed, capacity * 2);
+        for (Column<T> column : columns) {
+            column.grow(newCapacity);
+        }
+        capacity = newCapacity;
+    }
+
+    // --- TABLE MODEL ---
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return visibleColumns;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns.get(column).name;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columns.get(column) instanceof IntColumn ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return columns.get(column).display(row);
+    }
+
+    // --- COLUMNS ---
+
+    private abstract static class Column<T> {
+        final String name;
+        final boolean visible;
+
+        Column(String name, boolean visible) {
+            this.name = name;
+            this.visible = visible;
+        }
+
+        /** Starts over with empty storage of the given size. */
+        abstract void allocate(int capacity);
+        abstract void grow(int capacity);
+        abstract void set(int row, T item);
+        abstract void move(int from, int to, int length);
+        abstract Object display(int row);
+    }
+
+    private static final class IntColumn<T> extends Column<T> {
+        private final ToIntFunction<T> getter;
+        int[] values;
+
+        IntColumn(String name, boolean visible, ToIntFunction<T> getter) {
+            super(name, visible);
+            this.getter = getter;
+        }
+
+        @Override void allocate(int capacity) { values = new int[capacity]; }
+        @Override void grow(int capacity) { values = Arrays.copyOf(values, capacity); }
+        @Override void set(int row, T item) { values[row] = getter.applyAsInt(item); }
+        @Override void move(int from, int to, int length) { System.arraycopy(values, from, values, to, length); }
+        @Override Object display(int row) { return values[row]; }
+    }
+
+    private static final class TimeColumn<T> extends Column<T> {
+        private final Function<T, ? extends Date> getter;
+        private long[] millis;
+
+        TimeColumn(String name, Function<T, ? extends Date> getter) {
+            super(name, true);
+            this.getter = getter;
+        }
+
+        @Override void allocate(int capacity) { millis = new long[capacity]; }
+        @Override void grow(int capacity) { millis = Arrays.copyOf(millis, capacity); }
+        @Override void move(int from, int to, int length) { System.arraycopy(millis, from, millis, to, length); }
+
+        @Override
+        void set(int row, T item) {
+            Date time = getter.apply(item);
+            millis[row] = time != null ? time.getTime() : NO_TIME;
+        }
+
+        @Override
+        Object display(int row) {
+            long value = millis[row];
+            return value == NO_TIME ? "N/A" : TIME_FORMAT.format(Instant.ofEpochMilli(value).atZone(ZONE));
+        }
+    }
+
+    private static final class MoneyColumn<T> extends Column<T> {
+        private final ToDoubleFunction<T> getter;
+        private long[] cents;
+
+        MoneyColumn(String name, ToDoubleFunction<T> getter) {
+            super(name, true);
+            this.getter = getter;
+        }
+
+        @Override void allocate(int capacity) { cents = new long[capacity]; }
+        @Override void grow(int capacity) { cents = Arrays.copyOf(cents, capacity); }
+        @Override void set(int row, T item) { cents[row] = Math.round(getter.applyAsDouble(item) * 100); }
+        @Override void move(int from, int to, int length) { System.arraycopy(cents, from, cents, to, length); }
+
+        @Override
+        Object display(int row) {
+            long value = cents[row];
+            long abs = Math.abs(value);
+            long fraction = abs % 100;
+            return (value < 0 ? "-" : "") + abs / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+        }
+    }
+
+    private static final class TextColumn<T> extends Column<T> {
+        private final Function<T, String> getter;
+        private int[] codes;
+        private List<String> dictionary;
+        private Map<String, Integer> codeOf;
+
+        TextColumn(String name, Function<T, String> getter) {
+            super(name, true);
+            this.getter = getter;
+        }
+
+        @Override
+        void allocate(int capacity) {
+            codes = new int[capacity];
+            dictionary = new ArrayList<>();
+            codeOf = new HashMap<>();
+        }
+
+        @Override void grow(int capacity) { codes = Arrays.copyOf(codes, capacity); }
+        @Override void move(int from, int to, int length) { System.arraycopy(codes, from, codes, to, length); }
+
+        @Override
+        void set(int row, T item) {
+            String value = getter.apply(item);
+            if (value == null) {
+                codes[row] = NO_TEXT;
+                return;
+            }
+            Integer code = codeOf.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                codeOf.put(value, code);
+            }
+            codes[row] = code;
+        }
+
+        @Override
+        Object display(int row) {
+            int code = codes[row];
+            return code == NO_TEXT ? null : dictionary.get(code);
+        }
+    }
+}
@@ -3,8 +3,6 @@ package view;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
-import java.util.HashMap;
-import java.util.Map;
 import model.Show;
 
 public class MainView extends JFrame {
@@ -12,14 +10,13 @@ public class MainView extends JFrame {
     private JMenuItem adminMenuItem;
     private JPanel movieGridPanel;
     private JComboBox<Show> showTimesComboBox;
-    private Map<String, JToggleButton> seatButtons;
+    private SeatMapCanvas seatMap;
     private JTextField customerNameField;
     private JTextField customerPhoneField;
     private JLabel totalAmountLabel;
     private JButton bookButton;
-
-    private final int SEAT_ROWS = 6;
-    private final int SEAT_COLS = 10;
+    private JSpinner partySizeSpinner;
+    private JButton bestSeatsButton;
 
     public MainView() {
         setTitle("Cinema Ticket Booking System");
@@ -98,25 +95,34 @@ public class MainView extends JFrame {
         screenLabel.setFont(new Font("Arial", Font.BOLD, 16));
         seatGridPanel.add(screenLabel, BorderLayout.NORTH);
 
-        JPanel grid = new JPanel(new GridLayout(SEAT_ROWS, SEAT_COLS, 5, 5));
-        grid.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        seatButtons = new HashMap<>();
-
-        char rowChar = 'A';
-        for (int r = 0; r < SEAT_ROWS; r++) {
-            for (int c = 1; c <= SEAT_COLS; c++) {
-                String seatName = "" + rowChar + c;
-                JToggleButton seatButton = new JToggleButton(seatName);
-                seatButton.setFont(new Font("Arial", Font.BOLD, 12));
-                seatButton.setMargin(new Insets(2, 2, 2, 2));
-                seatButton.setEnabled(false);
-
-                seatButtons.put(seatName, seatButton);
-                grid.add(seatButton);
-            }
-            rowChar++;
-        }
-        seatGridPanel.add(grid, BorderLayout.CENTER);
+        // One painted component for the whole screen, however many seats it has
+        seatMap = new SeatMapCanvas();
+        JScrollPane seatScroll = new JScrollPane(seatMap);
+        seatScroll.setBorder(BorderFactory.createEmptyBorder());
+        seatGridPanel.add(seatScroll, BorderLayout.CENTER);
+
+        // Zoom for large auditoriums; Ctrl + mouse wheel does the same over the map
+        JPanel zoomPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        JButton zoomOutButton = new JButton("-");
+        JButton zoomInButton = new JButton("+");
+        zoomOutButton.addActionListener(e -> seatMap.setZoom(seatMap.getZoom() / 1.5));
+        zoomInButton.addActionListener(e -> seatMap.setZoom(seatMap.getZoom() * 1.5));
+        zoomPanel.add(new JLabel("Zoom"));
+        zoomPanel.add(zoomOutButton);
+        zoomPanel.add(zoomInButton);
+
+        // Seats a whole party together instead of picking them one by one
+        JPanel bestSeatsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        partySizeSpinner = new JSpinner(new SpinnerNumberModel(2, 1, 20, 1));
+        bestSeatsButton = new JButton("Best Available");
+        bestSeatsPanel.add(new JLabel("Party of"));
+        bestSeatsPanel.add(partySizeSpinner);
+        bestSeatsPanel.add(bestSeatsButton);
+
+        JPanel seatToolsPanel = new JPanel(new BorderLayout());
+        seatToolsPanel.add(bestSeatsPanel, BorderLayout.WEST);
+        seatToolsPanel.add(zoomPanel, BorderLayout.EAST);
+        seatGridPanel.add(seatToolsPanel, BorderLayout.SOUTH);
 
         panel.add(seatGridPanel, BorderLayout.CENTER);
         return panel;
@@ -179,8 +185,8 @@ public class MainView extends JFrame {
         return showTimesComboBox;
     }
 
-    public Map<String, JToggleButton> getSeatButtons() {
-        return seatButtons;
+    public SeatMapCanvas getSeatMap() {
+        return seatMap;
     }
 
     public JTextField getCustomerNameField() {
@@ -199,6 +205,14 @@ public class MainView extends JFrame {
         return bookButton;
     }
 
+    public JSpinner getPartySizeSpinner() {
+        return partySizeSpinner;
+    }
+
+    public JButton getBestSeatsButton() {
+        return bestSeatsButton;
+    }
+
     public void addShowTime(Show show) {
         showTimesComboBox.addItem(show);
     }
@@ -0,0 +1,257 @@
+package view;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.ImageIcon;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Produces fixed-size poster thumbnails for the movie grid.
+ *
+ * Posters are decoded off the EDT with ImageIO source subsampling, so a large
+ * JPEG is never fully decoded just to show a 150x220 tile. Finished
+ * thumbnails are kept in a small LRU in memory and written to a disk cache
+ * keyed by the poster's path and modification time, so a warm start reads
+ * a few small PNGs instead of decoding the originals again.
+ */
+public class PosterThumbnails {
+
+    public static final int WIDTH = 150;
+    public static final int HEIGHT = 220;
+
+    private static final int MEMORY_ENTRIES = 200; // ~130 KB each at 150x220 RGB
+    private static final String DEFAULT_POSTER = "images/default.jpg";
+    private static final Path DISK_CACHE_DIR = Paths.get(System.getProperty("user.home"), ".cinema-booking", "thumbnails");
+
+    private static final PosterThumbnails INSTANCE = new PosterThumbnails();
+
+    private final Map<String, ImageIcon> memory = new LinkedHashMap<String, ImageIcon>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImageIcon> eldest) {
+            return size() > MEMORY_ENTRIES;
+        }
+    };
+    private final ConcurrentHashMap<String, CompletableFuture<ImageIcon>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService decoder;
+    private final ImageIcon placeholder = new ImageIcon(drawPlaceholder("Loading..."));
+
+    private PosterThumbnails() {
+        AtomicInteger count = new AtomicInteger();
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        decoder = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "poster-decoder-" + count.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1); // Keep the EDT ahead of decoding
+            return t;
+        });
+    }
+
+    public static PosterThumbnails getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Loads the image codecs ImageIO finds on first use, so the first poster
+     * decode does not pay for it. Meant to run in the background at startup,
+     * while the database is still connecting.
+     */
+    public void warmUp() {
+        ImageIO.getImageReadersBySuffix("jpg").hasNext();
+        ImageIO.getImageWritersBySuffix("png").hasNext();
+    }
+
+    public ImageIcon getPlaceholder() {
+        return placeholder;
+    }
+
+    /** Returns the thumbnail if it is already in memory, otherwise null. Safe to call on the EDT. */
+    public ImageIcon getCached(String posterPath) {
+        synchronized (memory) {
+            return memory.get(String.valueOf(posterPath));
+        }
+    }
+
+    /**
+     * Loads the thumbnail in the background. Concurrent requests for the same
+     * poster share one decode. The future never fails: a missing or broken
+     * poster falls back to the default image, then to a drawn tile.
+     */
+    public CompletableFuture<ImageIcon> load(String posterPath) {
+        String key = String.valueOf(posterPath);
+        ImageIcon cached = getCached(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<ImageIcon> future = inFlight.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> {
+            ImageIcon icon;
+            try {
+                icon = new ImageIcon(createThumbnail(k));
+            } catch (RuntimeException e) {
+                // A corrupt file can make ImageIO throw; show a tile and try again next time
+                System.err.println("Warning: Could not decode image " + k + ": " + e);
+                return new ImageIcon(drawPlaceholder("No Poster"));
+            }
+            synchronized (memory) {
+                memory.put(k, icon);
+            }
+            return icon;
+        }, decoder));
+        future.whenComplete((icon, e) -> inFlight.remove(key, future));
+        return future;
+    }
+
+    private BufferedImage createThumbnail(String posterPath) {
+        BufferedImage thumb = loadThumbnail(posterPath);
+        if (thumb == null) {
+            System.err.println("Warning: Could not load image " + posterPath + ". Using default.");
+            thumb = loadThumbnail(DEFAULT_POSTER);
+        }
+        if (thumb == null) {
+            System.err.println("Warning: Default image " + DEFAULT_POSTER + " not found!");
+            thumb = drawPlaceholder("No Poster");
+        }
+        return thumb;
+    }
+
+    private BufferedImage loadThumbnail(String posterPath) {
+        if (posterPath == null || posterPath.isEmpty()) {
+            return null;
+        }
+        File source = new File(posterPath);
+        if (!source.isFile()) {
+            return null;
+        }
+
+        Path cacheFile = DISK_CACHE_DIR.resolve(cacheKey(source) + ".png");
+        try {
+            if (Files.isRegularFile(cacheFile)) {
+                BufferedImage cached = ImageIO.read(cacheFile.toFile());
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        } catch (IOException e) {
+            // Corrupt cache entry, decode the original again
+        }
+
+        BufferedImage thumb;
+        try {
+            BufferedImage decoded = decodeSubsampled(source);
+            if (decoded == null) {
+                return null;
+            }
+            thumb = scale(decoded);
+        } catch (IOException e) {
+            return null;
+        }
+
+        writeToDiskCache(thumb, cacheFile);
+        return thumb;
+    }
+
+    /**
+     * Decodes only every n-th pixel in each direction, with n chosen so the
+     * result is still at least as large as the thumbnail.
+     */
+    private static BufferedImage decodeSubsampled(File source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source)) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int step = Math.max(1, Math.min(reader.getWidth(0) / WIDTH, reader.getHeight(0) / HEIGHT));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage image) {
+        BufferedImage thumb = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumb.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, WIDTH, HEIGHT, null);
+        } finally {
+            g.dispose();
+        }
+        return thumb;
+    }
+
+    private static void writeToDiskCache(BufferedImage thumb, Path cacheFile) {
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            // Write to a temp file first so a crash never leaves a half-written thumbnail behind
+            Path tmp = Files.createTempFile(cacheFile.getParent(), "thumb", ".tmp");
+            ImageIO.write(thumb, "png", tmp.toFile());
+            Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Warning: Could not cache thumbnail " + cacheFile + ": " + e.getMessage());
+        }
+    }
+
+    private static String cacheKey(File source) {
+        String key = source.getAbsolutePath() + "|" + source.lastModified() + "|" + WIDTH + "x" + HEIGHT;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(key.hashCode());
+        }
+    }
+
+    private static BufferedImage drawPlaceholder(String text) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.LIGHT_GRAY);
+            g.fillRect(0, 0, WIDTH, HEIGHT);
+            g.setColor(Color.DARK_GRAY);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(new Font("Arial", Font.ITALIC, 14));
+            FontMetrics fm = g.getFontMetrics();
+            g.drawString(text, (WIDTH - fm.stringWidth(text)) / 2, HEIGHT / 2);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
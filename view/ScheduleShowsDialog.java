@@ -0,0 +1,102 @@
+package view;
+
+import javax.swing.*;
+import java.awt.*;
+import model.Movie;
+
+/**
+ * Modal form for scheduling many shows at once: one movie on several
+ * screens, every day in a date range, at fixed daily start times.
+ */
+public class ScheduleShowsDialog extends JDialog {
+
+    private JComboBox<Movie> movieDropdown;
+    private JTextField screensField;
+    private JTextField firstDayField;
+    private JTextField lastDayField;
+    private JTextField startTimesField;
+    private JTextField priceField;
+    private JTextField premiumPriceField;
+    private JTextField reclinerPriceField;
+    private boolean confirmed = false;
+
+    public ScheduleShowsDialog(Frame owner, ComboBoxModel<Movie> movies) {
+        super(owner, "Schedule Shows", true);
+        setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+
+        JPanel formPanel = new JPanel(new GridBagLayout());
+        formPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.anchor = GridBagConstraints.WEST;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+
+        movieDropdown = new JComboBox<>(copyOf(movies));
+        screensField = new JTextField("1-12", 20);
+        firstDayField = new JTextField(12);
+        lastDayField = new JTextField(12);
+        startTimesField = new JTextField("10:00, 13:30, 17:00, 20:30", 20);
+        priceField = new JTextField(10);
+        premiumPriceField = new JTextField(10);
+        reclinerPriceField = new JTextField(10);
+
+        addRow(formPanel, gbc, 0, "Movie:", movieDropdown);
+        addRow(formPanel, gbc, 1, "Screens (e.g. 1-12 or 1,3,5):", screensField);
+        addRow(formPanel, gbc, 2, "First day (YYYY-MM-DD):", firstDayField);
+        addRow(formPanel, gbc, 3, "Last day (YYYY-MM-DD):", lastDayField);
+        addRow(formPanel, gbc, 4, "Daily start times (HH:MM, ...):", startTimesField);
+        addRow(formPanel, gbc, 5, "Price:", priceField);
+        addRow(formPanel, gbc, 6, "Premium price (optional):", premiumPriceField);
+        addRow(formPanel, gbc, 7, "Recliner price (optional):", reclinerPriceField);
+
+        JButton scheduleButton = new JButton("Schedule");
+        JButton cancelButton = new JButton("Cancel");
+        scheduleButton.addActionListener(e -> {
+            confirmed = true;
+            dispose();
+        });
+        cancelButton.addActionListener(e -> dispose());
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(scheduleButton);
+        buttonPanel.add(cancelButton);
+
+        add(formPanel, BorderLayout.CENTER);
+        add(buttonPanel, BorderLayout.SOUTH);
+        getRootPane().setDefaultButton(scheduleButton);
+        pack();
+        setLocationRelativeTo(owner);
+    }
+
+    private static DefaultComboBoxModel<Movie> copyOf(ComboBoxModel<Movie> movies) {
+        DefaultComboBoxModel<Movie> copy = new DefaultComboBoxModel<>();
+        for (int i = 0; i < movies.getSize(); i++) {
+            copy.addElement(movies.getElementAt(i));
+        }
+        return copy;
+    }
+
+    private static void addRow(JPanel panel, GridBagConstraints gbc, int row, String label, JComponent field) {
+        gbc.gridx = 0;
+        gbc.gridy = row;
+        gbc.weightx = 0;
+        panel.add(new JLabel(label), gbc);
+        gbc.gridx = 1;
+        gbc.weightx = 1.0;
+        panel.add(field, gbc);
+    }
+
+    /** Shows the dialog and blocks until it is closed. Returns true if "Schedule" was pressed. */
+    public boolean showDialog() {
+        setVisible(true);
+        return confirmed;
+    }
+
+    public JComboBox<Movie> getMovieDropdown() { return movieDropdown; }
+    public JTextField getScreensField() { return screensField; }
+    public JTextField getFirstDayField() { return firstDayField; }
+    public JTextField getLastDayField() { return lastDayField; }
+    public JTextField getStartTimesField() { return startTimesField; }
+    public JTextField getPriceField() { return priceField; }
+    public JTextField getPremiumPriceField() { return premiumPriceField; }
+    public JTextField getReclinerPriceField() { return reclinerPriceField; }
+}
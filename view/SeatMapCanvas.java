@@ -0,0 +1,449 @@
+package view;
+
+import model.SeatCategory;
+import model.SeatLayout;
+import model.SeatSelection;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The seat map as one painted component instead of a button per seat, so a
+ * screen of a thousand seats costs no more to show than one of sixty.
+ * Switching shows only swaps the layout and clears the state array; clicks
+ * are hit-tested against the layout grid, a changed seat repaints only its
+ * own cell, and painting skips every row and column outside the clip.
+ * Picked seats are kept in the show's {@link SeatSelection}, which the
+ * controller reads the seats and total from.
+ *
+ * Ctrl + mouse wheel (or {@link #setZoom}) zooms in around the pointer;
+ * the canvas then grows inside its scroll pane. At zoom 1 it fits the
+ * visible area.
+ */
+public class SeatMapCanvas extends JComponent implements Scrollable {
+
+    public enum SeatState { AVAILABLE, BOOKED, HELD, SELECTED }
+
+    /** Told when the customer selects or unselects an available seat. */
+    public interface SeatListener {
+        void seatToggled(String seat, boolean selected);
+    }
+
+    public static final double MAX_ZOOM = 4.0;
+
+    private static final Color AVAILABLE_COLOR = Color.LIGHT_GRAY;
+    private static final Color BOOKED_COLOR = Color.RED;
+    private static final Color HELD_COLOR = Color.ORANGE;
+    private static final Color SELECTED_COLOR = new Color(70, 130, 220);
+    private static final Color DISABLED_COLOR = new Color(232, 232, 232);
+    private static final Color LABEL_COLOR = Color.DARK_GRAY;
+    private static final Color PREMIUM_EDGE = new Color(200, 150, 20);
+    private static final Color RECLINER_EDGE = new Color(120, 70, 160);
+
+    private static final int MARGIN = 10;
+    private static final int LABEL_WIDTH = 20; // Row letters on both sides
+    private static final int NATURAL_CELL = 36;
+    private static final int MIN_CELL = 6;
+    private static final int MAX_CELL = 60;
+    private static final double WHEEL_STEP = 1.25;
+
+    private SeatLayout layout;
+    private SeatSelection selection;
+    private SeatState[] states = new SeatState[0]; // Never SELECTED; picked seats live in the selection
+    private double zoom = 1.0;
+    private final List<SeatListener> listeners = new ArrayList<>();
+
+    // Grid geometry for the current size, see updateGeometry
+    private int cell;
+    private int originX;
+    private int originY;
+    private Font labelFont;
+    private int labelFontCell = -1;
+
+    public SeatMapCanvas() {
+        setOpaque(true);
+        setBackground(UIManager.getColor("Panel.background"));
+        setEnabled(false);
+        ToolTipManager.sharedInstance().registerComponent(this);
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                if (SwingUtilities.isLeftMouseButton(e)) {
+                    toggle(seatAt(e.getX(), e.getY()));
+                }
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if (e.isControlDown() || e.isMetaDown()) {
+                    zoomAround(e.getPoint(), zoom * Math.pow(WHEEL_STEP, -e.getPreciseWheelRotation()));
+                } else {
+                    // Plain scrolling belongs to the scroll pane, which would not see it otherwise
+                    JScrollPane scrollPane = (JScrollPane) SwingUtilities.getAncestorOfClass(JScrollPane.class, SeatMapCanvas.this);
+                    if (scrollPane != null) {
+                        scrollPane.dispatchEvent(SwingUtilities.convertMouseEvent(SeatMapCanvas.this, e, scrollPane));
+                    }
+                }
+            }
+        };
+        addMouseListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    // --- STATE ---
+
+    /**
+     * Shows another show's seats, all available, picking into its selection.
+     * Layouts are shared, so switching between shows on one screen keeps the
+     * zoom.
+     */
+    public void setSelection(SeatSelection selection) {
+        SeatLayout layout = selection.getLayout();
+        if (layout != this.layout) {
+            this.layout = layout;
+            this.states = new SeatState[layout.getSeatCount()];
+            this.zoom = 1.0;
+            revalidate();
+        }
+        this.selection = selection;
+        Arrays.fill(states, SeatState.AVAILABLE);
+        repaint();
+    }
+
+    public SeatSelection getSelection() {
+        return selection;
+    }
+
+    public SeatLayout getSeatLayout() {
+        return layout;
+    }
+
+    /** Makes every seat available and unpicked, and enables or disables the map. */
+    public void reset(boolean enabled) {
+        Arrays.fill(states, SeatState.AVAILABLE);
+        if (selection != null) {
+            selection.clear();
+        }
+        setEnabled(enabled);
+        repaint();
+    }
+
+    /** The state of a seat, or null if the current layout has no such seat. */
+    public SeatState getState(String seat) {
+        int index = layout == null ? -1 : layout.indexOf(seat);
+        return index < 0 ? null : stateOf(index);
+    }
+
+    private SeatState stateOf(int index) {
+        return selection.isSelected(index) ? SeatState.SELECTED : states[index];
+    }
+
+    /** Changes one seat; seats the layout does not have are ignored. */
+    public void setState(String seat, SeatState state) {
+        int index = layout == null ? -1 : layout.indexOf(seat);
+        if (index >= 0) {
+            setState(index, state);
+        }
+    }
+
+    private void setState(int index, SeatState state) {
+        if (stateOf(index) == state) {
+            return;
+        }
+        if (state == SeatState.SELECTED) {
+            states[index] = SeatState.AVAILABLE;
+            selection.select(index);
+        } else {
+            selection.unselect(index);
+            states[index] = state;
+        }
+        repaint(seatBounds(index));
+    }
+
+    public void addSeatListener(SeatListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        boolean changed = enabled != isEnabled();
+        super.setEnabled(enabled);
+        if (changed) {
+            repaint();
+        }
+    }
+
+    private void toggle(int index) {
+        if (index < 0 || !isEnabled()) {
+            return;
+        }
+        boolean selected;
+        SeatState state = stateOf(index);
+        if (state == SeatState.AVAILABLE) {
+            selected = true;
+        } else if (state == SeatState.SELECTED) {
+            selected = false;
+        } else {
+            return;
+        }
+        setState(index, selected ? SeatState.SELECTED : SeatState.AVAILABLE);
+        String seat = layout.codeOf(index);
+        for (SeatListener listener : listeners) {
+            listener.seatToggled(seat, selected);
+        }
+    }
+
+    // --- ZOOM ---
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    /** Zooms around the centre of the visible area; 1 fits the map to it. */
+    public void setZoom(double zoom) {
+        Rectangle visible = getVisibleRect();
+        zoomAround(new Point(visible.x + visible.width / 2, visible.y + visible.height / 2), zoom);
+    }
+
+    /** Zooms so that the point under {@code at} stays where it is on screen. */
+    private void zoomAround(Point at, double newZoom) {
+        newZoom = Math.max(1.0, Math.min(MAX_ZOOM, newZoom));
+        if (newZoom == zoom) {
+            return;
+        }
+        double ratio = newZoom / zoom;
+        zoom = newZoom;
+        if (!(getParent() instanceof JViewport)) {
+            revalidate();
+            repaint();
+            return;
+        }
+        JViewport viewport = (JViewport) getParent();
+        Point position = viewport.getViewPosition();
+        Dimension size = getPreferredSize();
+        setSize(size);
+        Dimension extent = viewport.getExtentSize();
+        int x = (int) Math.round(at.x * ratio - (at.x - position.x));
+        int y = (int) Math.round(at.y * ratio - (at.y - position.y));
+        x = Math.max(0, Math.min(x, size.width - extent.width));
+        y = Math.max(0, Math.min(y, size.height - extent.height));
+        viewport.setViewPosition(new Point(x, y));
+        revalidate();
+        repaint();
+    }
+
+    // --- GEOMETRY AND HIT-TESTING ---
+
+    /** Fits the grid into the current size; cheap, so it is simply redone whenever needed. */
+    private void updateGeometry() {
+        if (layout == null) {
+            cell = 0;
+            return;
+        }
+        int width = getWidth() - 2 * (MARGIN + LABEL_WIDTH);
+        int height = getHeight() - 2 * MARGIN;
+        cell = Math.min(width / layout.getCols(), height / layout.getRows());
+        cell = Math.max(MIN_CELL, Math.min((int) (MAX_CELL * zoom), cell));
+        originX = Math.max(MARGIN + LABEL_WIDTH, (getWidth() - layout.getCols() * cell) / 2);
+        originY = Math.max(MARGIN, (getHeight() - layout.getRows() * cell) / 2);
+    }
+
+    private int gap() {
+        return Math.max(1, cell / 8);
+    }
+
+    /** The seat whose painted square contains the point, or -1. */
+    private int seatAt(int x, int y) {
+        updateGeometry();
+        if (cell == 0) {
+            return -1;
+        }
+        int col = Math.floorDiv(x - originX, cell);
+        int row = Math.floorDiv(y - originY, cell);
+        int seat = layout.seatAt(row, col);
+        if (seat >= 0 && !seatBounds(seat).contains(x, y)) {
+            return -1; // In the gap between two seats
+        }
+        return seat;
+    }
+
+    private Rectangle seatBounds(int seat) {
+        updateGeometry();
+        int gap = gap();
+        return new Rectangle(originX + layout.colOf(seat) * cell + gap / 2, originY + layout.rowOf(seat) * cell + gap / 2,
+                cell - gap, cell - gap);
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        int seat = seatAt(event.getX(), event.getY());
+        if (seat < 0) {
+            return null;
+        }
+        String tip = layout.codeOf(seat);
+        if (layout.categoryOf(seat) != SeatCategory.STANDARD) {
+            tip += " (" + layout.categoryOf(seat) + ")";
+        }
+        if (isEnabled()) {
+            tip += String.format(" - Rs. %.2f - %s", selection.getPrice(seat), stateOf(seat).name().toLowerCase());
+        }
+        return tip;
+    }
+
+    // --- PAINTING ---
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        if (isOpaque()) {
+            g.setColor(getBackground());
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        }
+        updateGeometry();
+        if (cell == 0) {
+            return;
+        }
+
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setFont(labelFont());
+            FontMetrics metrics = g2.getFontMetrics();
+
+            // Only the rows and columns the clip touches
+            int firstRow = Math.max(0, Math.floorDiv(clip.y - originY, cell));
+            int lastRow = Math.min(layout.getRows() - 1, Math.floorDiv(clip.y + clip.height - originY, cell));
+            int firstCol = Math.max(0, Math.floorDiv(clip.x - originX, cell));
+            int lastCol = Math.min(layout.getCols() - 1, Math.floorDiv(clip.x + clip.width - originX, cell));
+            boolean labels = cell >= 18;
+            int gap = gap();
+            int arc = Math.max(2, cell / 4);
+            BasicStroke edge = new BasicStroke(Math.max(1.5f, cell / 14f));
+            for (int row = firstRow; row <= lastRow; row++) {
+                int y = originY + row * cell + gap / 2;
+                for (int col = firstCol; col <= lastCol; col++) {
+                    int seat = layout.seatAt(row, col);
+                    if (seat < 0) continue;
+                    int x = originX + col * cell + gap / 2;
+                    SeatState state = stateOf(seat);
+                    g2.setColor(colorOf(state));
+                    g2.fillRoundRect(x, y, cell - gap, cell - gap, arc, arc);
+                    SeatCategory category = layout.categoryOf(seat);
+                    if (category != SeatCategory.STANDARD && cell >= 10) {
+                        // A coloured edge, so premium and recliner seats stand out in any state
+                        g2.setColor(category == SeatCategory.PREMIUM ? PREMIUM_EDGE : RECLINER_EDGE);
+                        g2.setStroke(edge);
+                        g2.drawRoundRect(x + 1, y + 1, cell - gap - 2, cell - gap - 2, arc, arc);
+                    }
+                    if (labels) {
+                        // The whole code when it fits, else the number; the row letter is at the sides
+                        String code = layout.codeOf(seat);
+                        String text = metrics.stringWidth(code) <= cell - gap - 2 ? code : code.substring(1);
+                        g2.setColor(isEnabled() && state != SeatState.AVAILABLE ? Color.WHITE : LABEL_COLOR);
+                        g2.drawString(text, x + (cell - gap - metrics.stringWidth(text)) / 2,
+                                y + (cell - gap - metrics.getHeight()) / 2 + metrics.getAscent());
+                    }
+                }
+            }
+
+            g2.setColor(LABEL_COLOR);
+            int rightLabelX = originX + layout.getCols() * cell;
+            for (int row = firstRow; row <= lastRow; row++) {
+                char label = layout.rowLabel(row);
+                if (label == 0) continue;
+                String text = String.valueOf(label);
+                int baseline = originY + row * cell + (cell - metrics.getHeight()) / 2 + metrics.getAscent();
+                g2.drawString(text, originX - LABEL_WIDTH + (LABEL_WIDTH - metrics.stringWidth(text)) / 2, baseline);
+                g2.drawString(text, rightLabelX + (LABEL_WIDTH - metrics.stringWidth(text)) / 2, baseline);
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    private Color colorOf(SeatState state) {
+        if (!isEnabled()) {
+            return DISABLED_COLOR;
+        }
+        switch (state) {
+            case BOOKED:
+                return BOOKED_COLOR;
+            case HELD:
+                return HELD_COLOR;
+            case SELECTED:
+                return SELECTED_COLOR;
+            default:
+                return AVAILABLE_COLOR;
+        }
+    }
+
+    /** Scales with the cells; derived once per cell size rather than on every paint. */
+    private Font labelFont() {
+        if (labelFont == null || labelFontCell != cell) {
+            labelFont = new Font("Arial", Font.BOLD, Math.max(9, Math.min(14, cell / 3)));
+            labelFontCell = cell;
+        }
+        return labelFont;
+    }
+
+    // --- SIZING ---
+
+    /**
+     * In a scroll pane at zoom 1 the canvas fills the visible area; zoomed in,
+     * it is that many times larger and the scroll pane scrolls.
+     */
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        if (zoom > 1.0 && getParent() instanceof JViewport) {
+            Dimension extent = ((JViewport) getParent()).getExtentSize();
+            return new Dimension((int) (extent.width * zoom), (int) (extent.height * zoom));
+        }
+        return naturalSize();
+    }
+
+    private Dimension naturalSize() {
+        int cols = layout == null ? 10 : layout.getCols();
+        int rows = layout == null ? 6 : layout.getRows();
+        return new Dimension(cols * NATURAL_CELL + 2 * (MARGIN + LABEL_WIDTH), rows * NATURAL_CELL + 2 * MARGIN);
+    }
+
+    /** Zooming must not grow the scroll pane itself. */
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return naturalSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return Math.max(1, cell);
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return zoom <= 1.0;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return zoom <= 1.0;
+    }
+}